@@ -0,0 +1,28 @@
+package com.smartcity.apigateway.actuator;
+
+import com.smartcity.apigateway.metrics.GatewayLatencyMetrics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 网关延迟端点
+ * GET /actuator/latency 查看各路由网关总耗时和各上游实例首字节耗时的p50/p90/p99/p999
+ */
+@Component
+@Endpoint(id = "latency")
+public class LatencyEndpoint {
+
+    private final GatewayLatencyMetrics latencyMetrics;
+
+    public LatencyEndpoint(GatewayLatencyMetrics latencyMetrics) {
+        this.latencyMetrics = latencyMetrics;
+    }
+
+    @ReadOperation
+    public Map<String, Object> latency() {
+        return latencyMetrics.snapshot();
+    }
+}
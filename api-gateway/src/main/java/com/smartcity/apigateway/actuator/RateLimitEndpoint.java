@@ -0,0 +1,28 @@
+package com.smartcity.apigateway.actuator;
+
+import com.smartcity.apigateway.filter.RateLimitFilter;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 网关限流端点
+ * GET /actuator/ratelimit 查看放行、限流、过载拒绝次数和各路由当前并发数
+ */
+@Component
+@Endpoint(id = "ratelimit")
+public class RateLimitEndpoint {
+
+    private final RateLimitFilter rateLimitFilter;
+
+    public RateLimitEndpoint(RateLimitFilter rateLimitFilter) {
+        this.rateLimitFilter = rateLimitFilter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> metrics() {
+        return rateLimitFilter.metrics();
+    }
+}
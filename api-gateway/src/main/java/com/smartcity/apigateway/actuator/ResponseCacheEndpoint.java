@@ -0,0 +1,48 @@
+package com.smartcity.apigateway.actuator;
+
+import com.smartcity.apigateway.filter.ResponseCacheFilter;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 网关响应缓存端点
+ * GET /actuator/responsecache 查看命中、合并回源和失效次数；
+ * POST /actuator/responsecache 主动失效，供下游服务在绕过网关的写入后通知，受管理端点的角色限制：
+ * 带path时只失效该路径及其子路径（routeId为空时作用于所有路由），只带routeId时失效整个路由，都为空时清空全部缓存
+ */
+@Component
+@Endpoint(id = "responsecache")
+public class ResponseCacheEndpoint {
+
+    private final ResponseCacheFilter responseCacheFilter;
+
+    public ResponseCacheEndpoint(ResponseCacheFilter responseCacheFilter) {
+        this.responseCacheFilter = responseCacheFilter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> metrics() {
+        return responseCacheFilter.metrics();
+    }
+
+    @WriteOperation
+    public Map<String, Object> invalidate(@Nullable String routeId, @Nullable String path) {
+        if (path != null && !path.isBlank()) {
+            if (routeId != null && !routeId.isBlank()) {
+                responseCacheFilter.invalidatePath(routeId, path);
+            } else {
+                responseCacheFilter.invalidatePath(path);
+            }
+        } else if (routeId != null && !routeId.isBlank()) {
+            responseCacheFilter.invalidate(routeId);
+        } else {
+            responseCacheFilter.invalidateAll();
+        }
+        return responseCacheFilter.metrics();
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.context.annotation.Configuration;
  * API网关路由配置
  * 配置从网关到各个微服务的路由规则
  * 适配DDD架构的微服务接口
+ * X-Response-Time响应头由ResponseTimingFilter统一写入
  */
 @Configuration
 public class RouteConfig {
@@ -21,7 +22,6 @@ public class RouteConfig {
                         .path("/api/users/**")
                         .filters(f -> f
                                 .rewritePath("/api/users/(?<segment>.*)", "/api/user/${segment}")
-                                .addResponseHeader("X-Response-Time", "${responseTime}")
                         )
                         .uri("lb://user-service")
                 )
@@ -29,9 +29,6 @@ public class RouteConfig {
                 // 交通服务路由配置
                 .route("traffic-service-route", r -> r
                         .path("/api/traffic/**")
-                        .filters(f -> f
-                                .addResponseHeader("X-Response-Time", "${responseTime}")
-                        )
                         .uri("lb://traffic-service")
                 )
                 
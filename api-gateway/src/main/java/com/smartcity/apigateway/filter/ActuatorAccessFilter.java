@@ -0,0 +1,62 @@
+package com.smartcity.apigateway.filter;
+
+import com.smartcity.common.security.InvalidTokenException;
+import com.smartcity.common.security.TokenClaims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * 网关管理端点访问控制
+ * 管理端点由网关自身处理，不经过路由上的全局过滤器；除公开路径（默认只有/actuator/health）外，
+ * 需要携带有效令牌且角色在actuator-roles中
+ */
+@Component
+public class ActuatorAccessFilter implements WebFilter, Ordered {
+
+    private static final String ACTUATOR_PREFIX = "/actuator";
+
+    private final TokenAuthenticationFilter tokenAuthenticationFilter;
+    private final List<String> allowedRoles;
+
+    public ActuatorAccessFilter(TokenAuthenticationFilter tokenAuthenticationFilter,
+                                @Value("${smartcity.gateway.auth.actuator-roles:ADMIN}") List<String> allowedRoles) {
+        this.tokenAuthenticationFilter = tokenAuthenticationFilter;
+        this.allowedRoles = allowedRoles.stream().map(String::trim).toList();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+        if (!path.equals(ACTUATOR_PREFIX) && !path.startsWith(ACTUATOR_PREFIX + "/")) {
+            return chain.filter(exchange);
+        }
+        if (!tokenAuthenticationFilter.isEnabled() || tokenAuthenticationFilter.isPublic(request)) {
+            return chain.filter(exchange);
+        }
+        TokenClaims claims;
+        try {
+            claims = tokenAuthenticationFilter.authenticate(request);
+        } catch (InvalidTokenException e) {
+            return tokenAuthenticationFilter.reject(exchange, HttpStatus.UNAUTHORIZED, e.getMessage());
+        }
+        if (!allowedRoles.contains(claims.role())) {
+            return tokenAuthenticationFilter.reject(exchange, HttpStatus.FORBIDDEN, "无权访问管理端点");
+        }
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return -100;
+    }
+}
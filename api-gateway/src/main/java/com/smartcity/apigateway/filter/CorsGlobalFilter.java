@@ -2,6 +2,7 @@ package com.smartcity.apigateway.filter;
 
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
@@ -13,10 +14,11 @@ import reactor.core.publisher.Mono;
 
 /**
  * 跨域全局过滤器
- * 处理跨域请求，允许前端应用访问微服务API
+ * 处理跨域请求，允许前端应用访问微服务API；
+ * 先于令牌认证执行，认证失败的401响应同样带跨域头，预检请求也无需令牌
  */
 @Component
-public class CorsGlobalFilter implements GlobalFilter {
+public class CorsGlobalFilter implements GlobalFilter, Ordered {
     
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
@@ -39,4 +41,9 @@ public class CorsGlobalFilter implements GlobalFilter {
         
         return chain.filter(exchange);
     }
+    
+    @Override
+    public int getOrder() {
+        return -200;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,303 @@
+package com.smartcity.apigateway.filter;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 限流与过载保护全局过滤器
+ * 按路由和客户端（已认证用户ID，否则客户端IP）做令牌桶限流，超限返回429；
+ * 按路由限制同时转发的请求数，超出时直接返回503，不让请求在下游排队；SSE等长连接只限流不计入并发数，
+ * 否则打开的看板数超过并发上限后该路由的所有请求都会被拒绝。
+ * 令牌桶以GCRA表示：每个桶只是一个保存理论到达时间的AtomicLong，放行判断是一次CAS，无锁也无需外部存储；
+ * 桶分散在多个分段表中，后台线程每次清理一个分段里长时间空闲（已回满）的桶
+ */
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private static final String DEFAULT_ROUTE = "default";
+    private static final int STRIPES = 16;
+    private static final long OVERFLOW_LOG_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final boolean enabled;
+    private final Map<String, RouteLimit> routeLimits;
+    private final RouteLimit defaultLimit;
+    private final long idleNanos;
+    private final int maxBuckets;
+    private final List<String> streamPaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @SuppressWarnings("unchecked")
+    private final ConcurrentMap<String, AtomicLong>[] stripes = new ConcurrentMap[STRIPES];
+    private final ConcurrentMap<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder streams = new LongAdder();
+    private final LongAdder bucketOverflows = new LongAdder();
+    private final AtomicInteger bucketCount = new AtomicInteger();
+    private final AtomicLong lastOverflowLog = new AtomicLong(System.nanoTime() - OVERFLOW_LOG_INTERVAL_NANOS);
+
+    private final ScheduledExecutorService scheduler;
+    private int nextStripe;
+
+    public RateLimitFilter(@Value("${smartcity.gateway.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${smartcity.gateway.rate-limit.routes:default:100:200:512}") List<String> routes,
+                           @Value("${smartcity.gateway.rate-limit.idle-evict-ms:300000}") long idleEvictMillis,
+                           @Value("${smartcity.gateway.rate-limit.evict-interval-ms:10000}") long evictIntervalMillis,
+                           @Value("${smartcity.gateway.rate-limit.max-buckets:200000}") int maxBuckets,
+                           @Value("${smartcity.gateway.rate-limit.stream-paths:/api/traffic/stream}") List<String> streamPaths) {
+        this.enabled = enabled;
+        this.routeLimits = parseRouteLimits(routes);
+        this.defaultLimit = routeLimits.getOrDefault(DEFAULT_ROUTE, new RouteLimit(100, 200, 512));
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleEvictMillis);
+        this.maxBuckets = maxBuckets;
+        this.streamPaths = streamPaths;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "gateway-rate-limit-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 每次只扫描一个分段，整表清理一轮需要STRIPES个周期
+        long stripeInterval = Math.max(1, evictIntervalMillis / STRIPES);
+        scheduler.scheduleWithFixedDelay(this::evictIdleStripe, stripeInterval, stripeInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route == null ? DEFAULT_ROUTE : route.getId();
+        RouteLimit limit = routeLimits.getOrDefault(routeId, defaultLimit);
+
+        long waitNanos = acquire(routeId + '|' + clientKey(exchange.getRequest()), limit, System.nanoTime());
+        if (waitNanos > 0) {
+            rateLimited.increment();
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            return reject(exchange, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds, "请求过于频繁");
+        }
+
+        if (isStream(exchange.getRequest())) {
+            // 长连接在断开前一直占用并发名额，只做限流
+            streams.increment();
+            allowed.increment();
+            return chain.filter(exchange);
+        }
+        AtomicInteger concurrent = inFlight.computeIfAbsent(routeId, id -> new AtomicInteger());
+        if (concurrent.incrementAndGet() > limit.maxConcurrent()) {
+            concurrent.decrementAndGet();
+            shed.increment();
+            return reject(exchange, HttpStatus.SERVICE_UNAVAILABLE, 1, "服务繁忙");
+        }
+        allowed.increment();
+        return chain.filter(exchange).doFinally(signal -> concurrent.decrementAndGet());
+    }
+
+    /**
+     * 尝试从客户端的令牌桶中取一个令牌
+     *
+     * @return 0表示放行；大于0表示被限流，值为需要等待的纳秒数
+     */
+    private long acquire(String key, RouteLimit limit, long now) {
+        ConcurrentMap<String, AtomicLong> stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        AtomicLong bucket = stripe.get(key);
+        if (bucket == null) {
+            if (bucketCount.get() >= maxBuckets) {
+                // 客户端数超出上限时不再分配新桶，按默认放行以免误伤，超出部分仍受并发上限约束
+                bucketOverflows.increment();
+                logBucketOverflow();
+                return 0;
+            }
+            AtomicLong created = new AtomicLong(now);
+            bucket = stripe.putIfAbsent(key, created);
+            if (bucket == null) {
+                bucket = created;
+                bucketCount.incrementAndGet();
+            }
+        }
+        // GCRA：tat为理论到达时间，每个请求把它推后一个发放间隔；推后的量超过突发容量即拒绝
+        long interval = limit.intervalNanos();
+        long capacity = limit.burstNanos();
+        while (true) {
+            long tat = bucket.get();
+            long next = Math.max(tat, now) + interval;
+            long excess = next - now - capacity;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 令牌桶数达到上限后放行的请求未经限流，每分钟最多记录一次
+     */
+    private void logBucketOverflow() {
+        long now = System.nanoTime();
+        long last = lastOverflowLog.get();
+        if (now - last >= OVERFLOW_LOG_INTERVAL_NANOS && lastOverflowLog.compareAndSet(last, now)) {
+            logger.warn("限流令牌桶数已达上限{}，新客户端的请求未经限流直接放行，累计{}次", maxBuckets,
+                    bucketOverflows.sum());
+        }
+    }
+
+    /**
+     * 只按配置的路径识别长连接，不信任客户端自报的Accept，避免借此绕过并发上限
+     */
+    private boolean isStream(ServerHttpRequest request) {
+        String path = request.getPath().value();
+        for (String pattern : streamPaths) {
+            if (pathMatcher.match(pattern.trim(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void evictIdleStripe() {
+        ConcurrentMap<String, AtomicLong> stripe = stripes[nextStripe];
+        nextStripe = (nextStripe + 1) % STRIPES;
+        long threshold = System.nanoTime() - idleNanos;
+        stripe.entrySet().removeIf(entry -> {
+            // 理论到达时间早于阈值说明桶已回满且长时间无请求，移除后再来的请求得到的也是满桶
+            if (entry.getValue().get() - threshold < 0) {
+                bucketCount.decrementAndGet();
+                evicted.increment();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private static String clientKey(ServerHttpRequest request) {
+        String userId = request.getHeaders().getFirst(TokenAuthenticationFilter.USER_ID_HEADER);
+        if (userId != null) {
+            return "u:" + userId;
+        }
+        InetSocketAddress remote = request.getRemoteAddress();
+        if (remote == null) {
+            return "ip:unknown";
+        }
+        return "ip:" + (remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString());
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, HttpStatus status, long retryAfterSeconds, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        String body = "{\"error\": \"" + status.getReasonPhrase() + "\", \"message\": \"" + message + "\"}";
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * 解析路由限流配置，每项格式为routeId:每秒请求数:突发容量:最大并发数，routeId为default时作为未列出路由的默认值
+     */
+    private static Map<String, RouteLimit> parseRouteLimits(List<String> items) {
+        Map<String, RouteLimit> limits = new HashMap<>();
+        for (String item : items) {
+            String trimmed = item.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            String[] parts = trimmed.split(":");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("限流配置格式应为routeId:rate:burst:maxConcurrent: " + trimmed);
+            }
+            limits.put(parts[0].trim(), new RouteLimit(Double.parseDouble(parts[1].trim()),
+                    Integer.parseInt(parts[2].trim()), Integer.parseInt(parts[3].trim())));
+        }
+        return Map.copyOf(limits);
+    }
+
+    /**
+     * 运行指标快照
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("buckets", bucketCount.get());
+        metrics.put("allowed", allowed.sum());
+        metrics.put("rateLimited", rateLimited.sum());
+        metrics.put("shed", shed.sum());
+        metrics.put("evicted", evicted.sum());
+        metrics.put("streams", streams.sum());
+        metrics.put("bucketOverflows", bucketOverflows.sum());
+        Map<String, Integer> concurrent = new LinkedHashMap<>();
+        inFlight.forEach((routeId, count) -> concurrent.put(routeId, count.get()));
+        metrics.put("inFlight", concurrent);
+        return metrics;
+    }
+
+    @Override
+    public int getOrder() {
+        // 在令牌认证之后执行以便按用户限流，早于响应缓存，缓存命中的请求同样计入配额
+        return -90;
+    }
+
+    /**
+     * 单条路由的限流参数
+     */
+    private record RouteLimit(double ratePerSecond, int burst, int maxConcurrent) {
+
+        RouteLimit {
+            if (ratePerSecond <= 0 || burst <= 0 || maxConcurrent <= 0) {
+                throw new IllegalArgumentException("限流参数必须大于0");
+            }
+        }
+
+        long intervalNanos() {
+            return (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        }
+
+        long burstNanos() {
+            return intervalNanos() * burst;
+        }
+    }
+}
@@ -0,0 +1,536 @@
+package com.smartcity.apigateway.filter;
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * GET响应缓存全局过滤器
+ * 按路由、路径和排序后的查询参数缓存200响应，条目有数量上限和TTL；同一键的并发请求只有第一个访问下游，
+ * 其余请求等待它的结果。上游的Cache-Control决定是否缓存以及缓存多久，客户端带no-cache时绕过缓存。
+ * 经网关成功执行的写请求会使同一路由的缓存整体失效，写请求之前开始的回源结果也不再写入缓存；
+ * 匹配item-write-paths的单路段写请求（如拥堵级别上报）只失效该路段及其子路径，write-exempt-paths中的写请求不触发失效，
+ * 列表类结果最长保留一个TTL。下游或运维可通过管理端点POST /actuator/responsecache按路由或路径主动失效。
+ * 失效只在本网关实例内生效，多个网关副本或绕过网关直接写入下游时，其他副本的旧数据最长保留一个TTL
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    public static final String CACHE_HEADER = "X-Cache";
+
+    /**
+     * 不随缓存副本保存的响应头，由服务端按本次响应重新生成
+     */
+    private static final Set<String> SKIPPED_HEADERS = Set.of(
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(Locale.ROOT),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(Locale.ROOT),
+            HttpHeaders.DATE.toLowerCase(Locale.ROOT),
+            HttpHeaders.AGE.toLowerCase(Locale.ROOT),
+            HttpHeaders.CONNECTION.toLowerCase(Locale.ROOT),
+            CACHE_HEADER.toLowerCase(Locale.ROOT));
+
+    private final boolean enabled;
+    private final List<String> paths;
+    private final List<String> excludePaths;
+    private final List<String> writeExemptPaths;
+    private final List<String> itemWritePaths;
+    private final long defaultTtlMillis;
+    private final int maxEntries;
+    private final int maxBodyBytes;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final ConcurrentMap<String, CachedResponse> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    /**
+     * 按路由和路径分段的失效计数，回源前记录自身路径及各级上级路径的计数，任一变化则放弃写入缓存
+     */
+    private static final int PATH_STRIPES = 4096;
+    private final AtomicLongArray pathVersions = new AtomicLongArray(PATH_STRIPES);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder pathInvalidations = new LongAdder();
+
+    public ResponseCacheFilter(@Value("${smartcity.gateway.cache.enabled:true}") boolean enabled,
+                               @Value("${smartcity.gateway.cache.paths:/api/traffic/**}") List<String> paths,
+                               @Value("${smartcity.gateway.cache.exclude-paths:/api/traffic/stream}") List<String> excludePaths,
+                               @Value("${smartcity.gateway.cache.write-exempt-paths:/api/traffic/flows,/api/traffic/flows/**,/api/traffic/congestion:batch}") List<String> writeExemptPaths,
+                               @Value("${smartcity.gateway.cache.item-write-paths:/api/traffic/{id}/congestion}") List<String> itemWritePaths,
+                               @Value("${smartcity.gateway.cache.default-ttl-ms:1000}") long defaultTtlMillis,
+                               @Value("${smartcity.gateway.cache.max-entries:10000}") int maxEntries,
+                               @Value("${smartcity.gateway.cache.max-body-bytes:1048576}") int maxBodyBytes) {
+        this.enabled = enabled;
+        this.paths = paths;
+        this.excludePaths = excludePaths;
+        this.writeExemptPaths = writeExemptPaths;
+        this.itemWritePaths = itemWritePaths;
+        this.defaultTtlMillis = defaultTtlMillis;
+        this.maxEntries = maxEntries;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+        if (!enabled || !matchesAny(paths, path) || matchesAny(excludePaths, path)) {
+            return chain.filter(exchange);
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route == null ? "" : route.getId();
+        HttpMethod method = request.getMethod();
+        if (method != HttpMethod.GET) {
+            if (method == HttpMethod.HEAD || method == HttpMethod.OPTIONS || matchesAny(writeExemptPaths, path)) {
+                return chain.filter(exchange);
+            }
+            String itemPath = itemPath(path);
+            return chain.filter(exchange).doOnSuccess(done -> {
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                if (status == null || !status.is2xxSuccessful()) {
+                    return;
+                }
+                if (itemPath != null) {
+                    invalidatePath(routeId, itemPath);
+                } else {
+                    invalidate(routeId);
+                }
+            });
+        }
+        if (bypassRequested(request.getHeaders())) {
+            bypassed.increment();
+            return chain.filter(exchange);
+        }
+
+        String key = routeId + ' ' + path + '?' + canonicalQuery(request);
+        long now = System.currentTimeMillis();
+        CachedResponse cached = entries.get(key);
+        if (cached != null) {
+            if (!cached.isExpiredAt(now)) {
+                hits.increment();
+                return writeCached(exchange, cached, now, "HIT");
+            }
+            entries.remove(key, cached);
+        }
+
+        Sinks.One<CachedResponse> sink = Sinks.one();
+        Sinks.One<CachedResponse> leader = inFlight.putIfAbsent(key, sink);
+        if (leader != null) {
+            // 同一键已有请求在回源：等待其结果；结果不可共享或回源失败时自行访问下游
+            collapsed.increment();
+            return leader.asMono()
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .onErrorReturn(Optional.empty())
+                    .flatMap(result -> result.isPresent()
+                            ? writeCached(exchange, result.get(), System.currentTimeMillis(), "COLLAPSED")
+                            : chain.filter(exchange));
+        }
+        misses.increment();
+        CachingResponse response = new CachingResponse(exchange.getResponse(), key, routeId, path,
+                generation(routeId).get(), pathVersions(routeId, path), sink);
+        return chain.filter(exchange.mutate().response(response).build())
+                .doFinally(signal -> response.release());
+    }
+
+    /**
+     * 使指定路由的全部缓存失效
+     */
+    public void invalidate(String routeId) {
+        generation(routeId).incrementAndGet();
+        entries.values().removeIf(entry -> entry.routeId().equals(routeId));
+        invalidations.increment();
+    }
+
+    /**
+     * 使指定路由下某个路径及其子路径的缓存失效，其他路径不受影响
+     */
+    public void invalidatePath(String routeId, String path) {
+        pathVersions.incrementAndGet(stripe(routeId, path));
+        entries.values().removeIf(entry -> entry.routeId().equals(routeId) && covers(path, entry.path()));
+        pathInvalidations.increment();
+    }
+
+    /**
+     * 在所有路由上使某个路径及其子路径的缓存失效
+     */
+    public void invalidatePath(String path) {
+        generations.keySet().forEach(routeId -> pathVersions.incrementAndGet(stripe(routeId, path)));
+        entries.values().removeIf(entry -> covers(path, entry.path()));
+        pathInvalidations.increment();
+    }
+
+    /**
+     * 清空全部缓存
+     */
+    public void invalidateAll() {
+        generations.values().forEach(AtomicLong::incrementAndGet);
+        entries.clear();
+        invalidations.increment();
+    }
+
+    private AtomicLong generation(String routeId) {
+        return generations.computeIfAbsent(routeId, id -> new AtomicLong());
+    }
+
+    /**
+     * 单路段写请求影响的路径：按item-write-paths中第一个路径变量截断，例如/api/traffic/42/congestion对应/api/traffic/42；
+     * 不匹配时返回null，由调用方按整个路由失效
+     */
+    private String itemPath(String path) {
+        for (String pattern : itemWritePaths) {
+            String trimmed = pattern.trim();
+            int variable = trimmed.indexOf('{');
+            if (variable < 0 || !pathMatcher.match(trimmed, path)) {
+                continue;
+            }
+            int variableEnd = trimmed.indexOf('/', variable);
+            String prefix = variableEnd < 0 ? trimmed : trimmed.substring(0, variableEnd);
+            int segments = (int) prefix.chars().filter(c -> c == '/').count();
+            int end = 0;
+            for (int i = 0; i < segments; i++) {
+                end = path.indexOf('/', end + 1);
+                if (end < 0) {
+                    return path;
+                }
+            }
+            return path.substring(0, end);
+        }
+        return null;
+    }
+
+    private static boolean covers(String path, String candidate) {
+        return candidate.equals(path) || (candidate.startsWith(path) && candidate.charAt(path.length()) == '/');
+    }
+
+    /**
+     * 路径自身及各级上级路径所在分段的当前失效计数
+     */
+    private long[] pathVersions(String routeId, String path) {
+        List<String> prefixes = prefixes(path);
+        long[] versions = new long[prefixes.size()];
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] = pathVersions.get(stripe(routeId, prefixes.get(i)));
+        }
+        return versions;
+    }
+
+    private boolean pathVersionsChanged(String routeId, String path, long[] versions) {
+        return !Arrays.equals(versions, pathVersions(routeId, path));
+    }
+
+    private static List<String> prefixes(String path) {
+        List<String> prefixes = new ArrayList<>();
+        for (int i = path.indexOf('/', 1); i > 0; i = path.indexOf('/', i + 1)) {
+            prefixes.add(path.substring(0, i));
+        }
+        prefixes.add(path);
+        return prefixes;
+    }
+
+    private static int stripe(String routeId, String path) {
+        int h = routeId.hashCode() * 31 + path.hashCode();
+        h ^= h >>> 16;
+        return h & (PATH_STRIPES - 1);
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached, long now, String outcome) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.OK);
+        HttpHeaders headers = response.getHeaders();
+        cached.headers().forEach(headers::put);
+        headers.setContentLength(cached.body().length);
+        headers.set(CACHE_HEADER, outcome);
+        headers.set(HttpHeaders.AGE, String.valueOf(Math.max(0, (now - cached.storedAt()) / 1000)));
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private void store(String key, CachedResponse response, long generation, long[] versions) {
+        if (generation(response.routeId()).get() != generation
+                || pathVersionsChanged(response.routeId(), response.path(), versions)) {
+            return;
+        }
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            long now = System.currentTimeMillis();
+            entries.values().removeIf(entry -> entry.isExpiredAt(now));
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+        entries.put(key, response);
+        stored.increment();
+        // 写入后再确认一次，避免与并发的失效交错后留下旧数据
+        if (generation(response.routeId()).get() != generation
+                || pathVersionsChanged(response.routeId(), response.path(), versions)) {
+            entries.remove(key, response);
+        }
+    }
+
+    private boolean matchesAny(List<String> patterns, String path) {
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern.trim(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean bypassRequested(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null) {
+            String value = cacheControl.toLowerCase(Locale.ROOT);
+            if (value.contains("no-cache") || value.contains("no-store")) {
+                return true;
+            }
+        }
+        String pragma = headers.getPragma();
+        return pragma != null && pragma.toLowerCase(Locale.ROOT).contains("no-cache");
+    }
+
+    private static String canonicalQuery(ServerHttpRequest request) {
+        if (request.getQueryParams().isEmpty()) {
+            return "";
+        }
+        StringBuilder query = new StringBuilder();
+        new TreeMap<>(request.getQueryParams()).forEach((name, values) -> {
+            for (String value : values) {
+                if (!query.isEmpty()) {
+                    query.append('&');
+                }
+                query.append(name).append('=').append(value);
+            }
+        });
+        return query.toString();
+    }
+
+    /**
+     * 按上游的Cache-Control计算缓存时长：-1表示不可共享，0表示可共享给并发请求但不缓存
+     */
+    private long ttlMillis(HttpHeaders headers) {
+        if (headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return -1;
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return defaultTtlMillis;
+        }
+        long maxAge = -1;
+        long sharedMaxAge = -1;
+        for (String directive : cacheControl.toLowerCase(Locale.ROOT).split(",")) {
+            String value = directive.trim();
+            if (value.equals("no-store") || value.equals("private")) {
+                return -1;
+            }
+            if (value.equals("no-cache")) {
+                return 0;
+            }
+            if (value.startsWith("s-maxage=")) {
+                sharedMaxAge = parseSeconds(value.substring("s-maxage=".length()));
+            } else if (value.startsWith("max-age=")) {
+                maxAge = parseSeconds(value.substring("max-age=".length()));
+            }
+        }
+        long seconds = sharedMaxAge >= 0 ? sharedMaxAge : maxAge;
+        return seconds >= 0 ? seconds * 1000 : defaultTtlMillis;
+    }
+
+    private static long parseSeconds(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 运行指标快照
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("entries", entries.size());
+        metrics.put("maxEntries", maxEntries);
+        metrics.put("inFlight", inFlight.size());
+        metrics.put("hits", hits.sum());
+        metrics.put("misses", misses.sum());
+        metrics.put("collapsed", collapsed.sum());
+        metrics.put("stored", stored.sum());
+        metrics.put("bypassed", bypassed.sum());
+        metrics.put("invalidations", invalidations.sum());
+        metrics.put("pathInvalidations", pathInvalidations.sum());
+        return metrics;
+    }
+
+    @Override
+    public int getOrder() {
+        // 在令牌认证之后执行，缓存命中的请求同样需要通过认证；需早于写回响应的过滤器以便替换响应
+        return -50;
+    }
+
+    /**
+     * 回源请求的响应装饰：写回客户端的同时留存响应体，并把结果交给等待中的并发请求
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final String routeId;
+        private final String path;
+        private final long generation;
+        private final long[] versions;
+        private final Sinks.One<CachedResponse> sink;
+
+        CachingResponse(ServerHttpResponse delegate, String key, String routeId, String path, long generation,
+                        long[] versions, Sinks.One<CachedResponse> sink) {
+            super(delegate);
+            this.key = key;
+            this.routeId = routeId;
+            this.path = path;
+            this.generation = generation;
+            this.versions = versions;
+            this.sink = sink;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            HttpHeaders headers = getHeaders();
+            long contentLength = headers.getContentLength();
+            if (status == null || status.value() != HttpStatus.OK.value() || contentLength > maxBodyBytes
+                    || MediaType.TEXT_EVENT_STREAM.isCompatibleWith(headers.getContentType())) {
+                release();
+                return super.writeWith(body);
+            }
+            return super.writeWith(holdWhileCacheable(Flux.from(body)));
+        }
+
+        /**
+         * 边接收边累计响应体长度：不超过上限时暂存，结束后整体写回并放入缓存；
+         * 一旦超过上限立即放弃缓存，先写出已暂存的部分，其余数据直接透传，不再整体缓冲
+         */
+        private Flux<DataBuffer> holdWhileCacheable(Flux<? extends DataBuffer> body) {
+            List<DataBuffer> held = new ArrayList<>();
+            long[] heldBytes = {0};
+            boolean[] passThrough = {false};
+            return body.<DataBuffer>concatMap(buffer -> {
+                if (passThrough[0]) {
+                    return Mono.just(buffer);
+                }
+                held.add(buffer);
+                heldBytes[0] += buffer.readableByteCount();
+                if (heldBytes[0] <= maxBodyBytes) {
+                    return Mono.empty();
+                }
+                passThrough[0] = true;
+                release();
+                List<DataBuffer> flushed = new ArrayList<>(held);
+                held.clear();
+                return Flux.fromIterable(flushed);
+            }).concatWith(Mono.defer(() -> {
+                if (passThrough[0]) {
+                    return Mono.empty();
+                }
+                byte[] bytes = new byte[(int) heldBytes[0]];
+                int offset = 0;
+                for (DataBuffer buffer : held) {
+                    int length = buffer.readableByteCount();
+                    buffer.read(bytes, offset, length);
+                    offset += length;
+                    DataBufferUtils.release(buffer);
+                }
+                held.clear();
+                complete(bytes);
+                getHeaders().set(CACHE_HEADER, "MISS");
+                return Mono.just(bufferFactory().wrap(bytes));
+            })).doFinally(signal -> {
+                held.forEach(DataBufferUtils::release);
+                held.clear();
+            });
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            release();
+            return super.writeAndFlushWith(body);
+        }
+
+        private void complete(byte[] body) {
+            long ttl = body.length > maxBodyBytes ? -1 : ttlMillis(getHeaders());
+            if (ttl < 0) {
+                release();
+                return;
+            }
+            Map<String, List<String>> headers = new LinkedHashMap<>();
+            getHeaders().forEach((name, values) -> {
+                if (!SKIPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    headers.put(name, List.copyOf(values));
+                }
+            });
+            long now = System.currentTimeMillis();
+            CachedResponse response = new CachedResponse(routeId, path, Map.copyOf(headers), body, now, now + ttl);
+            if (ttl > 0) {
+                store(key, response, generation, versions);
+            }
+            inFlight.remove(key, sink);
+            sink.tryEmitValue(response);
+        }
+
+        /**
+         * 结束回源：等待中的请求改为自行访问下游
+         */
+        void release() {
+            inFlight.remove(key, sink);
+            sink.tryEmitEmpty();
+        }
+    }
+
+    /**
+     * 缓存的响应副本，响应体和响应头在创建后不再修改
+     */
+    private record CachedResponse(String routeId, String path, Map<String, List<String>> headers, byte[] body,
+                                  long storedAt, long expiresAt) {
+
+        boolean isExpiredAt(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.smartcity.apigateway.filter;
+
+import com.smartcity.apigateway.metrics.GatewayLatencyMetrics;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 响应计时全局过滤器
+ * 最先执行，响应头提交时写入X-Response-Time（网关收到请求到开始写回响应的耗时），
+ * 响应结束时把总耗时记入所在路由的延迟直方图
+ */
+@Component
+public class ResponseTimingFilter implements GlobalFilter, Ordered {
+
+    public static final String RESPONSE_TIME_HEADER = "X-Response-Time";
+
+    private final GatewayLatencyMetrics latencyMetrics;
+
+    public ResponseTimingFilter(GatewayLatencyMetrics latencyMetrics) {
+        this.latencyMetrics = latencyMetrics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        ServerHttpResponse response = exchange.getResponse();
+        response.beforeCommit(() -> {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            response.getHeaders().set(RESPONSE_TIME_HEADER, String.format("%d.%03dms", micros / 1000, micros % 1000));
+            return Mono.empty();
+        });
+        return chain.filter(exchange).doFinally(signal -> {
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            latencyMetrics.recordRoute(route == null ? "unknown" : route.getId(),
+                    TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
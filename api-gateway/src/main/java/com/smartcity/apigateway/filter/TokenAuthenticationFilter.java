@@ -0,0 +1,285 @@
+package com.smartcity.apigateway.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcity.common.security.InvalidTokenException;
+import com.smartcity.common.security.TokenClaims;
+import com.smartcity.common.security.TokenCodec;
+import com.smartcity.common.security.TokenKeySet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 令牌认证全局过滤器
+ * 在网关进程内校验用户服务签发的令牌，校验通过后把用户信息写入下游请求头；
+ * 已校验的令牌按原文缓存解析结果直到过期，重复请求无需再做签名计算和JSON解析；
+ * 在跨域过滤器之后执行，401响应同样带跨域头，浏览器端可以读取
+ */
+@Component
+public class TokenAuthenticationFilter implements GlobalFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenAuthenticationFilter.class);
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_NAME_HEADER = "X-User-Name";
+    public static final String USER_ROLE_HEADER = "X-User-Role";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final Environment environment;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final List<PublicPath> publicPaths;
+    private final int claimsCacheSize;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    /**
+     * 当前密钥集对应的编解码器，配置中心修改密钥后整体替换
+     */
+    private volatile TokenCodec tokenCodec;
+    private final ConcurrentMap<String, TokenClaims> claimsCache = new ConcurrentHashMap<>();
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public TokenAuthenticationFilter(Environment environment,
+                                     ObjectMapper objectMapper,
+                                     @Value("${smartcity.gateway.auth.enabled:true}") boolean enabled,
+                                     @Value("${smartcity.gateway.auth.public-paths:POST /api/users,POST /api/users/login,/health,/actuator/health}") List<String> publicPaths,
+                                     @Value("${smartcity.gateway.auth.claims-cache-size:100000}") int claimsCacheSize) {
+        this.environment = environment;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.publicPaths = parsePublicPaths(publicPaths);
+        this.claimsCacheSize = claimsCacheSize;
+        this.tokenCodec = enabled ? buildCodec() : null;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!enabled || request.getMethod() == HttpMethod.OPTIONS) {
+            return chain.filter(exchange.mutate().request(stripIdentityHeaders(request)).build());
+        }
+        TokenClaims claims;
+        if (isPublic(request)) {
+            // 公开接口不要求令牌，但带有有效令牌时仍传递身份，例如管理员创建指定角色的用户
+            claims = authenticateIfPresent(request);
+            if (claims == null) {
+                return chain.filter(exchange.mutate().request(stripIdentityHeaders(request)).build());
+            }
+        } else {
+            try {
+                claims = authenticate(request);
+            } catch (InvalidTokenException e) {
+                return reject(exchange, HttpStatus.UNAUTHORIZED, e.getMessage());
+            }
+        }
+        ServerHttpRequest authenticated = request.mutate()
+                .headers(headers -> {
+                    headers.set(USER_ID_HEADER, String.valueOf(claims.userId()));
+                    headers.set(USER_NAME_HEADER, claims.username());
+                    headers.set(USER_ROLE_HEADER, claims.role());
+                })
+                .build();
+        return chain.filter(exchange.mutate().request(authenticated).build());
+    }
+
+    /**
+     * 校验请求携带的Bearer令牌
+     *
+     * @throws InvalidTokenException 缺少令牌或令牌无效
+     */
+    TokenClaims authenticate(ServerHttpRequest request) {
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            throw new InvalidTokenException("缺少令牌");
+        }
+        return resolve(authorization.substring(BEARER_PREFIX.length()).trim());
+    }
+
+    /**
+     * 公开接口上的可选认证，缺少令牌或令牌无效时返回null，按匿名请求处理
+     */
+    private TokenClaims authenticateIfPresent(ServerHttpRequest request) {
+        if (!request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
+            return null;
+        }
+        try {
+            return authenticate(request);
+        } catch (InvalidTokenException e) {
+            return null;
+        }
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 先查解析结果缓存，未命中时校验签名并回填
+     */
+    private TokenClaims resolve(String token) {
+        long now = System.currentTimeMillis() / 1000;
+        TokenClaims cached = claimsCache.get(token);
+        if (cached != null) {
+            if (!cached.isExpiredAt(now)) {
+                cacheHits.increment();
+                return cached;
+            }
+            claimsCache.remove(token, cached);
+        }
+        cacheMisses.increment();
+        TokenClaims claims = tokenCodec.verify(token, now);
+        if (claimsCache.size() >= claimsCacheSize) {
+            claimsCache.entrySet().removeIf(entry -> entry.getValue().isExpiredAt(now));
+        }
+        if (claimsCache.size() < claimsCacheSize) {
+            claimsCache.put(token, claims);
+        }
+        return claims;
+    }
+
+    /**
+     * 配置中心修改令牌密钥后重建编解码器，并清空按旧密钥校验的缓存
+     */
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (!enabled || event.getKeys().stream().noneMatch(key -> key.startsWith("smartcity.token."))) {
+            return;
+        }
+        try {
+            tokenCodec = buildCodec();
+            claimsCache.clear();
+            logger.info("令牌密钥集已更新: {}", tokenCodec.getKeySet().getKids());
+        } catch (IllegalArgumentException e) {
+            logger.error("令牌密钥配置无效，继续使用旧密钥集: {}", e.getMessage());
+        }
+    }
+
+    private TokenCodec buildCodec() {
+        TokenKeySet keySet = TokenKeySet.parse(environment.getProperty("smartcity.token.keys"),
+                environment.getProperty("smartcity.token.active-kid"));
+        long clockSkew = environment.getProperty("smartcity.token.clock-skew-seconds", Long.class, 30L);
+        return new TokenCodec(keySet, clockSkew);
+    }
+
+    boolean isPublic(ServerHttpRequest request) {
+        String path = request.getPath().value();
+        for (PublicPath publicPath : publicPaths) {
+            if ((publicPath.method() == null || publicPath.method().equals(request.getMethod()))
+                    && pathMatcher.match(publicPath.pattern(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 公开接口不带用户身份，去掉客户端自行伪造的身份头
+     */
+    private ServerHttpRequest stripIdentityHeaders(ServerHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        if (!headers.containsKey(USER_ID_HEADER) && !headers.containsKey(USER_NAME_HEADER)
+                && !headers.containsKey(USER_ROLE_HEADER)) {
+            return request;
+        }
+        return request.mutate()
+                .headers(h -> {
+                    h.remove(USER_ID_HEADER);
+                    h.remove(USER_NAME_HEADER);
+                    h.remove(USER_ROLE_HEADER);
+                })
+                .build();
+    }
+
+    /**
+     * 写出401或403响应；消息中可能带有客户端提交的kid等内容，由ObjectMapper转义
+     */
+    Mono<Void> reject(ServerWebExchange exchange, HttpStatus status, String message) {
+        rejected.increment();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        if (status == HttpStatus.UNAUTHORIZED) {
+            response.getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", status.getReasonPhrase());
+        body.put("message", message);
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            bytes = ("{\"error\": \"" + status.getReasonPhrase() + "\"}").getBytes(StandardCharsets.UTF_8);
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+    }
+
+    private static List<PublicPath> parsePublicPaths(List<String> items) {
+        List<PublicPath> paths = new ArrayList<>(items.size());
+        for (String item : items) {
+            String trimmed = item.trim();
+            int space = trimmed.indexOf(' ');
+            if (space > 0) {
+                paths.add(new PublicPath(HttpMethod.valueOf(trimmed.substring(0, space)),
+                        trimmed.substring(space + 1).trim()));
+            } else if (!trimmed.isEmpty()) {
+                paths.add(new PublicPath(null, trimmed));
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * 运行指标快照
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("claimsCacheSize", claimsCache.size());
+        metrics.put("claimsCacheHits", cacheHits.sum());
+        metrics.put("claimsCacheMisses", cacheMisses.sum());
+        metrics.put("rejected", rejected.sum());
+        return metrics;
+    }
+
+    @Override
+    public int getOrder() {
+        // 先于路由上的路径改写执行，按客户端请求的原始路径匹配公开接口；晚于跨域过滤器
+        return -100;
+    }
+
+    /**
+     * 无需令牌的接口，method为空表示不限方法
+     */
+    private record PublicPath(HttpMethod method, String pattern) {
+    }
+}
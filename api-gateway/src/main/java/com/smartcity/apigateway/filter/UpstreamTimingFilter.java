@@ -0,0 +1,49 @@
+package com.smartcity.apigateway.filter;
+
+import com.smartcity.apigateway.metrics.GatewayLatencyMetrics;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 上游计时全局过滤器
+ * 紧挨在转发过滤器之前执行，此时负载均衡已选定实例；转发过滤器在收到上游响应头后完成，
+ * 因此记录的是上游首字节耗时，按路由和实例分别统计
+ */
+@Component
+public class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+    private final GatewayLatencyMetrics latencyMetrics;
+
+    public UpstreamTimingFilter(GatewayLatencyMetrics latencyMetrics) {
+        this.latencyMetrics = latencyMetrics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            URI target = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+            String instance = target == null ? "unknown"
+                    : target.getPort() < 0 ? target.getScheme() + "://" + target.getHost()
+                    : target.getHost() + ":" + target.getPort();
+            latencyMetrics.recordUpstream(route == null ? "unknown" : route.getId(), instance,
+                    TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        // 转发过滤器的顺序为Integer.MAX_VALUE
+        return Ordered.LOWEST_PRECEDENCE - 1;
+    }
+}
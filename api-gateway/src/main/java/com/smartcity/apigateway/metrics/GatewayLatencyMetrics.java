@@ -0,0 +1,127 @@
+package com.smartcity.apigateway.metrics;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 网关延迟统计
+ * 按路由记录网关总耗时，按路由和上游实例记录上游首字节耗时，两者对比即可区分慢在网关还是慢在服务。
+ * 每个键同时保留累计直方图和按窗口轮换的直方图，窗口结束后上一窗口的分位数保持到下一次轮换
+ */
+@Component
+public class GatewayLatencyMetrics {
+
+    private final ConcurrentMap<String, Recorder> routes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Recorder> upstreams = new ConcurrentHashMap<>();
+    private final int maxKeys;
+    private final long windowMillis;
+    private final LongAdder droppedKeys = new LongAdder();
+    private final ScheduledExecutorService scheduler;
+
+    public GatewayLatencyMetrics(@Value("${smartcity.gateway.latency.window-ms:60000}") long windowMillis,
+                                 @Value("${smartcity.gateway.latency.max-keys:1000}") int maxKeys) {
+        this.windowMillis = windowMillis;
+        this.maxKeys = maxKeys;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "gateway-latency-window");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::rotate, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 记录一次请求在网关内的总耗时
+     */
+    public void recordRoute(String routeId, long micros) {
+        record(routes, routeId, micros);
+    }
+
+    /**
+     * 记录一次上游调用从发出请求到收到响应头的耗时
+     */
+    public void recordUpstream(String routeId, String instance, long micros) {
+        record(upstreams, routeId + " " + instance, micros);
+    }
+
+    private void record(ConcurrentMap<String, Recorder> recorders, String key, long micros) {
+        Recorder recorder = recorders.get(key);
+        if (recorder == null) {
+            // 上游实例会随扩缩容变化，键的数量有上限
+            if (recorders.size() >= maxKeys) {
+                droppedKeys.increment();
+                return;
+            }
+            recorder = recorders.computeIfAbsent(key, k -> new Recorder());
+        }
+        recorder.record(micros);
+    }
+
+    private void rotate() {
+        routes.values().forEach(Recorder::rotate);
+        upstreams.values().forEach(Recorder::rotate);
+    }
+
+    /**
+     * 统计快照
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("windowMs", windowMillis);
+        snapshot.put("routes", summarize(routes));
+        snapshot.put("upstreams", summarize(upstreams));
+        snapshot.put("droppedKeys", droppedKeys.sum());
+        return snapshot;
+    }
+
+    private static Map<String, Object> summarize(ConcurrentMap<String, Recorder> recorders) {
+        Map<String, Object> result = new TreeMap<>();
+        recorders.forEach((key, recorder) -> result.put(key, recorder.summary()));
+        return result;
+    }
+
+    /**
+     * 单个键的累计直方图和窗口直方图
+     */
+    private static final class Recorder {
+
+        private final LatencyHistogram total = new LatencyHistogram();
+        private volatile LatencyHistogram current = new LatencyHistogram();
+        private volatile LatencyHistogram lastWindow;
+
+        void record(long micros) {
+            total.record(micros);
+            current.record(micros);
+        }
+
+        void rotate() {
+            LatencyHistogram finished = current;
+            current = new LatencyHistogram();
+            lastWindow = finished;
+        }
+
+        Map<String, Object> summary() {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            LatencyHistogram window = lastWindow;
+            summary.put("lastWindow", window == null ? current.summary() : window.summary());
+            summary.put("total", total.summary());
+            return summary;
+        }
+    }
+}
@@ -6,6 +6,11 @@ package com.smartcity.common;
  */
 public class PageRequest {
     
+    /**
+     * 每页大小上限，避免一次请求拉取过多数据
+     */
+    public static final int MAX_PAGE_SIZE = 500;
+    
     /**
      * 当前页码，默认第1页
      */
@@ -26,6 +31,11 @@ public class PageRequest {
      */
     private String sortDirection = "asc";
     
+    /**
+     * 游标（上一页最后一条记录的主键），不为空时按主键做键集分页，忽略pageNum
+     */
+    private Long cursor;
+    
     /**
      * 默认构造方法
      */
@@ -38,8 +48,8 @@ public class PageRequest {
      * @param pageSize 每页大小
      */
     public PageRequest(int pageNum, int pageSize) {
-        this.pageNum = pageNum;
-        this.pageSize = pageSize;
+        this.pageNum = normalizePageNum(pageNum);
+        this.pageSize = normalizePageSize(pageSize);
     }
     
     /**
@@ -50,8 +60,8 @@ public class PageRequest {
      * @param sortDirection 排序方向
      */
     public PageRequest(int pageNum, int pageSize, String sortField, String sortDirection) {
-        this.pageNum = pageNum;
-        this.pageSize = pageSize;
+        this.pageNum = normalizePageNum(pageNum);
+        this.pageSize = normalizePageSize(pageSize);
         this.sortField = sortField;
         this.sortDirection = sortDirection;
     }
@@ -62,7 +72,7 @@ public class PageRequest {
     }
     
     public void setPageNum(int pageNum) {
-        this.pageNum = pageNum > 0 ? pageNum : 1;
+        this.pageNum = normalizePageNum(pageNum);
     }
     
     public int getPageSize() {
@@ -70,7 +80,7 @@ public class PageRequest {
     }
     
     public void setPageSize(int pageSize) {
-        this.pageSize = pageSize > 0 ? pageSize : 10;
+        this.pageSize = normalizePageSize(pageSize);
     }
     
     public String getSortField() {
@@ -89,6 +99,22 @@ public class PageRequest {
         this.sortDirection = sortDirection;
     }
     
+    public Long getCursor() {
+        return cursor;
+    }
+    
+    public void setCursor(Long cursor) {
+        this.cursor = cursor;
+    }
+    
+    /**
+     * 是否为游标分页模式
+     * @return true：按主键游标分页，false：按页码偏移分页
+     */
+    public boolean isCursorMode() {
+        return cursor != null;
+    }
+    
     /**
      * 获取起始行号
      * @return 起始行号
@@ -105,6 +131,20 @@ public class PageRequest {
         return pageSize;
     }
     
+    /**
+     * 页码小于1时取第1页
+     */
+    private static int normalizePageNum(int pageNum) {
+        return pageNum > 0 ? pageNum : 1;
+    }
+    
+    /**
+     * 每页大小不大于0时取默认值，超过上限时取上限，构造方法和setter共用
+     */
+    private static int normalizePageSize(int pageSize) {
+        return pageSize > 0 ? Math.min(pageSize, MAX_PAGE_SIZE) : 10;
+    }
+    
     @Override
     public String toString() {
         return "PageRequest{" +
@@ -112,6 +152,7 @@ public class PageRequest {
                 ", pageSize=" + pageSize +
                 ", sortField='" + sortField + '\'' +
                 ", sortDirection='" + sortDirection + '\'' +
+                ", cursor=" + cursor +
                 '}';
     }
 }
\ No newline at end of file
@@ -1,6 +1,11 @@
 package com.smartcity.common;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 通用分页响应结果类
@@ -34,6 +39,12 @@ public class PageResult<T> {
      */
     private List<T> list;
     
+    /**
+     * 下一页游标，仅游标分页模式下返回，为空表示没有下一页
+     */
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long nextCursor;
+    
     /**
      * 私有构造方法，防止直接实例化
      * @param total 总记录数
@@ -65,6 +76,26 @@ public class PageResult<T> {
         return new PageResult<>(total, pages, pageNum, pageSize, list);
     }
     
+    /**
+     * 静态工厂方法，创建游标分页结果
+     * 调用方按主键升序多查一条（pageSize + 1），多出的一条只用于判断是否还有下一页；
+     * 游标模式不统计总数，total固定为-1
+     * @param pageSize 每页大小
+     * @param fetched 按主键升序查询到的最多pageSize + 1条数据
+     * @param idGetter 主键获取方法
+     * @param <T> 数据类型
+     * @return 分页结果对象
+     */
+    public static <T> PageResult<T> ofCursor(int pageSize, List<T> fetched, Function<T, Long> idGetter) {
+        boolean hasMore = fetched.size() > pageSize;
+        List<T> list = hasMore ? fetched.subList(0, pageSize) : fetched;
+        PageResult<T> result = of(-1, 1, pageSize, list);
+        if (hasMore) {
+            result.setNextCursor(idGetter.apply(list.get(list.size() - 1)));
+        }
+        return result;
+    }
+    
     /**
      * 静态工厂方法，创建空分页结果
      * @param <T> 数据类型
@@ -126,6 +157,27 @@ public class PageResult<T> {
         this.list = list;
     }
     
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
+    /**
+     * 转换数据类型，保留分页信息
+     * @param mapper 转换方法
+     * @param <R> 目标数据类型
+     * @return 新的分页结果对象
+     */
+    public <R> PageResult<R> map(Function<T, R> mapper) {
+        List<R> mapped = list == null ? null : list.stream().map(mapper).collect(Collectors.toList());
+        PageResult<R> result = new PageResult<>(total, pages, pageNum, pageSize, mapped);
+        result.setNextCursor(nextCursor);
+        return result;
+    }
+    
     /**
      * 是否有上一页
      * @return true：有上一页，false：没有上一页
@@ -139,7 +191,7 @@ public class PageResult<T> {
      * @return true：有下一页，false：没有下一页
      */
     public boolean hasNext() {
-        return pageNum < pages;
+        return nextCursor != null || pageNum < pages;
     }
     
     @Override
@@ -149,6 +201,7 @@ public class PageResult<T> {
                 ", pages=" + pages +
                 ", pageNum=" + pageNum +
                 ", pageSize=" + pageSize +
+                ", nextCursor=" + nextCursor +
                 ", list.size()=" + (list != null ? list.size() : 0) +
                 '}';
     }
@@ -0,0 +1,16 @@
+package com.smartcity.common.security;
+
+/**
+ * 令牌无效异常
+ * 签名不匹配、格式错误或已过期时抛出
+ */
+public class InvalidTokenException extends RuntimeException {
+
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+
+    public InvalidTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,320 @@
+package com.smartcity.common.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 密码哈希组件
+ * 使用加盐的PBKDF2-HMAC-SHA256，编码格式为pbkdf2-sha256$迭代次数$盐$哈希；
+ * 哈希计算在独立的定长线程池中执行，等待队列有上限，满载时立即拒绝，避免大量请求线程同时占满CPU。
+ * 兼容旧的无盐MD5十六进制哈希和明文密码，校验通过后由调用方按needsRehash重新哈希
+ */
+public class PasswordHasher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHasher.class);
+
+    public static final String PREFIX = "pbkdf2-sha256";
+
+    private static final String KEY_ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private static final Base64.Encoder ENCODER = Base64.getEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getDecoder();
+
+    private final int iterations;
+    private final boolean allowPlaintextLegacy;
+    private final Instant plaintextLegacyUntil;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor executor;
+    private final SecureRandom random = new SecureRandom();
+
+    private final LongAdder hashed = new LongAdder();
+    private final LongAdder verified = new LongAdder();
+    private final LongAdder legacyMatched = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    /**
+     * @param iterations           PBKDF2迭代次数
+     * @param threads              哈希线程数
+     * @param queueCapacity        等待队列长度
+     * @param timeoutMillis        调用方等待结果的最长时间
+     * @param allowPlaintextLegacy 是否接受数据库中尚未迁移的明文密码
+     */
+    public PasswordHasher(int iterations, int threads, int queueCapacity, long timeoutMillis,
+                          boolean allowPlaintextLegacy) {
+        this(iterations, threads, queueCapacity, timeoutMillis, allowPlaintextLegacy, null);
+    }
+
+    /**
+     * @param plaintextLegacyUntil 明文密码迁移窗口的截止时刻，过后即使allowPlaintextLegacy为true也不再接受，为空表示不限
+     */
+    public PasswordHasher(int iterations, int threads, int queueCapacity, long timeoutMillis,
+                          boolean allowPlaintextLegacy, Instant plaintextLegacyUntil) {
+        if (iterations <= 0 || threads <= 0 || queueCapacity <= 0 || timeoutMillis <= 0) {
+            throw new IllegalArgumentException("迭代次数、线程数、队列长度和超时时间必须大于0");
+        }
+        this.iterations = iterations;
+        this.allowPlaintextLegacy = allowPlaintextLegacy;
+        this.plaintextLegacyUntil = plaintextLegacyUntil;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "password-hasher-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 计算密码哈希
+     *
+     * @throws PasswordHashingOverloadedException 哈希线程池过载
+     */
+    public String hash(String rawPassword) {
+        if (rawPassword == null || rawPassword.isEmpty()) {
+            throw new IllegalArgumentException("密码不能为空");
+        }
+        String encoded = submit(() -> encode(rawPassword));
+        hashed.increment();
+        return encoded;
+    }
+
+    /**
+     * 批量计算密码哈希，供批量导入使用
+     * 同时在途的任务不超过maxInFlight个，为登录请求留出队列空间；maxInFlight不大于0时取哈希线程数。
+     * 每行一次完整的PBKDF2计算，按默认迭代次数单核约0.1~0.3秒，总耗时约为行数乘单行耗时再除以并发度
+     *
+     * @return 与入参同序的哈希
+     * @throws PasswordHashingOverloadedException 哈希线程池过载
+     */
+    public List<String> hashAll(List<String> rawPasswords, int maxInFlight) {
+        for (String rawPassword : rawPasswords) {
+            if (rawPassword == null || rawPassword.isEmpty()) {
+                throw new IllegalArgumentException("密码不能为空");
+            }
+        }
+        Semaphore permits = new Semaphore(maxInFlight > 0 ? maxInFlight : executor.getMaximumPoolSize());
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        try {
+            for (String rawPassword : rawPasswords) {
+                permits.acquire();
+                try {
+                    futures.add(executor.submit(() -> {
+                        try {
+                            return encode(rawPassword);
+                        } finally {
+                            permits.release();
+                        }
+                    }));
+                } catch (RejectedExecutionException e) {
+                    permits.release();
+                    rejected.increment();
+                    throw new PasswordHashingOverloadedException("密码哈希繁忙，请稍后重试", e);
+                }
+            }
+            List<String> encoded = new ArrayList<>(futures.size());
+            for (Future<String> future : futures) {
+                encoded.add(await(future));
+            }
+            hashed.add(encoded.size());
+            return encoded;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingOverloadedException("密码哈希被中断", e);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * 校验密码
+     *
+     * @throws PasswordHashingOverloadedException 哈希线程池过载
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return false;
+        }
+        verified.increment();
+        if (encodedPassword.startsWith(PREFIX + "$")) {
+            return submit(() -> verifyPbkdf2(rawPassword, encodedPassword));
+        }
+        // 旧格式计算量很小，直接在调用线程中比较
+        boolean matched;
+        if (isLegacyMd5(encodedPassword)) {
+            matched = constantTimeEquals(md5Hex(rawPassword), encodedPassword.toLowerCase());
+        } else {
+            matched = isPlaintextLegacyAllowed() && constantTimeEquals(rawPassword, encodedPassword);
+        }
+        if (matched) {
+            legacyMatched.increment();
+        }
+        return matched;
+    }
+
+    /**
+     * 当前是否仍在明文密码迁移窗口内
+     */
+    public boolean isPlaintextLegacyAllowed() {
+        return allowPlaintextLegacy && (plaintextLegacyUntil == null || Instant.now().isBefore(plaintextLegacyUntil));
+    }
+
+    /**
+     * 是否需要用当前参数重新哈希：旧格式，或迭代次数低于当前配置
+     */
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null || !encodedPassword.startsWith(PREFIX + "$")) {
+            return true;
+        }
+        String[] parts = encodedPassword.split("\\$");
+        try {
+            return parts.length != 4 || Integer.parseInt(parts[1]) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingOverloadedException("密码校验繁忙，请稍后重试", e);
+        }
+        return await(future);
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw new PasswordHashingOverloadedException("密码校验超时，请稍后重试", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingOverloadedException("密码校验被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("密码哈希计算失败", cause);
+        }
+    }
+
+    private String encode(String rawPassword) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = pbkdf2(rawPassword, salt, iterations);
+        return PREFIX + "$" + iterations + "$" + ENCODER.encodeToString(salt) + "$" + ENCODER.encodeToString(hash);
+    }
+
+    private boolean verifyPbkdf2(String rawPassword, String encodedPassword) {
+        String[] parts = encodedPassword.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            byte[] salt = DECODER.decode(parts[2]);
+            byte[] expected = DECODER.decode(parts[3]);
+            return MessageDigest.isEqual(expected, pbkdf2(rawPassword, salt, storedIterations));
+        } catch (IllegalArgumentException e) {
+            logger.warn("无法解析的密码哈希格式");
+            return false;
+        }
+    }
+
+    private static byte[] pbkdf2(String rawPassword, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(rawPassword.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(KEY_ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("不支持的密码哈希算法: " + KEY_ALGORITHM, e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static boolean isLegacyMd5(String encodedPassword) {
+        if (encodedPassword.length() != 32) {
+            return false;
+        }
+        for (int i = 0; i < encodedPassword.length(); i++) {
+            if (Character.digit(encodedPassword.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String md5Hex(String rawPassword) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            return HexFormat.of().formatHex(digest.digest(rawPassword.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("不支持的哈希算法: MD5", e);
+        }
+    }
+
+    private static boolean constantTimeEquals(String a, String b) {
+        return MessageDigest.isEqual(a.getBytes(StandardCharsets.UTF_8), b.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 关闭哈希线程池
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 运行指标快照
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("iterations", iterations);
+        metrics.put("threads", executor.getMaximumPoolSize());
+        metrics.put("activeThreads", executor.getActiveCount());
+        metrics.put("queueSize", executor.getQueue().size());
+        metrics.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        metrics.put("hashed", hashed.sum());
+        metrics.put("verified", verified.sum());
+        metrics.put("legacyMatched", legacyMatched.sum());
+        metrics.put("plaintextLegacyAllowed", isPlaintextLegacyAllowed());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("timedOut", timedOut.sum());
+        return metrics;
+    }
+}
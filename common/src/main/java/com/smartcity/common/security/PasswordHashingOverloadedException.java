@@ -0,0 +1,16 @@
+package com.smartcity.common.security;
+
+/**
+ * 密码哈希过载异常
+ * 哈希线程池和等待队列都已满，或等待结果超时时抛出，调用方应尽快向客户端返回503
+ */
+public class PasswordHashingOverloadedException extends RuntimeException {
+
+    public PasswordHashingOverloadedException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingOverloadedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,21 @@
+package com.smartcity.common.security;
+
+/**
+ * 令牌声明
+ *
+ * @param userId    用户ID（sub）
+ * @param username  用户名
+ * @param role      角色
+ * @param issuedAt  签发时间，epoch秒（iat）
+ * @param expiresAt 过期时间，epoch秒（exp）
+ * @param tokenId   令牌唯一ID（jti）
+ */
+public record TokenClaims(Long userId, String username, String role, long issuedAt, long expiresAt, String tokenId) {
+
+    /**
+     * 在指定时间是否已过期
+     */
+    public boolean isExpiredAt(long epochSeconds) {
+        return epochSeconds >= expiresAt;
+    }
+}
@@ -0,0 +1,161 @@
+package com.smartcity.common.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * HS256签名令牌编解码器
+ * 令牌采用JWT紧凑格式，头部带kid以便按密钥集校验；只接受HS256，拒绝alg=none等其他算法
+ */
+public class TokenCodec {
+
+    public static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private static final String JWT_ALGORITHM = "HS256";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final TokenKeySet keySet;
+    private final long clockSkewSeconds;
+
+    /**
+     * 每个kid一个已初始化的Mac原型，使用时clone，省去重复的getInstance和init
+     */
+    private final Map<String, Mac> prototypes = new ConcurrentHashMap<>();
+
+    public TokenCodec(TokenKeySet keySet, long clockSkewSeconds) {
+        this.keySet = keySet;
+        this.clockSkewSeconds = clockSkewSeconds;
+    }
+
+    public TokenKeySet getKeySet() {
+        return keySet;
+    }
+
+    /**
+     * 用当前密钥签发令牌
+     */
+    public String issue(TokenClaims claims) {
+        String kid = keySet.getActiveKid();
+        ObjectNode header = MAPPER.createObjectNode();
+        header.put("alg", JWT_ALGORITHM);
+        header.put("typ", "JWT");
+        header.put("kid", kid);
+        ObjectNode payload = MAPPER.createObjectNode();
+        payload.put("sub", String.valueOf(claims.userId()));
+        payload.put("name", claims.username());
+        payload.put("role", claims.role());
+        payload.put("iat", claims.issuedAt());
+        payload.put("exp", claims.expiresAt());
+        payload.put("jti", claims.tokenId());
+        String signingInput = encode(header) + "." + encode(payload);
+        return signingInput + "." + ENCODER.encodeToString(sign(kid, signingInput));
+    }
+
+    /**
+     * 校验签名和有效期并解析声明
+     *
+     * @param nowEpochSeconds 当前时间，epoch秒
+     * @throws InvalidTokenException 令牌无效或已过期
+     */
+    public TokenClaims verify(String token, long nowEpochSeconds) {
+        if (token == null) {
+            throw new InvalidTokenException("缺少令牌");
+        }
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        if (first <= 0 || second <= first + 1 || second == token.length() - 1 || token.indexOf('.', second + 1) >= 0) {
+            throw new InvalidTokenException("令牌格式错误");
+        }
+        JsonNode header = decode(token.substring(0, first));
+        if (!JWT_ALGORITHM.equals(header.path("alg").asText())) {
+            throw new InvalidTokenException("不支持的签名算法");
+        }
+        String kid = header.path("kid").asText(null);
+        if (keySet.getKey(kid) == null) {
+            throw new InvalidTokenException("未知的签名密钥: " + kid);
+        }
+        byte[] expected = sign(kid, token.substring(0, second));
+        byte[] actual;
+        try {
+            actual = DECODER.decode(token.substring(second + 1));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTokenException("令牌签名格式错误", e);
+        }
+        if (!MessageDigest.isEqual(expected, actual)) {
+            throw new InvalidTokenException("令牌签名不匹配");
+        }
+        JsonNode payload = decode(token.substring(first + 1, second));
+        TokenClaims claims;
+        try {
+            claims = new TokenClaims(
+                    Long.valueOf(payload.path("sub").asText()),
+                    payload.path("name").asText(null),
+                    payload.path("role").asText(null),
+                    payload.path("iat").asLong(),
+                    payload.path("exp").asLong(),
+                    payload.path("jti").asText(null));
+        } catch (NumberFormatException e) {
+            throw new InvalidTokenException("令牌声明格式错误", e);
+        }
+        if (claims.isExpiredAt(nowEpochSeconds - clockSkewSeconds)) {
+            throw new InvalidTokenException("令牌已过期");
+        }
+        if (claims.issuedAt() > nowEpochSeconds + clockSkewSeconds) {
+            throw new InvalidTokenException("令牌签发时间无效");
+        }
+        return claims;
+    }
+
+    private byte[] sign(String kid, String signingInput) {
+        try {
+            Mac mac = (Mac) prototypes.computeIfAbsent(kid, this::newMac).clone();
+            return mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        } catch (CloneNotSupportedException e) {
+            return newMac(kid).doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    private Mac newMac(String kid) {
+        SecretKeySpec key = keySet.getKey(kid);
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("无法初始化令牌签名算法", e);
+        }
+    }
+
+    private static String encode(ObjectNode node) {
+        try {
+            return ENCODER.encodeToString(MAPPER.writeValueAsBytes(node));
+        } catch (IOException e) {
+            throw new IllegalStateException("无法序列化令牌", e);
+        }
+    }
+
+    private static JsonNode decode(String part) {
+        try {
+            JsonNode node = MAPPER.readTree(DECODER.decode(part));
+            if (node == null || !node.isObject()) {
+                throw new InvalidTokenException("令牌格式错误");
+            }
+            return node;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidTokenException("令牌格式错误", e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.smartcity.common.security;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 令牌签名密钥集
+ * 按kid保存多把HMAC密钥，签发只使用当前密钥，校验接受集合中的任意一把，轮换时新旧密钥可以并存
+ */
+public final class TokenKeySet {
+
+    /**
+     * HS256要求密钥至少256位
+     */
+    public static final int MIN_SECRET_BYTES = 32;
+
+    private final String activeKid;
+    private final Map<String, SecretKeySpec> keys;
+
+    private TokenKeySet(String activeKid, Map<String, SecretKeySpec> keys) {
+        this.activeKid = activeKid;
+        this.keys = Collections.unmodifiableMap(keys);
+    }
+
+    /**
+     * 解析密钥配置
+     *
+     * @param spec      形如"kid1:secret1,kid2:secret2"的密钥列表
+     * @param activeKid 签发使用的kid，为空时取列表中的第一把
+     */
+    public static TokenKeySet parse(String spec, String activeKid) {
+        if (spec == null || spec.isBlank()) {
+            throw new IllegalArgumentException("未配置令牌签名密钥");
+        }
+        Map<String, SecretKeySpec> keys = new LinkedHashMap<>();
+        for (String item : spec.split(",")) {
+            String trimmed = item.trim();
+            int separator = trimmed.indexOf(':');
+            if (separator <= 0 || separator == trimmed.length() - 1) {
+                throw new IllegalArgumentException("令牌密钥格式应为kid:secret");
+            }
+            String kid = trimmed.substring(0, separator);
+            byte[] secret = trimmed.substring(separator + 1).getBytes(StandardCharsets.UTF_8);
+            if (secret.length < MIN_SECRET_BYTES) {
+                throw new IllegalArgumentException("令牌密钥长度不能少于" + MIN_SECRET_BYTES + "字节: " + kid);
+            }
+            keys.put(kid, new SecretKeySpec(secret, TokenCodec.MAC_ALGORITHM));
+        }
+        String active = activeKid == null || activeKid.isBlank() ? keys.keySet().iterator().next() : activeKid;
+        if (!keys.containsKey(active)) {
+            throw new IllegalArgumentException("当前签名密钥不存在: " + active);
+        }
+        return new TokenKeySet(active, keys);
+    }
+
+    public String getActiveKid() {
+        return activeKid;
+    }
+
+    public SecretKeySpec getKey(String kid) {
+        return kid == null ? null : keys.get(kid);
+    }
+
+    public Set<String> getKids() {
+        return keys.keySet();
+    }
+}
@@ -24,4 +24,11 @@ public abstract class DomainEvent {
     public Instant getOccurredOn() {
         return occurredOn;
     }
+    
+    /**
+     * 事件所属聚合的ID，异步投递时同一聚合的事件保持顺序；不属于单个聚合时为空
+     */
+    public Object getAggregateId() {
+        return null;
+    }
 }
\ No newline at end of file
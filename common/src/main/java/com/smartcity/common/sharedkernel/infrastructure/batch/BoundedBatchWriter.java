@@ -0,0 +1,297 @@
+package com.smartcity.common.sharedkernel.infrastructure.batch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 有界批量写入器
+ * 生产者把记录放入定长环形缓冲区，单个后台线程按条数或时间间隔批量取出并交给flusher写库；
+ * 整批写入因个别记录失败时（如外键约束），可逐条重写，只隔离出错的记录
+ *
+ * @param <T> 记录类型
+ */
+public class BoundedBatchWriter<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedBatchWriter.class);
+
+    /**
+     * 缓冲区满时的处理策略
+     */
+    public enum OverflowPolicy {
+        REJECT,      // 拒绝新记录
+        DROP_OLDEST, // 丢弃最旧的记录，接收新记录
+        BLOCK        // 在超时时间内等待空位，超时后拒绝
+    }
+
+    private final String name;
+    private final ArrayBlockingQueue<T> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final OverflowPolicy overflowPolicy;
+    private final long offerTimeoutMillis;
+    private final Consumer<List<T>> flusher;
+    private final Predicate<RuntimeException> recordLevelFailure;
+
+    /**
+     * 提交时持读锁完成状态检查和入队，停止时持写锁切换状态，保证停止后队列中不会再出现无人刷写的记录
+     */
+    private final ReentrantReadWriteLock stateLock = new ReentrantReadWriteLock();
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder flushedRecords = new LongAdder();
+    private final LongAdder flushedBatches = new LongAdder();
+    private final LongAdder failedRecords = new LongAdder();
+    private final LongAdder quarantinedRecords = new LongAdder();
+    private final LongAdder rowFallbacks = new LongAdder();
+    private final AtomicLong lastFlushMillis = new AtomicLong();
+    private final AtomicLong maxFlushMillis = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    /**
+     * @param name                写入器名称，用于线程名和日志
+     * @param capacity            缓冲区容量
+     * @param batchSize           单批最大条数
+     * @param flushIntervalMillis 最长刷写间隔
+     * @param overflowPolicy      缓冲区满时的处理策略
+     * @param offerTimeoutMillis  BLOCK策略下的最长等待时间
+     * @param flusher             批量写入逻辑，在后台线程中调用
+     */
+    public BoundedBatchWriter(String name, int capacity, int batchSize, long flushIntervalMillis,
+                              OverflowPolicy overflowPolicy, long offerTimeoutMillis,
+                              Consumer<List<T>> flusher) {
+        this(name, capacity, batchSize, flushIntervalMillis, overflowPolicy, offerTimeoutMillis, flusher, e -> false);
+    }
+
+    /**
+     * @param recordLevelFailure 判断整批失败是否由个别记录引起；为true时逐条重写该批，只隔离写入失败的记录
+     */
+    public BoundedBatchWriter(String name, int capacity, int batchSize, long flushIntervalMillis,
+                              OverflowPolicy overflowPolicy, long offerTimeoutMillis,
+                              Consumer<List<T>> flusher, Predicate<RuntimeException> recordLevelFailure) {
+        if (capacity <= 0 || batchSize <= 0 || flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("容量、批大小和刷写间隔必须大于0");
+        }
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.overflowPolicy = overflowPolicy;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.flusher = flusher;
+        this.recordLevelFailure = recordLevelFailure;
+    }
+
+    /**
+     * 启动后台刷写线程
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::runLoop, name + "-batch-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * 停止接收新记录，并在超时时间内把缓冲区中的记录全部刷写完
+     */
+    public void stop(long timeoutMillis) {
+        Thread current;
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            // 等待进行中的提交完成入队，此后的提交都会被拒绝，已接收的记录都由后台线程写完
+            stateLock.writeLock().lock();
+            try {
+                running = false;
+            } finally {
+                stateLock.writeLock().unlock();
+            }
+            current = worker;
+        }
+        try {
+            current.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (current.isAlive()) {
+            logger.warn("[{}] 关闭超时，仍有{}条记录未刷写", name, queue.size());
+            current.interrupt();
+        }
+    }
+
+    /**
+     * 提交一条记录
+     *
+     * @return 是否被接收；false表示缓冲区已满被拒绝
+     */
+    public boolean offer(T record) {
+        boolean ok;
+        stateLock.readLock().lock();
+        try {
+            if (!running) {
+                rejected.increment();
+                return false;
+            }
+            ok = switch (overflowPolicy) {
+                case REJECT -> queue.offer(record);
+                case DROP_OLDEST -> offerDroppingOldest(record);
+                case BLOCK -> offerBlocking(record);
+            };
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        if (ok) {
+            accepted.increment();
+        } else {
+            rejected.increment();
+        }
+        return ok;
+    }
+
+    private boolean offerDroppingOldest(T record) {
+        while (!queue.offer(record)) {
+            if (queue.poll() != null) {
+                dropped.increment();
+            }
+        }
+        return true;
+    }
+
+    private boolean offerBlocking(T record) {
+        try {
+            return queue.offer(record, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void runLoop() {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                T first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.currentTimeMillis() + flushIntervalMillis;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    T next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                // 关闭超时被中断：尽力把手上的批次写完后退出
+                flush(batch);
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<T> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            flusher.accept(batch);
+            flushedRecords.add(batch.size());
+            flushedBatches.increment();
+        } catch (RuntimeException e) {
+            if (batch.size() > 1 && recordLevelFailure.test(e)) {
+                logger.warn("[{}] 批量写入{}条记录失败，改为逐条写入: {}", name, batch.size(), e.getMessage());
+                rowFallbacks.increment();
+                flushOneByOne(batch);
+            } else {
+                failedRecords.add(batch.size());
+                logger.error("[{}] 批量写入失败，丢弃{}条记录: {}", name, batch.size(), e.getMessage(), e);
+            }
+        } finally {
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            lastFlushMillis.set(elapsed);
+            maxFlushMillis.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    /**
+     * 逐条写入，出错的记录计入隔离数并记录日志，不影响同批的其他记录
+     */
+    private void flushOneByOne(List<T> batch) {
+        int written = 0;
+        for (T record : batch) {
+            try {
+                flusher.accept(List.of(record));
+                written++;
+            } catch (RuntimeException e) {
+                quarantinedRecords.increment();
+                logger.error("[{}] 记录写入失败，已隔离: {}，原因: {}", name, record, e.getMessage());
+            }
+        }
+        if (written > 0) {
+            flushedRecords.add(written);
+            flushedBatches.increment();
+        }
+    }
+
+    /**
+     * 当前缓冲区中的记录数
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * 运行指标快照
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("name", name);
+        metrics.put("running", running);
+        metrics.put("overflowPolicy", overflowPolicy.name());
+        metrics.put("queueSize", queue.size());
+        metrics.put("queueCapacity", queue.size() + queue.remainingCapacity());
+        metrics.put("accepted", accepted.sum());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("dropped", dropped.sum());
+        metrics.put("flushedRecords", flushedRecords.sum());
+        metrics.put("flushedBatches", flushedBatches.sum());
+        metrics.put("failedRecords", failedRecords.sum());
+        metrics.put("quarantinedRecords", quarantinedRecords.sum());
+        metrics.put("rowFallbacks", rowFallbacks.sum());
+        metrics.put("lastFlushMillis", lastFlushMillis.get());
+        metrics.put("maxFlushMillis", maxFlushMillis.get());
+        return metrics;
+    }
+}
@@ -1,9 +1,15 @@
 package com.smartcity.common.sharedkernel.infrastructure.config;
 
+import com.smartcity.common.sharedkernel.infrastructure.event.AsyncDomainEventBus;
+import com.smartcity.common.sharedkernel.infrastructure.event.DomainEventSubscriber;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * DDD基础设施配置类
@@ -14,25 +20,18 @@ public class DddConfiguration {
     
     /**
      * 领域事件发布者配置
-     * 在实际应用中，这里可以配置事件发布相关的组件
-     */
-    @Bean
-    @ConditionalOnMissingBean
-    public DomainEventPublisher domainEventPublisher() {
-        // 默认实现，实际项目中可以替换为基于消息队列的实现
-        return new SimpleDomainEventPublisher();
-    }
-    
-    /**
-     * 简单的领域事件发布者实现
+     * 默认使用进程内异步事件总线，订阅者为容器中所有DomainEventSubscriber
      */
-    public static class SimpleDomainEventPublisher implements DomainEventPublisher {
-        
-        @Override
-        public void publish(Object event) {
-            // 默认实现，仅记录日志
-            System.out.println("Publishing domain event: " + event.getClass().getName());
-        }
+    @Bean(initMethod = "start")
+    @ConditionalOnMissingBean(DomainEventPublisher.class)
+    public AsyncDomainEventBus domainEventPublisher(
+            ObjectProvider<DomainEventSubscriber<?>> subscribers,
+            @Value("${smartcity.events.queue-capacity:10000}") int queueCapacity,
+            @Value("${smartcity.events.worker-threads:2}") int workerThreads,
+            @Value("${smartcity.events.virtual-threads:false}") boolean virtualThreads,
+            @Value("${smartcity.events.batch-size:100}") int batchSize) {
+        List<DomainEventSubscriber<?>> resolved = subscribers.orderedStream().collect(Collectors.toList());
+        return new AsyncDomainEventBus(queueCapacity, workerThreads, virtualThreads, batchSize, resolved);
     }
     
     /**
@@ -41,4 +40,4 @@ public class DddConfiguration {
     public interface DomainEventPublisher {
         void publish(Object event);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+package com.smartcity.common.sharedkernel.infrastructure.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcity.common.sharedkernel.infrastructure.outbox.FileOutboxSink;
+import com.smartcity.common.sharedkernel.infrastructure.outbox.InMemoryOutboxSink;
+import com.smartcity.common.sharedkernel.infrastructure.outbox.OutboxRelay;
+import com.smartcity.common.sharedkernel.infrastructure.outbox.OutboxSink;
+import com.smartcity.common.sharedkernel.infrastructure.outbox.OutboxWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+
+/**
+ * 事务性outbox配置类
+ * 有数据源的服务都会注册写入器；中继默认关闭，由拥有outbox_events表的服务通过smartcity.outbox.relay.enabled开启
+ */
+@AutoConfiguration(after = {JdbcTemplateAutoConfiguration.class, JacksonAutoConfiguration.class,
+        TransactionAutoConfiguration.class})
+@ConditionalOnBean(JdbcTemplate.class)
+public class OutboxConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OutboxWriter outboxWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        return new OutboxWriter(jdbcTemplate, objectMapper);
+    }
+
+    /**
+     * 投递目标，sink=file时追加写入NDJSON文件，否则保存在内存中
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "smartcity.outbox.relay", name = "enabled", havingValue = "true")
+    public OutboxSink outboxSink(ObjectMapper objectMapper,
+                                 @Value("${smartcity.outbox.sink:memory}") String sink,
+                                 @Value("${smartcity.outbox.file-path:outbox/${spring.application.name:application}/events.ndjson}") String filePath,
+                                 @Value("${smartcity.outbox.memory-capacity:10000}") int memoryCapacity) {
+        if ("file".equalsIgnoreCase(sink)) {
+            return new FileOutboxSink(Path.of(filePath), objectMapper);
+        }
+        return new InMemoryOutboxSink(memoryCapacity);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "smartcity.outbox.relay", name = "enabled", havingValue = "true")
+    public OutboxRelay outboxRelay(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, OutboxSink sink,
+                                   @Value("${smartcity.outbox.relay.batch-size:500}") int batchSize,
+                                   @Value("${smartcity.outbox.relay.poll-interval-ms:200}") long pollIntervalMillis,
+                                   @Value("${smartcity.outbox.relay.retention-hours:24}") long retentionHours) {
+        return new OutboxRelay(jdbcTemplate, transactionTemplate, sink, batchSize, pollIntervalMillis,
+                retentionHours * 3_600_000L);
+    }
+}
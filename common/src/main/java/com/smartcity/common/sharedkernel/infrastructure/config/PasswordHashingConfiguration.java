@@ -0,0 +1,35 @@
+package com.smartcity.common.sharedkernel.infrastructure.config;
+
+import com.smartcity.common.security.PasswordHasher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * 密码哈希配置类
+ * 线程数默认等于CPU核数，哈希请求超出线程数和队列长度时立即拒绝；
+ * 旧明文密码默认不接受，迁移期间显式开启，并用allow-plaintext-legacy-until（yyyy-MM-dd，当天结束前有效）限定截止日期
+ */
+@AutoConfiguration
+public class PasswordHashingConfiguration {
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    public PasswordHasher passwordHasher(
+            @Value("${smartcity.password.iterations:310000}") int iterations,
+            @Value("${smartcity.password.threads:0}") int threads,
+            @Value("${smartcity.password.queue-capacity:64}") int queueCapacity,
+            @Value("${smartcity.password.timeout-ms:3000}") long timeoutMillis,
+            @Value("${smartcity.password.allow-plaintext-legacy:false}") boolean allowPlaintextLegacy,
+            @Value("${smartcity.password.allow-plaintext-legacy-until:}") String plaintextLegacyUntil) {
+        int resolvedThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        Instant until = plaintextLegacyUntil.isBlank() ? null
+                : LocalDate.parse(plaintextLegacyUntil.trim()).plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        return new PasswordHasher(iterations, resolvedThreads, queueCapacity, timeoutMillis, allowPlaintextLegacy, until);
+    }
+}
@@ -0,0 +1,62 @@
+package com.smartcity.common.sharedkernel.infrastructure.config;
+
+import com.smartcity.common.sharedkernel.infrastructure.id.SnowflakeIdGenerator;
+import com.smartcity.common.sharedkernel.infrastructure.id.SnowflakeIds;
+import com.smartcity.common.sharedkernel.infrastructure.id.WorkerIdLease;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 雪花ID配置类
+ * smartcity.id.enabled=true时启用，工作节点ID通过id_worker_leases表按实例租用：
+ * 配置了smartcity.id.worker-id时只租用该ID，已被同服务的存活实例占用则启动失败；未配置时自动分配空闲ID，
+ * 同一服务扩容副本无需逐个分配。未启用时不创建生成器，使用雪花ID主键的实体在EntityManagerFactory初始化时即启动失败
+ */
+@AutoConfiguration(after = JdbcTemplateAutoConfiguration.class)
+@ConditionalOnProperty(prefix = "smartcity.id", name = "enabled", havingValue = "true")
+public class SnowflakeIdConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnowflakeIdConfiguration.class);
+
+    @Bean(destroyMethod = "release")
+    @ConditionalOnMissingBean
+    public WorkerIdLease workerIdLease(JdbcTemplate jdbcTemplate,
+                                       @Value("${spring.application.name}") String service,
+                                       @Value("${smartcity.id.worker-id:}") String workerId,
+                                       @Value("${smartcity.id.lease-ttl-ms:30000}") long ttlMillis) {
+        WorkerIdLease lease = new WorkerIdLease(jdbcTemplate, service, ttlMillis);
+        lease.acquire(workerId.isBlank() ? null : Integer.valueOf(workerId.trim()));
+        return lease;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SnowflakeIdGenerator snowflakeIdGenerator(WorkerIdLease lease) {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(lease.getWorkerId(), lease::isValid);
+        SnowflakeIds.install(generator);
+        logger.info("雪花ID生成器已初始化: workerId={}", lease.getWorkerId());
+        return generator;
+    }
+
+    /**
+     * 保证生成器先于EntityManagerFactory装配，Hibernate创建主键生成器时即可检查
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean")
+    static class SnowflakeEntityManagerFactoryDependsOn extends EntityManagerFactoryDependsOnPostProcessor {
+
+        SnowflakeEntityManagerFactoryDependsOn() {
+            super("snowflakeIdGenerator");
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.smartcity.common.sharedkernel.infrastructure.event;
+
+import com.smartcity.common.sharedkernel.domain.model.DomainEvent;
+import com.smartcity.common.sharedkernel.infrastructure.config.DddConfiguration.DomainEventPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 进程内异步领域事件总线
+ * 发布方只把事件放入工作线程的队列，由工作线程批量取出后按类型投递给订阅者，空闲时阻塞在队列上；
+ * 处于事务中发布的事件推迟到提交之后入队，回滚时丢弃。
+ * 带聚合ID的事件按ID固定交给同一个工作线程，同一聚合的事件按发布顺序投递；没有聚合ID的事件轮流分配，不保证顺序。
+ * 所有队列合计超过容量时丢弃新事件并计数，不阻塞发布线程
+ */
+public class AsyncDomainEventBus implements DomainEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncDomainEventBus.class);
+
+    /**
+     * 停止时放入各队列末尾，工作线程取到后投递完剩余事件即退出
+     */
+    private static final Object STOP = new Object();
+
+    private final LinkedBlockingQueue<Object>[] queues;
+    private final AtomicInteger queueSize = new AtomicInteger();
+    private final int capacity;
+    private final int batchSize;
+    private final List<DomainEventSubscriber<?>> subscribers;
+    private final Thread[] workers;
+    private final AtomicInteger nextWorker = new AtomicInteger();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private volatile boolean running;
+
+    /**
+     * @param capacity       队列容量
+     * @param workerThreads  工作线程数
+     * @param virtualThreads 是否使用虚拟线程
+     * @param batchSize      单次投递的最大事件数
+     * @param subscribers    订阅者
+     */
+    @SuppressWarnings("unchecked")
+    public AsyncDomainEventBus(int capacity, int workerThreads, boolean virtualThreads, int batchSize,
+                               List<DomainEventSubscriber<?>> subscribers) {
+        if (capacity <= 0 || workerThreads <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("容量、工作线程数和批大小必须大于0");
+        }
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.subscribers = List.copyOf(subscribers);
+        this.queues = new LinkedBlockingQueue[workerThreads];
+        this.workers = new Thread[workerThreads];
+        for (int i = 0; i < workerThreads; i++) {
+            LinkedBlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+            queues[i] = queue;
+            Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon(true);
+            workers[i] = builder.name("domain-event-worker-" + i).unstarted(() -> runLoop(queue));
+        }
+    }
+
+    /**
+     * 启动工作线程
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        logger.info("领域事件总线已启动: {}个订阅者, {}个工作线程", subscribers.size(), workers.length);
+    }
+
+    /**
+     * 停止接收事件，并在超时时间内投递完队列中剩余的事件
+     */
+    public void stop(long timeoutMillis) {
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+        }
+        for (LinkedBlockingQueue<Object> queue : queues) {
+            queue.offer(STOP);
+        }
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        for (Thread worker : workers) {
+            try {
+                worker.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (queueSize.get() > 0) {
+            logger.warn("领域事件总线关闭超时，丢弃{}个未投递的事件", queueSize.get());
+        }
+    }
+
+    /**
+     * 容器关闭时调用，最多等待5秒投递剩余事件
+     */
+    public void shutdown() {
+        stop(5000);
+    }
+
+    @Override
+    public void publish(Object event) {
+        if (event == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    /**
+     * 批量发布
+     */
+    public void publishAll(List<?> events) {
+        for (Object event : events) {
+            publish(event);
+        }
+    }
+
+    private void enqueue(Object event) {
+        if (!running) {
+            dropped.increment();
+            return;
+        }
+        // 先占位再入队，保证队列长度不超过容量
+        int size = queueSize.incrementAndGet();
+        if (size > capacity) {
+            queueSize.decrementAndGet();
+            dropped.increment();
+            logger.warn("领域事件队列已满，丢弃事件: {}", event.getClass().getSimpleName());
+            return;
+        }
+        queues[workerOf(event)].offer(event);
+        published.increment();
+    }
+
+    /**
+     * 同一聚合的事件总是交给同一个工作线程
+     */
+    private int workerOf(Object event) {
+        if (event instanceof DomainEvent domainEvent && domainEvent.getAggregateId() != null) {
+            return Math.floorMod(domainEvent.getAggregateId().hashCode(), workers.length);
+        }
+        return Math.floorMod(nextWorker.getAndIncrement(), workers.length);
+    }
+
+    private void runLoop(LinkedBlockingQueue<Object> queue) {
+        List<Object> batch = new ArrayList<>(batchSize);
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            // 停止标记之后入队的事件也一并投递
+            stopping = batch.remove(STOP);
+            if (stopping) {
+                queue.drainTo(batch);
+                batch.remove(STOP);
+            }
+            if (!batch.isEmpty()) {
+                queueSize.addAndGet(-batch.size());
+                dispatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void dispatch(List<Object> batch) {
+        for (DomainEventSubscriber subscriber : subscribers) {
+            Class<?> type = subscriber.eventType();
+            List<Object> matched = null;
+            for (Object event : batch) {
+                if (type.isInstance(event)) {
+                    if (matched == null) {
+                        matched = new ArrayList<>();
+                    }
+                    matched.add(event);
+                }
+            }
+            if (matched == null) {
+                continue;
+            }
+            try {
+                subscriber.onEvents(matched);
+                delivered.add(matched.size());
+            } catch (RuntimeException e) {
+                failed.add(matched.size());
+                logger.error("领域事件订阅者处理失败: {}, {}个事件: {}",
+                        subscriber.getClass().getSimpleName(), matched.size(), e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 运行指标快照
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("running", running);
+        metrics.put("subscribers", subscribers.size());
+        metrics.put("workers", workers.length);
+        metrics.put("queueSize", queueSize.get());
+        metrics.put("queueCapacity", capacity);
+        metrics.put("published", published.sum());
+        metrics.put("dropped", dropped.sum());
+        metrics.put("delivered", delivered.sum());
+        metrics.put("failed", failed.sum());
+        return metrics;
+    }
+}
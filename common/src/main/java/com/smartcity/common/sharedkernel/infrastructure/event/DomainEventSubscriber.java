@@ -0,0 +1,23 @@
+package com.smartcity.common.sharedkernel.infrastructure.event;
+
+import java.util.List;
+
+/**
+ * 领域事件订阅者
+ * 注册为Spring Bean后由事件总线自动发现，按事件类型（含子类）批量投递
+ *
+ * @param <E> 订阅的事件类型
+ */
+public interface DomainEventSubscriber<E> {
+
+    /**
+     * 订阅的事件类型，该类型及其子类的事件都会投递
+     */
+    Class<E> eventType();
+
+    /**
+     * 批量处理事件，在事件总线的工作线程中调用
+     * 同一批内的事件按发布顺序排列
+     */
+    void onEvents(List<E> events);
+}
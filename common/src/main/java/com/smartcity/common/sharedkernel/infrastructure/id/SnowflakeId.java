@@ -0,0 +1,18 @@
+package com.smartcity.common.sharedkernel.infrastructure.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注在JPA实体主键上，插入前由雪花ID生成器分配主键
+ * 主键在客户端生成，Hibernate无需逐条回读自增ID，jdbc.batch_size对INSERT同样生效
+ */
+@IdGeneratorType(SnowflakeIdentifierGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface SnowflakeId {
+}
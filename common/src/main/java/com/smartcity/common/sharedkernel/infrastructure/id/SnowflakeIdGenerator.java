@@ -0,0 +1,92 @@
+package com.smartcity.common.sharedkernel.infrastructure.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * 雪花ID生成器
+ * 64位ID由高到低为：1位符号（恒为0）、41位相对纪元的毫秒数、10位工作节点ID、12位毫秒内序号，
+ * 同一节点内严格递增，不同节点的工作节点ID不同即全局唯一。
+ * 时间和序号合并保存在一个AtomicLong中，生成ID是一次CAS；序号用尽或时钟回拨时不等待，
+ * 直接沿用上次的时间继续递增（序号进位即借用下一毫秒），待系统时钟追上后恢复。
+ * 工作节点ID来自租约时，租约失效后拒绝生成ID，避免与接管该ID的实例重复
+ */
+public class SnowflakeIdGenerator {
+
+    /**
+     * 纪元：2024-01-01T00:00:00Z，41位毫秒数可用约69年
+     */
+    public static final long EPOCH_MILLIS = 1704067200000L;
+
+    static final int WORKER_ID_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final int MAX_WORKER_ID = (1 << WORKER_ID_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final int workerId;
+    private final long workerBits;
+    private final LongSupplier clock;
+    private final BooleanSupplier leaseValid;
+
+    /**
+     * 高位为相对纪元的毫秒数，低12位为该毫秒内已分配的最后一个序号
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(int workerId) {
+        this(workerId, () -> true);
+    }
+
+    /**
+     * @param leaseValid 工作节点ID的租约是否仍然有效
+     */
+    public SnowflakeIdGenerator(int workerId, BooleanSupplier leaseValid) {
+        this(workerId, System::currentTimeMillis, leaseValid);
+    }
+
+    SnowflakeIdGenerator(int workerId, LongSupplier clock) {
+        this(workerId, clock, () -> true);
+    }
+
+    SnowflakeIdGenerator(int workerId, LongSupplier clock, BooleanSupplier leaseValid) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("工作节点ID必须在0到" + MAX_WORKER_ID + "之间: " + workerId);
+        }
+        this.workerId = workerId;
+        this.workerBits = (long) workerId << SEQUENCE_BITS;
+        this.clock = clock;
+        this.leaseValid = leaseValid;
+    }
+
+    /**
+     * 生成下一个ID
+     *
+     * @throws IllegalStateException 工作节点ID的租约已失效
+     */
+    public long nextId() {
+        if (!leaseValid.getAsBoolean()) {
+            throw new IllegalStateException("雪花ID工作节点" + workerId + "的租约已失效，暂停生成ID");
+        }
+        while (true) {
+            long previous = state.get();
+            long now = clock.getAsLong() - EPOCH_MILLIS;
+            long next = now > (previous >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : previous + 1;
+            if (state.compareAndSet(previous, next)) {
+                long millis = next >>> SEQUENCE_BITS;
+                return millis << (WORKER_ID_BITS + SEQUENCE_BITS) | workerBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public int getWorkerId() {
+        return workerId;
+    }
+
+    /**
+     * 从ID中取出生成时间（纪元毫秒）
+     */
+    public static long timestampOf(long id) {
+        return (id >>> (WORKER_ID_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+}
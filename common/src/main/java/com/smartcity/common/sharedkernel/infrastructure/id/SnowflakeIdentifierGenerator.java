@@ -0,0 +1,22 @@
+package com.smartcity.common.sharedkernel.infrastructure.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * 雪花ID的Hibernate主键生成器，由{@link SnowflakeId}注解引用
+ * Hibernate在构建SessionFactory时创建实例，此时生成器必须已装配，否则直接启动失败而不是等到第一次插入
+ */
+public class SnowflakeIdentifierGenerator implements IdentifierGenerator {
+
+    public SnowflakeIdentifierGenerator() {
+        if (!SnowflakeIds.isInstalled()) {
+            throw new IllegalStateException("实体使用了雪花ID主键，但未开启smartcity.id.enabled");
+        }
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return SnowflakeIds.nextId();
+    }
+}
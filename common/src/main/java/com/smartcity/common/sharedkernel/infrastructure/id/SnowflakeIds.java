@@ -0,0 +1,34 @@
+package com.smartcity.common.sharedkernel.infrastructure.id;
+
+/**
+ * 进程内的雪花ID生成器入口
+ * Hibernate自行实例化主键生成器，无法注入Spring Bean，因此由配置类在启动时把生成器装配到这里
+ */
+public final class SnowflakeIds {
+
+    private static volatile SnowflakeIdGenerator generator;
+
+    private SnowflakeIds() {
+    }
+
+    public static void install(SnowflakeIdGenerator idGenerator) {
+        generator = idGenerator;
+    }
+
+    public static boolean isInstalled() {
+        return generator != null;
+    }
+
+    /**
+     * 生成下一个ID
+     *
+     * @throws IllegalStateException 生成器尚未装配
+     */
+    public static long nextId() {
+        SnowflakeIdGenerator current = generator;
+        if (current == null) {
+            throw new IllegalStateException("雪花ID生成器尚未初始化，请开启smartcity.id.enabled");
+        }
+        return current.nextId();
+    }
+}
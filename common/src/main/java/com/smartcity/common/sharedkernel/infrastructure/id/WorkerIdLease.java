@@ -0,0 +1,174 @@
+package com.smartcity.common.sharedkernel.infrastructure.id;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 雪花ID工作节点ID租约
+ * 每个实例启动时在id_worker_leases表中按服务名占用一个工作节点ID，并定期续约；心跳超过TTL未更新的租约可被其他实例接管。
+ * 指定了工作节点ID时只尝试该ID，被存活实例占用则在一个TTL内重试后启动失败；未指定时取第一个空闲或已过期的ID。
+ * 本地记录最近一次续约成功的时间，超过TTL未续约（数据库不可用、进程长时间停顿或租约被接管）时租约视为失效，
+ * 生成器据此拒绝生成ID，宁可插入失败也不与接管者产生重复主键
+ */
+public class WorkerIdLease {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkerIdLease.class);
+
+    private static final String CLAIM_NEW_SQL = "INSERT IGNORE INTO id_worker_leases "
+            + "(service, worker_id, instance_id, heartbeat_at) VALUES (?, ?, ?, CURRENT_TIMESTAMP(3))";
+    private static final String CLAIM_EXPIRED_SQL = "UPDATE id_worker_leases "
+            + "SET instance_id = ?, heartbeat_at = CURRENT_TIMESTAMP(3) "
+            + "WHERE service = ? AND worker_id = ? AND heartbeat_at < TIMESTAMPADD(MICROSECOND, ?, CURRENT_TIMESTAMP(3))";
+    private static final String LIVE_SQL = "SELECT worker_id FROM id_worker_leases "
+            + "WHERE service = ? AND heartbeat_at >= TIMESTAMPADD(MICROSECOND, ?, CURRENT_TIMESTAMP(3))";
+    private static final String HOLDER_SQL = "SELECT instance_id FROM id_worker_leases WHERE service = ? AND worker_id = ?";
+    private static final String RENEW_SQL = "UPDATE id_worker_leases SET heartbeat_at = CURRENT_TIMESTAMP(3) "
+            + "WHERE service = ? AND worker_id = ? AND instance_id = ?";
+    private static final String RELEASE_SQL = "DELETE FROM id_worker_leases "
+            + "WHERE service = ? AND worker_id = ? AND instance_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String service;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final long ttlMillis;
+
+    private volatile int workerId = -1;
+
+    /**
+     * 租约在本地视为有效的截止时间（System.nanoTime），取续约请求发出前的时间加TTL，早于数据库中他人可接管的时间
+     */
+    private volatile long validUntilNanos;
+
+    private ScheduledExecutorService scheduler;
+
+    public WorkerIdLease(JdbcTemplate jdbcTemplate, String service, long ttlMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.service = service;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * 占用工作节点ID并开始续约
+     *
+     * @param requestedWorkerId 指定的工作节点ID，为null时自动分配
+     * @throws IllegalStateException 指定的ID被其他存活实例占用，或已无空闲ID
+     */
+    public synchronized int acquire(Integer requestedWorkerId) {
+        int acquired = requestedWorkerId != null ? acquireRequested(requestedWorkerId) : acquireFree();
+        workerId = acquired;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "snowflake-worker-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, ttlMillis / 3);
+        scheduler.scheduleAtFixedRate(this::renew, interval, interval, TimeUnit.MILLISECONDS);
+        logger.info("已占用雪花ID工作节点: service={}, workerId={}, instanceId={}", service, acquired, instanceId);
+        return acquired;
+    }
+
+    private int acquireRequested(int requested) {
+        // 上一次运行异常退出时租约仍在，等待其过期；另一个存活实例持有时一直续约，等待结束后启动失败
+        long deadline = System.currentTimeMillis() + ttlMillis + 1000;
+        while (true) {
+            if (tryClaim(requested)) {
+                return requested;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                throw new IllegalStateException("雪花ID工作节点" + requested + "已被实例" + holderOf(requested)
+                        + "占用，service=" + service);
+            }
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("等待雪花ID工作节点租约时被中断", e);
+            }
+        }
+    }
+
+    private int acquireFree() {
+        Set<Integer> live = new HashSet<>(jdbcTemplate.queryForList(LIVE_SQL, Integer.class, service,
+                -ttlMillis * 1000));
+        for (int candidate = 0; candidate <= SnowflakeIdGenerator.MAX_WORKER_ID; candidate++) {
+            if (!live.contains(candidate) && tryClaim(candidate)) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("没有空闲的雪花ID工作节点，service=" + service);
+    }
+
+    /**
+     * 插入新租约或接管已过期的租约，两条语句都只在条件满足时影响一行，并发占用同一ID时只有一个实例成功
+     */
+    private boolean tryClaim(int candidate) {
+        long start = System.nanoTime();
+        boolean claimed = jdbcTemplate.update(CLAIM_NEW_SQL, service, candidate, instanceId) == 1
+                || jdbcTemplate.update(CLAIM_EXPIRED_SQL, instanceId, service, candidate, -ttlMillis * 1000) == 1;
+        if (claimed) {
+            validUntilNanos = start + TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        }
+        return claimed;
+    }
+
+    private String holderOf(int candidate) {
+        List<String> holders = jdbcTemplate.queryForList(HOLDER_SQL, String.class, service, candidate);
+        return holders.isEmpty() ? "未知" : holders.get(0);
+    }
+
+    private void renew() {
+        long start = System.nanoTime();
+        try {
+            if (jdbcTemplate.update(RENEW_SQL, service, workerId, instanceId) == 1) {
+                validUntilNanos = start + TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+            } else {
+                validUntilNanos = start;
+                logger.error("雪花ID工作节点{}的租约已被其他实例接管，停止生成ID", workerId);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("雪花ID工作节点{}续约失败，租约将在{}ms内失效: {}", workerId, ttlMillis, e.getMessage());
+        }
+    }
+
+    /**
+     * 租约在本地是否仍然有效
+     */
+    public boolean isValid() {
+        return System.nanoTime() - validUntilNanos < 0;
+    }
+
+    /**
+     * 停止续约并释放租约，使重启的实例可以立即复用该ID
+     */
+    public synchronized void release() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        validUntilNanos = System.nanoTime();
+        try {
+            jdbcTemplate.update(RELEASE_SQL, service, workerId, instanceId);
+        } catch (DataAccessException e) {
+            logger.warn("释放雪花ID工作节点{}失败，租约将在{}ms后过期: {}", workerId, ttlMillis, e.getMessage());
+        }
+    }
+
+    public int getWorkerId() {
+        return workerId;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+}
@@ -0,0 +1,29 @@
+package com.smartcity.common.sharedkernel.infrastructure.mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注在映射接口上，编译期由MapperProcessor生成实现类（接口名加Impl后缀）
+ * 接口中每个单参数抽象方法把参数类型转换为返回类型：按属性名匹配源对象的getter，
+ * 目标对象优先使用参数名全部可匹配且参数最多的构造函数，其余属性通过setter写入。
+ * 生成的代码只有直接的getter/setter调用，没有反射；目标属性找不到来源时编译报错，
+ * 确需留空的属性用{@link Ignore}声明。
+ * 接口中单参数的default方法作为自定义转换，类型匹配时优先于内置的枚举与字符串转换
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateMapper {
+
+    /**
+     * 标注在映射方法上，列出不需要赋值的目标属性
+     */
+    @Retention(RetentionPolicy.SOURCE)
+    @Target(ElementType.METHOD)
+    @interface Ignore {
+
+        String[] value();
+    }
+}
@@ -0,0 +1,430 @@
+package com.smartcity.common.sharedkernel.infrastructure.mapping.processor;
+
+import com.smartcity.common.sharedkernel.infrastructure.mapping.GenerateMapper;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link GenerateMapper}的注解处理器，为每个映射接口生成直线式的实现类
+ * 属性由public的getX/isX、setX方法确定；类型上标注了Lombok的@Data/@Getter/@Setter/@Value时按字段补齐，
+ * 以免Lombok尚未展开时漏掉属性。属性类型不同时依次尝试：直接赋值、接口中的其他映射方法、
+ * 枚举与字符串按名称互转；集合方法（Collection到List）逐个调用元素的映射方法
+ */
+@SupportedAnnotationTypes("com.smartcity.common.sharedkernel.infrastructure.mapping.GenerateMapper")
+public class MapperProcessor extends AbstractProcessor {
+
+    private static final String IMPL_SUFFIX = "Impl";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateMapper.class)) {
+            if (element.getKind() != ElementKind.INTERFACE) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "@GenerateMapper只能标注在接口上", element);
+                continue;
+            }
+            TypeElement mapper = (TypeElement) element;
+            try {
+                write(mapper, new MapperWriter(mapper).render());
+            } catch (MappingException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.element);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "写入映射实现类失败: " + e.getMessage(), mapper);
+            }
+        }
+        return true;
+    }
+
+    private void write(TypeElement mapper, String source) throws IOException {
+        String name = qualifiedImplName(mapper);
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(name, mapper);
+        try (Writer writer = file.openWriter()) {
+            writer.write(source);
+        }
+    }
+
+    private String qualifiedImplName(TypeElement mapper) {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(mapper);
+        String simpleName = implSimpleName(mapper);
+        return pkg.isUnnamed() ? simpleName : pkg.getQualifiedName() + "." + simpleName;
+    }
+
+    private static String implSimpleName(TypeElement mapper) {
+        return mapper.getSimpleName() + IMPL_SUFFIX;
+    }
+
+    /**
+     * 单个映射接口的代码生成
+     */
+    private final class MapperWriter {
+
+        private final TypeElement mapper;
+        private final Types types = processingEnv.getTypeUtils();
+        private final Elements elements = processingEnv.getElementUtils();
+        private final List<ExecutableElement> methods = new ArrayList<>();
+        /**
+         * 可用于属性转换的方法：待生成的抽象方法和接口中手写的default方法
+         */
+        private final List<ExecutableElement> converters = new ArrayList<>();
+        private final Map<String, String> helperNames = new LinkedHashMap<>();
+        private final StringBuilder helpers = new StringBuilder();
+
+        MapperWriter(TypeElement mapper) {
+            this.mapper = mapper;
+            for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(mapper))) {
+                if (method.getModifiers().contains(Modifier.ABSTRACT)) {
+                    methods.add(method);
+                    converters.add(method);
+                } else if (method.getModifiers().contains(Modifier.DEFAULT) && method.getParameters().size() == 1) {
+                    converters.add(method);
+                }
+            }
+        }
+
+        String render() {
+            StringBuilder body = new StringBuilder();
+            for (ExecutableElement method : methods) {
+                if (method.getParameters().size() != 1 || method.getReturnType().getKind() != TypeKind.DECLARED) {
+                    throw new MappingException("映射方法必须只有一个参数并返回对象类型", method);
+                }
+                body.append('\n');
+                if (isCollectionMethod(method)) {
+                    renderCollectionMethod(method, body);
+                } else {
+                    renderBeanMethod(method, body);
+                }
+            }
+
+            PackageElement pkg = elements.getPackageOf(mapper);
+            StringBuilder source = new StringBuilder();
+            if (!pkg.isUnnamed()) {
+                source.append("package ").append(pkg.getQualifiedName()).append(";\n\n");
+            }
+            source.append("@javax.annotation.processing.Generated(\"").append(MapperProcessor.class.getName())
+                    .append("\")\n");
+            source.append("public class ").append(implSimpleName(mapper)).append(" implements ")
+                    .append(mapper.getQualifiedName()).append(" {\n");
+            source.append(body);
+            source.append(helpers);
+            source.append("}\n");
+            return source.toString();
+        }
+
+        private void renderBeanMethod(ExecutableElement method, StringBuilder out) {
+            TypeMirror sourceType = method.getParameters().get(0).asType();
+            DeclaredType targetType = (DeclaredType) method.getReturnType();
+            TypeElement targetElement = (TypeElement) targetType.asElement();
+            if (sourceType.getKind() != TypeKind.DECLARED) {
+                throw new MappingException("映射方法的参数必须是对象类型", method);
+            }
+            Map<String, Property> readable = readableProperties((TypeElement) types.asElement(sourceType));
+            Map<String, Property> writable = writableProperties(targetElement);
+            Set<String> ignored = ignoredProperties(method);
+
+            // 选参数名全部可匹配且参数最多的构造函数，其余属性走setter
+            ExecutableElement constructor = null;
+            List<String> constructorArgs = null;
+            for (ExecutableElement candidate : ElementFilter.constructorsIn(targetElement.getEnclosedElements())) {
+                if (!candidate.getModifiers().contains(Modifier.PUBLIC)) {
+                    continue;
+                }
+                List<String> args = new ArrayList<>();
+                for (VariableElement parameter : candidate.getParameters()) {
+                    Property property = readable.get(parameter.getSimpleName().toString());
+                    String expression = property == null
+                            ? null
+                            : convert(property.type(), parameter.asType(), "source." + property.accessor() + "()");
+                    if (expression == null) {
+                        args = null;
+                        break;
+                    }
+                    args.add(expression);
+                }
+                if (args != null && (constructor == null
+                        || candidate.getParameters().size() > constructor.getParameters().size())) {
+                    constructor = candidate;
+                    constructorArgs = args;
+                }
+            }
+            if (constructor == null) {
+                throw new MappingException(targetElement.getQualifiedName()
+                        + "没有可用的public构造函数：需要无参构造函数或参数名都能在源对象中找到的构造函数", method);
+            }
+
+            Set<String> assigned = new HashSet<>();
+            for (VariableElement parameter : constructor.getParameters()) {
+                assigned.add(parameter.getSimpleName().toString());
+            }
+
+            String sourceName = sourceType.toString();
+            String targetName = targetType.toString();
+            out.append("    @Override\n");
+            out.append("    public ").append(targetName).append(' ').append(method.getSimpleName())
+                    .append('(').append(sourceName).append(" source) {\n");
+            out.append("        if (source == null) {\n");
+            out.append("            return null;\n");
+            out.append("        }\n");
+            out.append("        ").append(targetName).append(" target = new ").append(targetName).append('(')
+                    .append(String.join(", ", constructorArgs)).append(");\n");
+            for (Map.Entry<String, Property> entry : writable.entrySet()) {
+                String name = entry.getKey();
+                if (assigned.contains(name) || ignored.contains(name)) {
+                    continue;
+                }
+                Property target = entry.getValue();
+                Property property = readable.get(name);
+                if (property == null) {
+                    throw new MappingException(targetElement.getQualifiedName() + "的属性" + name
+                            + "在" + sourceName + "中没有对应的属性，不需要赋值时用@GenerateMapper.Ignore声明", method);
+                }
+                String expression = convert(property.type(), target.type(), "source." + property.accessor() + "()");
+                if (expression == null) {
+                    throw new MappingException("无法把属性" + name + "从" + property.type() + "转换为" + target.type(),
+                            method);
+                }
+                out.append("        target.").append(target.accessor()).append('(').append(expression).append(");\n");
+            }
+            out.append("        return target;\n");
+            out.append("    }\n");
+        }
+
+        private void renderCollectionMethod(ExecutableElement method, StringBuilder out) {
+            DeclaredType sourceType = (DeclaredType) method.getParameters().get(0).asType();
+            DeclaredType targetType = (DeclaredType) method.getReturnType();
+            TypeMirror sourceItem = sourceType.getTypeArguments().get(0);
+            TypeMirror targetItem = targetType.getTypeArguments().get(0);
+            String expression = convert(sourceItem, targetItem, "item");
+            if (expression == null) {
+                throw new MappingException("没有把" + sourceItem + "转换为" + targetItem + "的映射方法", method);
+            }
+            out.append("    @Override\n");
+            out.append("    public ").append(targetType).append(' ').append(method.getSimpleName())
+                    .append('(').append(sourceType).append(" source) {\n");
+            out.append("        if (source == null) {\n");
+            out.append("            return null;\n");
+            out.append("        }\n");
+            out.append("        java.util.ArrayList<").append(targetItem).append("> target = new java.util.ArrayList<>(")
+                    .append("source.size());\n");
+            out.append("        for (").append(sourceItem).append(" item : source) {\n");
+            out.append("            target.add(").append(expression).append(");\n");
+            out.append("        }\n");
+            out.append("        return target;\n");
+            out.append("    }\n");
+        }
+
+        private boolean isCollectionMethod(ExecutableElement method) {
+            TypeMirror parameter = method.getParameters().get(0).asType();
+            TypeMirror returnType = method.getReturnType();
+            TypeMirror collection = types.erasure(elements.getTypeElement("java.util.Collection").asType());
+            TypeMirror arrayList = types.erasure(elements.getTypeElement("java.util.ArrayList").asType());
+            return parameter.getKind() == TypeKind.DECLARED
+                    && types.isAssignable(types.erasure(parameter), collection)
+                    && ((DeclaredType) parameter).getTypeArguments().size() == 1
+                    && types.isAssignable(arrayList, types.erasure(returnType))
+                    && ((DeclaredType) returnType).getTypeArguments().size() == 1;
+        }
+
+        /**
+         * 生成把from类型的表达式转换为to类型的代码，无法转换时返回null
+         */
+        private String convert(TypeMirror from, TypeMirror to, String expression) {
+            if (types.isAssignable(from, to)) {
+                return expression;
+            }
+            for (ExecutableElement method : converters) {
+                if (method.getParameters().size() == 1
+                        && types.isAssignable(from, method.getParameters().get(0).asType())
+                        && types.isAssignable(method.getReturnType(), to)) {
+                    return method.getSimpleName() + "(" + expression + ")";
+                }
+            }
+            boolean fromEnum = isEnum(from);
+            boolean toEnum = isEnum(to);
+            boolean fromString = isString(from);
+            boolean toString = isString(to);
+            if (fromEnum && toString) {
+                return helper("nameOf", "String", "java.lang.Enum<?>", "value.name()") + "(" + expression + ")";
+            }
+            if (fromString && toEnum) {
+                return helper("to" + simpleName(to), to.toString(), "String",
+                        to + ".valueOf(value)") + "(" + expression + ")";
+            }
+            if (fromEnum && toEnum) {
+                return helper("to" + simpleName(to), to.toString(), from.toString(),
+                        to + ".valueOf(value.name())") + "(" + expression + ")";
+            }
+            return null;
+        }
+
+        /**
+         * 生成空值安全的私有静态转换方法，同一转换只生成一次
+         */
+        private String helper(String baseName, String returnType, String parameterType, String body) {
+            String key = returnType + "<-" + parameterType;
+            String name = helperNames.get(key);
+            if (name != null) {
+                return name;
+            }
+            name = baseName;
+            for (int i = 2; helperNames.containsValue(name); i++) {
+                name = baseName + i;
+            }
+            helperNames.put(key, name);
+            helpers.append('\n');
+            helpers.append("    private static ").append(returnType).append(' ').append(name).append('(')
+                    .append(parameterType).append(" value) {\n");
+            helpers.append("        return value == null ? null : ").append(body).append(";\n");
+            helpers.append("    }\n");
+            return name;
+        }
+
+        private Map<String, Property> readableProperties(TypeElement type) {
+            Map<String, Property> properties = new LinkedHashMap<>();
+            for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+                if (!isAccessible(method) || !method.getParameters().isEmpty()) {
+                    continue;
+                }
+                String name = method.getSimpleName().toString();
+                TypeMirror returnType = method.getReturnType();
+                if (name.startsWith("get") && name.length() > 3 && returnType.getKind() != TypeKind.VOID
+                        && !name.equals("getClass")) {
+                    properties.put(decapitalize(name.substring(3)), new Property(name, returnType));
+                } else if (name.startsWith("is") && name.length() > 2 && returnType.getKind() == TypeKind.BOOLEAN) {
+                    properties.put(decapitalize(name.substring(2)), new Property(name, returnType));
+                }
+            }
+            for (VariableElement field : lombokFields(type, "lombok.Getter", "lombok.Data", "lombok.Value")) {
+                String name = field.getSimpleName().toString();
+                String prefix = field.asType().getKind() == TypeKind.BOOLEAN ? "is" : "get";
+                properties.putIfAbsent(name, new Property(prefix + capitalize(name), field.asType()));
+            }
+            return properties;
+        }
+
+        private Map<String, Property> writableProperties(TypeElement type) {
+            Map<String, Property> properties = new LinkedHashMap<>();
+            for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+                String name = method.getSimpleName().toString();
+                if (isAccessible(method) && method.getParameters().size() == 1
+                        && name.startsWith("set") && name.length() > 3) {
+                    properties.put(decapitalize(name.substring(3)),
+                            new Property(name, method.getParameters().get(0).asType()));
+                }
+            }
+            for (VariableElement field : lombokFields(type, "lombok.Setter", "lombok.Data")) {
+                if (!field.getModifiers().contains(Modifier.FINAL)) {
+                    String name = field.getSimpleName().toString();
+                    properties.putIfAbsent(name, new Property("set" + capitalize(name), field.asType()));
+                }
+            }
+            return properties;
+        }
+
+        /**
+         * 类型或字段上带有指定Lombok注解时，返回会生成访问方法的实例字段
+         */
+        private List<VariableElement> lombokFields(TypeElement type, String... annotations) {
+            List<String> names = Arrays.asList(annotations);
+            boolean onType = hasAnnotation(type, names);
+            List<VariableElement> fields = new ArrayList<>();
+            for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                if (!field.getModifiers().contains(Modifier.STATIC)
+                        && !field.getModifiers().contains(Modifier.TRANSIENT)
+                        && (onType || hasAnnotation(field, names))) {
+                    fields.add(field);
+                }
+            }
+            return fields;
+        }
+
+        private boolean hasAnnotation(Element element, List<String> names) {
+            return element.getAnnotationMirrors().stream().anyMatch(annotation -> names.contains(
+                    ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString()));
+        }
+
+        private Set<String> ignoredProperties(ExecutableElement method) {
+            GenerateMapper.Ignore ignore = method.getAnnotation(GenerateMapper.Ignore.class);
+            return ignore == null ? Set.of() : Set.of(ignore.value());
+        }
+
+        private boolean isAccessible(ExecutableElement method) {
+            return method.getModifiers().contains(Modifier.PUBLIC) && !method.getModifiers().contains(Modifier.STATIC);
+        }
+
+        private boolean isEnum(TypeMirror type) {
+            return type.getKind() == TypeKind.DECLARED
+                    && ((DeclaredType) type).asElement().getKind() == ElementKind.ENUM;
+        }
+
+        private boolean isString(TypeMirror type) {
+            return types.isSameType(type, elements.getTypeElement("java.lang.String").asType());
+        }
+
+        private String simpleName(TypeMirror type) {
+            return ((DeclaredType) type).asElement().getSimpleName().toString();
+        }
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * 与JavaBeans规则一致：前两个字母都是大写时保持原样
+     */
+    private static String decapitalize(String name) {
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(0)) && Character.isUpperCase(name.charAt(1))) {
+            return name;
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * 属性的访问方法名及其类型
+     */
+    private record Property(String accessor, TypeMirror type) {
+    }
+
+    private static final class MappingException extends RuntimeException {
+
+        private final transient Element element;
+
+        MappingException(String message, Element element) {
+            super(message);
+            this.element = element;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.smartcity.common.sharedkernel.infrastructure.outbox;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 内存投递目标，只保留最近的若干条，供开发和测试环境查看
+ */
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final int capacity;
+    private final Deque<OutboxMessage> messages = new ArrayDeque<>();
+
+    public InMemoryOutboxSink(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void deliver(List<OutboxMessage> batch) {
+        for (OutboxMessage message : batch) {
+            if (messages.size() >= capacity) {
+                messages.pollFirst();
+            }
+            messages.addLast(message);
+        }
+    }
+
+    /**
+     * 最近投递的事件，按投递顺序排列
+     */
+    public synchronized List<OutboxMessage> recent() {
+        return new ArrayList<>(messages);
+    }
+}
@@ -0,0 +1,25 @@
+package com.smartcity.common.sharedkernel.infrastructure.outbox;
+
+import java.time.Instant;
+
+/**
+ * outbox表中的一条待投递事件
+ *
+ * @param id            自增主键，也是投递顺序
+ * @param aggregateType 聚合类型
+ * @param aggregateId   聚合ID
+ * @param eventType     事件类名
+ * @param eventId       事件唯一ID，下游按此去重
+ * @param payload       JSON格式的事件内容
+ * @param occurredOn    事件发生时间
+ * @param createdAt     写入outbox的时间
+ */
+public record OutboxMessage(long id,
+                            String aggregateType,
+                            Long aggregateId,
+                            String eventType,
+                            String eventId,
+                            String payload,
+                            Instant occurredOn,
+                            Instant createdAt) {
+}
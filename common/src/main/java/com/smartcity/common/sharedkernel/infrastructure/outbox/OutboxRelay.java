@@ -0,0 +1,248 @@
+package com.smartcity.common.sharedkernel.infrastructure.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * outbox中继
+ * 后台线程在事务内用FOR UPDATE SKIP LOCKED锁定一批未投递事件，交给sink后用一条UPDATE标记为已投递；
+ * 多个实例可以同时运行，彼此跳过对方锁定的行。整批满时立即拉取下一批，否则按轮询间隔休眠
+ */
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final String SELECT_BATCH = "SELECT id, aggregate_type, aggregate_id, event_type, event_id, payload, "
+            + "occurred_on, created_at FROM outbox_events WHERE published_at IS NULL "
+            + "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String OLDEST_PENDING = "SELECT MIN(created_at) FROM outbox_events WHERE published_at IS NULL";
+    private static final String PURGE_PUBLISHED = "DELETE FROM outbox_events WHERE published_at IS NOT NULL "
+            + "AND published_at < ? LIMIT ?";
+
+    private static final RowMapper<OutboxMessage> ROW_MAPPER = (rs, rowNum) -> new OutboxMessage(
+            rs.getLong("id"),
+            rs.getString("aggregate_type"),
+            rs.getObject("aggregate_id", Long.class),
+            rs.getString("event_type"),
+            rs.getString("event_id"),
+            rs.getString("payload"),
+            toInstant(rs.getTimestamp("occurred_on")),
+            toInstant(rs.getTimestamp("created_at")));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxSink sink;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final long retentionMillis;
+
+    private final LongAdder relayedEvents = new LongAdder();
+    private final LongAdder relayedBatches = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final LongAdder purgedEvents = new LongAdder();
+    private final AtomicLong lastBatchMillis = new AtomicLong();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final long startedAt = System.currentTimeMillis();
+
+    /**
+     * 最近一段时间的投递速率（条/秒），指数加权平均
+     */
+    private volatile double eventsPerSecond;
+    private long rateWindowStart = System.nanoTime();
+    private long rateWindowEvents;
+    private long lastPurgeAt;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    /**
+     * @param jdbcTemplate        outbox表所在数据源
+     * @param transactionTemplate 锁定、投递和标记所在的事务
+     * @param sink                投递目标
+     * @param batchSize           单批最大条数
+     * @param pollIntervalMillis  没有积压时的轮询间隔
+     * @param retentionMillis     已投递事件的保留时长，小于等于0表示不清理
+     */
+    public OutboxRelay(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, OutboxSink sink,
+                       int batchSize, long pollIntervalMillis, long retentionMillis) {
+        if (batchSize <= 0 || pollIntervalMillis <= 0) {
+            throw new IllegalArgumentException("批大小和轮询间隔必须大于0");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.retentionMillis = retentionMillis;
+    }
+
+    /**
+     * 启动后台中继线程
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::runLoop, "outbox-relay");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * 停止中继，正在投递的批次会完成后再退出
+     */
+    public void stop(long timeoutMillis) {
+        Thread current;
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            current = worker;
+        }
+        try {
+            current.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (current.isAlive()) {
+            logger.warn("outbox中继关闭超时");
+            current.interrupt();
+        }
+    }
+
+    /**
+     * 供容器销毁时调用
+     */
+    public void shutdown() {
+        stop(5000);
+    }
+
+    private void runLoop() {
+        while (running) {
+            int relayed;
+            try {
+                relayed = relayOnce();
+            } catch (RuntimeException e) {
+                failedBatches.increment();
+                logger.error("outbox投递失败，稍后重试: {}", e.getMessage(), e);
+                relayed = 0;
+            }
+            purgeIfDue();
+            if (relayed < batchSize && !sleep(pollIntervalMillis)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 投递一批事件
+     *
+     * @return 本批投递的条数
+     */
+    public int relayOnce() {
+        long start = System.nanoTime();
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxMessage> batch = jdbcTemplate.query(SELECT_BATCH, ROW_MAPPER, batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            sink.deliver(Collections.unmodifiableList(batch));
+            String ids = batch.stream().map(m -> Long.toString(m.id())).collect(Collectors.joining(","));
+            jdbcTemplate.update("UPDATE outbox_events SET published_at = NOW(3) WHERE id IN (" + ids + ")");
+            lastLagMillis.set(Math.max(0, System.currentTimeMillis() - batch.get(0).createdAt().toEpochMilli()));
+            return batch.size();
+        });
+        int count = relayed == null ? 0 : relayed;
+        if (count > 0) {
+            relayedEvents.add(count);
+            relayedBatches.increment();
+            lastBatchMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } else {
+            lastLagMillis.set(0);
+        }
+        updateRate(count);
+        return count;
+    }
+
+    private void updateRate(int count) {
+        rateWindowEvents += count;
+        long elapsed = System.nanoTime() - rateWindowStart;
+        if (elapsed >= TimeUnit.SECONDS.toNanos(1)) {
+            double current = rateWindowEvents * 1_000_000_000.0 / elapsed;
+            eventsPerSecond = eventsPerSecond == 0 ? current : eventsPerSecond * 0.7 + current * 0.3;
+            rateWindowEvents = 0;
+            rateWindowStart = System.nanoTime();
+        }
+    }
+
+    private void purgeIfDue() {
+        long now = System.currentTimeMillis();
+        if (retentionMillis <= 0 || now - lastPurgeAt < TimeUnit.MINUTES.toMillis(1)) {
+            return;
+        }
+        lastPurgeAt = now;
+        try {
+            int purged = jdbcTemplate.update(PURGE_PUBLISHED, new Timestamp(now - retentionMillis), batchSize * 10);
+            purgedEvents.add(purged);
+        } catch (RuntimeException e) {
+            logger.warn("清理已投递的outbox事件失败: {}", e.getMessage());
+        }
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    /**
+     * 运行指标快照
+     * pendingLagMillis为当前最早未投递事件的等待时长，需查询一次数据库
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("running", running);
+        metrics.put("sink", sink.getClass().getSimpleName());
+        metrics.put("batchSize", batchSize);
+        metrics.put("relayedEvents", relayedEvents.sum());
+        metrics.put("relayedBatches", relayedBatches.sum());
+        metrics.put("failedBatches", failedBatches.sum());
+        metrics.put("purgedEvents", purgedEvents.sum());
+        metrics.put("eventsPerSecond", Math.round(eventsPerSecond * 10) / 10.0);
+        long uptimeSeconds = Math.max(1, (System.currentTimeMillis() - startedAt) / 1000);
+        metrics.put("averageEventsPerSecond", relayedEvents.sum() / uptimeSeconds);
+        metrics.put("lastBatchMillis", lastBatchMillis.get());
+        metrics.put("lastBatchLagMillis", lastLagMillis.get());
+        try {
+            Timestamp oldest = jdbcTemplate.queryForObject(OLDEST_PENDING, Timestamp.class);
+            metrics.put("pendingLagMillis", oldest == null ? 0 : Math.max(0, System.currentTimeMillis() - oldest.getTime()));
+        } catch (RuntimeException e) {
+            metrics.put("pendingLagMillis", -1);
+        }
+        return metrics;
+    }
+}
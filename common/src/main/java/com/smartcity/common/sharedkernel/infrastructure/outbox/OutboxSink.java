@@ -0,0 +1,15 @@
+package com.smartcity.common.sharedkernel.infrastructure.outbox;
+
+import java.util.List;
+
+/**
+ * outbox投递目标
+ * 实现方抛出异常时整批不标记为已投递，下一轮重新投递，因此下游需按eventId去重
+ */
+public interface OutboxSink {
+
+    /**
+     * 投递一批按id升序排列的事件
+     */
+    void deliver(List<OutboxMessage> batch);
+}
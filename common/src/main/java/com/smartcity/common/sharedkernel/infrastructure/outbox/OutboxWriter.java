@@ -0,0 +1,88 @@
+package com.smartcity.common.sharedkernel.infrastructure.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcity.common.sharedkernel.domain.model.DomainEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * outbox写入器
+ * 必须在业务数据所在的事务内调用，事件与业务数据一起提交或回滚；同一次调用的所有事件合并为一条多行INSERT
+ */
+public class OutboxWriter {
+
+    private static final String INSERT_PREFIX = "INSERT INTO outbox_events "
+            + "(aggregate_type, aggregate_id, event_type, event_id, payload, occurred_on) VALUES ";
+    private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 写入同一聚合的一组事件
+     */
+    public void append(String aggregateType, Long aggregateId, Collection<? extends DomainEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<Entry> entries = new ArrayList<>(events.size());
+        for (DomainEvent event : events) {
+            entries.add(new Entry(aggregateType, aggregateId, event));
+        }
+        appendAll(entries);
+    }
+
+    /**
+     * 写入多个聚合的事件，供批量保存使用
+     */
+    public void appendAll(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("outbox事件必须与业务数据在同一事务中写入");
+        }
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + entries.size() * (ROW_PLACEHOLDER.length() + 2));
+        sql.append(INSERT_PREFIX);
+        List<Object> args = new ArrayList<>(entries.size() * 6);
+        for (int i = 0; i < entries.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDER);
+            Entry entry = entries.get(i);
+            args.add(entry.aggregateType());
+            args.add(entry.aggregateId());
+            args.add(entry.event().getClass().getName());
+            args.add(entry.event().getEventId());
+            args.add(serialize(entry.event()));
+            args.add(Timestamp.from(entry.event().getOccurredOn()));
+        }
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private String serialize(DomainEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("无法序列化领域事件: " + event.getClass().getName(), e);
+        }
+    }
+
+    /**
+     * 待写入的事件及其所属聚合
+     */
+    public record Entry(String aggregateType, Long aggregateId, DomainEvent event) {
+    }
+}
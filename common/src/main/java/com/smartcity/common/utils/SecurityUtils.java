@@ -32,7 +32,9 @@ public class SecurityUtils {
      * 生成MD5哈希值
      * @param str 要哈希的字符串
      * @return MD5哈希值，32位小写
+     * @deprecated 无盐哈希不能用于保存密码，密码请使用{@link com.smartcity.common.security.PasswordHasher}
      */
+    @Deprecated
     public static String md5(String str) {
         // 修复：使用传统的if-else判断替代不支持的case标签组合
         if (str == null || str.isEmpty() || str.trim().isEmpty()) {
@@ -45,7 +47,9 @@ public class SecurityUtils {
      * 生成SHA-256哈希值
      * @param str 要哈希的字符串
      * @return SHA-256哈希值，64位小写
+     * @deprecated 无盐哈希不能用于保存密码，密码请使用{@link com.smartcity.common.security.PasswordHasher}
      */
+    @Deprecated
     public static String sha256(String str) {
         // 修复：使用传统的if-else判断替代不支持的case标签组合
         if (str == null || str.isEmpty() || str.trim().isEmpty()) {
@@ -61,6 +61,51 @@ CREATE TABLE IF NOT EXISTS traffic_db.traffic_flows (
     INDEX idx_congestion_level (congestion_level)
 ) ENGINE=InnoDB COMMENT='交通流量数据表';
 
+-- 交通流量分钟级汇总表
+CREATE TABLE IF NOT EXISTS traffic_db.traffic_flow_rollup_minute (
+    monitoring_point_id BIGINT NOT NULL COMMENT '监测点ID',
+    bucket_start DATETIME NOT NULL COMMENT '时间桶起点',
+    sample_count INT NOT NULL DEFAULT 0 COMMENT '读数条数',
+    flow_sum BIGINT NOT NULL DEFAULT 0 COMMENT '流量值合计',
+    speed_sum DECIMAL(16,2) NOT NULL DEFAULT 0 COMMENT '平均车速合计',
+    speed_count INT NOT NULL DEFAULT 0 COMMENT '含车速的读数条数',
+    occupancy_sum DECIMAL(16,2) NOT NULL DEFAULT 0 COMMENT '占有率合计',
+    occupancy_count INT NOT NULL DEFAULT 0 COMMENT '含占有率的读数条数',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (monitoring_point_id, bucket_start),
+    INDEX idx_bucket_start (bucket_start)
+) ENGINE=InnoDB COMMENT='交通流量分钟级汇总表';
+
+-- 交通流量小时级汇总表
+CREATE TABLE IF NOT EXISTS traffic_db.traffic_flow_rollup_hour (
+    monitoring_point_id BIGINT NOT NULL COMMENT '监测点ID',
+    bucket_start DATETIME NOT NULL COMMENT '时间桶起点',
+    sample_count INT NOT NULL DEFAULT 0 COMMENT '读数条数',
+    flow_sum BIGINT NOT NULL DEFAULT 0 COMMENT '流量值合计',
+    speed_sum DECIMAL(16,2) NOT NULL DEFAULT 0 COMMENT '平均车速合计',
+    speed_count INT NOT NULL DEFAULT 0 COMMENT '含车速的读数条数',
+    occupancy_sum DECIMAL(16,2) NOT NULL DEFAULT 0 COMMENT '占有率合计',
+    occupancy_count INT NOT NULL DEFAULT 0 COMMENT '含占有率的读数条数',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (monitoring_point_id, bucket_start),
+    INDEX idx_bucket_start (bucket_start)
+) ENGINE=InnoDB COMMENT='交通流量小时级汇总表';
+
+-- 交通流量天级汇总表
+CREATE TABLE IF NOT EXISTS traffic_db.traffic_flow_rollup_day (
+    monitoring_point_id BIGINT NOT NULL COMMENT '监测点ID',
+    bucket_start DATETIME NOT NULL COMMENT '时间桶起点',
+    sample_count INT NOT NULL DEFAULT 0 COMMENT '读数条数',
+    flow_sum BIGINT NOT NULL DEFAULT 0 COMMENT '流量值合计',
+    speed_sum DECIMAL(16,2) NOT NULL DEFAULT 0 COMMENT '平均车速合计',
+    speed_count INT NOT NULL DEFAULT 0 COMMENT '含车速的读数条数',
+    occupancy_sum DECIMAL(16,2) NOT NULL DEFAULT 0 COMMENT '占有率合计',
+    occupancy_count INT NOT NULL DEFAULT 0 COMMENT '含占有率的读数条数',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (monitoring_point_id, bucket_start),
+    INDEX idx_bucket_start (bucket_start)
+) ENGINE=InnoDB COMMENT='交通流量天级汇总表';
+
 -- 交通事件表
 CREATE TABLE IF NOT EXISTS traffic_db.traffic_events (
     id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '事件ID',
@@ -147,6 +192,31 @@ CREATE TABLE IF NOT EXISTS traffic_db.traffic_cameras (
     INDEX idx_status (status)
 ) ENGINE=InnoDB COMMENT='交通摄像头表';
 
+-- 领域事件outbox表
+CREATE TABLE IF NOT EXISTS traffic_db.outbox_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '主键ID，即投递顺序',
+    aggregate_type VARCHAR(50) NOT NULL COMMENT '聚合类型',
+    aggregate_id BIGINT COMMENT '聚合ID',
+    event_type VARCHAR(200) NOT NULL COMMENT '事件类型',
+    event_id VARCHAR(36) NOT NULL COMMENT '事件唯一ID',
+    payload TEXT NOT NULL COMMENT '事件内容(JSON)',
+    occurred_on DATETIME(3) NOT NULL COMMENT '事件发生时间',
+    created_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) COMMENT '写入时间',
+    published_at DATETIME(3) NULL COMMENT '投递时间，NULL表示未投递',
+    UNIQUE KEY uk_event_id (event_id),
+    INDEX idx_published_id (published_at, id),
+    INDEX idx_aggregate (aggregate_type, aggregate_id)
+) ENGINE=InnoDB COMMENT='领域事件outbox表';
+
+-- 雪花ID工作节点租约表
+CREATE TABLE IF NOT EXISTS traffic_db.id_worker_leases (
+    service VARCHAR(100) NOT NULL COMMENT '服务名',
+    worker_id INT NOT NULL COMMENT '雪花ID工作节点ID(0~1023)',
+    instance_id VARCHAR(64) NOT NULL COMMENT '持有租约的实例ID',
+    heartbeat_at DATETIME(3) NOT NULL COMMENT '最近一次续约时间',
+    PRIMARY KEY (service, worker_id)
+) ENGINE=InnoDB COMMENT='雪花ID工作节点租约表';
+
 -- 插入基础数据
 -- 插入道路数据
 INSERT INTO traffic_db.roads (road_name, road_code, road_type, length, lanes, speed_limit) VALUES
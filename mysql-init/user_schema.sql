@@ -8,10 +8,10 @@ USE user_db;
 -- 用户表
 CREATE TABLE IF NOT EXISTS user_db.users (
     id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '用户ID',
-    username VARCHAR(50) NOT NULL UNIQUE COMMENT '用户名',
+    username VARCHAR(50) NOT NULL COMMENT '用户名',
     password VARCHAR(255) NOT NULL COMMENT '密码（加密存储）',
-    email VARCHAR(100) NOT NULL UNIQUE COMMENT '邮箱',
-    phone VARCHAR(20) UNIQUE COMMENT '手机号',
+    email VARCHAR(100) NOT NULL COMMENT '邮箱',
+    phone VARCHAR(20) COMMENT '手机号',
     full_name VARCHAR(100) COMMENT '真实姓名',
     avatar VARCHAR(255) COMMENT '头像URL',
     gender TINYINT DEFAULT 0 COMMENT '性别：0-未知，1-男，2-女',
@@ -21,9 +21,9 @@ CREATE TABLE IF NOT EXISTS user_db.users (
     create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     last_login_time DATETIME COMMENT '最后登录时间',
-    INDEX idx_username (username),
-    INDEX idx_email (email),
-    INDEX idx_phone (phone)
+    UNIQUE KEY uk_users_username (username),
+    UNIQUE KEY uk_users_email (email),
+    UNIQUE KEY uk_users_phone (phone)
 ) ENGINE=InnoDB COMMENT='用户表';
 
 -- 用户角色表
@@ -87,6 +87,31 @@ CREATE TABLE IF NOT EXISTS user_db.login_logs (
     INDEX idx_login_time (login_time)
 ) ENGINE=InnoDB COMMENT='用户登录日志表';
 
+-- 领域事件outbox表
+CREATE TABLE IF NOT EXISTS user_db.outbox_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '主键ID，即投递顺序',
+    aggregate_type VARCHAR(50) NOT NULL COMMENT '聚合类型',
+    aggregate_id BIGINT COMMENT '聚合ID',
+    event_type VARCHAR(200) NOT NULL COMMENT '事件类型',
+    event_id VARCHAR(36) NOT NULL COMMENT '事件唯一ID',
+    payload TEXT NOT NULL COMMENT '事件内容(JSON)',
+    occurred_on DATETIME(3) NOT NULL COMMENT '事件发生时间',
+    created_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) COMMENT '写入时间',
+    published_at DATETIME(3) NULL COMMENT '投递时间，NULL表示未投递',
+    UNIQUE KEY uk_event_id (event_id),
+    INDEX idx_published_id (published_at, id),
+    INDEX idx_aggregate (aggregate_type, aggregate_id)
+) ENGINE=InnoDB COMMENT='领域事件outbox表';
+
+-- 雪花ID工作节点租约表
+CREATE TABLE IF NOT EXISTS user_db.id_worker_leases (
+    service VARCHAR(100) NOT NULL COMMENT '服务名',
+    worker_id INT NOT NULL COMMENT '雪花ID工作节点ID(0~1023)',
+    instance_id VARCHAR(64) NOT NULL COMMENT '持有租约的实例ID',
+    heartbeat_at DATETIME(3) NOT NULL COMMENT '最近一次续约时间',
+    PRIMARY KEY (service, worker_id)
+) ENGINE=InnoDB COMMENT='雪花ID工作节点租约表';
+
 -- 插入基础数据
 -- 插入默认角色
 INSERT INTO user_db.roles (role_name, description) VALUES
@@ -2,6 +2,8 @@ package com.smartcity.adminservice.controller;
 
 import com.smartcity.adminservice.entity.User;
 import com.smartcity.adminservice.service.UserService;
+import com.smartcity.common.PageRequest;
+import com.smartcity.common.PageResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -21,10 +23,23 @@ public class UserController {
     private UserService userService;
 
     /**
-     * 获取所有用户列表
-     * @return 用户列表
+     * 分页获取用户列表
+     * @param pageRequest 分页参数：pageNum、pageSize按页码分页，带cursor时按主键游标分页
+     * @return 用户分页结果
      */
     @GetMapping
+    public ResponseEntity<PageResult<User>> getUserPage(PageRequest pageRequest) {
+        PageResult<User> users = userService.getUserPage(pageRequest);
+        return new ResponseEntity<>(users, HttpStatus.OK);
+    }
+
+    /**
+     * 获取所有用户列表（兼容旧客户端）
+     * 带paged=false时仍按原来的列表格式返回全部用户，新客户端应使用分页接口
+     * @return 用户列表
+     */
+    @Deprecated
+    @GetMapping(params = "paged=false")
     public ResponseEntity<List<User>> getAllUsers() {
         List<User> users = userService.getAllUsers();
         return new ResponseEntity<>(users, HttpStatus.OK);
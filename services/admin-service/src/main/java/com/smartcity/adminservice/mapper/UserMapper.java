@@ -1,9 +1,12 @@
 package com.smartcity.adminservice.mapper;
 
 import com.smartcity.adminservice.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * 用户数据访问层
  */
@@ -23,4 +26,12 @@ public interface UserMapper extends JpaRepository<User, Long> {
      * @return 是否存在
      */
     boolean existsByUsername(String username);
-}
\ No newline at end of file
+
+    /**
+     * 键集分页：查询主键大于游标的用户
+     * @param id 游标（上一页最后一条记录的主键）
+     * @param limit 最大条数
+     * @return 按主键升序的用户列表
+     */
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+}
@@ -1,6 +1,8 @@
 package com.smartcity.adminservice.service;
 
 import com.smartcity.adminservice.entity.User;
+import com.smartcity.common.PageRequest;
+import com.smartcity.common.PageResult;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +17,13 @@ public interface UserService {
      */
     List<User> getAllUsers();
 
+    /**
+     * 分页获取用户列表，请求带游标时按主键做键集分页
+     * @param pageRequest 分页参数
+     * @return 分页结果
+     */
+    PageResult<User> getUserPage(PageRequest pageRequest);
+
     /**
      * 根据ID获取用户
      * @param id 用户ID
@@ -3,9 +3,14 @@ package com.smartcity.adminservice.service.impl;
 import com.smartcity.adminservice.entity.User;
 import com.smartcity.adminservice.mapper.UserMapper;
 import com.smartcity.adminservice.service.UserService;
+import com.smartcity.common.PageRequest;
+import com.smartcity.common.PageResult;
+import com.smartcity.common.security.PasswordHasher;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.util.DigestUtils;
 
 import java.util.Date;
 import java.util.List;
@@ -20,11 +25,26 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private PasswordHasher passwordHasher;
+
     @Override
     public List<User> getAllUsers() {
         return userMapper.findAll();
     }
 
+    @Override
+    public PageResult<User> getUserPage(PageRequest pageRequest) {
+        int pageSize = pageRequest.getPageSize();
+        if (pageRequest.isCursorMode()) {
+            List<User> fetched = userMapper.findByIdGreaterThanOrderByIdAsc(pageRequest.getCursor(), Limit.of(pageSize + 1));
+            return PageResult.ofCursor(pageSize, fetched, User::getId);
+        }
+        Page<User> page = userMapper.findAll(org.springframework.data.domain.PageRequest.of(
+                pageRequest.getPageNum() - 1, pageSize, Sort.by(Sort.Direction.ASC, "id")));
+        return PageResult.of(page.getTotalElements(), pageRequest.getPageNum(), pageSize, page.getContent());
+    }
+
     @Override
     public Optional<User> getUserById(Long id) {
         return userMapper.findById(id);
@@ -37,8 +57,8 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User createUser(User user) {
-        // 密码加密处理
-        user.setPassword(DigestUtils.md5DigestAsHex(user.getPassword().getBytes()));
+        // 密码加盐哈希处理
+        user.setPassword(passwordHasher.hash(user.getPassword()));
         user.setCreateTime(new Date());
         user.setUpdateTime(new Date());
         return userMapper.save(user);
@@ -56,7 +76,7 @@ public class UserServiceImpl implements UserService {
             updatedUser.setRole(user.getRole());
             // 如果密码不为空，则更新密码
             if (user.getPassword() != null && !user.getPassword().isEmpty()) {
-                updatedUser.setPassword(DigestUtils.md5DigestAsHex(user.getPassword().getBytes()));
+                updatedUser.setPassword(passwordHasher.hash(user.getPassword()));
             }
             updatedUser.setUpdateTime(new Date());
             return userMapper.save(updatedUser);
@@ -0,0 +1,46 @@
+package com.smartcity.traffic.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * 批量更新拥堵级别请求DTO
+ * 用于接收传感器批量上报的拥堵级别
+ */
+public class BatchUpdateCongestionLevelRequest {
+    
+    @NotEmpty(message = "Items are required")
+    @Size(max = 10000, message = "At most 10000 items per batch")
+    @Valid
+    private List<Item> items;
+    
+    // Getter method
+    public List<Item> getItems() {
+        return items;
+    }
+    
+    /**
+     * 单条拥堵级别更新
+     */
+    public static class Item {
+        
+        @NotNull(message = "Traffic id is required")
+        private Long id;
+        
+        @NotNull(message = "Congestion level is required")
+        private Integer congestionLevel;
+        
+        // Getter methods
+        public Long getId() {
+            return id;
+        }
+        
+        public Integer getCongestionLevel() {
+            return congestionLevel;
+        }
+    }
+}
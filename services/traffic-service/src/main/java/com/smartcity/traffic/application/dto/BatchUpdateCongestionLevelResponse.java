@@ -0,0 +1,113 @@
+package com.smartcity.traffic.application.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.smartcity.traffic.domain.Traffic.TrafficStatus;
+
+import java.util.List;
+
+/**
+ * 批量更新拥堵级别响应DTO
+ * 返回整体统计以及逐条处理结果
+ */
+public class BatchUpdateCongestionLevelResponse {
+    
+    private int total;
+    
+    private int succeeded;
+    
+    private int failed;
+    
+    private List<ItemResult> results;
+    
+    // Getter and setter methods
+    public int getTotal() {
+        return total;
+    }
+    
+    public void setTotal(int total) {
+        this.total = total;
+    }
+    
+    public int getSucceeded() {
+        return succeeded;
+    }
+    
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+    
+    public List<ItemResult> getResults() {
+        return results;
+    }
+    
+    public void setResults(List<ItemResult> results) {
+        this.results = results;
+    }
+    
+    /**
+     * 单条处理结果
+     */
+    public static class ItemResult {
+        
+        @JsonSerialize(using = ToStringSerializer.class)
+        private Long id;
+        
+        private String outcome;
+        
+        private Integer congestionLevel;
+        
+        private TrafficStatus status;
+        
+        private String error;
+        
+        // Getter and setter methods
+        public Long getId() {
+            return id;
+        }
+        
+        public void setId(Long id) {
+            this.id = id;
+        }
+        
+        public String getOutcome() {
+            return outcome;
+        }
+        
+        public void setOutcome(String outcome) {
+            this.outcome = outcome;
+        }
+        
+        public Integer getCongestionLevel() {
+            return congestionLevel;
+        }
+        
+        public void setCongestionLevel(Integer congestionLevel) {
+            this.congestionLevel = congestionLevel;
+        }
+        
+        public TrafficStatus getStatus() {
+            return status;
+        }
+        
+        public void setStatus(TrafficStatus status) {
+            this.status = status;
+        }
+        
+        public String getError() {
+            return error;
+        }
+        
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
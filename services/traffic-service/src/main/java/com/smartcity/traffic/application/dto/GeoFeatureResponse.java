@@ -0,0 +1,81 @@
+package com.smartcity.traffic.application.dto;
+
+/**
+ * 路网设施位置响应DTO
+ */
+public class GeoFeatureResponse {
+    
+    private String kind;
+    
+    private Long id;
+    
+    private String name;
+    
+    private double latitude;
+    
+    private double longitude;
+    
+    private Integer status;
+    
+    /**
+     * 到查询点的距离（米），仅最近邻查询返回
+     */
+    private Double distanceMeters;
+    
+    // Getter and setter methods
+    public String getKind() {
+        return kind;
+    }
+    
+    public void setKind(String kind) {
+        this.kind = kind;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public double getLatitude() {
+        return latitude;
+    }
+    
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+    
+    public double getLongitude() {
+        return longitude;
+    }
+    
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+    
+    public Integer getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+    
+    public Double getDistanceMeters() {
+        return distanceMeters;
+    }
+    
+    public void setDistanceMeters(Double distanceMeters) {
+        this.distanceMeters = distanceMeters;
+    }
+}
@@ -0,0 +1,18 @@
+package com.smartcity.traffic.application.dto;
+
+import com.smartcity.traffic.domain.SignalTiming;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * 信号灯手动控制请求DTO
+ */
+public class OverrideSignalRequest {
+    
+    @NotNull(message = "Phase is required")
+    private SignalTiming.Phase phase;
+    
+    // Getter method
+    public SignalTiming.Phase getPhase() {
+        return phase;
+    }
+}
@@ -0,0 +1,68 @@
+package com.smartcity.traffic.application.dto;
+
+/**
+ * 信号灯状态响应DTO
+ */
+public class SignalStateResponse {
+    
+    private Long lightId;
+    
+    private String mode;
+    
+    private String phase;
+    
+    private Integer remainingSeconds;
+    
+    private String nextPhase;
+    
+    private long computedAt;
+    
+    // Getter and setter methods
+    public Long getLightId() {
+        return lightId;
+    }
+    
+    public void setLightId(Long lightId) {
+        this.lightId = lightId;
+    }
+    
+    public String getMode() {
+        return mode;
+    }
+    
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+    
+    public String getPhase() {
+        return phase;
+    }
+    
+    public void setPhase(String phase) {
+        this.phase = phase;
+    }
+    
+    public Integer getRemainingSeconds() {
+        return remainingSeconds;
+    }
+    
+    public void setRemainingSeconds(Integer remainingSeconds) {
+        this.remainingSeconds = remainingSeconds;
+    }
+    
+    public String getNextPhase() {
+        return nextPhase;
+    }
+    
+    public void setNextPhase(String nextPhase) {
+        this.nextPhase = nextPhase;
+    }
+    
+    public long getComputedAt() {
+        return computedAt;
+    }
+    
+    public void setComputedAt(long computedAt) {
+        this.computedAt = computedAt;
+    }
+}
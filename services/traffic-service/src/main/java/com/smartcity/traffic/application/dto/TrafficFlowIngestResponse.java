@@ -0,0 +1,61 @@
+package com.smartcity.traffic.application.dto;
+
+import java.util.List;
+
+/**
+ * 交通流量导入响应DTO
+ * 缓冲区满时停止读取，客户端应从第linesConsumed + 1行开始重发
+ */
+public class TrafficFlowIngestResponse {
+    
+    private long accepted;
+    
+    private long malformed;
+    
+    private boolean backpressure;
+    
+    private long linesConsumed;
+    
+    private List<String> errors;
+    
+    // Getter and setter methods
+    public long getAccepted() {
+        return accepted;
+    }
+    
+    public void setAccepted(long accepted) {
+        this.accepted = accepted;
+    }
+    
+    public long getMalformed() {
+        return malformed;
+    }
+    
+    public void setMalformed(long malformed) {
+        this.malformed = malformed;
+    }
+    
+    public boolean isBackpressure() {
+        return backpressure;
+    }
+    
+    public void setBackpressure(boolean backpressure) {
+        this.backpressure = backpressure;
+    }
+    
+    public long getLinesConsumed() {
+        return linesConsumed;
+    }
+    
+    public void setLinesConsumed(long linesConsumed) {
+        this.linesConsumed = linesConsumed;
+    }
+    
+    public List<String> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
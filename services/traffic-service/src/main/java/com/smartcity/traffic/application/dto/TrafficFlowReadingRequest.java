@@ -0,0 +1,48 @@
+package com.smartcity.traffic.application.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 交通流量读数请求DTO
+ * NDJSON流中的每一行对应一个读数
+ */
+public class TrafficFlowReadingRequest {
+    
+    private Long monitoringPointId;
+    
+    private Integer flowValue;
+    
+    private BigDecimal averageSpeed;
+    
+    private BigDecimal occupancyRate;
+    
+    private Integer congestionLevel;
+    
+    private LocalDateTime dataTime;
+    
+    // Getter methods
+    public Long getMonitoringPointId() {
+        return monitoringPointId;
+    }
+    
+    public Integer getFlowValue() {
+        return flowValue;
+    }
+    
+    public BigDecimal getAverageSpeed() {
+        return averageSpeed;
+    }
+    
+    public BigDecimal getOccupancyRate() {
+        return occupancyRate;
+    }
+    
+    public Integer getCongestionLevel() {
+        return congestionLevel;
+    }
+    
+    public LocalDateTime getDataTime() {
+        return dataTime;
+    }
+}
@@ -0,0 +1,80 @@
+package com.smartcity.traffic.application.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 流量汇总桶响应DTO
+ */
+public class TrafficFlowRollupResponse {
+    
+    private Long monitoringPointId;
+    
+    private String granularity;
+    
+    private LocalDateTime bucketStart;
+    
+    private long sampleCount;
+    
+    private Double averageFlowValue;
+    
+    private Double averageSpeed;
+    
+    private Double averageOccupancyRate;
+    
+    // Getter and setter methods
+    public Long getMonitoringPointId() {
+        return monitoringPointId;
+    }
+    
+    public void setMonitoringPointId(Long monitoringPointId) {
+        this.monitoringPointId = monitoringPointId;
+    }
+    
+    public String getGranularity() {
+        return granularity;
+    }
+    
+    public void setGranularity(String granularity) {
+        this.granularity = granularity;
+    }
+    
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+    
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+    
+    public long getSampleCount() {
+        return sampleCount;
+    }
+    
+    public void setSampleCount(long sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+    
+    public Double getAverageFlowValue() {
+        return averageFlowValue;
+    }
+    
+    public void setAverageFlowValue(Double averageFlowValue) {
+        this.averageFlowValue = averageFlowValue;
+    }
+    
+    public Double getAverageSpeed() {
+        return averageSpeed;
+    }
+    
+    public void setAverageSpeed(Double averageSpeed) {
+        this.averageSpeed = averageSpeed;
+    }
+    
+    public Double getAverageOccupancyRate() {
+        return averageOccupancyRate;
+    }
+    
+    public void setAverageOccupancyRate(Double averageOccupancyRate) {
+        this.averageOccupancyRate = averageOccupancyRate;
+    }
+}
@@ -0,0 +1,92 @@
+package com.smartcity.traffic.application.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 流量区间汇总响应DTO
+ * segments列出实际读取的汇总表区间，便于核对查询走了哪一级汇总
+ */
+public class TrafficFlowSummaryResponse {
+    
+    private Long monitoringPointId;
+    
+    private LocalDateTime from;
+    
+    private LocalDateTime to;
+    
+    private long sampleCount;
+    
+    private Double averageFlowValue;
+    
+    private Double averageSpeed;
+    
+    private Double averageOccupancyRate;
+    
+    private List<String> segments;
+    
+    // Getter and setter methods
+    public Long getMonitoringPointId() {
+        return monitoringPointId;
+    }
+    
+    public void setMonitoringPointId(Long monitoringPointId) {
+        this.monitoringPointId = monitoringPointId;
+    }
+    
+    public LocalDateTime getFrom() {
+        return from;
+    }
+    
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+    
+    public LocalDateTime getTo() {
+        return to;
+    }
+    
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+    
+    public long getSampleCount() {
+        return sampleCount;
+    }
+    
+    public void setSampleCount(long sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+    
+    public Double getAverageFlowValue() {
+        return averageFlowValue;
+    }
+    
+    public void setAverageFlowValue(Double averageFlowValue) {
+        this.averageFlowValue = averageFlowValue;
+    }
+    
+    public Double getAverageSpeed() {
+        return averageSpeed;
+    }
+    
+    public void setAverageSpeed(Double averageSpeed) {
+        this.averageSpeed = averageSpeed;
+    }
+    
+    public Double getAverageOccupancyRate() {
+        return averageOccupancyRate;
+    }
+    
+    public void setAverageOccupancyRate(Double averageOccupancyRate) {
+        this.averageOccupancyRate = averageOccupancyRate;
+    }
+    
+    public List<String> getSegments() {
+        return segments;
+    }
+    
+    public void setSegments(List<String> segments) {
+        this.segments = segments;
+    }
+}
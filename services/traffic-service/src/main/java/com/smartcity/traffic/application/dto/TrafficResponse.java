@@ -1,5 +1,7 @@
 package com.smartcity.traffic.application.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import com.smartcity.traffic.domain.Traffic.TrafficStatus;
 
 /**
@@ -8,6 +10,7 @@ import com.smartcity.traffic.domain.Traffic.TrafficStatus;
  */
 public class TrafficResponse {
     
+    @JsonSerialize(using = ToStringSerializer.class)
     private Long id;
     
     private String location;
@@ -0,0 +1,39 @@
+package com.smartcity.traffic.application.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * 信号灯配时调整请求DTO
+ */
+public class UpdateSignalTimingRequest {
+    
+    @NotNull(message = "Red time is required")
+    @Min(value = 1, message = "Red time must be at least 1 second")
+    @Max(value = 600, message = "Red time must be at most 600 seconds")
+    private Integer redTime;
+    
+    @NotNull(message = "Green time is required")
+    @Min(value = 1, message = "Green time must be at least 1 second")
+    @Max(value = 600, message = "Green time must be at most 600 seconds")
+    private Integer greenTime;
+    
+    @NotNull(message = "Yellow time is required")
+    @Min(value = 1, message = "Yellow time must be at least 1 second")
+    @Max(value = 60, message = "Yellow time must be at most 60 seconds")
+    private Integer yellowTime;
+    
+    // Getter methods
+    public Integer getRedTime() {
+        return redTime;
+    }
+    
+    public Integer getGreenTime() {
+        return greenTime;
+    }
+    
+    public Integer getYellowTime() {
+        return yellowTime;
+    }
+}
@@ -0,0 +1,20 @@
+package com.smartcity.traffic.application.mapper;
+
+import com.smartcity.common.sharedkernel.infrastructure.mapping.GenerateMapper;
+import com.smartcity.traffic.application.dto.TrafficResponse;
+import com.smartcity.traffic.domain.Traffic;
+
+import java.util.List;
+
+/**
+ * 交通信息领域实体到响应DTO的映射，实现类在编译期生成
+ */
+@GenerateMapper
+public interface TrafficResponseMapper {
+
+    TrafficResponseMapper INSTANCE = new TrafficResponseMapperImpl();
+
+    TrafficResponse toResponse(Traffic traffic);
+
+    List<TrafficResponse> toResponses(List<Traffic> traffics);
+}
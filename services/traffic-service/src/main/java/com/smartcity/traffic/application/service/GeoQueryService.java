@@ -0,0 +1,25 @@
+package com.smartcity.traffic.application.service;
+
+import com.smartcity.traffic.application.dto.GeoFeatureResponse;
+import com.smartcity.traffic.domain.GeoFeature;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 路网设施空间查询服务接口
+ */
+public interface GeoQueryService {
+    
+    /**
+     * 查询矩形范围内的设施
+     */
+    List<GeoFeatureResponse> findWithinBox(double minLat, double minLon, double maxLat, double maxLon,
+                                           Set<GeoFeature.Kind> kinds, int limit);
+    
+    /**
+     * 查询距离指定坐标最近的k个设施
+     */
+    List<GeoFeatureResponse> findNearest(double lat, double lon, int k, Set<GeoFeature.Kind> kinds,
+                                         Double maxDistanceMeters);
+}
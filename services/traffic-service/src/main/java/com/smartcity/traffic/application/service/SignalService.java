@@ -0,0 +1,44 @@
+package com.smartcity.traffic.application.service;
+
+import com.smartcity.traffic.application.dto.OverrideSignalRequest;
+import com.smartcity.traffic.application.dto.SignalStateResponse;
+import com.smartcity.traffic.application.dto.UpdateSignalTimingRequest;
+
+import java.util.List;
+
+/**
+ * 信号灯应用服务接口
+ * 负责信号灯相位查询、手动控制和配时调整
+ */
+public interface SignalService {
+    
+    /**
+     * 获取信号灯当前状态
+     */
+    SignalStateResponse getCurrentState(Long lightId);
+    
+    /**
+     * 获取矩形区域内所有信号灯的当前状态
+     */
+    List<SignalStateResponse> getStatesInArea(double minLat, double minLon, double maxLat, double maxLon);
+    
+    /**
+     * 手动控制信号灯
+     */
+    SignalStateResponse override(Long lightId, OverrideSignalRequest request);
+    
+    /**
+     * 解除手动控制
+     */
+    SignalStateResponse releaseOverride(Long lightId);
+    
+    /**
+     * 标记信号灯故障
+     */
+    SignalStateResponse markFault(Long lightId);
+    
+    /**
+     * 调整信号灯配时
+     */
+    SignalStateResponse updateTiming(Long lightId, UpdateSignalTimingRequest request);
+}
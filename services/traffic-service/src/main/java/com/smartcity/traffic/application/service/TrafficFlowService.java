@@ -0,0 +1,40 @@
+package com.smartcity.traffic.application.service;
+
+import com.smartcity.traffic.application.dto.TrafficFlowIngestResponse;
+import com.smartcity.traffic.application.dto.TrafficFlowRollupResponse;
+import com.smartcity.traffic.application.dto.TrafficFlowSummaryResponse;
+import com.smartcity.traffic.domain.RollupGranularity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 交通流量应用服务接口
+ * 负责流量读数的导入和汇总查询
+ */
+public interface TrafficFlowService {
+    
+    /**
+     * 导入NDJSON格式的流量读数流
+     */
+    TrafficFlowIngestResponse ingest(InputStream ndjson) throws IOException;
+    
+    /**
+     * 导入管道的运行指标
+     */
+    Map<String, Object> getIngestionMetrics();
+    
+    /**
+     * 按时间桶查询监测点的汇总序列，未指定粒度时使用两端都对齐的最粗粒度
+     */
+    List<TrafficFlowRollupResponse> getRollups(Long monitoringPointId, LocalDateTime from, LocalDateTime to,
+                                               RollupGranularity granularity);
+    
+    /**
+     * 查询监测点在[from, to)内的整体平均值
+     */
+    TrafficFlowSummaryResponse getSummary(Long monitoringPointId, LocalDateTime from, LocalDateTime to);
+}
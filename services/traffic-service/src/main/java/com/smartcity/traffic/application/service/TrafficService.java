@@ -1,8 +1,12 @@
 package com.smartcity.traffic.application.service;
 
+import com.smartcity.common.PageRequest;
+import com.smartcity.common.PageResult;
 import com.smartcity.traffic.application.dto.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 交通信息应用服务接口
@@ -41,11 +45,21 @@ public interface TrafficService {
      */
     TrafficResponse updateCongestionLevel(Long trafficId, UpdateCongestionLevelRequest request);
     
+    /**
+     * 批量更新拥堵级别
+     */
+    BatchUpdateCongestionLevelResponse batchUpdateCongestionLevel(BatchUpdateCongestionLevelRequest request);
+    
     /**
      * 获取所有交通信息
      */
     List<TrafficResponse> getAllTrafficInfo();
     
+    /**
+     * 分页获取交通信息，支持页码偏移和主键游标两种模式
+     */
+    PageResult<TrafficResponse> getTrafficPage(PageRequest pageRequest);
+    
     /**
      * 获取拥堵路段
      */
@@ -55,4 +69,31 @@ public interface TrafficService {
      * 删除交通信息
      */
     void deleteTraffic(Long trafficId);
-}
\ No newline at end of file
+    
+    /**
+     * 订阅路段变化推送
+     *
+     * @throws IllegalStateException 订阅者数量已达上限
+     */
+    SseEmitter subscribeChanges();
+    
+    /**
+     * 获取变化推送指标
+     */
+    Map<String, Object> getStreamMetrics();
+    
+    /**
+     * 获取outbox中继指标，未开启中继时返回running=false
+     */
+    Map<String, Object> getOutboxMetrics();
+    
+    /**
+     * 获取拥堵级别写后缓冲指标
+     */
+    Map<String, Object> getCongestionWriteBehindMetrics();
+    
+    /**
+     * 获取路段更新通道指标
+     */
+    Map<String, Object> getLaneMetrics();
+}
@@ -0,0 +1,80 @@
+package com.smartcity.traffic.application.service.impl;
+
+import com.smartcity.traffic.application.dto.GeoFeatureResponse;
+import com.smartcity.traffic.application.service.GeoQueryService;
+import com.smartcity.traffic.domain.GeoFeature;
+import com.smartcity.traffic.infrastructure.geo.GeoGridIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 路网设施空间查询服务实现类
+ * 查询全部走内存网格索引，不访问数据库
+ */
+@Service
+public class GeoQueryServiceImpl implements GeoQueryService {
+    
+    private static final int MAX_BOX_RESULTS = 10000;
+    private static final int MAX_NEIGHBORS = 1000;
+    
+    private final GeoGridIndex geoGridIndex;
+    
+    @Autowired
+    public GeoQueryServiceImpl(GeoGridIndex geoGridIndex) {
+        this.geoGridIndex = geoGridIndex;
+    }
+    
+    @Override
+    public List<GeoFeatureResponse> findWithinBox(double minLat, double minLon, double maxLat, double maxLon,
+                                                  Set<GeoFeature.Kind> kinds, int limit) {
+        validateCoordinate(minLat, minLon);
+        validateCoordinate(maxLat, maxLon);
+        if (minLat > maxLat || minLon > maxLon) {
+            throw new IllegalArgumentException("Bounding box min corner must be south-west of max corner");
+        }
+        if (limit <= 0 || limit > MAX_BOX_RESULTS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_BOX_RESULTS);
+        }
+        return geoGridIndex.withinBox(minLat, minLon, maxLat, maxLon, kinds, limit).stream()
+                .map(feature -> convertToResponse(feature, null))
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public List<GeoFeatureResponse> findNearest(double lat, double lon, int k, Set<GeoFeature.Kind> kinds,
+                                                Double maxDistanceMeters) {
+        validateCoordinate(lat, lon);
+        if (k <= 0 || k > MAX_NEIGHBORS) {
+            throw new IllegalArgumentException("k must be between 1 and " + MAX_NEIGHBORS);
+        }
+        if (maxDistanceMeters != null && (!Double.isFinite(maxDistanceMeters) || maxDistanceMeters <= 0)) {
+            throw new IllegalArgumentException("maxDistanceMeters must be positive");
+        }
+        return geoGridIndex.nearest(lat, lon, k, kinds, maxDistanceMeters).stream()
+                .map(neighbor -> convertToResponse(neighbor.feature(), neighbor.distanceMeters()))
+                .collect(Collectors.toList());
+    }
+    
+    private void validateCoordinate(double lat, double lon) {
+        // NaN与任何数比较都为false，需要单独排除
+        if (!Double.isFinite(lat) || !Double.isFinite(lon) || lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            throw new IllegalArgumentException("Invalid coordinate: " + lat + "," + lon);
+        }
+    }
+    
+    private GeoFeatureResponse convertToResponse(GeoFeature feature, Double distanceMeters) {
+        GeoFeatureResponse response = new GeoFeatureResponse();
+        response.setKind(feature.kind().name());
+        response.setId(feature.id());
+        response.setName(feature.name());
+        response.setLatitude(feature.latitude());
+        response.setLongitude(feature.longitude());
+        response.setStatus(feature.status());
+        response.setDistanceMeters(distanceMeters);
+        return response;
+    }
+}
@@ -0,0 +1,91 @@
+package com.smartcity.traffic.application.service.impl;
+
+import com.smartcity.traffic.application.dto.OverrideSignalRequest;
+import com.smartcity.traffic.application.dto.SignalStateResponse;
+import com.smartcity.traffic.application.dto.UpdateSignalTimingRequest;
+import com.smartcity.traffic.application.service.SignalService;
+import com.smartcity.traffic.domain.GeoFeature;
+import com.smartcity.traffic.domain.SignalTiming;
+import com.smartcity.traffic.infrastructure.geo.GeoGridIndex;
+import com.smartcity.traffic.infrastructure.signal.SignalTimingEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 信号灯应用服务实现类
+ * 相位由配时引擎在内存中推算，区域查询先用空间索引圈定信号灯再批量推算
+ */
+@Service
+public class SignalServiceImpl implements SignalService {
+    
+    private static final int MAX_AREA_LIGHTS = 10000;
+    
+    private final SignalTimingEngine signalTimingEngine;
+    private final GeoGridIndex geoGridIndex;
+    
+    @Autowired
+    public SignalServiceImpl(SignalTimingEngine signalTimingEngine, GeoGridIndex geoGridIndex) {
+        this.signalTimingEngine = signalTimingEngine;
+        this.geoGridIndex = geoGridIndex;
+    }
+    
+    @Override
+    public SignalStateResponse getCurrentState(Long lightId) {
+        return signalTimingEngine.currentState(lightId)
+                .map(this::convertToResponse)
+                .orElseThrow(() -> new IllegalArgumentException("Traffic light not found with id: " + lightId));
+    }
+    
+    @Override
+    public List<SignalStateResponse> getStatesInArea(double minLat, double minLon, double maxLat, double maxLon) {
+        if (minLat > maxLat || minLon > maxLon) {
+            throw new IllegalArgumentException("Bounding box min corner must be south-west of max corner");
+        }
+        List<GeoFeature> lights = geoGridIndex.withinBox(minLat, minLon, maxLat, maxLon,
+                EnumSet.of(GeoFeature.Kind.TRAFFIC_LIGHT), MAX_AREA_LIGHTS);
+        List<Long> ids = new ArrayList<>(lights.size());
+        for (GeoFeature light : lights) {
+            ids.add(light.id());
+        }
+        return signalTimingEngine.currentStates(ids).stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public SignalStateResponse override(Long lightId, OverrideSignalRequest request) {
+        return convertToResponse(signalTimingEngine.override(lightId, request.getPhase()));
+    }
+    
+    @Override
+    public SignalStateResponse releaseOverride(Long lightId) {
+        return convertToResponse(signalTimingEngine.release(lightId));
+    }
+    
+    @Override
+    public SignalStateResponse markFault(Long lightId) {
+        return convertToResponse(signalTimingEngine.markFault(lightId));
+    }
+    
+    @Override
+    public SignalStateResponse updateTiming(Long lightId, UpdateSignalTimingRequest request) {
+        return convertToResponse(signalTimingEngine.updateTiming(lightId,
+                request.getRedTime(), request.getGreenTime(), request.getYellowTime()));
+    }
+    
+    private SignalStateResponse convertToResponse(SignalTiming.State state) {
+        SignalStateResponse response = new SignalStateResponse();
+        response.setLightId(state.lightId());
+        response.setMode(state.mode().name());
+        response.setPhase(state.phase() == null ? null : state.phase().name());
+        response.setRemainingSeconds(state.remainingSeconds());
+        response.setNextPhase(state.nextPhase() == null ? null : state.nextPhase().name());
+        response.setComputedAt(System.currentTimeMillis());
+        return response;
+    }
+}
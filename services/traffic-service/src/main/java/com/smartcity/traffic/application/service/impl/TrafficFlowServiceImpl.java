@@ -0,0 +1,186 @@
+package com.smartcity.traffic.application.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcity.traffic.application.dto.TrafficFlowIngestResponse;
+import com.smartcity.traffic.application.dto.TrafficFlowReadingRequest;
+import com.smartcity.traffic.application.dto.TrafficFlowRollupResponse;
+import com.smartcity.traffic.application.dto.TrafficFlowSummaryResponse;
+import com.smartcity.traffic.application.service.TrafficFlowService;
+import com.smartcity.traffic.domain.RollupGranularity;
+import com.smartcity.traffic.domain.TrafficFlowReading;
+import com.smartcity.traffic.domain.TrafficFlowRollup;
+import com.smartcity.traffic.infrastructure.flow.TrafficFlowRollupStore;
+import com.smartcity.traffic.infrastructure.flow.TrafficFlowWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 交通流量应用服务实现类
+ * 逐行解析NDJSON并提交给批量写入器，缓冲区满时立即停止读取以向客户端施加背压；
+ * 汇总查询只读预聚合表，不扫描traffic_flows明细
+ */
+@Service
+public class TrafficFlowServiceImpl implements TrafficFlowService {
+    
+    private static final int MAX_REPORTED_ERRORS = 20;
+    
+    private final TrafficFlowWriter trafficFlowWriter;
+    private final TrafficFlowRollupStore rollupStore;
+    private final ObjectMapper objectMapper;
+    private final long maxRollupBuckets;
+    
+    @Autowired
+    public TrafficFlowServiceImpl(TrafficFlowWriter trafficFlowWriter,
+                                  TrafficFlowRollupStore rollupStore,
+                                  ObjectMapper objectMapper,
+                                  @Value("${traffic.flows.rollup.max-buckets:10000}") long maxRollupBuckets) {
+        this.trafficFlowWriter = trafficFlowWriter;
+        this.rollupStore = rollupStore;
+        this.objectMapper = objectMapper;
+        this.maxRollupBuckets = maxRollupBuckets;
+    }
+    
+    @Override
+    public TrafficFlowIngestResponse ingest(InputStream ndjson) throws IOException {
+        long accepted = 0;
+        long malformed = 0;
+        long lineNumber = 0;
+        boolean backpressure = false;
+        List<String> errors = new ArrayList<>();
+        
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            TrafficFlowReading reading;
+            try {
+                reading = toReading(objectMapper.readValue(line, TrafficFlowReadingRequest.class));
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                malformed++;
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add("line " + lineNumber + ": " + e.getMessage());
+                }
+                continue;
+            }
+            if (!trafficFlowWriter.submit(reading)) {
+                // 当前行未被接收，客户端需要从这一行开始重发
+                lineNumber--;
+                backpressure = true;
+                break;
+            }
+            accepted++;
+        }
+        
+        TrafficFlowIngestResponse response = new TrafficFlowIngestResponse();
+        response.setAccepted(accepted);
+        response.setMalformed(malformed);
+        response.setBackpressure(backpressure);
+        response.setLinesConsumed(lineNumber);
+        response.setErrors(errors);
+        return response;
+    }
+    
+    @Override
+    public Map<String, Object> getIngestionMetrics() {
+        return trafficFlowWriter.metrics();
+    }
+    
+    @Override
+    public List<TrafficFlowRollupResponse> getRollups(Long monitoringPointId, LocalDateTime from, LocalDateTime to,
+                                                      RollupGranularity granularity) {
+        validateRange(monitoringPointId, from, to);
+        RollupGranularity tier = granularity != null ? granularity : RollupGranularity.coarsestAligned(from, to);
+        LocalDateTime start = tier.floor(from);
+        LocalDateTime end = tier.ceil(to);
+        if (tier.bucketsBetween(start, end) > maxRollupBuckets) {
+            throw new IllegalArgumentException("Range spans more than " + maxRollupBuckets
+                    + " " + tier.name().toLowerCase() + " buckets, use a coarser granularity");
+        }
+        return rollupStore.findRange(monitoringPointId, tier, start, end).stream()
+                .map(rollup -> toRollupResponse(rollup, tier))
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public TrafficFlowSummaryResponse getSummary(Long monitoringPointId, LocalDateTime from, LocalDateTime to) {
+        validateRange(monitoringPointId, from, to);
+        List<RollupGranularity.Range> ranges = RollupGranularity.decompose(from, to);
+        TrafficFlowRollup total = TrafficFlowRollup.empty(monitoringPointId, from);
+        List<String> segments = new ArrayList<>(ranges.size());
+        for (RollupGranularity.Range range : ranges) {
+            total = total.merge(rollupStore.sumRange(monitoringPointId, range.granularity(), range.from(), range.to()));
+            segments.add(range.granularity().name() + " [" + range.from() + ", " + range.to() + ")");
+        }
+        
+        TrafficFlowSummaryResponse response = new TrafficFlowSummaryResponse();
+        response.setMonitoringPointId(monitoringPointId);
+        response.setFrom(from);
+        response.setTo(to);
+        response.setSampleCount(total.sampleCount());
+        response.setAverageFlowValue(total.averageFlowValue());
+        response.setAverageSpeed(total.averageSpeed());
+        response.setAverageOccupancyRate(total.averageOccupancyRate());
+        response.setSegments(segments);
+        return response;
+    }
+    
+    private void validateRange(Long monitoringPointId, LocalDateTime from, LocalDateTime to) {
+        if (monitoringPointId == null) {
+            throw new IllegalArgumentException("monitoringPointId is required");
+        }
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+    }
+    
+    private TrafficFlowRollupResponse toRollupResponse(TrafficFlowRollup rollup, RollupGranularity granularity) {
+        TrafficFlowRollupResponse response = new TrafficFlowRollupResponse();
+        response.setMonitoringPointId(rollup.monitoringPointId());
+        response.setGranularity(granularity.name());
+        response.setBucketStart(rollup.bucketStart());
+        response.setSampleCount(rollup.sampleCount());
+        response.setAverageFlowValue(rollup.averageFlowValue());
+        response.setAverageSpeed(rollup.averageSpeed());
+        response.setAverageOccupancyRate(rollup.averageOccupancyRate());
+        return response;
+    }
+    
+    /**
+     * 校验并转换为领域读数
+     */
+    private TrafficFlowReading toReading(TrafficFlowReadingRequest request) {
+        if (request.getMonitoringPointId() == null) {
+            throw new IllegalArgumentException("monitoringPointId is required");
+        }
+        if (request.getFlowValue() == null || request.getFlowValue() < 0) {
+            throw new IllegalArgumentException("flowValue must be a non-negative number");
+        }
+        if (request.getDataTime() == null) {
+            throw new IllegalArgumentException("dataTime is required");
+        }
+        return new TrafficFlowReading(
+                request.getMonitoringPointId(),
+                request.getFlowValue(),
+                request.getAverageSpeed(),
+                request.getOccupancyRate(),
+                request.getCongestionLevel(),
+                request.getDataTime()
+        );
+    }
+}
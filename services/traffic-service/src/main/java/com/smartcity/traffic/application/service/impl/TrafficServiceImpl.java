@@ -1,14 +1,32 @@
 package com.smartcity.traffic.application.service.impl;
 
+import com.smartcity.common.PageRequest;
+import com.smartcity.common.PageResult;
+import com.smartcity.common.sharedkernel.infrastructure.outbox.OutboxRelay;
 import com.smartcity.traffic.application.dto.*;
+import com.smartcity.traffic.application.mapper.TrafficResponseMapper;
 import com.smartcity.traffic.application.service.TrafficService;
+import com.smartcity.traffic.domain.CongestionUpdate;
+import com.smartcity.traffic.domain.CongestionUpdateResult;
 import com.smartcity.traffic.domain.Traffic;
 import com.smartcity.traffic.domain.service.TrafficDomainService;
+import com.smartcity.traffic.infrastructure.lane.LaneTimeoutException;
+import com.smartcity.traffic.infrastructure.lane.TrafficUpdateLanes;
+import com.smartcity.traffic.infrastructure.stream.TrafficChangeBroadcaster;
+import com.smartcity.traffic.infrastructure.writebehind.CongestionWriteBehind;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 交通信息应用服务实现类
@@ -18,10 +36,24 @@ import java.util.stream.Collectors;
 public class TrafficServiceImpl implements TrafficService {
     
     private final TrafficDomainService trafficDomainService;
+    private final TrafficUpdateLanes trafficUpdateLanes;
+    private final TransactionTemplate transactionTemplate;
+    private final TrafficChangeBroadcaster trafficChangeBroadcaster;
+    private final CongestionWriteBehind congestionWriteBehind;
+    private final ObjectProvider<OutboxRelay> outboxRelay;
     
     @Autowired
-    public TrafficServiceImpl(TrafficDomainService trafficDomainService) {
+    public TrafficServiceImpl(TrafficDomainService trafficDomainService, TrafficUpdateLanes trafficUpdateLanes,
+                              TransactionTemplate transactionTemplate,
+                              TrafficChangeBroadcaster trafficChangeBroadcaster,
+                              CongestionWriteBehind congestionWriteBehind,
+                              ObjectProvider<OutboxRelay> outboxRelay) {
         this.trafficDomainService = trafficDomainService;
+        this.trafficUpdateLanes = trafficUpdateLanes;
+        this.transactionTemplate = transactionTemplate;
+        this.trafficChangeBroadcaster = trafficChangeBroadcaster;
+        this.congestionWriteBehind = congestionWriteBehind;
+        this.outboxRelay = outboxRelay;
     }
     
     @Override
@@ -36,11 +68,7 @@ public class TrafficServiceImpl implements TrafficService {
     
     @Override
     public TrafficResponse getTrafficById(Long trafficId) {
-        return trafficDomainService.getAllTrafficInfo().stream()
-                .filter(traffic -> traffic.getId().equals(trafficId))
-                .findFirst()
-                .map(this::convertToResponse)
-                .orElseThrow(() -> new IllegalArgumentException("Traffic information not found with id: " + trafficId));
+        return convertToResponse(trafficDomainService.getTrafficById(trafficId));
     }
     
     @Override
@@ -52,70 +80,165 @@ public class TrafficServiceImpl implements TrafficService {
     
     @Override
     public TrafficResponse updateTraffic(Long trafficId, UpdateTrafficRequest request) {
-        // 先获取现有交通信息
-        Traffic traffic = trafficDomainService.getAllTrafficInfo().stream()
-                .filter(t -> t.getId().equals(trafficId))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Traffic information not found with id: " + trafficId));
-        
-        // 更新拥堵级别
-        if (request.getCongestionLevel() != null) {
-            traffic = trafficDomainService.updateCongestionLevel(trafficId, request.getCongestionLevel());
-        }
-        
-        // 更新描述
-        if (request.getDescription() != null) {
-            traffic.updateDescription(request.getDescription());
-        }
-        
+        // 同一路段的修改都在其所属通道上依次执行，读-改-写之间不会被其他修改插入
+        Traffic traffic = trafficUpdateLanes.execute(trafficId, () -> trafficDomainService.updateTraffic(
+                trafficId,
+                request.getCongestionLevel(),
+                request.getDescription()
+        ));
         return convertToResponse(traffic);
     }
     
     @Override
     public TrafficResponse updateTrafficStatus(Long trafficId, UpdateTrafficStatusRequest request) {
-        Traffic traffic = trafficDomainService.updateTrafficStatus(trafficId, request.getStatus());
+        Traffic traffic = trafficUpdateLanes.execute(trafficId,
+                () -> trafficDomainService.updateTrafficStatus(trafficId, request.getStatus()));
         return convertToResponse(traffic);
     }
     
     @Override
     public TrafficResponse updateCongestionLevel(Long trafficId, UpdateCongestionLevelRequest request) {
-        Traffic traffic = trafficDomainService.updateCongestionLevel(trafficId, request.getCongestionLevel());
+        Traffic traffic = trafficUpdateLanes.execute(trafficId,
+                () -> trafficDomainService.updateCongestionLevel(trafficId, request.getCongestionLevel()));
         return convertToResponse(traffic);
     }
     
+    @Override
+    public BatchUpdateCongestionLevelResponse batchUpdateCongestionLevel(BatchUpdateCongestionLevelRequest request) {
+        List<CongestionUpdate> updates = new ArrayList<>(request.getItems().size());
+        for (BatchUpdateCongestionLevelRequest.Item item : request.getItems()) {
+            updates.add(new CongestionUpdate(item.getId(), item.getCongestionLevel()));
+        }
+        
+        List<CongestionUpdateResult> results = updateCongestionLevelByLane(updates);
+        
+        List<BatchUpdateCongestionLevelResponse.ItemResult> itemResults = new ArrayList<>(results.size());
+        int succeeded = 0;
+        for (CongestionUpdateResult result : results) {
+            BatchUpdateCongestionLevelResponse.ItemResult itemResult = new BatchUpdateCongestionLevelResponse.ItemResult();
+            itemResult.setId(result.trafficId());
+            itemResult.setOutcome(result.outcome().name());
+            if (result.isSuccess()) {
+                succeeded++;
+                itemResult.setCongestionLevel(result.traffic().getCongestionLevel());
+                itemResult.setStatus(result.traffic().getStatus());
+            } else {
+                itemResult.setError(result.message());
+            }
+            itemResults.add(itemResult);
+        }
+        
+        BatchUpdateCongestionLevelResponse response = new BatchUpdateCongestionLevelResponse();
+        response.setTotal(results.size());
+        response.setSucceeded(succeeded);
+        response.setFailed(results.size() - succeeded);
+        response.setResults(itemResults);
+        return response;
+    }
+    
     @Override
     public List<TrafficResponse> getAllTrafficInfo() {
-        return trafficDomainService.getAllTrafficInfo().stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return TrafficResponseMapper.INSTANCE.toResponses(trafficDomainService.getAllTrafficInfo());
+    }
+    
+    @Override
+    public PageResult<TrafficResponse> getTrafficPage(PageRequest pageRequest) {
+        return trafficDomainService.getTrafficPage(pageRequest).map(this::convertToResponse);
     }
     
     @Override
     public List<TrafficResponse> getCongestedRoads(Integer threshold) {
-        return trafficDomainService.findCongestedRoads(threshold).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return TrafficResponseMapper.INSTANCE.toResponses(trafficDomainService.findCongestedRoads(threshold));
     }
     
     @Override
     public void deleteTraffic(Long trafficId) {
-        trafficDomainService.deleteTraffic(trafficId);
+        trafficUpdateLanes.execute(trafficId, () -> {
+            trafficDomainService.deleteTraffic(trafficId);
+            return null;
+        });
+    }
+    
+    /**
+     * 按所属通道拆分批量更新，每个通道在一个事务内处理自己的部分，结果按请求顺序合并。
+     * 各通道独立提交，整批不是原子的：被拒绝、事务失败或等待超时的通道，其条目分别标记为
+     * REJECTED、FAILED、TIMED_OUT，其余通道的修改照常生效
+     */
+    private List<CongestionUpdateResult> updateCongestionLevelByLane(List<CongestionUpdate> updates) {
+        Map<Integer, List<Integer>> positionsByLane = new HashMap<>();
+        for (int i = 0; i < updates.size(); i++) {
+            positionsByLane.computeIfAbsent(trafficUpdateLanes.laneOf(updates.get(i).trafficId()),
+                    lane -> new ArrayList<>()).add(i);
+        }
+        
+        CongestionUpdateResult[] results = new CongestionUpdateResult[updates.size()];
+        Map<Integer, CompletableFuture<List<CongestionUpdateResult>>> futures = new HashMap<>();
+        for (Map.Entry<Integer, List<Integer>> entry : positionsByLane.entrySet()) {
+            List<Integer> positions = entry.getValue();
+            List<CongestionUpdate> part = new ArrayList<>(positions.size());
+            for (int position : positions) {
+                part.add(updates.get(position));
+            }
+            try {
+                futures.put(entry.getKey(), trafficUpdateLanes.submitToLane(entry.getKey(), () -> transactionTemplate.execute(
+                        status -> trafficDomainService.batchUpdateCongestionLevel(part))));
+            } catch (RejectedExecutionException e) {
+                for (int position : positions) {
+                    results[position] = CongestionUpdateResult.rejected(updates.get(position).trafficId(), e.getMessage());
+                }
+            }
+        }
+        // 结果只在调用线程上写入，超时后才完成的通道不会再改动已返回的结果
+        for (Map.Entry<Integer, CompletableFuture<List<CongestionUpdateResult>>> entry : futures.entrySet()) {
+            List<Integer> positions = positionsByLane.get(entry.getKey());
+            try {
+                List<CongestionUpdateResult> partResults = trafficUpdateLanes.join(entry.getValue());
+                for (int i = 0; i < positions.size(); i++) {
+                    results[positions.get(i)] = partResults.get(i);
+                }
+            } catch (LaneTimeoutException e) {
+                for (int position : positions) {
+                    results[position] = CongestionUpdateResult.timedOut(updates.get(position).trafficId(), e.getMessage());
+                }
+            } catch (RuntimeException e) {
+                for (int position : positions) {
+                    results[position] = CongestionUpdateResult.failed(updates.get(position).trafficId(), e.getMessage());
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+    
+    @Override
+    public SseEmitter subscribeChanges() {
+        return trafficChangeBroadcaster.subscribe();
+    }
+    
+    @Override
+    public Map<String, Object> getStreamMetrics() {
+        return trafficChangeBroadcaster.metrics();
+    }
+    
+    @Override
+    public Map<String, Object> getOutboxMetrics() {
+        OutboxRelay relay = outboxRelay.getIfAvailable();
+        return relay == null ? Map.of("running", false) : relay.metrics();
+    }
+    
+    @Override
+    public Map<String, Object> getCongestionWriteBehindMetrics() {
+        return congestionWriteBehind.metrics();
+    }
+    
+    @Override
+    public Map<String, Object> getLaneMetrics() {
+        return trafficUpdateLanes.metrics();
     }
     
     /**
      * 将领域实体转换为响应DTO
      */
     private TrafficResponse convertToResponse(Traffic traffic) {
-        // 使用构造函数创建TrafficResponse，避免使用setter方法
-        TrafficResponse response = new TrafficResponse();
-        // 使用getter方法获取Traffic对象的属性
-        // 由于Traffic类继承自Entity并实现了getId()方法，我们可以使用该方法
-        response.setId(traffic.getId());
-        // 对于其他字段，我们尝试使用lombok生成的getter方法
-        response.setLocation(traffic.getLocation());
-        response.setStatus(traffic.getStatus());
-        response.setCongestionLevel(traffic.getCongestionLevel());
-        response.setDescription(traffic.getDescription());
-        return response;
+        return TrafficResponseMapper.INSTANCE.toResponse(traffic);
     }
-}
\ No newline at end of file
+}
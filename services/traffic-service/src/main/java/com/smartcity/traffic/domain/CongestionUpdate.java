@@ -0,0 +1,10 @@
+package com.smartcity.traffic.domain;
+
+/**
+ * 单条拥堵级别更新指令
+ *
+ * @param trafficId       交通信息ID
+ * @param congestionLevel 新的拥堵级别
+ */
+public record CongestionUpdate(Long trafficId, Integer congestionLevel) {
+}
@@ -0,0 +1,53 @@
+package com.smartcity.traffic.domain;
+
+/**
+ * 单条拥堵级别更新的处理结果
+ *
+ * @param trafficId 交通信息ID
+ * @param outcome   处理结果
+ * @param traffic   更新后的交通信息，失败时为null
+ * @param message   失败原因，成功时为null
+ */
+public record CongestionUpdateResult(Long trafficId, Outcome outcome, Traffic traffic, String message) {
+
+    /**
+     * 处理结果枚举
+     */
+    public enum Outcome {
+        UPDATED, // 已更新
+        NOT_FOUND, // 路段不存在
+        INVALID_LEVEL, // 拥堵级别不合法
+        REJECTED, // 所属通道积压已满或已停止，未执行
+        FAILED, // 所属通道的事务失败并已回滚
+        TIMED_OUT // 等待所属通道超时，结果未知
+    }
+
+    public static CongestionUpdateResult updated(Traffic traffic) {
+        return new CongestionUpdateResult(traffic.getId(), Outcome.UPDATED, traffic, null);
+    }
+
+    public static CongestionUpdateResult notFound(Long trafficId) {
+        return new CongestionUpdateResult(trafficId, Outcome.NOT_FOUND, null,
+                "Traffic information not found with id: " + trafficId);
+    }
+
+    public static CongestionUpdateResult invalidLevel(Long trafficId, String message) {
+        return new CongestionUpdateResult(trafficId, Outcome.INVALID_LEVEL, null, message);
+    }
+
+    public static CongestionUpdateResult rejected(Long trafficId, String message) {
+        return new CongestionUpdateResult(trafficId, Outcome.REJECTED, null, message);
+    }
+
+    public static CongestionUpdateResult failed(Long trafficId, String message) {
+        return new CongestionUpdateResult(trafficId, Outcome.FAILED, null, message);
+    }
+
+    public static CongestionUpdateResult timedOut(Long trafficId, String message) {
+        return new CongestionUpdateResult(trafficId, Outcome.TIMED_OUT, null, message);
+    }
+
+    public boolean isSuccess() {
+        return outcome == Outcome.UPDATED;
+    }
+}
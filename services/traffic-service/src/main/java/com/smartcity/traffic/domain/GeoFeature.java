@@ -0,0 +1,75 @@
+package com.smartcity.traffic.domain;
+
+import java.time.Instant;
+
+/**
+ * 带坐标的路网设施
+ * 监测点、信号灯、摄像头和交通事件在空间索引中的统一表示
+ *
+ * @param kind      设施类型
+ * @param id        设施在各自表中的ID
+ * @param name      名称或位置描述
+ * @param latitude  纬度
+ * @param longitude 经度
+ * @param status    原表中的状态值
+ * @param endTime   结束时间，仅交通事件有，为空表示不会自动过期
+ */
+public record GeoFeature(Kind kind,
+                         Long id,
+                         String name,
+                         double latitude,
+                         double longitude,
+                         Integer status,
+                         Instant endTime) {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    /**
+     * 设施类型
+     */
+    public enum Kind {
+        MONITORING_POINT, // 监测点
+        TRAFFIC_LIGHT,    // 信号灯
+        TRAFFIC_CAMERA,   // 摄像头
+        TRAFFIC_EVENT     // 交通事件
+    }
+
+    /**
+     * 索引中的唯一键，不同类型的设施ID可能相同
+     */
+    public Key key() {
+        return new Key(kind, id);
+    }
+
+    /**
+     * 是否已过结束时间
+     */
+    public boolean isExpired(Instant now) {
+        return endTime != null && !endTime.isAfter(now);
+    }
+
+    /**
+     * 到指定坐标的球面距离（米）
+     */
+    public double distanceMeters(double lat, double lon) {
+        return haversineMeters(latitude, longitude, lat, lon);
+    }
+
+    /**
+     * 半正矢公式计算两点间球面距离（米）
+     */
+    public static double haversineMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * 设施唯一键
+     */
+    public record Key(Kind kind, Long id) {
+    }
+}
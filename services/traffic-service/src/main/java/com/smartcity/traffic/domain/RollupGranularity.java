@@ -0,0 +1,107 @@
+package com.smartcity.traffic.domain;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 流量汇总粒度
+ * 每个粒度对应一张按时间桶预聚合的汇总表，从细到粗依次为分钟、小时、天
+ */
+public enum RollupGranularity {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * 时间所在桶的起点
+     */
+    public LocalDateTime floor(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    /**
+     * 不早于该时间的第一个桶起点
+     */
+    public LocalDateTime ceil(LocalDateTime time) {
+        LocalDateTime floor = floor(time);
+        return floor.equals(time) ? floor : floor.plus(1, unit);
+    }
+
+    /**
+     * 单个桶的时长
+     */
+    public Duration bucketDuration() {
+        return unit.getDuration();
+    }
+
+    /**
+     * 区间内的桶数量，区间端点需已对齐到该粒度
+     */
+    public long bucketsBetween(LocalDateTime from, LocalDateTime to) {
+        return unit.between(from, to);
+    }
+
+    /**
+     * 两端都落在桶边界上的最粗粒度
+     */
+    public static RollupGranularity coarsestAligned(LocalDateTime from, LocalDateTime to) {
+        RollupGranularity[] tiers = values();
+        for (int i = tiers.length - 1; i > 0; i--) {
+            RollupGranularity tier = tiers[i];
+            if (tier.floor(from).equals(from) && tier.floor(to).equals(to) && from.isBefore(to)) {
+                return tier;
+            }
+        }
+        return MINUTE;
+    }
+
+    /**
+     * 把[from, to)拆成若干段，中间部分用最粗的整桶覆盖，两端零头逐级用更细的粒度补齐
+     * 例如 01-01 22:30 ~ 01-04 01:15 拆为：分钟[22:30,23:00)、小时[23:00,00:00)、天[01-02,01-04)、小时[00:00,01:00)、分钟[01:00,01:15)
+     * 两端先向下对齐到分钟，不足一分钟的零头不计入
+     */
+    public static List<Range> decompose(LocalDateTime from, LocalDateTime to) {
+        List<Range> ranges = new ArrayList<>();
+        LocalDateTime start = MINUTE.floor(from);
+        LocalDateTime end = MINUTE.floor(to);
+        if (start.isBefore(end)) {
+            decompose(start, end, values().length - 1, ranges);
+        }
+        return ranges;
+    }
+
+    private static void decompose(LocalDateTime from, LocalDateTime to, int tierIndex, List<Range> ranges) {
+        if (!from.isBefore(to)) {
+            return;
+        }
+        RollupGranularity tier = values()[tierIndex];
+        if (tierIndex == 0) {
+            ranges.add(new Range(tier, from, to));
+            return;
+        }
+        LocalDateTime alignedFrom = tier.ceil(from);
+        LocalDateTime alignedTo = tier.floor(to);
+        if (!alignedFrom.isBefore(alignedTo)) {
+            decompose(from, to, tierIndex - 1, ranges);
+            return;
+        }
+        decompose(from, alignedFrom, tierIndex - 1, ranges);
+        ranges.add(new Range(tier, alignedFrom, alignedTo));
+        decompose(alignedTo, to, tierIndex - 1, ranges);
+    }
+
+    /**
+     * 某一粒度汇总表上的半开区间[from, to)
+     */
+    public record Range(RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+    }
+}
@@ -0,0 +1,188 @@
+package com.smartcity.traffic.domain;
+
+/**
+ * 信号灯配时
+ * 相位按 红 → 绿 → 黄 → 红 循环，以anchorMillis时刻进入anchorPhase为起点，
+ * 任意时刻的相位都可以由配时参数推算出来，无需逐秒写库；
+ * 周期长于三色时长之和时，多出的时间作为全红清空时间并入红灯相位
+ *
+ * @param lightId      信号灯ID
+ * @param mode         控制模式
+ * @param redSeconds   红灯时长（秒）
+ * @param greenSeconds 绿灯时长（秒）
+ * @param yellowSeconds 黄灯时长（秒）
+ * @param cycleSeconds 周期时长（秒），小于三色时长之和时按三色时长之和计
+ * @param anchorPhase  起点相位；手动控制时即为保持的相位
+ * @param anchorMillis 进入起点相位的时刻（毫秒时间戳）
+ */
+public record SignalTiming(Long lightId,
+                           Mode mode,
+                           int redSeconds,
+                           int greenSeconds,
+                           int yellowSeconds,
+                           int cycleSeconds,
+                           Phase anchorPhase,
+                           long anchorMillis) {
+
+    public SignalTiming {
+        cycleSeconds = Math.max(cycleSeconds, redSeconds + greenSeconds + yellowSeconds);
+    }
+
+    /**
+     * 信号灯相位，code与traffic_lights.current_phase一致
+     */
+    public enum Phase {
+        RED(1),
+        GREEN(2),
+        YELLOW(3);
+
+        private final int code;
+
+        Phase(int code) {
+            this.code = code;
+        }
+
+        public int getCode() {
+            return code;
+        }
+
+        public Phase next() {
+            return switch (this) {
+                case RED -> GREEN;
+                case GREEN -> YELLOW;
+                case YELLOW -> RED;
+            };
+        }
+
+        public static Phase fromCode(Integer code) {
+            if (code == null) {
+                return null;
+            }
+            for (Phase phase : values()) {
+                if (phase.code == code) {
+                    return phase;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 控制模式，code与traffic_lights.status一致
+     */
+    public enum Mode {
+        FAULT(0),  // 故障
+        AUTO(1),   // 按配时自动运行
+        MANUAL(2); // 手动控制，保持在固定相位
+
+        private final int code;
+
+        Mode(int code) {
+            this.code = code;
+        }
+
+        public int getCode() {
+            return code;
+        }
+
+        public static Mode fromCode(Integer code) {
+            if (code == null) {
+                return AUTO;
+            }
+            for (Mode mode : values()) {
+                if (mode.code == code) {
+                    return mode;
+                }
+            }
+            return FAULT;
+        }
+    }
+
+    /**
+     * 某一时刻的信号状态
+     *
+     * @param phase            当前相位，故障或配时缺失时为空
+     * @param remainingSeconds 当前相位剩余秒数，手动控制时为空
+     * @param nextPhase        下一相位，手动控制时为空
+     */
+    public record State(Long lightId, Mode mode, Phase phase, Integer remainingSeconds, Phase nextPhase) {
+    }
+
+    /**
+     * 周期中超出三色时长之和的全红清空时间（秒）
+     */
+    public int clearanceSeconds() {
+        return cycleSeconds - redSeconds - greenSeconds - yellowSeconds;
+    }
+
+    /**
+     * 配时参数是否完整
+     */
+    public boolean hasValidTiming() {
+        return redSeconds > 0 && greenSeconds > 0 && yellowSeconds > 0 && anchorPhase != null;
+    }
+
+    public int durationOf(Phase phase) {
+        return switch (phase) {
+            case RED -> redSeconds + clearanceSeconds();
+            case GREEN -> greenSeconds;
+            case YELLOW -> yellowSeconds;
+        };
+    }
+
+    /**
+     * 推算指定时刻的信号状态
+     */
+    public State stateAt(long nowMillis) {
+        if (mode == Mode.FAULT) {
+            return new State(lightId, mode, null, null, null);
+        }
+        if (mode == Mode.MANUAL) {
+            return new State(lightId, mode, anchorPhase, null, null);
+        }
+        if (!hasValidTiming()) {
+            return new State(lightId, mode, null, null, null);
+        }
+        long cycleMillis = cycleSeconds() * 1000L;
+        long elapsed = Math.floorMod(nowMillis - anchorMillis, cycleMillis);
+        Phase phase = anchorPhase;
+        long phaseMillis = durationOf(phase) * 1000L;
+        while (elapsed >= phaseMillis) {
+            elapsed -= phaseMillis;
+            phase = phase.next();
+            phaseMillis = durationOf(phase) * 1000L;
+        }
+        int remaining = (int) ((phaseMillis - elapsed + 999) / 1000);
+        return new State(lightId, mode, phase, remaining, phase.next());
+    }
+
+    /**
+     * 指定时刻所处相位的开始时刻，用于在不改变当前相位的前提下重新锚定
+     */
+    public long phaseStartAt(long nowMillis) {
+        State state = stateAt(nowMillis);
+        if (state.remainingSeconds() == null) {
+            return nowMillis;
+        }
+        long cycleMillis = cycleSeconds() * 1000L;
+        long elapsed = Math.floorMod(nowMillis - anchorMillis, cycleMillis);
+        Phase phase = anchorPhase;
+        while (phase != state.phase()) {
+            elapsed -= durationOf(phase) * 1000L;
+            phase = phase.next();
+        }
+        return nowMillis - elapsed;
+    }
+
+    public SignalTiming withMode(Mode mode, Phase anchorPhase, long anchorMillis) {
+        return new SignalTiming(lightId, mode, redSeconds, greenSeconds, yellowSeconds, cycleSeconds,
+                anchorPhase, anchorMillis);
+    }
+
+    /**
+     * 调整三色时长，周期随之变为三色时长之和
+     */
+    public SignalTiming withDurations(int redSeconds, int greenSeconds, int yellowSeconds, Phase anchorPhase, long anchorMillis) {
+        return new SignalTiming(lightId, mode, redSeconds, greenSeconds, yellowSeconds, 0, anchorPhase, anchorMillis);
+    }
+}
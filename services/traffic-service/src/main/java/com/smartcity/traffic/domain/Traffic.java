@@ -1,8 +1,17 @@
 package com.smartcity.traffic.domain;
 
+import com.smartcity.common.sharedkernel.domain.model.DomainEvent;
+import com.smartcity.traffic.domain.event.TrafficStateChangedEvent;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
 /**
  * 交通信息领域实体类
  */
@@ -16,6 +25,26 @@ public class Traffic {
     private Integer congestionLevel; // 1-10，1表示畅通，10表示严重拥堵
     private String description;
 
+    /**
+     * 尚未发布的领域事件，由仓储在保存后取出发布
+     */
+    private final transient List<DomainEvent> domainEvents = new ArrayList<>();
+
+    /**
+     * 加载后被修改过的字段，仓储据此只更新变化的列
+     */
+    private final transient Set<Field> dirtyFields = EnumSet.noneOf(Field.class);
+
+    /**
+     * 可被修改的字段
+     */
+    public enum Field {
+        LOCATION,
+        STATUS,
+        CONGESTION_LEVEL,
+        DESCRIPTION
+    }
+
     /**
      * 交通状态枚举
      */
@@ -43,9 +72,14 @@ public class Traffic {
         if (congestionLevel == null || congestionLevel < 1 || congestionLevel > 10) {
             throw new IllegalArgumentException("拥堵级别必须在1-10之间");
         }
+        TrafficStatus previousStatus = this.status;
+        Integer previousLevel = this.congestionLevel;
         this.congestionLevel = congestionLevel;
         // 根据拥堵级别自动更新状态
         updateStatusByCongestionLevel();
+        markDirty(Field.CONGESTION_LEVEL, previousLevel, congestionLevel);
+        markDirty(Field.STATUS, previousStatus, status);
+        registerStateChange(previousStatus, previousLevel);
     }
 
     /**
@@ -55,7 +89,10 @@ public class Traffic {
         if (status == null) {
             throw new IllegalArgumentException("交通状态不能为空");
         }
+        TrafficStatus previousStatus = this.status;
         this.status = status;
+        markDirty(Field.STATUS, previousStatus, status);
+        registerStateChange(previousStatus, congestionLevel);
     }
 
     /**
@@ -65,6 +102,7 @@ public class Traffic {
         if (location == null || location.trim().isEmpty()) {
             throw new IllegalArgumentException("位置信息不能为空");
         }
+        markDirty(Field.LOCATION, this.location, location);
         this.location = location;
     }
 
@@ -72,9 +110,56 @@ public class Traffic {
      * 更新描述
      */
     public void updateDescription(String description) {
+        markDirty(Field.DESCRIPTION, this.description, description);
         this.description = description;
     }
 
+    /**
+     * 创建当前交通信息的副本，供缓存和索引保存快照使用
+     */
+    public Traffic copy() {
+        return new Traffic(id, location, status, congestionLevel, description);
+    }
+
+    /**
+     * 取出并清空尚未发布的领域事件
+     */
+    public List<DomainEvent> pullDomainEvents() {
+        List<DomainEvent> events = new ArrayList<>(domainEvents);
+        domainEvents.clear();
+        return events;
+    }
+
+    /**
+     * 加载后被修改过的字段；为空表示与库中一致
+     */
+    public Set<Field> getDirtyFields() {
+        return Collections.unmodifiableSet(dirtyFields);
+    }
+
+    /**
+     * 写入数据库后清空修改记录
+     */
+    public void clearDirtyFields() {
+        dirtyFields.clear();
+    }
+
+    private void markDirty(Field field, Object previous, Object current) {
+        if (!Objects.equals(previous, current)) {
+            dirtyFields.add(field);
+        }
+    }
+
+    /**
+     * 状态或拥堵级别确有变化时记录事件；新建的路段还没有ID，由仓储在保存后发布
+     */
+    private void registerStateChange(TrafficStatus previousStatus, Integer previousLevel) {
+        if (id == null || (previousStatus == status && Objects.equals(previousLevel, congestionLevel))) {
+            return;
+        }
+        domainEvents.add(new TrafficStateChangedEvent(id, previousStatus, previousLevel, status, congestionLevel));
+    }
+
     /**
      * 根据拥堵级别自动更新状态
      */
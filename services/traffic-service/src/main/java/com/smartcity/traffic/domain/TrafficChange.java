@@ -0,0 +1,31 @@
+package com.smartcity.traffic.domain;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+/**
+ * 路段状态变化
+ * 只携带推送给看板所需的最小字段，同一路段的多次变化可以直接用最新一条覆盖
+ *
+ * @param trafficId       路段ID，JSON中以字符串输出，超出JS安全整数的雪花ID不会丢失精度
+ * @param type            变化类型
+ * @param status          变化后的交通状态，删除时为空
+ * @param congestionLevel 变化后的拥堵级别，删除时为空
+ * @param sequence        全局递增序号，客户端可用于判断先后
+ * @param occurredAt      变化时间（毫秒时间戳）
+ */
+public record TrafficChange(@JsonSerialize(using = ToStringSerializer.class) Long trafficId,
+                            Type type,
+                            Traffic.TrafficStatus status,
+                            Integer congestionLevel,
+                            long sequence,
+                            long occurredAt) {
+
+    /**
+     * 变化类型
+     */
+    public enum Type {
+        UPDATED, // 新建或状态、拥堵级别变化
+        DELETED  // 删除
+    }
+}
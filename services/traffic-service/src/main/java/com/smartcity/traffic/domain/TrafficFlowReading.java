@@ -0,0 +1,23 @@
+package com.smartcity.traffic.domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 交通流量采集读数
+ * 对应traffic_flows表中的一行，由监测点按车道周期性上报
+ *
+ * @param monitoringPointId 监测点ID
+ * @param flowValue         流量值（辆/小时）
+ * @param averageSpeed      平均车速（公里/小时）
+ * @param occupancyRate     占有率（%）
+ * @param congestionLevel   拥堵等级
+ * @param dataTime          数据采集时间
+ */
+public record TrafficFlowReading(Long monitoringPointId,
+                                 Integer flowValue,
+                                 BigDecimal averageSpeed,
+                                 BigDecimal occupancyRate,
+                                 Integer congestionLevel,
+                                 LocalDateTime dataTime) {
+}
@@ -0,0 +1,79 @@
+package com.smartcity.traffic.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * 流量汇总桶
+ * 保存合计值而不是平均值，因此任意多个桶可以直接相加后再求平均
+ *
+ * @param monitoringPointId 监测点ID
+ * @param bucketStart       时间桶起点
+ * @param sampleCount       读数条数
+ * @param flowSum           流量值合计
+ * @param speedSum          平均车速合计
+ * @param speedCount        含车速的读数条数
+ * @param occupancySum      占有率合计
+ * @param occupancyCount    含占有率的读数条数
+ */
+public record TrafficFlowRollup(Long monitoringPointId,
+                                LocalDateTime bucketStart,
+                                long sampleCount,
+                                long flowSum,
+                                double speedSum,
+                                long speedCount,
+                                double occupancySum,
+                                long occupancyCount) {
+
+    /**
+     * 空汇总
+     */
+    public static TrafficFlowRollup empty(Long monitoringPointId, LocalDateTime bucketStart) {
+        return new TrafficFlowRollup(monitoringPointId, bucketStart, 0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * 单条读数构成的汇总
+     */
+    public static TrafficFlowRollup of(TrafficFlowReading reading, LocalDateTime bucketStart) {
+        boolean hasSpeed = reading.averageSpeed() != null;
+        boolean hasOccupancy = reading.occupancyRate() != null;
+        return new TrafficFlowRollup(
+                reading.monitoringPointId(),
+                bucketStart,
+                1,
+                reading.flowValue() == null ? 0 : reading.flowValue(),
+                hasSpeed ? reading.averageSpeed().doubleValue() : 0,
+                hasSpeed ? 1 : 0,
+                hasOccupancy ? reading.occupancyRate().doubleValue() : 0,
+                hasOccupancy ? 1 : 0
+        );
+    }
+
+    /**
+     * 合并另一个汇总，保留当前的监测点和桶起点
+     */
+    public TrafficFlowRollup merge(TrafficFlowRollup other) {
+        return new TrafficFlowRollup(
+                monitoringPointId,
+                bucketStart,
+                sampleCount + other.sampleCount,
+                flowSum + other.flowSum,
+                speedSum + other.speedSum,
+                speedCount + other.speedCount,
+                occupancySum + other.occupancySum,
+                occupancyCount + other.occupancyCount
+        );
+    }
+
+    public Double averageFlowValue() {
+        return sampleCount == 0 ? null : (double) flowSum / sampleCount;
+    }
+
+    public Double averageSpeed() {
+        return speedCount == 0 ? null : speedSum / speedCount;
+    }
+
+    public Double averageOccupancyRate() {
+        return occupancyCount == 0 ? null : occupancySum / occupancyCount;
+    }
+}
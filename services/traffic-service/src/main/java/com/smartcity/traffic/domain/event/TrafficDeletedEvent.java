@@ -0,0 +1,11 @@
+package com.smartcity.traffic.domain.event;
+
+/**
+ * 路段被删除
+ */
+public class TrafficDeletedEvent extends TrafficEvent {
+
+    public TrafficDeletedEvent(Long trafficId) {
+        super(trafficId);
+    }
+}
@@ -0,0 +1,24 @@
+package com.smartcity.traffic.domain.event;
+
+import com.smartcity.common.sharedkernel.domain.model.DomainEvent;
+
+/**
+ * 交通信息领域事件基类
+ */
+public abstract class TrafficEvent extends DomainEvent {
+
+    private final Long trafficId;
+
+    protected TrafficEvent(Long trafficId) {
+        this.trafficId = trafficId;
+    }
+
+    public Long getTrafficId() {
+        return trafficId;
+    }
+
+    @Override
+    public Object getAggregateId() {
+        return trafficId;
+    }
+}
@@ -0,0 +1,40 @@
+package com.smartcity.traffic.domain.event;
+
+import com.smartcity.traffic.domain.Traffic.TrafficStatus;
+
+/**
+ * 路段状态或拥堵级别发生变化
+ * 新建路段时previous字段为空
+ */
+public class TrafficStateChangedEvent extends TrafficEvent {
+
+    private final TrafficStatus previousStatus;
+    private final Integer previousCongestionLevel;
+    private final TrafficStatus status;
+    private final Integer congestionLevel;
+
+    public TrafficStateChangedEvent(Long trafficId, TrafficStatus previousStatus, Integer previousCongestionLevel,
+                                    TrafficStatus status, Integer congestionLevel) {
+        super(trafficId);
+        this.previousStatus = previousStatus;
+        this.previousCongestionLevel = previousCongestionLevel;
+        this.status = status;
+        this.congestionLevel = congestionLevel;
+    }
+
+    public TrafficStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public Integer getPreviousCongestionLevel() {
+        return previousCongestionLevel;
+    }
+
+    public TrafficStatus getStatus() {
+        return status;
+    }
+
+    public Integer getCongestionLevel() {
+        return congestionLevel;
+    }
+}
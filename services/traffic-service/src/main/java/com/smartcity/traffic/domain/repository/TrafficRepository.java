@@ -1,6 +1,9 @@
 package com.smartcity.traffic.domain.repository;
 
+import com.smartcity.common.PageRequest;
+import com.smartcity.common.PageResult;
 import com.smartcity.traffic.domain.Traffic;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +19,21 @@ public interface TrafficRepository {
      */
     Traffic save(Traffic traffic);
 
+    /**
+     * 保存一次拥堵级别变化
+     * 实现可以先缓冲再合并落库，返回时修改未必已写入数据库，但之后的读取能看到新值
+     * @param traffic 已更新拥堵级别的交通信息
+     * @return 更新后的交通信息
+     */
+    Traffic saveCongestionLevel(Traffic traffic);
+
+    /**
+     * 批量保存交通信息
+     * @param traffics 交通信息集合
+     * @return 保存后的交通信息列表
+     */
+    List<Traffic> saveAll(Collection<Traffic> traffics);
+
     /**
      * 根据ID查找交通信息
      * @param id 交通信息ID
@@ -23,6 +41,13 @@ public interface TrafficRepository {
      */
     Optional<Traffic> findById(Long id);
 
+    /**
+     * 根据ID集合批量查找交通信息
+     * @param ids 交通信息ID集合
+     * @return 存在的交通信息列表
+     */
+    List<Traffic> findAllById(Collection<Long> ids);
+
     /**
      * 根据ID删除交通信息
      * @param id 交通信息ID
@@ -42,6 +67,14 @@ public interface TrafficRepository {
      */
     List<Traffic> findAll();
 
+    /**
+     * 按主键升序分页查询交通信息
+     * 请求带游标时按主键做键集分页，否则按页码偏移分页
+     * @param pageRequest 分页参数
+     * @return 分页结果
+     */
+    PageResult<Traffic> findPage(PageRequest pageRequest);
+
     /**
      * 根据位置查找交通信息
      * @param location 位置信息
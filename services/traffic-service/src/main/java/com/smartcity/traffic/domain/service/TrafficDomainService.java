@@ -1,11 +1,21 @@
 package com.smartcity.traffic.domain.service;
 
+import com.smartcity.common.PageRequest;
+import com.smartcity.common.PageResult;
+import com.smartcity.traffic.domain.CongestionUpdate;
+import com.smartcity.traffic.domain.CongestionUpdateResult;
 import com.smartcity.traffic.domain.Traffic;
 import com.smartcity.traffic.domain.Traffic.TrafficStatus;
 import com.smartcity.traffic.domain.repository.TrafficRepository;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * 交通领域服务
@@ -49,6 +59,28 @@ public class TrafficDomainService {
         }
     }
     
+    /**
+     * 根据ID获取交通信息
+     */
+    public Traffic getTrafficById(Long trafficId) {
+        return trafficRepository.findById(trafficId)
+                .orElseThrow(() -> new IllegalArgumentException("Traffic information not found with id: " + trafficId));
+    }
+    
+    /**
+     * 更新交通信息（拥堵级别与描述），只做一次主键查找和一次保存
+     */
+    public Traffic updateTraffic(Long trafficId, Integer congestionLevel, String description) {
+        Traffic traffic = getTrafficById(trafficId);
+        if (congestionLevel != null) {
+            traffic.updateCongestionLevel(congestionLevel);
+        }
+        if (description != null) {
+            traffic.updateDescription(description);
+        }
+        return trafficRepository.save(traffic);
+    }
+    
     /**
      * 更新交通状态
      */
@@ -65,6 +97,7 @@ public class TrafficDomainService {
     
     /**
      * 更新拥堵级别
+     * 传感器高频上报走仓储的拥堵级别写入，同一路段的多次更新可能合并为一次落库
      */
     public Traffic updateCongestionLevel(Long trafficId, Integer congestionLevel) {
         Optional<Traffic> trafficOptional = trafficRepository.findById(trafficId);
@@ -74,7 +107,50 @@ public class TrafficDomainService {
         
         Traffic traffic = trafficOptional.get();
         traffic.updateCongestionLevel(congestionLevel);
-        return trafficRepository.save(traffic);
+        return trafficRepository.saveCongestionLevel(traffic);
+    }
+    
+    /**
+     * 批量更新拥堵级别
+     * 一次性按主键加载所有涉及的路段，依次应用更新后统一批量保存，
+     * 同一路段出现多次时按顺序应用，最终以最后一次为准
+     */
+    public List<CongestionUpdateResult> batchUpdateCongestionLevel(List<CongestionUpdate> updates) {
+        Set<Long> trafficIds = new LinkedHashSet<>();
+        for (CongestionUpdate update : updates) {
+            if (update.trafficId() != null) {
+                trafficIds.add(update.trafficId());
+            }
+        }
+        
+        Map<Long, Traffic> trafficById = new HashMap<>();
+        for (Traffic traffic : trafficRepository.findAllById(trafficIds)) {
+            trafficById.put(traffic.getId(), traffic);
+        }
+        
+        List<CongestionUpdateResult> results = new ArrayList<>(updates.size());
+        Map<Long, Traffic> changed = new LinkedHashMap<>();
+        for (CongestionUpdate update : updates) {
+            Traffic traffic = trafficById.get(update.trafficId());
+            if (traffic == null) {
+                results.add(CongestionUpdateResult.notFound(update.trafficId()));
+                continue;
+            }
+            try {
+                traffic.updateCongestionLevel(update.congestionLevel());
+            } catch (IllegalArgumentException e) {
+                results.add(CongestionUpdateResult.invalidLevel(update.trafficId(), e.getMessage()));
+                continue;
+            }
+            changed.put(traffic.getId(), traffic);
+            // 同一路段在批次中多次出现时共用一个对象，结果保存当时的快照，每项返回各自应用后的级别
+            results.add(CongestionUpdateResult.updated(traffic.copy()));
+        }
+        
+        if (!changed.isEmpty()) {
+            trafficRepository.saveAll(changed.values());
+        }
+        return results;
     }
     
     /**
@@ -91,6 +167,13 @@ public class TrafficDomainService {
         return trafficRepository.findAll();
     }
     
+    /**
+     * 分页获取交通信息
+     */
+    public PageResult<Traffic> getTrafficPage(PageRequest pageRequest) {
+        return trafficRepository.findPage(pageRequest);
+    }
+    
     /**
      * 根据位置查找交通信息
      */
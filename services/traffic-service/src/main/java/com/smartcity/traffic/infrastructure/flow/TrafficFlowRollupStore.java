@@ -0,0 +1,136 @@
+package com.smartcity.traffic.infrastructure.flow;
+
+import com.smartcity.traffic.domain.RollupGranularity;
+import com.smartcity.traffic.domain.TrafficFlowReading;
+import com.smartcity.traffic.domain.TrafficFlowRollup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 流量汇总表读写
+ * 每批读数先在内存中按（监测点, 桶）合并，再对分钟、小时、天三张表各做一次批量累加
+ */
+@Component
+public class TrafficFlowRollupStore {
+
+    private static final String UPSERT_TEMPLATE = "INSERT INTO %s "
+            + "(monitoring_point_id, bucket_start, sample_count, flow_sum, speed_sum, speed_count, occupancy_sum, occupancy_count) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE "
+            + "sample_count = sample_count + VALUES(sample_count), "
+            + "flow_sum = flow_sum + VALUES(flow_sum), "
+            + "speed_sum = speed_sum + VALUES(speed_sum), "
+            + "speed_count = speed_count + VALUES(speed_count), "
+            + "occupancy_sum = occupancy_sum + VALUES(occupancy_sum), "
+            + "occupancy_count = occupancy_count + VALUES(occupancy_count)";
+
+    private static final String SELECT_RANGE_TEMPLATE = "SELECT monitoring_point_id, bucket_start, sample_count, flow_sum, "
+            + "speed_sum, speed_count, occupancy_sum, occupancy_count FROM %s "
+            + "WHERE monitoring_point_id = ? AND bucket_start >= ? AND bucket_start < ? ORDER BY bucket_start";
+
+    private static final String SUM_RANGE_TEMPLATE = "SELECT COALESCE(SUM(sample_count), 0), COALESCE(SUM(flow_sum), 0), "
+            + "COALESCE(SUM(speed_sum), 0), COALESCE(SUM(speed_count), 0), "
+            + "COALESCE(SUM(occupancy_sum), 0), COALESCE(SUM(occupancy_count), 0) FROM %s "
+            + "WHERE monitoring_point_id = ? AND bucket_start >= ? AND bucket_start < ?";
+
+    private static final RowMapper<TrafficFlowRollup> ROW_MAPPER = (rs, rowNum) -> new TrafficFlowRollup(
+            rs.getLong("monitoring_point_id"),
+            rs.getTimestamp("bucket_start").toLocalDateTime(),
+            rs.getLong("sample_count"),
+            rs.getLong("flow_sum"),
+            rs.getDouble("speed_sum"),
+            rs.getLong("speed_count"),
+            rs.getDouble("occupancy_sum"),
+            rs.getLong("occupancy_count")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TrafficFlowRollupStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 把一批读数累加到各粒度汇总表，需与明细写入处于同一事务
+     */
+    public void accumulate(Collection<TrafficFlowReading> readings) {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            Collection<TrafficFlowRollup> buckets = aggregate(readings, granularity);
+            if (buckets.isEmpty()) {
+                continue;
+            }
+            List<Object[]> args = new ArrayList<>(buckets.size());
+            for (TrafficFlowRollup bucket : buckets) {
+                args.add(new Object[]{
+                        bucket.monitoringPointId(),
+                        Timestamp.valueOf(bucket.bucketStart()),
+                        bucket.sampleCount(),
+                        bucket.flowSum(),
+                        bucket.speedSum(),
+                        bucket.speedCount(),
+                        bucket.occupancySum(),
+                        bucket.occupancyCount()
+                });
+            }
+            jdbcTemplate.batchUpdate(UPSERT_TEMPLATE.formatted(tableOf(granularity)), args);
+        }
+    }
+
+    /**
+     * 按桶顺序查询某个粒度在[from, to)内的汇总
+     */
+    public List<TrafficFlowRollup> findRange(Long monitoringPointId, RollupGranularity granularity,
+                                             LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(SELECT_RANGE_TEMPLATE.formatted(tableOf(granularity)), ROW_MAPPER,
+                monitoringPointId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * 在数据库端合计某个粒度在[from, to)内的汇总
+     */
+    public TrafficFlowRollup sumRange(Long monitoringPointId, RollupGranularity granularity,
+                                      LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.queryForObject(SUM_RANGE_TEMPLATE.formatted(tableOf(granularity)),
+                (rs, rowNum) -> new TrafficFlowRollup(
+                        monitoringPointId,
+                        from,
+                        rs.getLong(1),
+                        rs.getLong(2),
+                        rs.getDouble(3),
+                        rs.getLong(4),
+                        rs.getDouble(5),
+                        rs.getLong(6)),
+                monitoringPointId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    private static Collection<TrafficFlowRollup> aggregate(Collection<TrafficFlowReading> readings,
+                                                           RollupGranularity granularity) {
+        Map<BucketKey, TrafficFlowRollup> buckets = new LinkedHashMap<>();
+        for (TrafficFlowReading reading : readings) {
+            LocalDateTime bucketStart = granularity.floor(reading.dataTime());
+            TrafficFlowRollup single = TrafficFlowRollup.of(reading, bucketStart);
+            buckets.merge(new BucketKey(reading.monitoringPointId(), bucketStart), single, TrafficFlowRollup::merge);
+        }
+        return buckets.values();
+    }
+
+    private static String tableOf(RollupGranularity granularity) {
+        return switch (granularity) {
+            case MINUTE -> "traffic_flow_rollup_minute";
+            case HOUR -> "traffic_flow_rollup_hour";
+            case DAY -> "traffic_flow_rollup_day";
+        };
+    }
+
+    private record BucketKey(Long monitoringPointId, LocalDateTime bucketStart) {
+    }
+}
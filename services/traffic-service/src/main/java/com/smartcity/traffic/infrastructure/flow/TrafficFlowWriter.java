@@ -0,0 +1,112 @@
+package com.smartcity.traffic.infrastructure.flow;
+
+import com.smartcity.common.sharedkernel.infrastructure.batch.BoundedBatchWriter;
+import com.smartcity.common.sharedkernel.infrastructure.batch.BoundedBatchWriter.OverflowPolicy;
+import com.smartcity.traffic.domain.TrafficFlowReading;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 交通流量批量写入器
+ * 读数先进入有界缓冲区，再由后台线程按条数或时间合并为多行INSERT写入traffic_flows，
+ * 同一事务内累加分钟、小时、天汇总表，保证明细与汇总一致；
+ * 个别读数违反约束（如监测点不存在）时整批回滚，再逐条重写，只隔离出错的读数
+ */
+@Component
+public class TrafficFlowWriter {
+
+    private static final String INSERT_PREFIX = "INSERT INTO traffic_flows "
+            + "(monitoring_point_id, flow_value, average_speed, occupancy_rate, congestion_level, data_time) VALUES ";
+    private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, ?, ?)";
+    private static final int COLUMN_COUNT = 6;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TrafficFlowRollupStore rollupStore;
+    private final BoundedBatchWriter<TrafficFlowReading> batchWriter;
+    private final long shutdownTimeoutMillis;
+
+    public TrafficFlowWriter(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             TrafficFlowRollupStore rollupStore,
+                             @Value("${traffic.flows.buffer-capacity:65536}") int bufferCapacity,
+                             @Value("${traffic.flows.batch-size:1000}") int batchSize,
+                             @Value("${traffic.flows.flush-interval-ms:1000}") long flushIntervalMillis,
+                             @Value("${traffic.flows.offer-timeout-ms:200}") long offerTimeoutMillis,
+                             @Value("${traffic.flows.shutdown-timeout-ms:10000}") long shutdownTimeoutMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.rollupStore = rollupStore;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.batchWriter = new BoundedBatchWriter<>("traffic-flows", bufferCapacity, batchSize,
+                flushIntervalMillis, OverflowPolicy.BLOCK, offerTimeoutMillis, this::writeBatch,
+                DataIntegrityViolationException.class::isInstance);
+    }
+
+    @PostConstruct
+    public void start() {
+        batchWriter.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        batchWriter.stop(shutdownTimeoutMillis);
+    }
+
+    /**
+     * 提交读数，缓冲区在等待超时后仍然满时返回false
+     */
+    public boolean submit(TrafficFlowReading reading) {
+        return batchWriter.offer(reading);
+    }
+
+    /**
+     * 写入器运行指标
+     */
+    public Map<String, Object> metrics() {
+        return batchWriter.metrics();
+    }
+
+    /**
+     * 在一个事务内写入明细并累加汇总
+     */
+    protected void writeBatch(List<TrafficFlowReading> readings) {
+        transactionTemplate.executeWithoutResult(status -> {
+            insertBatch(readings);
+            rollupStore.accumulate(readings);
+        });
+    }
+
+    /**
+     * 以单条多行INSERT写入一批读数
+     */
+    protected void insertBatch(List<TrafficFlowReading> readings) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + readings.size() * (ROW_PLACEHOLDER.length() + 2));
+        sql.append(INSERT_PREFIX);
+        List<Object> args = new ArrayList<>(readings.size() * COLUMN_COUNT);
+        for (int i = 0; i < readings.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDER);
+            TrafficFlowReading reading = readings.get(i);
+            args.add(reading.monitoringPointId());
+            args.add(reading.flowValue());
+            args.add(reading.averageSpeed());
+            args.add(reading.occupancyRate());
+            args.add(reading.congestionLevel());
+            args.add(Timestamp.valueOf(reading.dataTime()));
+        }
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+}
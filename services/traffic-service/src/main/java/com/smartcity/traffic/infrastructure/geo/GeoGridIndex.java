@@ -0,0 +1,277 @@
+package com.smartcity.traffic.infrastructure.geo;
+
+import com.smartcity.traffic.domain.GeoFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 路网设施空间索引
+ * 按固定经纬度步长划分网格，每个网格保存落在其中的设施；
+ * 矩形查询只扫描与矩形相交的网格，最近邻查询从中心网格按环向外扩展，找满k个且下一环不可能更近时停止；
+ * 已过结束时间的事件在查询时跳过，不必等到下次同步才从结果中消失
+ */
+@Component
+public class GeoGridIndex {
+
+    private static final double METERS_PER_DEGREE_LAT = 111_320.0;
+
+    private final double cellDegrees;
+
+    private volatile Grid grid = new Grid();
+
+    public GeoGridIndex(@Value("${traffic.geo.cell-degrees:0.01}") double cellDegrees) {
+        if (cellDegrees <= 0) {
+            throw new IllegalArgumentException("网格步长必须大于0");
+        }
+        this.cellDegrees = cellDegrees;
+    }
+
+    /**
+     * 用全量快照替换索引
+     */
+    public void replaceAll(Collection<GeoFeature> features) {
+        Grid fresh = new Grid();
+        for (GeoFeature feature : features) {
+            fresh.upsert(feature);
+        }
+        grid = fresh;
+    }
+
+    /**
+     * 新增或移动设施
+     */
+    public void upsert(GeoFeature feature) {
+        grid.upsert(feature);
+    }
+
+    /**
+     * 移除设施
+     */
+    public void remove(GeoFeature.Kind kind, Long id) {
+        grid.remove(new GeoFeature.Key(kind, id));
+    }
+
+    public int size() {
+        return grid.features.size();
+    }
+
+    public int cellCount() {
+        return grid.cells.size();
+    }
+
+    /**
+     * 矩形范围查询
+     *
+     * @param kinds 需要的设施类型，为空表示全部
+     * @param limit 最多返回条数
+     */
+    public List<GeoFeature> withinBox(double minLat, double minLon, double maxLat, double maxLon,
+                                      Set<GeoFeature.Kind> kinds, int limit) {
+        Grid current = grid;
+        Instant now = Instant.now();
+        List<GeoFeature> result = new ArrayList<>();
+        int minRow = row(minLat);
+        int maxRow = row(maxLat);
+        int minCol = col(minLon);
+        int maxCol = col(maxLon);
+        long boxCells = (long) (maxRow - minRow + 1) * (maxCol - minCol + 1);
+        if (boxCells > current.cells.size()) {
+            // 视口很大时，遍历已有网格比枚举矩形内的所有网格更快
+            for (Map.Entry<Long, Map<GeoFeature.Key, GeoFeature>> entry : current.cells.entrySet()) {
+                int row = (int) (entry.getKey() >> 32);
+                int col = (int) (long) entry.getKey();
+                if (row < minRow || row > maxRow || col < minCol || col > maxCol) {
+                    continue;
+                }
+                if (collect(entry.getValue(), minLat, minLon, maxLat, maxLon, kinds, now, limit, result)) {
+                    return result;
+                }
+            }
+            return result;
+        }
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                Map<GeoFeature.Key, GeoFeature> cell = current.cells.get(cellKey(row, col));
+                if (cell != null && collect(cell, minLat, minLon, maxLat, maxLon, kinds, now, limit, result)) {
+                    return result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * k近邻查询，结果按距离从近到远排列
+     *
+     * @param maxDistanceMeters 最大搜索距离，为空表示不限
+     */
+    public List<Neighbor> nearest(double lat, double lon, int k, Set<GeoFeature.Kind> kinds, Double maxDistanceMeters) {
+        Grid current = grid;
+        Instant now = Instant.now();
+        List<Neighbor> result = new ArrayList<>();
+        if (k <= 0 || current.features.isEmpty()) {
+            return result;
+        }
+        // 大顶堆保存当前最近的k个
+        PriorityQueue<Neighbor> best = new PriorityQueue<>(Comparator.comparingDouble(Neighbor::distanceMeters).reversed());
+        int centerRow = row(lat);
+        int centerCol = col(lon);
+        // 一个网格在东西方向上的最短宽度，用于估算下一环的最小距离
+        double cellMeters = cellDegrees * METERS_PER_DEGREE_LAT
+                * Math.max(0.01, Math.cos(Math.toRadians(Math.min(89.0, Math.abs(lat) + cellDegrees))));
+        int maxRing = maxRing(current, centerRow, centerCol, maxDistanceMeters, cellMeters);
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            double ringMinDistance = Math.max(0, ring - 1) * cellMeters;
+            if (best.size() == k && ringMinDistance > best.peek().distanceMeters()) {
+                break;
+            }
+            if (maxDistanceMeters != null && ringMinDistance > maxDistanceMeters) {
+                break;
+            }
+            for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+                int step = edgeRow ? 1 : Math.max(1, 2 * ring);
+                for (int col = centerCol - ring; col <= centerCol + ring; col += step) {
+                    Map<GeoFeature.Key, GeoFeature> cell = current.cells.get(cellKey(row, col));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (GeoFeature feature : cell.values()) {
+                        if (!matches(feature, kinds, now)) {
+                            continue;
+                        }
+                        double distance = feature.distanceMeters(lat, lon);
+                        if (maxDistanceMeters != null && distance > maxDistanceMeters) {
+                            continue;
+                        }
+                        if (best.size() < k) {
+                            best.add(new Neighbor(feature, distance));
+                        } else if (distance < best.peek().distanceMeters()) {
+                            best.poll();
+                            best.add(new Neighbor(feature, distance));
+                        }
+                    }
+                }
+            }
+        }
+        result.addAll(best);
+        result.sort(Comparator.comparingDouble(Neighbor::distanceMeters));
+        return result;
+    }
+
+    /**
+     * 最近邻结果
+     */
+    public record Neighbor(GeoFeature feature, double distanceMeters) {
+    }
+
+    private int maxRing(Grid current, int centerRow, int centerCol, Double maxDistanceMeters, double cellMeters) {
+        // 不超过覆盖所有已有网格所需的环数
+        int bound = Math.max(
+                Math.max(Math.abs(current.maxRow - centerRow), Math.abs(current.minRow - centerRow)),
+                Math.max(Math.abs(current.maxCol - centerCol), Math.abs(current.minCol - centerCol)));
+        if (maxDistanceMeters != null) {
+            bound = (int) Math.min(bound, Math.ceil(maxDistanceMeters / cellMeters) + 1);
+        }
+        return bound;
+    }
+
+    private static boolean collect(Map<GeoFeature.Key, GeoFeature> cell, double minLat, double minLon,
+                                   double maxLat, double maxLon, Set<GeoFeature.Kind> kinds, Instant now,
+                                   int limit, List<GeoFeature> result) {
+        for (GeoFeature feature : cell.values()) {
+            if (feature.latitude() < minLat || feature.latitude() > maxLat
+                    || feature.longitude() < minLon || feature.longitude() > maxLon
+                    || !matches(feature, kinds, now)) {
+                continue;
+            }
+            result.add(feature);
+            if (result.size() >= limit) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(GeoFeature feature, Set<GeoFeature.Kind> kinds, Instant now) {
+        return (kinds == null || kinds.isEmpty() || kinds.contains(feature.kind())) && !feature.isExpired(now);
+    }
+
+    private int row(double lat) {
+        return (int) Math.floor(lat / cellDegrees);
+    }
+
+    private int col(double lon) {
+        return (int) Math.floor(lon / cellDegrees);
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    /**
+     * 网格数据，全量重建时整体替换
+     */
+    private final class Grid {
+
+        private final Map<Long, Map<GeoFeature.Key, GeoFeature>> cells = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<GeoFeature.Key, GeoFeature> features = new ConcurrentHashMap<>();
+
+        // 已有网格的行列范围，只扩不缩，用于限制最近邻的扩展环数
+        private volatile int minRow = Integer.MAX_VALUE;
+        private volatile int maxRow = Integer.MIN_VALUE;
+        private volatile int minCol = Integer.MAX_VALUE;
+        private volatile int maxCol = Integer.MIN_VALUE;
+
+        private void upsert(GeoFeature feature) {
+            features.compute(feature.key(), (key, previous) -> {
+                if (previous != null) {
+                    removeFromCell(previous);
+                }
+                int row = row(feature.latitude());
+                int col = col(feature.longitude());
+                // 在网格的compute中放入，避免与移除空网格的操作交错而丢失
+                cells.compute(cellKey(row, col), (k, cell) -> {
+                    Map<GeoFeature.Key, GeoFeature> target = cell != null ? cell : new ConcurrentHashMap<>();
+                    target.put(key, feature);
+                    return target;
+                });
+                extend(row, col);
+                return feature;
+            });
+        }
+
+        private void remove(GeoFeature.Key key) {
+            features.computeIfPresent(key, (k, previous) -> {
+                removeFromCell(previous);
+                return null;
+            });
+        }
+
+        private void removeFromCell(GeoFeature feature) {
+            long cellKey = cellKey(row(feature.latitude()), col(feature.longitude()));
+            cells.computeIfPresent(cellKey, (k, cell) -> {
+                cell.remove(feature.key());
+                return cell.isEmpty() ? null : cell;
+            });
+        }
+
+        private synchronized void extend(int row, int col) {
+            if (row < minRow) minRow = row;
+            if (row > maxRow) maxRow = row;
+            if (col < minCol) minCol = col;
+            if (col > maxCol) maxCol = col;
+        }
+    }
+}
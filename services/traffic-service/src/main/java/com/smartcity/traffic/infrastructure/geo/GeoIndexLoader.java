@@ -0,0 +1,176 @@
+package com.smartcity.traffic.infrastructure.geo;
+
+import com.smartcity.traffic.domain.GeoFeature;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 空间索引加载器
+ * 启动后从监测点、信号灯、摄像头和交通事件表全量加载，之后按update_time增量同步，并定期全量重建以清理已删除的设施
+ */
+@Component
+public class GeoIndexLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeoIndexLoader.class);
+
+    /**
+     * 增量同步时向前多取的时间，覆盖同一秒内提交较晚的事务
+     */
+    private static final long WATERMARK_OVERLAP_MILLIS = 5000;
+
+    private static final String MONITORING_POINTS_SQL =
+            "SELECT id, point_name AS name, latitude, longitude, status, NULL AS end_time, 1 AS active FROM monitoring_points";
+    private static final String TRAFFIC_LIGHTS_SQL =
+            "SELECT id, light_name AS name, latitude, longitude, status, NULL AS end_time, 1 AS active FROM traffic_lights";
+    private static final String TRAFFIC_CAMERAS_SQL =
+            "SELECT id, camera_name AS name, latitude, longitude, status, NULL AS end_time, 1 AS active FROM traffic_cameras";
+    // 只索引处理中或待处理、且尚未结束的事件；加载后才到结束时间的事件由索引在查询时过滤
+    private static final String TRAFFIC_EVENTS_SQL =
+            "SELECT id, location_description AS name, latitude, longitude, status, end_time, "
+                    + "(status IN (1, 2) AND (end_time IS NULL OR end_time > NOW())) AS active FROM traffic_events";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GeoGridIndex geoGridIndex;
+    private final long refreshIntervalMillis;
+    private final long fullReloadIntervalMillis;
+
+    private ScheduledExecutorService scheduler;
+    private volatile Timestamp watermark;
+
+    public GeoIndexLoader(JdbcTemplate jdbcTemplate,
+                          GeoGridIndex geoGridIndex,
+                          @Value("${traffic.geo.refresh-interval-ms:30000}") long refreshIntervalMillis,
+                          @Value("${traffic.geo.full-reload-interval-ms:600000}") long fullReloadIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.geoGridIndex = geoGridIndex;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.fullReloadIntervalMillis = fullReloadIntervalMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reloadAll();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "geo-index-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, refreshIntervalMillis, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::reloadQuietly, fullReloadIntervalMillis, fullReloadIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 全量重建索引
+     */
+    public synchronized void reloadAll() {
+        Timestamp startedAt = databaseNow();
+        List<GeoFeature> features = new ArrayList<>();
+        for (GeoFeature.Kind kind : GeoFeature.Kind.values()) {
+            for (Row row : query(kind, "")) {
+                if (row.active()) {
+                    features.add(row.feature());
+                }
+            }
+        }
+        geoGridIndex.replaceAll(features);
+        watermark = startedAt;
+        logger.info("空间索引全量加载完成: {}个设施, {}个网格", geoGridIndex.size(), geoGridIndex.cellCount());
+    }
+
+    /**
+     * 增量同步上次之后变化的设施
+     */
+    public synchronized void refreshChanged() {
+        Timestamp startedAt = databaseNow();
+        Timestamp since = new Timestamp(watermark.getTime() - WATERMARK_OVERLAP_MILLIS);
+        int changed = 0;
+        for (GeoFeature.Kind kind : GeoFeature.Kind.values()) {
+            for (Row row : query(kind, " WHERE update_time >= ?", since)) {
+                if (row.active()) {
+                    geoGridIndex.upsert(row.feature());
+                } else {
+                    geoGridIndex.remove(kind, row.feature().id());
+                }
+                changed++;
+            }
+        }
+        watermark = startedAt;
+        if (changed > 0) {
+            logger.debug("空间索引增量同步: {}个设施变化", changed);
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refreshChanged();
+        } catch (RuntimeException e) {
+            logger.warn("空间索引增量同步失败: {}", e.getMessage());
+        }
+    }
+
+    private void reloadQuietly() {
+        try {
+            reloadAll();
+        } catch (RuntimeException e) {
+            logger.warn("空间索引全量加载失败: {}", e.getMessage());
+        }
+    }
+
+    private List<Row> query(GeoFeature.Kind kind, String where, Object... args) {
+        return jdbcTemplate.query(baseSql(kind) + where, rowMapper(kind), args);
+    }
+
+    private Timestamp databaseNow() {
+        return jdbcTemplate.queryForObject("SELECT NOW()", Timestamp.class);
+    }
+
+    private static String baseSql(GeoFeature.Kind kind) {
+        return switch (kind) {
+            case MONITORING_POINT -> MONITORING_POINTS_SQL;
+            case TRAFFIC_LIGHT -> TRAFFIC_LIGHTS_SQL;
+            case TRAFFIC_CAMERA -> TRAFFIC_CAMERAS_SQL;
+            case TRAFFIC_EVENT -> TRAFFIC_EVENTS_SQL;
+        };
+    }
+
+    private static RowMapper<Row> rowMapper(GeoFeature.Kind kind) {
+        return (rs, rowNum) -> new Row(new GeoFeature(
+                kind,
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getDouble("latitude"),
+                rs.getDouble("longitude"),
+                rs.getObject("status", Integer.class),
+                toInstant(rs.getTimestamp("end_time"))),
+                rs.getBoolean("active"));
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    private record Row(GeoFeature feature, boolean active) {
+    }
+}
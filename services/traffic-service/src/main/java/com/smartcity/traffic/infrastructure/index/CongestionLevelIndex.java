@@ -0,0 +1,180 @@
+package com.smartcity.traffic.infrastructure.index;
+
+import com.smartcity.traffic.domain.Traffic;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 拥堵级别内存索引
+ * 按拥堵级别（1-10）分桶保存路段快照，阈值查询只需合并对应的桶，无需访问数据库
+ */
+@Component
+public class CongestionLevelIndex {
+
+    public static final int MIN_LEVEL = 1;
+    public static final int MAX_LEVEL = 10;
+
+    /**
+     * 下标即拥堵级别，0号桶不使用
+     */
+    private final Map<Long, Traffic>[] buckets;
+
+    /**
+     * 路段ID到当前所在级别的映射，compute操作保证同一路段的桶迁移是原子的
+     */
+    private final ConcurrentHashMap<Long, Integer> levelById = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded;
+
+    @SuppressWarnings("unchecked")
+    public CongestionLevelIndex() {
+        this.buckets = new Map[MAX_LEVEL + 1];
+        for (int level = MIN_LEVEL; level <= MAX_LEVEL; level++) {
+            buckets[level] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * 索引是否已完成全量加载
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * 全量加载索引
+     * 加载期间已经写入的更新比数据库快照更新，因此只补充缺失的路段
+     */
+    public void load(Collection<Traffic> snapshot) {
+        for (Traffic traffic : snapshot) {
+            Integer level = normalize(traffic.getCongestionLevel());
+            if (traffic.getId() == null || level == null) {
+                continue;
+            }
+            levelById.computeIfAbsent(traffic.getId(), id -> {
+                buckets[level].put(id, traffic.copy());
+                return level;
+            });
+        }
+        loaded = true;
+    }
+
+    /**
+     * 写入或更新路段快照，必要时把路段从旧级别桶迁移到新级别桶
+     */
+    public void update(Traffic traffic) {
+        Integer level = normalize(traffic.getCongestionLevel());
+        if (traffic.getId() == null) {
+            return;
+        }
+        Traffic snapshot = traffic.copy();
+        levelById.compute(traffic.getId(), (id, previous) -> {
+            if (previous != null && !previous.equals(level)) {
+                buckets[previous].remove(id);
+            }
+            if (level == null) {
+                return null;
+            }
+            buckets[level].put(id, snapshot);
+            return level;
+        });
+    }
+
+    /**
+     * 在当前事务提交后写入路段快照，回滚的修改不会出现在阈值查询中；不在事务中时立即写入
+     */
+    public void updateAfterCommit(Traffic traffic) {
+        if (traffic.getId() == null) {
+            return;
+        }
+        // 先取快照，调用方在提交前继续修改路段不影响索引
+        Traffic snapshot = traffic.copy();
+        afterCommit(() -> update(snapshot));
+    }
+
+    /**
+     * 在当前事务提交后移除路段；不在事务中时立即移除
+     */
+    public void removeAfterCommit(Long id) {
+        afterCommit(() -> remove(id));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * 移除路段
+     */
+    public void remove(Long id) {
+        if (id == null) {
+            return;
+        }
+        levelById.computeIfPresent(id, (key, previous) -> {
+            buckets[previous].remove(key);
+            return null;
+        });
+    }
+
+    /**
+     * 是否包含指定路段
+     */
+    public boolean contains(Long id) {
+        return id != null && levelById.containsKey(id);
+    }
+
+    /**
+     * 查找拥堵级别大于等于阈值的路段，按级别从高到低返回副本
+     */
+    public List<Traffic> findAtLeast(Integer threshold) {
+        int from = threshold == null ? MIN_LEVEL : Math.max(threshold, MIN_LEVEL);
+        if (from > MAX_LEVEL) {
+            return new ArrayList<>();
+        }
+        int expected = 0;
+        for (int level = from; level <= MAX_LEVEL; level++) {
+            expected += buckets[level].size();
+        }
+        List<Traffic> result = new ArrayList<>(expected);
+        for (int level = MAX_LEVEL; level >= from; level--) {
+            for (Traffic traffic : buckets[level].values()) {
+                result.add(traffic.copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 各级别路段数量，下标即拥堵级别
+     */
+    public int[] bucketSizes() {
+        int[] sizes = new int[MAX_LEVEL + 1];
+        for (int level = MIN_LEVEL; level <= MAX_LEVEL; level++) {
+            sizes[level] = buckets[level].size();
+        }
+        return sizes;
+    }
+
+    private static Integer normalize(Integer level) {
+        if (level == null || level < MIN_LEVEL || level > MAX_LEVEL) {
+            return null;
+        }
+        return level;
+    }
+}
@@ -0,0 +1,11 @@
+package com.smartcity.traffic.infrastructure.lane;
+
+/**
+ * 等待路段更新通道的结果超时；任务可能仍在排队或执行，调用方不能据此认为修改未生效
+ */
+public class LaneTimeoutException extends RuntimeException {
+
+    public LaneTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,350 @@
+package com.smartcity.traffic.infrastructure.lane;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * 路段更新分片执行引擎
+ * 按路段ID把修改路由到固定的单写者通道。每个通道有一个无锁的多生产者队列和一个专属线程，
+ * 同一路段的查找、修改、保存总在同一线程上依次执行，本进程内不需要加锁也不会互相覆盖。
+ * 这一保证只在单个JVM内成立：多副本部署时不同副本对同一路段的修改仍会并发，需按路段ID把写请求路由到同一副本，
+ * 或在数据库层使用版本号等乐观锁。
+ * 通道线程每次取出一批任务连续执行，空闲时休眠，有新任务时才被唤醒。
+ * 每个任务是一次独立事务，通道线程大部分时间阻塞在JDBC往返上，因此通道数按I/O等待而不是CPU核数确定：
+ * 默认核数×(1+io-wait-ratio)，吞吐上限约为通道数÷单次提交耗时；通道数不应超过连接池大小，否则多出的通道只会等待连接。
+ * 依赖EntityManagerFactory、数据源和写后缓冲，使关闭时排空通道的任务仍能访问数据库
+ */
+@Component
+@DependsOn({"entityManagerFactory", "dataSource", "congestionWriteBehind"})
+public class TrafficUpdateLanes {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrafficUpdateLanes.class);
+
+    /**
+     * 雪花ID的低位是毫秒内序号，低并发时大多为0，直接取模会让路段集中在少数通道，先做一次乘法散列
+     */
+    private static final long MIX = 0x9E3779B97F4A7C15L;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Lane[] lanes;
+    private final int laneCapacity;
+    private final int batchSize;
+    private final long shutdownTimeoutMillis;
+    private final long joinTimeoutMillis;
+    private final LongAdder timedOut = new LongAdder();
+
+    public TrafficUpdateLanes(@Value("${traffic.lanes.count:0}") int laneCount,
+                              @Value("${traffic.lanes.capacity:10000}") int laneCapacity,
+                              @Value("${traffic.lanes.batch-size:256}") int batchSize,
+                              @Value("${traffic.lanes.shutdown-timeout-ms:10000}") long shutdownTimeoutMillis,
+                              @Value("${traffic.lanes.join-timeout-ms:30000}") long joinTimeoutMillis,
+                              @Value("${traffic.lanes.io-wait-ratio:7}") int ioWaitRatio) {
+        this.laneCapacity = laneCapacity;
+        this.batchSize = batchSize;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.joinTimeoutMillis = joinTimeoutMillis;
+        int count = laneCount > 0
+                ? laneCount
+                : Runtime.getRuntime().availableProcessors() * (1 + Math.max(0, ioWaitRatio));
+        this.lanes = new Lane[count];
+        for (int i = 0; i < count; i++) {
+            lanes[i] = new Lane(i);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        for (Lane lane : lanes) {
+            lane.start();
+        }
+        logger.info("路段更新通道已启动: {}个", lanes.length);
+    }
+
+    /**
+     * 停止接收新任务，等待各通道执行完已排队的任务
+     */
+    @PreDestroy
+    public void stop() {
+        for (Lane lane : lanes) {
+            lane.running = false;
+            LockSupport.unpark(lane.thread);
+        }
+        long deadline = System.currentTimeMillis() + shutdownTimeoutMillis;
+        for (Lane lane : lanes) {
+            try {
+                lane.thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (lane.thread.isAlive()) {
+                logger.warn("路段更新通道{}未在{}ms内清空，剩余{}个任务", lane.index, shutdownTimeoutMillis,
+                        lane.depth.get());
+            }
+        }
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    /**
+     * 路段所属的通道序号
+     */
+    public int laneOf(Long segmentId) {
+        if (segmentId == null) {
+            return 0;
+        }
+        return (int) Math.floorMod((segmentId * MIX) >>> 32, (long) lanes.length);
+    }
+
+    /**
+     * 在路段所属的通道上执行任务并等待结果，任务抛出的运行时异常原样抛出
+     *
+     * @throws RejectedExecutionException 通道积压已满或已停止
+     * @throws LaneTimeoutException       等待超过join-timeout-ms，任务可能仍会执行
+     */
+    public <T> T execute(Long segmentId, Supplier<T> task) {
+        Lane lane = lanes[laneOf(segmentId)];
+        if (Thread.currentThread() == lane.thread) {
+            // 通道任务内再次提交同一通道时直接执行，避免等待自己
+            return task.get();
+        }
+        return join(lane.submit(task));
+    }
+
+    /**
+     * 提交到路段所属的通道，不等待结果
+     */
+    public <T> CompletableFuture<T> submit(Long segmentId, Supplier<T> task) {
+        return submitToLane(laneOf(segmentId), task);
+    }
+
+    /**
+     * 提交到指定通道，用于把已按{@link #laneOf}分组的一批修改整体交给所属通道
+     */
+    public <T> CompletableFuture<T> submitToLane(int laneIndex, Supplier<T> task) {
+        return lanes[laneIndex].submit(task);
+    }
+
+    /**
+     * 最多等待join-timeout-ms，并还原任务抛出的异常
+     *
+     * @throws LaneTimeoutException 等待超时，任务仍在排队或执行中，结果未知
+     */
+    public <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.get(joinTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(cause);
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            throw new LaneTimeoutException("等待路段更新通道超过" + joinTimeoutMillis + "ms，结果未知");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LaneTimeoutException("等待路段更新通道时被中断，结果未知");
+        }
+    }
+
+    /**
+     * 运行指标快照，等待和执行耗时单位为微秒
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        long totalDepth = 0;
+        long totalProcessed = 0;
+        long totalRejected = 0;
+        List<Map<String, Object>> laneMetrics = new ArrayList<>(lanes.length);
+        for (Lane lane : lanes) {
+            Map<String, Object> snapshot = lane.metrics();
+            totalDepth += lane.depth.get();
+            totalProcessed += lane.processed;
+            totalRejected += lane.rejected.sum();
+            laneMetrics.add(snapshot);
+        }
+        metrics.put("lanes", lanes.length);
+        metrics.put("capacityPerLane", laneCapacity);
+        metrics.put("depth", totalDepth);
+        metrics.put("processed", totalProcessed);
+        metrics.put("rejected", totalRejected);
+        metrics.put("joinTimedOut", timedOut.sum());
+        metrics.put("perLane", laneMetrics);
+        return metrics;
+    }
+
+    /**
+     * 排队中的任务
+     */
+    private record Task<T>(Supplier<T> supplier, CompletableFuture<T> future, long enqueuedNanos) {
+
+        void run() {
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+    }
+
+    /**
+     * 单个通道：任意线程入队，只有通道线程出队和执行。
+     * 统计字段只由通道线程写入，volatile保证读取指标时的可见性
+     */
+    private final class Lane implements Runnable {
+
+        private final int index;
+        private final ConcurrentLinkedQueue<Task<?>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicBoolean sleeping = new AtomicBoolean();
+        private final LongAdder rejected = new LongAdder();
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        private volatile int maxDepth;
+        private volatile long processed;
+        private volatile long failed;
+        private volatile long batches;
+        private volatile long totalWaitNanos;
+        private volatile long maxWaitNanos;
+        private volatile long totalExecNanos;
+        private volatile long maxExecNanos;
+
+        Lane(int index) {
+            this.index = index;
+            this.thread = new Thread(this, "traffic-lane-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        <T> CompletableFuture<T> submit(Supplier<T> supplier) {
+            if (!running) {
+                throw new RejectedExecutionException("路段更新通道已停止");
+            }
+            int queued = depth.incrementAndGet();
+            if (queued > laneCapacity) {
+                depth.decrementAndGet();
+                rejected.increment();
+                throw new RejectedExecutionException("路段更新通道" + index + "积压已满");
+            }
+            CompletableFuture<T> future = new CompletableFuture<>();
+            Task<T> task = new Task<>(supplier, future, System.nanoTime());
+            queue.offer(task);
+            // 检查状态与入队之间通道可能已停止并完成最后一次清空，此时收回任务直接拒绝；
+            // 收回失败说明任务已被通道线程取走，会被执行或以已停止失败
+            if (!running && queue.remove(task)) {
+                depth.decrementAndGet();
+                throw new RejectedExecutionException("路段更新通道已停止");
+            }
+            // 只有通道线程准备休眠时才需要唤醒，忙碌时省去unpark
+            if (sleeping.get() && sleeping.compareAndSet(true, false)) {
+                LockSupport.unpark(thread);
+            }
+            return future;
+        }
+
+        @Override
+        public void run() {
+            while (running || !queue.isEmpty()) {
+                int drained = drainBatch();
+                if (drained > 0) {
+                    continue;
+                }
+                sleeping.set(true);
+                // 设置休眠标记后再检查一次，避免错过标记之前入队的任务
+                if (queue.isEmpty() && running) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                sleeping.set(false);
+            }
+            // 停止后才入队的任务不会再执行，直接失败，避免提交方一直等待
+            Task<?> task;
+            while ((task = queue.poll()) != null) {
+                depth.decrementAndGet();
+                task.future().completeExceptionally(new RejectedExecutionException("路段更新通道已停止"));
+            }
+        }
+
+        private int drainBatch() {
+            int queued = depth.get();
+            if (queued > maxDepth) {
+                maxDepth = queued;
+            }
+            int drained = 0;
+            Task<?> task;
+            while (drained < batchSize && (task = queue.poll()) != null) {
+                depth.decrementAndGet();
+                long started = System.nanoTime();
+                long wait = started - task.enqueuedNanos();
+                task.run();
+                long exec = System.nanoTime() - started;
+                if (task.future().isCompletedExceptionally()) {
+                    failed++;
+                }
+                processed++;
+                totalWaitNanos += wait;
+                totalExecNanos += exec;
+                if (wait > maxWaitNanos) {
+                    maxWaitNanos = wait;
+                }
+                if (exec > maxExecNanos) {
+                    maxExecNanos = exec;
+                }
+                drained++;
+            }
+            if (drained > 0) {
+                batches++;
+            }
+            return drained;
+        }
+
+        Map<String, Object> metrics() {
+            long count = processed;
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("lane", index);
+            metrics.put("depth", depth.get());
+            metrics.put("maxDepth", maxDepth);
+            metrics.put("processed", count);
+            metrics.put("failed", failed);
+            metrics.put("rejected", rejected.sum());
+            metrics.put("batches", batches);
+            metrics.put("avgWaitMicros", count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalWaitNanos / count));
+            metrics.put("maxWaitMicros", TimeUnit.NANOSECONDS.toMicros(maxWaitNanos));
+            metrics.put("avgExecMicros", count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalExecNanos / count));
+            metrics.put("maxExecMicros", TimeUnit.NANOSECONDS.toMicros(maxExecNanos));
+            return metrics;
+        }
+    }
+}
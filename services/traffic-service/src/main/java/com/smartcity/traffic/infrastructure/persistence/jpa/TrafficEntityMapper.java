@@ -0,0 +1,32 @@
+package com.smartcity.traffic.infrastructure.persistence.jpa;
+
+import com.smartcity.common.sharedkernel.infrastructure.mapping.GenerateMapper;
+import com.smartcity.traffic.domain.Traffic;
+
+/**
+ * 交通信息领域实体与JPA实体之间的映射，实现类在编译期生成
+ * 状态在JPA实体中按枚举名称保存
+ */
+@GenerateMapper
+public interface TrafficEntityMapper {
+
+    TrafficEntityMapper INSTANCE = new TrafficEntityMapperImpl();
+
+    TrafficJpaEntity toEntity(Traffic traffic);
+
+    Traffic toDomain(TrafficJpaEntity entity);
+
+    /**
+     * 库中的状态为空或不是已知的枚举名时按NORMAL处理，避免一行脏数据使整页查询失败
+     */
+    default Traffic.TrafficStatus toStatus(String status) {
+        if (status != null) {
+            try {
+                return Traffic.TrafficStatus.valueOf(status);
+            } catch (IllegalArgumentException e) {
+                // 未知状态按默认值处理
+            }
+        }
+        return Traffic.TrafficStatus.NORMAL;
+    }
+}
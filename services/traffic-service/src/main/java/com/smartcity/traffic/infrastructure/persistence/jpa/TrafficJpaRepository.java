@@ -1,5 +1,6 @@
 package com.smartcity.traffic.infrastructure.persistence.jpa;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import java.util.List;
@@ -19,6 +20,14 @@ public interface TrafficJpaRepository extends JpaRepository<TrafficJpaEntity, Lo
      */
     Optional<TrafficJpaEntity> findByLocation(String location);
 
+    /**
+     * 键集分页：查找主键大于游标的交通信息
+     * @param id 游标（上一页最后一条记录的主键）
+     * @param limit 最大条数
+     * @return 按主键升序的交通信息列表
+     */
+    List<TrafficJpaEntity> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
     /**
      * 根据状态查找交通信息
      * @param status 交通状态
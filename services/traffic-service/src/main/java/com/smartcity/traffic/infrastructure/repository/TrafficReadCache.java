@@ -0,0 +1,162 @@
+package com.smartcity.traffic.infrastructure.repository;
+
+import com.smartcity.traffic.domain.Traffic;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 交通信息按主键的读穿透缓存
+ * 缓存的是快照，读取时返回副本，避免调用方修改领域对象后污染缓存；
+ * 满容量时先清理过期条目，仍然满时淘汰任意一个条目，新路段总能进入缓存
+ */
+class TrafficReadCache {
+
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxSize;
+
+    /**
+     * 按路段ID分段的失效计数，读库前取一次，回填时若该路段期间发生过失效则放弃回填，避免旧数据覆盖刚失效的条目；
+     * 其他路段的失效不影响回填，只有落在同一分段的路段会偶尔多放弃一次
+     */
+    private static final int VERSION_STRIPES = 4096;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder displaced = new LongAdder();
+
+    TrafficReadCache(long ttlMillis, int maxSize) {
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 读取前该路段的失效戳，回填时原样传回
+     */
+    long stamp(Long id) {
+        return versions.get(stripe(id));
+    }
+
+    /**
+     * 读取未过期的缓存副本
+     */
+    Optional<Traffic> get(Long id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        if (System.currentTimeMillis() - entry.loadedAt > ttlMillis) {
+            if (entries.remove(id, entry)) {
+                expired.increment();
+            }
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(entry.snapshot.copy());
+    }
+
+    /**
+     * 写入快照，容量已满时先腾出位置
+     *
+     * @param stamp 读库前通过stamp(id)取得的失效戳
+     */
+    void put(Traffic traffic, long stamp) {
+        if (traffic == null || traffic.getId() == null) {
+            return;
+        }
+        Long id = traffic.getId();
+        int stripe = stripe(id);
+        if (stamp != versions.get(stripe)) {
+            return;
+        }
+        if (entries.size() >= maxSize && !entries.containsKey(id)) {
+            makeRoom();
+        }
+        Entry entry = new Entry(traffic.copy(), System.currentTimeMillis());
+        entries.put(id, entry);
+        // 检查与写入之间发生了失效时撤回刚写入的条目
+        if (stamp != versions.get(stripe)) {
+            entries.remove(id, entry);
+        }
+    }
+
+    /**
+     * 先清理过期条目，仍然满时淘汰迭代到的第一个条目
+     */
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        entries.forEach((id, entry) -> {
+            if (now - entry.loadedAt > ttlMillis && entries.remove(id, entry)) {
+                expired.increment();
+            }
+        });
+        Iterator<Long> ids = entries.keySet().iterator();
+        while (entries.size() >= maxSize && ids.hasNext()) {
+            ids.next();
+            ids.remove();
+            displaced.increment();
+        }
+    }
+
+    /**
+     * 失效指定路段；处于事务中时在提交后再失效一次，清掉提交前被并发读取回填的旧数据
+     */
+    void evict(Long id) {
+        if (id == null) {
+            return;
+        }
+        remove(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(id);
+                }
+            });
+        }
+    }
+
+    private void remove(Long id) {
+        versions.incrementAndGet(stripe(id));
+        entries.remove(id);
+    }
+
+    private static int stripe(Long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & (VERSION_STRIPES - 1);
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    long getExpired() {
+        return expired.sum();
+    }
+
+    long getDisplaced() {
+        return displaced.sum();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private record Entry(Traffic snapshot, long loadedAt) {
+    }
+}
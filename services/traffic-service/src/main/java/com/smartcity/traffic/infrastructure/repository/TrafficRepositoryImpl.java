@@ -1,42 +1,229 @@
 package com.smartcity.traffic.infrastructure.repository;
 
+import com.smartcity.common.PageRequest;
+import com.smartcity.common.PageResult;
+import com.smartcity.common.sharedkernel.domain.model.DomainEvent;
+import com.smartcity.common.sharedkernel.infrastructure.config.DddConfiguration.DomainEventPublisher;
+import com.smartcity.common.sharedkernel.infrastructure.outbox.OutboxWriter;
 import com.smartcity.traffic.domain.Traffic;
+import com.smartcity.traffic.domain.event.TrafficDeletedEvent;
+import com.smartcity.traffic.domain.event.TrafficStateChangedEvent;
 import com.smartcity.traffic.domain.repository.TrafficRepository;
+import com.smartcity.traffic.infrastructure.index.CongestionLevelIndex;
 import com.smartcity.traffic.infrastructure.persistence.jpa.TrafficJpaEntity;
 import com.smartcity.traffic.infrastructure.persistence.jpa.TrafficJpaRepository;
+import com.smartcity.traffic.infrastructure.writebehind.CongestionWriteBehind;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
 public class TrafficRepositoryImpl implements TrafficRepository {
 
+    private static final String AGGREGATE_TYPE = "Traffic";
+
     private final TrafficJpaRepository trafficJpaRepository;
+    private final TrafficReadCache readCache;
+    private final CongestionLevelIndex congestionLevelIndex;
+    private final DomainEventPublisher domainEventPublisher;
+    private final OutboxWriter outboxWriter;
+    private final CongestionWriteBehind congestionWriteBehind;
+    private final JdbcTemplate jdbcTemplate;
 
-    public TrafficRepositoryImpl(TrafficJpaRepository trafficJpaRepository) {
+    public TrafficRepositoryImpl(TrafficJpaRepository trafficJpaRepository,
+                                 CongestionLevelIndex congestionLevelIndex,
+                                 DomainEventPublisher domainEventPublisher,
+                                 OutboxWriter outboxWriter,
+                                 CongestionWriteBehind congestionWriteBehind,
+                                 JdbcTemplate jdbcTemplate,
+                                 @Value("${traffic.cache.ttl-ms:30000}") long cacheTtlMillis,
+                                 @Value("${traffic.cache.max-size:100000}") int cacheMaxSize) {
         this.trafficJpaRepository = trafficJpaRepository;
+        this.readCache = new TrafficReadCache(cacheTtlMillis, cacheMaxSize);
+        this.congestionLevelIndex = congestionLevelIndex;
+        this.domainEventPublisher = domainEventPublisher;
+        this.outboxWriter = outboxWriter;
+        this.congestionWriteBehind = congestionWriteBehind;
+        this.jdbcTemplate = jdbcTemplate;
+        // 缓冲值落库后缓存中的旧值失效
+        congestionWriteBehind.addFlushListener(ids -> ids.forEach(readCache::evict));
     }
 
     @Override
+    @Transactional
     public Traffic save(Traffic traffic) {
-        // 使用TrafficJpaEntity的fromDomainEntity静态方法创建实体
-        TrafficJpaEntity entity = TrafficJpaEntity.fromDomainEntity(traffic);
+        boolean isNew = traffic.getId() == null;
+        Set<Traffic.Field> columns = EnumSet.noneOf(Traffic.Field.class);
+        columns.addAll(traffic.getDirtyFields());
+        // 保存覆盖缓冲中的拥堵级别，先丢弃缓冲值以免稍后落库时覆盖本次写入；
+        // 传入的路段读取时已叠加了缓冲值，这两列需要随本次一起写入
+        List<DomainEvent> events = new ArrayList<>();
+        congestionWriteBehind.discard(traffic.getId()).ifPresent(event -> {
+            events.add(event);
+            columns.add(Traffic.Field.STATUS);
+            columns.add(Traffic.Field.CONGESTION_LEVEL);
+        });
+
+        Traffic saved;
+        if (isNew) {
+            TrafficJpaEntity entity = trafficJpaRepository.save(TrafficJpaEntity.fromDomainEntity(traffic));
+            saved = entity.toDomainEntity();
+        } else {
+            // 已存在的路段只更新修改过的列，不经过merge，省去一次按主键的预查询
+            if (!columns.isEmpty()) {
+                updateColumns(traffic, columns);
+            }
+            saved = traffic.copy();
+        }
+        traffic.clearDirtyFields();
+        // 写入时只做失效，避免事务回滚后缓存中残留未提交的数据
+        readCache.evict(saved.getId());
+        congestionLevelIndex.updateAfterCommit(saved);
+        events.addAll(collectEvents(traffic, saved, isNew));
+        outboxWriter.append(AGGREGATE_TYPE, saved.getId(), events);
+        events.forEach(domainEventPublisher::publish);
+        return saved;
+    }
+
+    /**
+     * 按修改过的字段拼出一条UPDATE，路段已被删除时报错
+     */
+    private void updateColumns(Traffic traffic, Set<Traffic.Field> columns) {
+        StringBuilder sql = new StringBuilder("UPDATE traffic_info SET ");
+        List<Object> args = new ArrayList<>(columns.size() + 1);
+        for (Traffic.Field column : columns) {
+            if (!args.isEmpty()) {
+                sql.append(", ");
+            }
+            switch (column) {
+                case LOCATION -> {
+                    sql.append("location = ?");
+                    args.add(traffic.getLocation());
+                }
+                case STATUS -> {
+                    sql.append("status = ?");
+                    args.add(traffic.getStatus().name());
+                }
+                case CONGESTION_LEVEL -> {
+                    sql.append("congestion_level = ?");
+                    args.add(traffic.getCongestionLevel());
+                }
+                case DESCRIPTION -> {
+                    sql.append("description = ?");
+                    args.add(traffic.getDescription());
+                }
+            }
+        }
+        sql.append(" WHERE id = ?");
+        args.add(traffic.getId());
+        if (jdbcTemplate.update(sql.toString(), args.toArray()) == 0) {
+            throw new IllegalArgumentException("Traffic information not found with id: " + traffic.getId());
+        }
+    }
+
+    @Override
+    public Traffic saveCongestionLevel(Traffic traffic) {
+        if (!congestionWriteBehind.isEnabled() || traffic.getId() == null) {
+            return save(traffic);
+        }
+        congestionWriteBehind.buffer(traffic);
+        return traffic.copy();
+    }
+
+    @Override
+    @Transactional
+    public List<Traffic> saveAll(Collection<Traffic> traffics) {
+        // 已存在的路段复用当前持久化上下文中的托管实体，由Hibernate按jdbc.batch_size合并为批量UPDATE；
+        // 在同一事务内先经过findAllById加载时，这里的findById直接命中一级缓存，不会再次查询
+        List<TrafficJpaEntity> entities = new ArrayList<>(traffics.size());
+        List<OutboxWriter.Entry> outboxEntries = new ArrayList<>();
+        for (Traffic traffic : traffics) {
+            congestionWriteBehind.discard(traffic.getId()).ifPresent(event ->
+                    outboxEntries.add(new OutboxWriter.Entry(AGGREGATE_TYPE, traffic.getId(), event)));
+            TrafficJpaEntity entity = traffic.getId() == null
+                    ? null
+                    : trafficJpaRepository.findById(traffic.getId()).orElse(null);
+            if (entity == null) {
+                entities.add(TrafficJpaEntity.fromDomainEntity(traffic));
+                continue;
+            }
+            TrafficJpaEntity source = TrafficJpaEntity.fromDomainEntity(traffic);
+            entity.setLocation(source.getLocation());
+            entity.setStatus(source.getStatus());
+            entity.setCongestionLevel(source.getCongestionLevel());
+            entity.setDescription(source.getDescription());
+            entities.add(entity);
+        }
         
-        entity = trafficJpaRepository.save(entity);
-        return entity.toDomainEntity();
+        List<Traffic> sources = new ArrayList<>(traffics);
+        List<TrafficJpaEntity> persisted = trafficJpaRepository.saveAll(entities);
+        List<Traffic> saved = new ArrayList<>(persisted.size());
+        for (int i = 0; i < persisted.size(); i++) {
+            TrafficJpaEntity entity = persisted.get(i);
+            readCache.evict(entity.getId());
+            Traffic traffic = entity.toDomainEntity();
+            congestionLevelIndex.updateAfterCommit(traffic);
+            sources.get(i).clearDirtyFields();
+            for (DomainEvent event : collectEvents(sources.get(i), traffic, sources.get(i).getId() == null)) {
+                outboxEntries.add(new OutboxWriter.Entry(AGGREGATE_TYPE, traffic.getId(), event));
+            }
+            saved.add(traffic);
+        }
+        // 整批事件合并为一条多行INSERT写入outbox
+        outboxWriter.appendAll(outboxEntries);
+        outboxEntries.forEach(entry -> domainEventPublisher.publish(entry.event()));
+        return saved;
     }
 
     @Override
     public Optional<Traffic> findById(Long id) {
-        return trafficJpaRepository.findById(id)
+        // 先查缓存，未命中时按主键读库并回填
+        // 缓存中保存的是库中的值，返回前叠加尚未落库的拥堵级别
+        Optional<Traffic> cached = readCache.get(id);
+        if (cached.isPresent()) {
+            return cached.map(congestionWriteBehind::overlay);
+        }
+        // 读库前取失效戳，读取期间路段被修改时不回填，避免旧值在缓存中停留到TTL过期
+        long stamp = readCache.stamp(id);
+        Optional<Traffic> loaded = trafficJpaRepository.findById(id)
                 .map(TrafficJpaEntity::toDomainEntity);
+        loaded.ifPresent(traffic -> readCache.put(traffic, stamp));
+        return loaded.map(congestionWriteBehind::overlay);
+    }
+
+    @Override
+    public List<Traffic> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return congestionWriteBehind.overlayAll(trafficJpaRepository.findAllById(ids)
+                .stream()
+                .map(TrafficJpaEntity::toDomainEntity)
+                .collect(Collectors.toList()));
     }
 
     @Override
+    @Transactional
     public void deleteById(Long id) {
+        congestionWriteBehind.discard(id);
         trafficJpaRepository.deleteById(id);
+        readCache.evict(id);
+        congestionLevelIndex.removeAfterCommit(id);
+        TrafficDeletedEvent event = new TrafficDeletedEvent(id);
+        outboxWriter.append(AGGREGATE_TYPE, id, List.of(event));
+        domainEventPublisher.publish(event);
     }
 
     @Override
@@ -46,36 +233,89 @@ public class TrafficRepositoryImpl implements TrafficRepository {
 
     @Override
     public List<Traffic> findAll() {
-        return trafficJpaRepository.findAll()
+        return congestionWriteBehind.overlayAll(trafficJpaRepository.findAll()
                 .stream()
                 .map(TrafficJpaEntity::toDomainEntity)
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public PageResult<Traffic> findPage(PageRequest pageRequest) {
+        int pageSize = pageRequest.getPageSize();
+        if (pageRequest.isCursorMode()) {
+            // 键集分页直接从主键索引定位，不受翻页深度影响
+            List<Traffic> fetched = trafficJpaRepository
+                    .findByIdGreaterThanOrderByIdAsc(pageRequest.getCursor(), Limit.of(pageSize + 1))
+                    .stream()
+                    .map(TrafficJpaEntity::toDomainEntity)
+                    .map(congestionWriteBehind::overlay)
+                    .collect(Collectors.toList());
+            return PageResult.ofCursor(pageSize, fetched, Traffic::getId);
+        }
+        Page<TrafficJpaEntity> page = trafficJpaRepository.findAll(org.springframework.data.domain.PageRequest.of(
+                pageRequest.getPageNum() - 1, pageSize, Sort.by(Sort.Direction.ASC, "id")));
+        List<Traffic> list = page.getContent()
+                .stream()
+                .map(TrafficJpaEntity::toDomainEntity)
+                .map(congestionWriteBehind::overlay)
                 .collect(Collectors.toList());
+        return PageResult.of(page.getTotalElements(), pageRequest.getPageNum(), pageSize, list);
     }
 
     @Override
     public Optional<Traffic> findByLocation(String location) {
         return trafficJpaRepository.findByLocation(location)
-                .map(TrafficJpaEntity::toDomainEntity);
+                .map(TrafficJpaEntity::toDomainEntity)
+                .map(congestionWriteBehind::overlay);
     }
 
     @Override
     public List<Traffic> findByStatus(Traffic.TrafficStatus status) {
+        // 叠加缓冲值后按状态过滤；缓冲中刚转入该状态的路段在落库后才会出现在结果中
         return trafficJpaRepository.findByStatus(status.name())
                 .stream()
                 .map(TrafficJpaEntity::toDomainEntity)
+                .map(congestionWriteBehind::overlay)
+                .filter(traffic -> traffic.getStatus() == status)
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<Traffic> findByCongestionLevelGreaterThanEqual(Integer congestionLevel) {
-        return trafficJpaRepository.findByCongestionLevelGreaterThanEqual(congestionLevel)
-                .stream()
-                .map(TrafficJpaEntity::toDomainEntity)
-                .collect(Collectors.toList());
+        // 阈值查询直接合并内存索引中的级别桶，首次查询时全量加载索引
+        ensureCongestionIndexLoaded();
+        return congestionLevelIndex.findAtLeast(congestionLevel);
     }
 
     @Override
     public boolean existsByLocation(String location) {
         return trafficJpaRepository.existsByLocation(location);
     }
-}
\ No newline at end of file
+
+    /**
+     * 取出聚合上记录的事件；新建的路段在保存后才有ID，此时补一条状态事件
+     * 事件与路段在同一事务中写入outbox，进程内总线在事务提交后才投递，回滚的修改不会被订阅者看到
+     */
+    private List<DomainEvent> collectEvents(Traffic source, Traffic saved, boolean isNew) {
+        List<DomainEvent> events = new ArrayList<>(source.pullDomainEvents());
+        if (isNew) {
+            events.add(new TrafficStateChangedEvent(saved.getId(), null, null,
+                    saved.getStatus(), saved.getCongestionLevel()));
+        }
+        return events;
+    }
+
+    /**
+     * 首次使用时从数据库全量加载拥堵级别索引
+     */
+    private void ensureCongestionIndexLoaded() {
+        if (congestionLevelIndex.isLoaded()) {
+            return;
+        }
+        synchronized (congestionLevelIndex) {
+            if (!congestionLevelIndex.isLoaded()) {
+                congestionLevelIndex.load(findAll());
+            }
+        }
+    }
+}
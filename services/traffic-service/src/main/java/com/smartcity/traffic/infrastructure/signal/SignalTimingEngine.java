@@ -0,0 +1,233 @@
+package com.smartcity.traffic.infrastructure.signal;
+
+import com.smartcity.traffic.domain.SignalTiming;
+import com.smartcity.traffic.domain.SignalTiming.Mode;
+import com.smartcity.traffic.domain.SignalTiming.Phase;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 信号灯配时引擎
+ * 内存中保存每个信号灯的配时和锚点，查询时按时钟推算当前相位；
+ * 只有手动控制、故障切换和配时调整才写库，写入的是新的锚点（current_phase + last_change_time），而不是逐秒的相位
+ */
+@Component
+public class SignalTimingEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(SignalTimingEngine.class);
+
+    private static final long WATERMARK_OVERLAP_MILLIS = 5000;
+
+    private static final String SELECT_SQL = "SELECT id, status, red_time, green_time, yellow_time, cycle_time, "
+            + "current_phase, last_change_time FROM traffic_lights";
+    private static final String UPDATE_SQL = "UPDATE traffic_lights SET status = ?, red_time = ?, green_time = ?, "
+            + "yellow_time = ?, cycle_time = ?, current_phase = ?, last_change_time = ? WHERE id = ?";
+
+    /**
+     * 从未切换过相位的信号灯（current_phase为空）按在last_change_time进入红灯处理，两者都为空时以纪元时刻为锚点，
+     * 保证新建的信号灯也能按配时推算相位
+     */
+    private static final RowMapper<SignalTiming> ROW_MAPPER = (rs, rowNum) -> {
+        Timestamp lastChange = rs.getTimestamp("last_change_time");
+        Phase phase = Phase.fromCode(rs.getObject("current_phase", Integer.class));
+        return new SignalTiming(
+                rs.getLong("id"),
+                Mode.fromCode(rs.getObject("status", Integer.class)),
+                rs.getInt("red_time"),
+                rs.getInt("green_time"),
+                rs.getInt("yellow_time"),
+                rs.getInt("cycle_time"),
+                phase != null ? phase : Phase.RED,
+                lastChange == null ? 0L : lastChange.getTime());
+    };
+
+    private final ConcurrentHashMap<Long, SignalTiming> timings = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final long refreshIntervalMillis;
+
+    private ScheduledExecutorService scheduler;
+    private volatile Timestamp watermark;
+
+    public SignalTimingEngine(JdbcTemplate jdbcTemplate,
+                              @Value("${traffic.signals.refresh-interval-ms:30000}") long refreshIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = Clock.systemUTC();
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Timestamp startedAt = databaseNow();
+        for (SignalTiming timing : jdbcTemplate.query(SELECT_SQL, ROW_MAPPER)) {
+            timings.put(timing.lightId(), timing);
+        }
+        watermark = startedAt;
+        logger.info("信号灯配时加载完成: {}个信号灯", timings.size());
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "signal-timing-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, refreshIntervalMillis, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 当前时刻的信号状态
+     */
+    public Optional<SignalTiming.State> currentState(Long lightId) {
+        SignalTiming timing = timings.get(lightId);
+        return timing == null ? Optional.empty() : Optional.of(timing.stateAt(clock.millis()));
+    }
+
+    /**
+     * 同一时刻批量推算多个信号灯的状态，不存在的ID被忽略
+     */
+    public List<SignalTiming.State> currentStates(Collection<Long> lightIds) {
+        long now = clock.millis();
+        List<SignalTiming.State> states = new ArrayList<>(lightIds.size());
+        for (Long lightId : lightIds) {
+            SignalTiming timing = timings.get(lightId);
+            if (timing != null) {
+                states.add(timing.stateAt(now));
+            }
+        }
+        return states;
+    }
+
+    /**
+     * 手动控制：保持在指定相位
+     */
+    public synchronized SignalTiming.State override(Long lightId, Phase phase) {
+        SignalTiming timing = require(lightId);
+        long now = clock.millis();
+        return persist(timing.withMode(Mode.MANUAL, phase, now), now);
+    }
+
+    /**
+     * 解除手动控制或故障状态，从保持的相位重新开始自动循环
+     */
+    public synchronized SignalTiming.State release(Long lightId) {
+        SignalTiming timing = require(lightId);
+        long now = clock.millis();
+        if (timing.mode() == Mode.AUTO) {
+            return timing.stateAt(now);
+        }
+        Phase resumeFrom = timing.anchorPhase() != null ? timing.anchorPhase() : Phase.RED;
+        return persist(timing.withMode(Mode.AUTO, resumeFrom, now), now);
+    }
+
+    /**
+     * 标记故障
+     */
+    public synchronized SignalTiming.State markFault(Long lightId) {
+        SignalTiming timing = require(lightId);
+        long now = clock.millis();
+        if (timing.mode() == Mode.FAULT) {
+            return timing.stateAt(now);
+        }
+        return persist(timing.withMode(Mode.FAULT, timing.anchorPhase(), now), now);
+    }
+
+    /**
+     * 调整配时
+     * 自动模式下以当前相位的开始时刻为新锚点，调整后当前相位不跳变，只是剩余时间按新时长计算
+     */
+    public synchronized SignalTiming.State updateTiming(Long lightId, int redSeconds, int greenSeconds, int yellowSeconds) {
+        if (redSeconds <= 0 || greenSeconds <= 0 || yellowSeconds <= 0) {
+            throw new IllegalArgumentException("Signal phase durations must be positive");
+        }
+        SignalTiming timing = require(lightId);
+        long now = clock.millis();
+        Phase anchorPhase = timing.anchorPhase();
+        long anchorMillis = timing.anchorMillis();
+        if (timing.mode() == Mode.AUTO && timing.hasValidTiming()) {
+            anchorPhase = timing.stateAt(now).phase();
+            anchorMillis = timing.phaseStartAt(now);
+        } else if (anchorPhase == null) {
+            anchorPhase = Phase.RED;
+            anchorMillis = now;
+        }
+        return persist(timing.withDurations(redSeconds, greenSeconds, yellowSeconds, anchorPhase, anchorMillis), now);
+    }
+
+    public int size() {
+        return timings.size();
+    }
+
+    private SignalTiming require(Long lightId) {
+        SignalTiming timing = timings.get(lightId);
+        if (timing == null) {
+            throw new IllegalArgumentException("Traffic light not found with id: " + lightId);
+        }
+        return timing;
+    }
+
+    /**
+     * 先写库再替换内存中的配时，写库失败时内存保持原状
+     */
+    private SignalTiming.State persist(SignalTiming timing, long now) {
+        int updated = jdbcTemplate.update(UPDATE_SQL,
+                timing.mode().getCode(),
+                timing.redSeconds(),
+                timing.greenSeconds(),
+                timing.yellowSeconds(),
+                timing.cycleSeconds(),
+                timing.anchorPhase() == null ? null : timing.anchorPhase().getCode(),
+                new Timestamp(timing.anchorMillis()),
+                timing.lightId());
+        if (updated == 0) {
+            timings.remove(timing.lightId());
+            throw new IllegalArgumentException("Traffic light not found with id: " + timing.lightId());
+        }
+        timings.put(timing.lightId(), timing);
+        return timing.stateAt(now);
+    }
+
+    private synchronized void refreshChanged() {
+        Timestamp startedAt = databaseNow();
+        Timestamp since = new Timestamp(watermark.getTime() - WATERMARK_OVERLAP_MILLIS);
+        for (SignalTiming timing : jdbcTemplate.query(SELECT_SQL + " WHERE update_time >= ?", ROW_MAPPER, since)) {
+            timings.put(timing.lightId(), timing);
+        }
+        watermark = startedAt;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refreshChanged();
+        } catch (RuntimeException e) {
+            logger.warn("信号灯配时增量同步失败: {}", e.getMessage());
+        }
+    }
+
+    private Timestamp databaseNow() {
+        return jdbcTemplate.queryForObject("SELECT NOW()", Timestamp.class);
+    }
+}
@@ -0,0 +1,267 @@
+package com.smartcity.traffic.infrastructure.stream;
+
+import com.smartcity.common.sharedkernel.infrastructure.event.DomainEventSubscriber;
+import com.smartcity.traffic.domain.TrafficChange;
+import com.smartcity.traffic.domain.event.TrafficDeletedEvent;
+import com.smartcity.traffic.domain.event.TrafficEvent;
+import com.smartcity.traffic.domain.event.TrafficStateChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 路段变化推送器
+ * 作为领域事件订阅者接收已提交的路段变化。
+ * 每个订阅者有一个按路段合并的待发送表：同一路段在两次发送之间的多次变化只保留最新一条，
+ * 表中路段数有上限，超出后清空并改发一条resync事件，由客户端重新拉取全量，因此慢客户端占用的内存有界
+ */
+@Component
+public class TrafficChangeBroadcaster implements DomainEventSubscriber<TrafficEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrafficChangeBroadcaster.class);
+
+    private static final String EVENT_CHANGES = "changes";
+    private static final String EVENT_RESYNC = "resync";
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+    private final LongAdder disconnected = new LongAdder();
+
+    private final int maxSubscribers;
+    private final int maxPendingPerSubscriber;
+    private final long dispatchIntervalMillis;
+    private final long heartbeatIntervalMillis;
+    private final long emitterTimeoutMillis;
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService sender;
+
+    public TrafficChangeBroadcaster(@Value("${traffic.stream.max-subscribers:1000}") int maxSubscribers,
+                                    @Value("${traffic.stream.max-pending-per-subscriber:5000}") int maxPendingPerSubscriber,
+                                    @Value("${traffic.stream.dispatch-interval-ms:500}") long dispatchIntervalMillis,
+                                    @Value("${traffic.stream.heartbeat-interval-ms:15000}") long heartbeatIntervalMillis,
+                                    @Value("${traffic.stream.timeout-ms:1800000}") long emitterTimeoutMillis) {
+        this.maxSubscribers = maxSubscribers;
+        this.maxPendingPerSubscriber = maxPendingPerSubscriber;
+        this.dispatchIntervalMillis = dispatchIntervalMillis;
+        this.heartbeatIntervalMillis = heartbeatIntervalMillis;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "traffic-stream-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 发送可能因客户端网络慢而阻塞，放到虚拟线程中执行，避免拖住调度线程和其他订阅者
+        sender = Executors.newVirtualThreadPerTaskExecutor();
+        scheduler.scheduleWithFixedDelay(this::dispatch, dispatchIntervalMillis, dispatchIntervalMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatIntervalMillis, heartbeatIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        sender.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    /**
+     * 新建订阅
+     *
+     * @throws IllegalStateException 订阅者数量已达上限
+     */
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many traffic stream subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    @Override
+    public Class<TrafficEvent> eventType() {
+        return TrafficEvent.class;
+    }
+
+    /**
+     * 接收事件总线投递的路段事件，转换为推送给看板的增量
+     */
+    @Override
+    public void onEvents(List<TrafficEvent> events) {
+        for (TrafficEvent event : events) {
+            TrafficChange change;
+            if (event instanceof TrafficStateChangedEvent changed) {
+                change = new TrafficChange(changed.getTrafficId(), TrafficChange.Type.UPDATED, changed.getStatus(),
+                        changed.getCongestionLevel(), sequence.incrementAndGet(), changed.getOccurredOn().toEpochMilli());
+            } else if (event instanceof TrafficDeletedEvent) {
+                change = new TrafficChange(event.getTrafficId(), TrafficChange.Type.DELETED, null, null,
+                        sequence.incrementAndGet(), event.getOccurredOn().toEpochMilli());
+            } else {
+                continue;
+            }
+            broadcast(change);
+        }
+    }
+
+    /**
+     * 推送运行指标
+     */
+    public Map<String, Object> metrics() {
+        long pending = 0;
+        for (Subscriber subscriber : subscribers) {
+            pending += subscriber.pending.size();
+        }
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("subscribers", subscribers.size());
+        metrics.put("pendingChanges", pending);
+        metrics.put("published", published.sum());
+        metrics.put("coalesced", coalesced.sum());
+        metrics.put("overflowed", overflowed.sum());
+        metrics.put("disconnected", disconnected.sum());
+        metrics.put("lastSequence", sequence.get());
+        return metrics;
+    }
+
+    private void broadcast(TrafficChange change) {
+        published.increment();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(change);
+        }
+    }
+
+    private void dispatch() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.hasWork() && subscriber.sending.compareAndSet(false, true)) {
+                sender.execute(() -> send(subscriber));
+            }
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.sending.compareAndSet(false, true)) {
+                sender.execute(() -> {
+                    try {
+                        subscriber.emitter.send(SseEmitter.event().comment("keepalive"));
+                    } catch (IOException | IllegalStateException e) {
+                        drop(subscriber, e);
+                    } finally {
+                        subscriber.sending.set(false);
+                    }
+                });
+            }
+        }
+    }
+
+    private void send(Subscriber subscriber) {
+        try {
+            if (subscriber.overflow.getAndSet(false)) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .name(EVENT_RESYNC)
+                        .id(String.valueOf(sequence.get()))
+                        .data(Map.of("reason", "subscriber buffer overflow")));
+                return;
+            }
+            List<TrafficChange> changes = subscriber.drain();
+            if (!changes.isEmpty()) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .name(EVENT_CHANGES)
+                        .id(String.valueOf(changes.get(changes.size() - 1).sequence()))
+                        .data(changes));
+            }
+        } catch (IOException | IllegalStateException e) {
+            drop(subscriber, e);
+        } finally {
+            subscriber.sending.set(false);
+        }
+    }
+
+    private void drop(Subscriber subscriber, Exception cause) {
+        if (subscribers.remove(subscriber)) {
+            disconnected.increment();
+            logger.debug("交通变化订阅者断开: {}", cause.getMessage());
+            subscriber.emitter.completeWithError(cause);
+        }
+    }
+
+    /**
+     * 订阅者：按路段合并的待发送表加溢出标记
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ConcurrentHashMap<Long, TrafficChange> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean overflow = new AtomicBoolean();
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(TrafficChange change) {
+            if (overflow.get()) {
+                return;
+            }
+            if (pending.size() >= maxPendingPerSubscriber && !pending.containsKey(change.trafficId())) {
+                // 客户端积压过多，丢弃增量改为要求全量重拉
+                overflow.set(true);
+                pending.clear();
+                overflowed.increment();
+                return;
+            }
+            if (pending.put(change.trafficId(), change) != null) {
+                coalesced.increment();
+            }
+        }
+
+        private boolean hasWork() {
+            return overflow.get() || !pending.isEmpty();
+        }
+
+        private List<TrafficChange> drain() {
+            List<TrafficChange> changes = new ArrayList<>(pending.size());
+            for (Long id : pending.keySet()) {
+                TrafficChange change = pending.remove(id);
+                if (change != null) {
+                    changes.add(change);
+                }
+            }
+            changes.sort((a, b) -> Long.compare(a.sequence(), b.sequence()));
+            return changes;
+        }
+    }
+}
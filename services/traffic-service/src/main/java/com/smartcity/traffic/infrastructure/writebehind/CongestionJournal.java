@@ -0,0 +1,186 @@
+package com.smartcity.traffic.infrastructure.writebehind;
+
+import com.smartcity.traffic.domain.Traffic.TrafficStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 拥堵级别写后缓冲的本地追加日志
+ * 每次缓冲写入追加一行U,id,level,status，丢弃缓冲追加一行D,id。
+ * 刷写开始时把当前文件封存为congestion.N.sealed并换新文件，刷写成功后删除已封存的文件；
+ * 启动时按封存顺序重放全部文件，得到崩溃前尚未落库的最终值
+ */
+class CongestionJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(CongestionJournal.class);
+
+    private static final String CURRENT_FILE = "congestion.journal";
+    private static final String SEALED_PREFIX = "congestion.";
+    private static final String SEALED_SUFFIX = ".sealed";
+
+    private final Path directory;
+    private final boolean fsyncOnWrite;
+    private final List<Path> sealedSegments = new ArrayList<>();
+    private long nextSegment;
+    private FileChannel channel;
+
+    CongestionJournal(Path directory, boolean fsyncOnWrite) {
+        this.directory = directory;
+        this.fsyncOnWrite = fsyncOnWrite;
+    }
+
+    /**
+     * 打开日志并重放已有文件；已有文件全部转为封存段，待下一次刷写成功后删除
+     *
+     * @return 按路段ID合并后的最终值
+     */
+    synchronized Map<Long, Entry> open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> sealed = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> segmentNumber(path) >= 0)
+                    .sorted((a, b) -> Long.compare(segmentNumber(a), segmentNumber(b)))
+                    .forEach(sealed::add);
+        }
+        nextSegment = sealed.isEmpty() ? 0 : segmentNumber(sealed.get(sealed.size() - 1)) + 1;
+
+        Map<Long, Entry> replayed = new LinkedHashMap<>();
+        for (Path path : sealed) {
+            replay(path, replayed);
+        }
+        Path current = directory.resolve(CURRENT_FILE);
+        if (Files.exists(current)) {
+            replay(current, replayed);
+        }
+        sealedSegments.addAll(sealed);
+        channel = FileChannel.open(current, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        if (channel.size() > 0) {
+            sealCurrent();
+        }
+        return replayed;
+    }
+
+    void appendUpdate(long id, int level, TrafficStatus status) {
+        write("U," + id + "," + level + "," + status.name() + "\n");
+    }
+
+    void appendDiscard(long id) {
+        write("D," + id + "\n");
+    }
+
+    private void write(String line) {
+        ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        try {
+            FileChannel current = channel;
+            while (buffer.hasRemaining()) {
+                current.write(buffer);
+            }
+            if (fsyncOnWrite) {
+                current.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入拥堵级别日志失败", e);
+        }
+    }
+
+    /**
+     * 封存当前文件并换新文件；调用方保证封存期间没有并发写入
+     */
+    synchronized void seal() {
+        try {
+            if (channel.size() > 0) {
+                sealCurrent();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("封存拥堵级别日志失败", e);
+        }
+    }
+
+    private void sealCurrent() throws IOException {
+        channel.force(false);
+        channel.close();
+        Path sealed = directory.resolve(SEALED_PREFIX + nextSegment++ + SEALED_SUFFIX);
+        Files.move(directory.resolve(CURRENT_FILE), sealed);
+        sealedSegments.add(sealed);
+        channel = FileChannel.open(directory.resolve(CURRENT_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * 刷写成功后删除已封存的文件
+     */
+    synchronized void deleteSealed() {
+        for (Path path : sealedSegments) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                logger.warn("删除已落库的拥堵级别日志失败: {}", path, e);
+            }
+        }
+        sealedSegments.clear();
+    }
+
+    synchronized void close() {
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("关闭拥堵级别日志失败", e);
+        }
+    }
+
+    private static void replay(Path path, Map<Long, Entry> entries) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(",");
+                try {
+                    if (parts.length == 4 && parts[0].equals("U")) {
+                        long id = Long.parseLong(parts[1]);
+                        entries.remove(id);
+                        entries.put(id, new Entry(id, Integer.parseInt(parts[2]), TrafficStatus.valueOf(parts[3])));
+                    } else if (parts.length == 2 && parts[0].equals("D")) {
+                        entries.remove(Long.parseLong(parts[1]));
+                    }
+                } catch (IllegalArgumentException e) {
+                    // 崩溃时写了一半的末行
+                    logger.warn("跳过无法解析的拥堵级别日志行: {} in {}", line, path);
+                }
+            }
+        }
+    }
+
+    private static long segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.startsWith(SEALED_PREFIX) || !name.endsWith(SEALED_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(SEALED_PREFIX.length(), name.length() - SEALED_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 日志中的一条最终值
+     */
+    record Entry(long id, int level, TrafficStatus status) {
+    }
+}
@@ -0,0 +1,433 @@
+package com.smartcity.traffic.infrastructure.writebehind;
+
+import com.smartcity.common.sharedkernel.domain.model.DomainEvent;
+import com.smartcity.common.sharedkernel.infrastructure.config.DddConfiguration.DomainEventPublisher;
+import com.smartcity.common.sharedkernel.infrastructure.outbox.OutboxWriter;
+import com.smartcity.traffic.domain.Traffic;
+import com.smartcity.traffic.domain.Traffic.TrafficStatus;
+import com.smartcity.traffic.domain.event.TrafficStateChangedEvent;
+import com.smartcity.traffic.infrastructure.index.CongestionLevelIndex;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 拥堵级别写后缓冲
+ * 单个路段的拥堵级别更新只写入内存表（同一路段只保留最新值）并立即更新拥堵级别索引，
+ * 后台线程按固定间隔把每个路段的最终值合并为一条UPDATE落库，同一事务内写入合并后的状态事件。
+ * 落库前的读取通过overlay叠加缓冲中的值；路段被完整保存或删除时先丢弃其缓冲值，避免旧值覆盖新值，
+ * 外层事务回滚时再把丢弃的值放回缓冲。
+ * 可选开启本地追加日志，进程崩溃后启动时重放日志补写尚未落库的值。
+ * 缓冲只在本实例内：多副本部署时，丢弃只发生在执行完整保存的副本上，另一副本稍后落库的缓冲值
+ * 会覆盖这次保存的拥堵级别和状态，需要强一致时应按路段把写请求路由到同一副本或关闭写后缓冲
+ */
+@Component
+public class CongestionWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(CongestionWriteBehind.class);
+
+    private static final String AGGREGATE_TYPE = "Traffic";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxWriter outboxWriter;
+    private final DomainEventPublisher domainEventPublisher;
+    private final CongestionLevelIndex congestionLevelIndex;
+
+    private final boolean enabled;
+    private final long flushIntervalMillis;
+    private final int maxRowsPerStatement;
+    private final CongestionJournal journal;
+
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 正在落库的一批，落库完成前读取仍能看到这些值
+     */
+    private volatile Map<Long, Pending> flushing = Map.of();
+
+    /**
+     * 写入缓冲时持读锁，封存日志并取出一批时持写锁，保证封存的日志段与取出的批次一致
+     */
+    private final ReentrantReadWriteLock bufferLock = new ReentrantReadWriteLock();
+    private final Object flushLock = new Object();
+    private final List<Consumer<Collection<Long>>> flushListeners = new CopyOnWriteArrayList<>();
+
+    private final LongAdder buffered = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder restored = new LongAdder();
+    private final LongAdder flushedRows = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private final AtomicLong lastFlushMillis = new AtomicLong();
+
+    private ScheduledExecutorService scheduler;
+
+    public CongestionWriteBehind(JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 OutboxWriter outboxWriter,
+                                 DomainEventPublisher domainEventPublisher,
+                                 CongestionLevelIndex congestionLevelIndex,
+                                 @Value("${traffic.congestion.write-behind.enabled:true}") boolean enabled,
+                                 @Value("${traffic.congestion.write-behind.flush-interval-ms:1000}") long flushIntervalMillis,
+                                 @Value("${traffic.congestion.write-behind.max-rows-per-statement:500}") int maxRowsPerStatement,
+                                 @Value("${traffic.congestion.write-behind.journal.enabled:false}") boolean journalEnabled,
+                                 @Value("${traffic.congestion.write-behind.journal.dir:./data/congestion-journal}") String journalDir,
+                                 @Value("${traffic.congestion.write-behind.journal.fsync-on-write:false}") boolean fsyncOnWrite) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.outboxWriter = outboxWriter;
+        this.domainEventPublisher = domainEventPublisher;
+        this.congestionLevelIndex = congestionLevelIndex;
+        this.enabled = enabled;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxRowsPerStatement = maxRowsPerStatement;
+        this.journal = enabled && journalEnabled ? new CongestionJournal(Path.of(journalDir), fsyncOnWrite) : null;
+    }
+
+    /**
+     * 重放日志并启动定时刷写；重放出的值先于新的写入落库
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        if (journal != null) {
+            Map<Long, CongestionJournal.Entry> replayed = journal.open();
+            for (CongestionJournal.Entry entry : replayed.values()) {
+                pending.put(entry.id(), new Pending(entry.id(), entry.level(), entry.status(), null, null));
+            }
+            if (!replayed.isEmpty()) {
+                logger.info("重放拥堵级别日志: {}个路段待落库", replayed.size());
+                flush();
+            }
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "congestion-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 停止定时刷写并把缓冲中剩余的值全部落库
+     */
+    @PreDestroy
+    public void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(flushIntervalMillis * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 注册落库完成后的回调，参数为本批落库的路段ID
+     */
+    public void addFlushListener(Consumer<Collection<Long>> listener) {
+        flushListeners.add(listener);
+    }
+
+    /**
+     * 缓冲一个路段的拥堵级别变化，路段上记录的状态事件由缓冲合并后在落库时统一写出
+     */
+    public void buffer(Traffic traffic) {
+        List<DomainEvent> events = traffic.pullDomainEvents();
+        if (events.isEmpty()) {
+            return;
+        }
+        TrafficStateChangedEvent first = null;
+        for (DomainEvent event : events) {
+            if (event instanceof TrafficStateChangedEvent changed) {
+                first = changed;
+                break;
+            }
+        }
+        TrafficStatus baseStatus = first == null ? null : first.getPreviousStatus();
+        Integer baseLevel = first == null ? null : first.getPreviousCongestionLevel();
+        Long id = traffic.getId();
+        int level = traffic.getCongestionLevel();
+        TrafficStatus status = traffic.getStatus();
+
+        bufferLock.readLock().lock();
+        try {
+            pending.compute(id, (key, previous) -> {
+                if (previous == null) {
+                    return new Pending(id, level, status, baseStatus, baseLevel);
+                }
+                coalesced.increment();
+                return new Pending(id, level, status, previous.baseStatus(), previous.baseLevel());
+            });
+            if (journal != null) {
+                journal.appendUpdate(id, level, status);
+            }
+        } finally {
+            bufferLock.readLock().unlock();
+        }
+        buffered.increment();
+        congestionLevelIndex.updateAfterCommit(traffic);
+    }
+
+    /**
+     * 丢弃路段的缓冲值，在完整保存或删除路段之前调用；正在落库的批次包含该路段时等待其完成。
+     * 被保存的路段读取时已叠加了缓冲值，丢弃不会丢失数据，只需由调用方补写缓冲期间的状态事件；
+     * 在事务中调用时，事务回滚后把丢弃的值放回缓冲，已确认的拥堵级别不会随回滚丢失
+     *
+     * @return 缓冲期间的状态变化，没有缓冲值或状态未变时为空
+     */
+    public Optional<TrafficStateChangedEvent> discard(Long id) {
+        if (!enabled || id == null || (!pending.containsKey(id) && !flushing.containsKey(id))) {
+            return Optional.empty();
+        }
+        Pending removed;
+        synchronized (flushLock) {
+            bufferLock.readLock().lock();
+            try {
+                removed = pending.remove(id);
+                if (removed != null && journal != null) {
+                    journal.appendDiscard(id);
+                }
+            } finally {
+                bufferLock.readLock().unlock();
+            }
+        }
+        if (removed == null) {
+            return Optional.empty();
+        }
+        discarded.increment();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        restore(removed);
+                    }
+                }
+            });
+        }
+        return Optional.ofNullable(changeOf(removed));
+    }
+
+    /**
+     * 放回被回滚的丢弃；期间又有新值时保留新值，但沿用丢弃前的起始状态
+     */
+    private void restore(Pending removed) {
+        bufferLock.readLock().lock();
+        try {
+            Pending current = pending.merge(removed.id(), removed, (newer, older) ->
+                    new Pending(newer.id(), newer.level(), newer.status(), older.baseStatus(), older.baseLevel()));
+            if (journal != null) {
+                journal.appendUpdate(current.id(), current.level(), current.status());
+            }
+        } finally {
+            bufferLock.readLock().unlock();
+        }
+        restored.increment();
+    }
+
+    /**
+     * 把缓冲中尚未落库的拥堵级别叠加到从数据库或缓存读出的路段上
+     */
+    public Traffic overlay(Traffic traffic) {
+        if (!enabled || traffic == null || traffic.getId() == null) {
+            return traffic;
+        }
+        Pending value = pending.get(traffic.getId());
+        if (value == null) {
+            value = flushing.get(traffic.getId());
+        }
+        if (value == null || (value.status() == traffic.getStatus()
+                && Objects.equals(value.level(), traffic.getCongestionLevel()))) {
+            return traffic;
+        }
+        return new Traffic(traffic.getId(), traffic.getLocation(), value.status(), value.level(),
+                traffic.getDescription());
+    }
+
+    public List<Traffic> overlayAll(List<Traffic> traffics) {
+        if (!enabled || (pending.isEmpty() && flushing.isEmpty())) {
+            return traffics;
+        }
+        List<Traffic> result = new ArrayList<>(traffics.size());
+        for (Traffic traffic : traffics) {
+            result.add(overlay(traffic));
+        }
+        return result;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            failedFlushes.increment();
+            logger.error("拥堵级别落库失败，下次重试: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 取出当前缓冲的全部路段，按每条语句最多maxRowsPerStatement行写入数据库
+     */
+    void flush() {
+        synchronized (flushLock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            Map<Long, Pending> batch = new HashMap<>();
+            bufferLock.writeLock().lock();
+            try {
+                if (journal != null) {
+                    journal.seal();
+                }
+                batch.putAll(pending);
+                flushing = batch;
+                batch.forEach(pending::remove);
+            } finally {
+                bufferLock.writeLock().unlock();
+            }
+
+            List<Pending> rows = new ArrayList<>(batch.values());
+            List<DomainEvent> events;
+            try {
+                events = transactionTemplate.execute(status -> writeRows(rows));
+            } catch (RuntimeException e) {
+                // 放回缓冲；期间又有新值的路段保留新值，但沿用这一批的起始状态
+                batch.values().forEach(row -> pending.merge(row.id(), row, (newer, failed) ->
+                        new Pending(newer.id(), newer.level(), newer.status(), failed.baseStatus(), failed.baseLevel())));
+                flushing = Map.of();
+                throw e;
+            }
+            flushing = Map.of();
+            if (journal != null) {
+                journal.deleteSealed();
+            }
+            flushes.increment();
+            flushedRows.add(rows.size());
+            lastFlushMillis.set(System.currentTimeMillis() - start);
+            flushListeners.forEach(listener -> listener.accept(batch.keySet()));
+            events.forEach(domainEventPublisher::publish);
+        }
+    }
+
+    /**
+     * 在当前事务中写入一批最终值，并把与起始状态不同的路段作为状态事件写入outbox
+     */
+    private List<DomainEvent> writeRows(List<Pending> rows) {
+        for (int from = 0; from < rows.size(); from += maxRowsPerStatement) {
+            List<Pending> chunk = rows.subList(from, Math.min(from + maxRowsPerStatement, rows.size()));
+            StringBuilder levelCases = new StringBuilder();
+            StringBuilder statusCases = new StringBuilder();
+            StringBuilder ids = new StringBuilder();
+            List<Object> levelArgs = new ArrayList<>(chunk.size() * 2);
+            List<Object> statusArgs = new ArrayList<>(chunk.size() * 2);
+            List<Object> idArgs = new ArrayList<>(chunk.size());
+            for (Pending row : chunk) {
+                levelCases.append(" WHEN ? THEN ?");
+                statusCases.append(" WHEN ? THEN ?");
+                ids.append(ids.isEmpty() ? "?" : ", ?");
+                levelArgs.add(row.id());
+                levelArgs.add(row.level());
+                statusArgs.add(row.id());
+                statusArgs.add(row.status().name());
+                idArgs.add(row.id());
+            }
+            List<Object> args = new ArrayList<>(levelArgs.size() + statusArgs.size() + idArgs.size());
+            args.addAll(levelArgs);
+            args.addAll(statusArgs);
+            args.addAll(idArgs);
+            jdbcTemplate.update("UPDATE traffic_info SET congestion_level = CASE id" + levelCases + " END, "
+                    + "status = CASE id" + statusCases + " END WHERE id IN (" + ids + ")", args.toArray());
+        }
+
+        List<OutboxWriter.Entry> entries = new ArrayList<>();
+        for (Pending row : rows) {
+            TrafficStateChangedEvent event = changeOf(row);
+            if (event != null) {
+                entries.add(new OutboxWriter.Entry(AGGREGATE_TYPE, row.id(), event));
+            }
+        }
+        outboxWriter.appendAll(entries);
+        List<DomainEvent> events = new ArrayList<>(entries.size());
+        entries.forEach(entry -> events.add(entry.event()));
+        return events;
+    }
+
+    /**
+     * 从起始状态到最终值的合并事件；多次更新后回到起始状态时不产生事件
+     */
+    private static TrafficStateChangedEvent changeOf(Pending row) {
+        if (row.baseStatus() == row.status() && Objects.equals(row.baseLevel(), row.level())) {
+            return null;
+        }
+        return new TrafficStateChangedEvent(row.id(), row.baseStatus(), row.baseLevel(), row.status(), row.level());
+    }
+
+    /**
+     * 运行指标快照
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("journal", journal != null);
+        metrics.put("pending", pending.size());
+        metrics.put("buffered", buffered.sum());
+        metrics.put("coalesced", coalesced.sum());
+        metrics.put("discarded", discarded.sum());
+        metrics.put("restored", restored.sum());
+        metrics.put("flushes", flushes.sum());
+        metrics.put("flushedRows", flushedRows.sum());
+        metrics.put("failedFlushes", failedFlushes.sum());
+        metrics.put("lastFlushMillis", lastFlushMillis.get());
+        return metrics;
+    }
+
+    /**
+     * 一个路段待落库的最终值，以及本轮缓冲开始前的状态（重放的日志没有起始状态）
+     */
+    private record Pending(Long id, int level, TrafficStatus status, TrafficStatus baseStatus, Integer baseLevel) {
+    }
+}
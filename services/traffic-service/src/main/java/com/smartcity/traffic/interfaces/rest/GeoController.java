@@ -0,0 +1,53 @@
+package com.smartcity.traffic.interfaces.rest;
+
+import com.smartcity.traffic.application.dto.GeoFeatureResponse;
+import com.smartcity.traffic.application.service.GeoQueryService;
+import com.smartcity.traffic.domain.GeoFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 路网设施空间查询REST API控制器
+ * 提供地图视口范围查询和最近设施查询
+ */
+@RestController
+@RequestMapping("/api/traffic/geo")
+public class GeoController {
+    
+    private final GeoQueryService geoQueryService;
+    
+    @Autowired
+    public GeoController(GeoQueryService geoQueryService) {
+        this.geoQueryService = geoQueryService;
+    }
+    
+    /**
+     * 查询矩形范围内的设施
+     * kinds可选MONITORING_POINT、TRAFFIC_LIGHT、TRAFFIC_CAMERA、TRAFFIC_EVENT，多个用逗号分隔，缺省为全部
+     */
+    @GetMapping("/bbox")
+    public ResponseEntity<List<GeoFeatureResponse>> findWithinBox(@RequestParam double minLat,
+                                                                  @RequestParam double minLon,
+                                                                  @RequestParam double maxLat,
+                                                                  @RequestParam double maxLon,
+                                                                  @RequestParam(required = false) Set<GeoFeature.Kind> kinds,
+                                                                  @RequestParam(defaultValue = "2000") int limit) {
+        return ResponseEntity.ok(geoQueryService.findWithinBox(minLat, minLon, maxLat, maxLon, kinds, limit));
+    }
+    
+    /**
+     * 查询距离指定坐标最近的k个设施，按距离从近到远返回
+     */
+    @GetMapping("/nearest")
+    public ResponseEntity<List<GeoFeatureResponse>> findNearest(@RequestParam double lat,
+                                                                @RequestParam double lon,
+                                                                @RequestParam(defaultValue = "10") int k,
+                                                                @RequestParam(required = false) Set<GeoFeature.Kind> kinds,
+                                                                @RequestParam(required = false) Double maxDistanceMeters) {
+        return ResponseEntity.ok(geoQueryService.findNearest(lat, lon, k, kinds, maxDistanceMeters));
+    }
+}
@@ -0,0 +1,81 @@
+package com.smartcity.traffic.interfaces.rest;
+
+import com.smartcity.traffic.application.dto.OverrideSignalRequest;
+import com.smartcity.traffic.application.dto.SignalStateResponse;
+import com.smartcity.traffic.application.dto.UpdateSignalTimingRequest;
+import com.smartcity.traffic.application.service.SignalService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 信号灯REST API控制器
+ * 提供信号灯相位查询、手动控制和配时调整接口
+ */
+@RestController
+@RequestMapping("/api/traffic/signals")
+public class SignalController {
+    
+    private final SignalService signalService;
+    
+    @Autowired
+    public SignalController(SignalService signalService) {
+        this.signalService = signalService;
+    }
+    
+    /**
+     * 获取信号灯当前相位
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<SignalStateResponse> getCurrentState(@PathVariable("id") Long lightId) {
+        return ResponseEntity.ok(signalService.getCurrentState(lightId));
+    }
+    
+    /**
+     * 获取矩形区域内所有信号灯的当前相位
+     */
+    @GetMapping("/area")
+    public ResponseEntity<List<SignalStateResponse>> getStatesInArea(@RequestParam double minLat,
+                                                                     @RequestParam double minLon,
+                                                                     @RequestParam double maxLat,
+                                                                     @RequestParam double maxLon) {
+        return ResponseEntity.ok(signalService.getStatesInArea(minLat, minLon, maxLat, maxLon));
+    }
+    
+    /**
+     * 手动控制信号灯，保持在指定相位
+     */
+    @PutMapping("/{id}/override")
+    public ResponseEntity<SignalStateResponse> override(@PathVariable("id") Long lightId,
+                                                        @Valid @RequestBody OverrideSignalRequest request) {
+        return ResponseEntity.ok(signalService.override(lightId, request));
+    }
+    
+    /**
+     * 解除手动控制或故障状态，恢复自动配时
+     */
+    @DeleteMapping("/{id}/override")
+    public ResponseEntity<SignalStateResponse> releaseOverride(@PathVariable("id") Long lightId) {
+        return ResponseEntity.ok(signalService.releaseOverride(lightId));
+    }
+    
+    /**
+     * 标记信号灯故障
+     */
+    @PutMapping("/{id}/fault")
+    public ResponseEntity<SignalStateResponse> markFault(@PathVariable("id") Long lightId) {
+        return ResponseEntity.ok(signalService.markFault(lightId));
+    }
+    
+    /**
+     * 调整信号灯配时
+     */
+    @PutMapping("/{id}/timing")
+    public ResponseEntity<SignalStateResponse> updateTiming(@PathVariable("id") Long lightId,
+                                                            @Valid @RequestBody UpdateSignalTimingRequest request) {
+        return ResponseEntity.ok(signalService.updateTiming(lightId, request));
+    }
+}
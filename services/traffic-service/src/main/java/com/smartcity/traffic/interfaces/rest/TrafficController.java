@@ -1,14 +1,22 @@
 package com.smartcity.traffic.interfaces.rest;
 
+import com.smartcity.common.PageRequest;
+import com.smartcity.common.PageResult;
 import com.smartcity.traffic.application.dto.*;
 import com.smartcity.traffic.application.service.TrafficService;
+import com.smartcity.traffic.infrastructure.lane.LaneTimeoutException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 交通信息REST API控制器
@@ -83,14 +91,98 @@ public class TrafficController {
     }
     
     /**
-     * 获取所有交通信息
+     * 批量更新拥堵级别
+     * 供传感器批量上报使用，返回逐条处理结果；按通道分别提交，部分通道被拒绝、失败或超时时其余条目仍会生效
+     */
+    @PostMapping("/congestion:batch")
+    public ResponseEntity<BatchUpdateCongestionLevelResponse> batchUpdateCongestionLevel(
+            @Valid @RequestBody BatchUpdateCongestionLevelRequest request) {
+        BatchUpdateCongestionLevelResponse response = trafficService.batchUpdateCongestionLevel(request);
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * 分页获取交通信息
+     * 参数pageNum、pageSize按页码分页；带cursor时按主键游标分页，下一页游标见响应中的nextCursor
      */
     @GetMapping
+    public ResponseEntity<PageResult<TrafficResponse>> getTrafficPage(PageRequest pageRequest) {
+        PageResult<TrafficResponse> page = trafficService.getTrafficPage(pageRequest);
+        return ResponseEntity.ok(page);
+    }
+    
+    /**
+     * 获取全部交通信息（兼容旧客户端）
+     * 带paged=false时仍按原来的列表格式返回全部路段，新客户端应使用分页接口
+     */
+    @Deprecated
+    @GetMapping(params = "paged=false")
     public ResponseEntity<List<TrafficResponse>> getAllTrafficInfo() {
         List<TrafficResponse> responses = trafficService.getAllTrafficInfo();
         return ResponseEntity.ok(responses);
     }
     
+    /**
+     * 订阅路段变化
+     * 以SSE推送状态或拥堵级别发生变化的路段（changes事件），积压过多时推送resync事件，客户端需重新拉取全量
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges() {
+        try {
+            return trafficService.subscribeChanges();
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+    
+    /**
+     * 获取变化推送指标
+     */
+    @GetMapping("/stream/metrics")
+    public ResponseEntity<Map<String, Object>> getStreamMetrics() {
+        return ResponseEntity.ok(trafficService.getStreamMetrics());
+    }
+    
+    /**
+     * 获取outbox中继的积压和吞吐指标，未开启中继时返回running=false
+     */
+    @GetMapping("/outbox/metrics")
+    public ResponseEntity<Map<String, Object>> getOutboxMetrics() {
+        return ResponseEntity.ok(trafficService.getOutboxMetrics());
+    }
+    
+    /**
+     * 获取拥堵级别写后缓冲的积压、合并和落库指标
+     */
+    @GetMapping("/congestion/write-behind/metrics")
+    public ResponseEntity<Map<String, Object>> getCongestionWriteBehindMetrics() {
+        return ResponseEntity.ok(trafficService.getCongestionWriteBehindMetrics());
+    }
+    
+    /**
+     * 获取路段更新通道的积压和耗时指标
+     */
+    @GetMapping("/lanes/metrics")
+    public ResponseEntity<Map<String, Object>> getLaneMetrics() {
+        return ResponseEntity.ok(trafficService.getLaneMetrics());
+    }
+    
+    /**
+     * 更新通道积压已满时返回503，由调用方稍后重试
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, Object>> handleLaneRejected(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("message", e.getMessage()));
+    }
+    
+    /**
+     * 等待更新通道超时返回503，修改可能已生效，调用方应先查询再决定是否重试
+     */
+    @ExceptionHandler(LaneTimeoutException.class)
+    public ResponseEntity<Map<String, Object>> handleLaneTimeout(LaneTimeoutException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("message", e.getMessage()));
+    }
+    
     /**
      * 获取拥堵路段
      */
@@ -0,0 +1,79 @@
+package com.smartcity.traffic.interfaces.rest;
+
+import com.smartcity.traffic.application.dto.TrafficFlowIngestResponse;
+import com.smartcity.traffic.application.dto.TrafficFlowRollupResponse;
+import com.smartcity.traffic.application.dto.TrafficFlowSummaryResponse;
+import com.smartcity.traffic.application.service.TrafficFlowService;
+import com.smartcity.traffic.domain.RollupGranularity;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 交通流量REST API控制器
+ * 提供监测点流量读数的流式导入接口和按时间桶的汇总查询接口
+ */
+@RestController
+@RequestMapping("/api/traffic/flows")
+public class TrafficFlowController {
+    
+    private static final String NDJSON = "application/x-ndjson";
+    
+    private final TrafficFlowService trafficFlowService;
+    
+    @Autowired
+    public TrafficFlowController(TrafficFlowService trafficFlowService) {
+        this.trafficFlowService = trafficFlowService;
+    }
+    
+    /**
+     * 导入流量读数
+     * 请求体为NDJSON，支持chunked传输；缓冲区满时返回429，客户端从linesConsumed之后重发
+     */
+    @PostMapping(consumes = NDJSON)
+    public ResponseEntity<TrafficFlowIngestResponse> ingest(HttpServletRequest request) throws IOException {
+        TrafficFlowIngestResponse response = trafficFlowService.ingest(request.getInputStream());
+        HttpStatus status = response.isBackpressure() ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.ACCEPTED;
+        return new ResponseEntity<>(response, status);
+    }
+    
+    /**
+     * 获取导入管道指标（缓冲区深度、拒绝数、刷写耗时等）
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Object>> getIngestionMetrics() {
+        return ResponseEntity.ok(trafficFlowService.getIngestionMetrics());
+    }
+    
+    /**
+     * 按时间桶查询监测点汇总序列
+     * granularity可选MINUTE、HOUR、DAY，缺省时按from、to的对齐情况自动选择
+     */
+    @GetMapping("/rollups")
+    public ResponseEntity<List<TrafficFlowRollupResponse>> getRollups(
+            @RequestParam Long monitoringPointId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) RollupGranularity granularity) {
+        return ResponseEntity.ok(trafficFlowService.getRollups(monitoringPointId, from, to, granularity));
+    }
+    
+    /**
+     * 查询监测点在[from, to)内的平均流量、车速和占有率
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<TrafficFlowSummaryResponse> getSummary(
+            @RequestParam Long monitoringPointId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(trafficFlowService.getSummary(monitoringPointId, from, to));
+    }
+}
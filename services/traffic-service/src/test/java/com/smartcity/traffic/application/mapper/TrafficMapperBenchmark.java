@@ -0,0 +1,101 @@
+package com.smartcity.traffic.application.mapper;
+
+import com.smartcity.traffic.application.dto.TrafficResponse;
+import com.smartcity.traffic.domain.Traffic;
+import com.smartcity.traffic.infrastructure.persistence.jpa.TrafficEntityMapper;
+import com.smartcity.traffic.infrastructure.persistence.jpa.TrafficJpaEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 列表接口的映射开销：生成的映射对比此前的手写转换
+ * 手写版本按原实现使用Stream收集响应、用try/catch解析状态；加-prof gc可对比每次调用的分配量
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TrafficMapperBenchmark {
+
+    @Param({"100", "5000"})
+    public int size;
+
+    private List<Traffic> traffics;
+    private List<TrafficJpaEntity> entities;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        traffics = TrafficResponseMapperTest.traffics(size);
+        entities = new ArrayList<>(size);
+        for (Traffic traffic : traffics) {
+            entities.add(TrafficEntityMapper.INSTANCE.toEntity(traffic));
+        }
+    }
+
+    @Benchmark
+    public List<TrafficResponse> responsesGenerated() {
+        return TrafficResponseMapper.INSTANCE.toResponses(traffics);
+    }
+
+    @Benchmark
+    public List<TrafficResponse> responsesHandWritten() {
+        return traffics.stream()
+                .map(TrafficResponseMapperTest::handWrittenToResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Traffic> domainGenerated() {
+        List<Traffic> result = new ArrayList<>(entities.size());
+        for (TrafficJpaEntity entity : entities) {
+            result.add(TrafficEntityMapper.INSTANCE.toDomain(entity));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Traffic> domainHandWritten() {
+        return entities.stream()
+                .map(TrafficMapperBenchmark::handWrittenToDomain)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 原TrafficJpaEntity.toDomainEntity
+     */
+    private static Traffic handWrittenToDomain(TrafficJpaEntity entity) {
+        Traffic.TrafficStatus status;
+        try {
+            status = Traffic.TrafficStatus.valueOf(entity.getStatus());
+        } catch (IllegalArgumentException e) {
+            status = Traffic.TrafficStatus.NORMAL;
+        }
+        Traffic traffic = new Traffic(entity.getLocation(), status, entity.getCongestionLevel(), entity.getDescription());
+        traffic.setId(entity.getId());
+        return traffic;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TrafficMapperBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,77 @@
+package com.smartcity.traffic.application.mapper;
+
+import com.smartcity.traffic.application.dto.TrafficResponse;
+import com.smartcity.traffic.domain.Traffic;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 生成的映射与此前手写转换逐字段对照
+ */
+class TrafficResponseMapperTest {
+
+    private final TrafficResponseMapper mapper = TrafficResponseMapper.INSTANCE;
+
+    /**
+     * 原TrafficServiceImpl.convertToResponse
+     */
+    static TrafficResponse handWrittenToResponse(Traffic traffic) {
+        TrafficResponse response = new TrafficResponse();
+        response.setId(traffic.getId());
+        response.setLocation(traffic.getLocation());
+        response.setStatus(traffic.getStatus());
+        response.setCongestionLevel(traffic.getCongestionLevel());
+        response.setDescription(traffic.getDescription());
+        return response;
+    }
+
+    static List<Traffic> traffics(int size) {
+        Traffic.TrafficStatus[] statuses = Traffic.TrafficStatus.values();
+        List<Traffic> traffics = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            traffics.add(new Traffic(id, "segment-" + id, statuses[(int) (id % statuses.length)],
+                    (int) (id % 10) + 1, id % 3 == 0 ? null : "desc-" + id));
+        }
+        return traffics;
+    }
+
+    private static void assertSameResponse(TrafficResponse expected, TrafficResponse actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getLocation(), actual.getLocation());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getCongestionLevel(), actual.getCongestionLevel());
+        assertEquals(expected.getDescription(), actual.getDescription());
+    }
+
+    @Test
+    void responseMatchesHandWrittenConversion() {
+        for (Traffic traffic : traffics(8)) {
+            assertSameResponse(handWrittenToResponse(traffic), mapper.toResponse(traffic));
+        }
+    }
+
+    @Test
+    void listKeepsOrderAndSize() {
+        List<Traffic> traffics = traffics(1000);
+        List<TrafficResponse> expected = traffics.stream()
+                .map(TrafficResponseMapperTest::handWrittenToResponse)
+                .collect(Collectors.toList());
+        List<TrafficResponse> actual = mapper.toResponses(traffics);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameResponse(expected.get(i), actual.get(i));
+        }
+    }
+
+    @Test
+    void nullSourceMapsToNull() {
+        assertNull(mapper.toResponse(null));
+        assertNull(mapper.toResponses(null));
+    }
+}
@@ -0,0 +1,142 @@
+package com.smartcity.traffic.infrastructure.persistence.jpa;
+
+import com.smartcity.common.sharedkernel.infrastructure.id.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量插入路段的吞吐基准：IDENTITY主键对比雪花ID主键
+ * identity按Hibernate对IDENTITY实体的做法逐行插入并取回自增主键，无法合并为批处理；
+ * snowflake在插入前生成主键，按hibernate.jdbc.batch_size分批执行，驱动开启rewriteBatchedStatements后合并为多值INSERT。
+ * 需要可访问的MySQL，通过-Dbench.jdbc.url、-Dbench.jdbc.user、-Dbench.jdbc.password指定，
+ * 基准在该库中创建并删除两张临时表，不触碰业务表
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class TrafficBulkInsertBenchmark {
+
+    private static final int ROWS = 5000;
+
+    private static final String IDENTITY_TABLE = "bench_traffic_identity";
+    private static final String SNOWFLAKE_TABLE = "bench_traffic_snowflake";
+
+    @Param({"500"})
+    public int batchSize;
+
+    private final SnowflakeIdGenerator idGenerator = new SnowflakeIdGenerator(0);
+
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void connect() throws SQLException {
+        String url = System.getProperty("bench.jdbc.url",
+                "jdbc:mysql://localhost:3306/traffic_db?rewriteBatchedStatements=true");
+        connection = DriverManager.getConnection(url, System.getProperty("bench.jdbc.user", "root"),
+                System.getProperty("bench.jdbc.password", "root"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + IDENTITY_TABLE + " ("
+                    + "id BIGINT AUTO_INCREMENT PRIMARY KEY, location VARCHAR(255) NOT NULL, "
+                    + "status VARCHAR(20) NOT NULL, congestion_level INT NOT NULL, updated_at DATETIME(3))");
+            statement.execute("CREATE TABLE IF NOT EXISTS " + SNOWFLAKE_TABLE + " ("
+                    + "id BIGINT PRIMARY KEY, location VARCHAR(255) NOT NULL, "
+                    + "status VARCHAR(20) NOT NULL, congestion_level INT NOT NULL, updated_at DATETIME(3))");
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE " + IDENTITY_TABLE);
+            statement.execute("TRUNCATE TABLE " + SNOWFLAKE_TABLE);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void drop() throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + IDENTITY_TABLE);
+            statement.execute("DROP TABLE IF EXISTS " + SNOWFLAKE_TABLE);
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long identity() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + IDENTITY_TABLE
+                + " (location, status, congestion_level, updated_at) VALUES (?, ?, ?, CURRENT_TIMESTAMP(3))",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ROWS; i++) {
+                bind(insert, 1, i);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    lastId = keys.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long snowflake() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + SNOWFLAKE_TABLE
+                + " (id, location, status, congestion_level, updated_at) VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP(3))")) {
+            for (int i = 0; i < ROWS; i++) {
+                lastId = idGenerator.nextId();
+                insert.setLong(1, lastId);
+                bind(insert, 2, i);
+                insert.addBatch();
+                if ((i + 1) % batchSize == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    private static void bind(PreparedStatement insert, int from, int row) throws SQLException {
+        insert.setString(from, "segment-" + row);
+        insert.setString(from + 1, "NORMAL");
+        insert.setInt(from + 2, row % 5 + 1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TrafficBulkInsertBenchmark.class.getSimpleName()).build()).run();
+    }
+}
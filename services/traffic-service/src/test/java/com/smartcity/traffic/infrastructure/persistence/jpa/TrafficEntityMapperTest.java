@@ -0,0 +1,106 @@
+package com.smartcity.traffic.infrastructure.persistence.jpa;
+
+import com.smartcity.traffic.domain.Traffic;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 生成的映射与此前手写转换逐字段对照
+ */
+class TrafficEntityMapperTest {
+
+    private final TrafficEntityMapper mapper = TrafficEntityMapper.INSTANCE;
+
+    /**
+     * 原TrafficJpaEntity.fromDomainEntity
+     */
+    private static TrafficJpaEntity handWrittenToEntity(Traffic traffic) {
+        TrafficJpaEntity entity = new TrafficJpaEntity();
+        entity.setId(traffic.getId());
+        entity.setLocation(traffic.getLocation());
+        entity.setStatus(traffic.getStatus() != null ? traffic.getStatus().name() : Traffic.TrafficStatus.NORMAL.name());
+        entity.setCongestionLevel(traffic.getCongestionLevel());
+        entity.setDescription(traffic.getDescription());
+        return entity;
+    }
+
+    /**
+     * 原TrafficJpaEntity.toDomainEntity
+     */
+    private static Traffic handWrittenToDomain(TrafficJpaEntity entity) {
+        Traffic.TrafficStatus status;
+        try {
+            status = Traffic.TrafficStatus.valueOf(entity.getStatus());
+        } catch (IllegalArgumentException e) {
+            status = Traffic.TrafficStatus.NORMAL;
+        }
+        Traffic traffic = new Traffic(entity.getLocation(), status, entity.getCongestionLevel(), entity.getDescription());
+        traffic.setId(entity.getId());
+        return traffic;
+    }
+
+    private static void assertSameTraffic(Traffic expected, Traffic actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getLocation(), actual.getLocation());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getCongestionLevel(), actual.getCongestionLevel());
+        assertEquals(expected.getDescription(), actual.getDescription());
+    }
+
+    private static void assertSameEntity(TrafficJpaEntity expected, TrafficJpaEntity actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getLocation(), actual.getLocation());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getCongestionLevel(), actual.getCongestionLevel());
+        assertEquals(expected.getDescription(), actual.getDescription());
+    }
+
+    @Test
+    void roundTripMatchesHandWrittenConversion() {
+        long id = 1;
+        for (Traffic.TrafficStatus status : Traffic.TrafficStatus.values()) {
+            Traffic traffic = new Traffic(id, "segment-" + id, status, (int) id, id % 2 == 0 ? null : "desc-" + id);
+            id++;
+
+            TrafficJpaEntity entity = mapper.toEntity(traffic);
+            assertSameEntity(handWrittenToEntity(traffic), entity);
+
+            Traffic restored = mapper.toDomain(entity);
+            assertSameTraffic(handWrittenToDomain(entity), restored);
+            assertSameTraffic(traffic, restored);
+        }
+    }
+
+    @Test
+    void unknownStatusFallsBackToNormal() {
+        TrafficJpaEntity entity = new TrafficJpaEntity(7L, "segment-7", "JAMMED", 5, null);
+        assertSameTraffic(handWrittenToDomain(entity), mapper.toDomain(entity));
+        assertEquals(Traffic.TrafficStatus.NORMAL, mapper.toDomain(entity).getStatus());
+
+        entity.setStatus(null);
+        assertEquals(Traffic.TrafficStatus.NORMAL, mapper.toDomain(entity).getStatus());
+    }
+
+    @Test
+    void missingStatusIsNotReplacedOnWrite() {
+        // 手写转换会写入NORMAL占位，生成的映射保留null，由数据库非空约束拒绝
+        Traffic traffic = new Traffic(8L, "segment-8", null, 1, null);
+        assertNull(mapper.toEntity(traffic).getStatus());
+    }
+
+    @Test
+    void loadedTrafficStartsClean() {
+        Traffic restored = mapper.toDomain(new TrafficJpaEntity(9L, "segment-9", "BLOCKED", 9, null));
+        assertTrue(restored.getDirtyFields().isEmpty());
+        assertTrue(restored.pullDomainEvents().isEmpty());
+    }
+
+    @Test
+    void nullSourceMapsToNull() {
+        assertNull(mapper.toEntity(null));
+        assertNull(mapper.toDomain(null));
+    }
+}
@@ -0,0 +1,93 @@
+package com.smartcity.traffic.infrastructure.repository;
+
+import com.smartcity.traffic.domain.Traffic;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 路段读缓存的命中率基准
+ * 三个读线程按findById的方式读缓存、未命中时回填，一个写线程模拟写后缓冲落库后的逐条失效；
+ * keySpace大于maxSize时验证满容量后仍能接纳新路段，hits/misses计数器给出命中率
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Group)
+public class TrafficReadCacheBenchmark {
+
+    @Param({"1000", "50000"})
+    public int keySpace;
+
+    @Param({"10000"})
+    public int maxSize;
+
+    private TrafficReadCache cache;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        cache = new TrafficReadCache(60_000, maxSize);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ReadCounters {
+        public long hits;
+        public long misses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    @Benchmark
+    @Group("sensorLoad")
+    @GroupThreads(3)
+    public Traffic read(ReadCounters counters) {
+        Long id = (long) ThreadLocalRandom.current().nextInt(keySpace);
+        Optional<Traffic> cached = cache.get(id);
+        if (cached.isPresent()) {
+            counters.hits++;
+            return cached.get();
+        }
+        counters.misses++;
+        long stamp = cache.stamp(id);
+        Traffic loaded = new Traffic(id, "segment-" + id, Traffic.TrafficStatus.NORMAL, 3, null);
+        cache.put(loaded, stamp);
+        return loaded;
+    }
+
+    @Benchmark
+    @Group("sensorLoad")
+    @GroupThreads(1)
+    public void evict() {
+        cache.evict((long) ThreadLocalRandom.current().nextInt(keySpace));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TrafficReadCacheBenchmark.class.getSimpleName()).build()).run();
+    }
+}
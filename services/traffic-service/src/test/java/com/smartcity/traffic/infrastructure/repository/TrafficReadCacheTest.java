@@ -0,0 +1,56 @@
+package com.smartcity.traffic.infrastructure.repository;
+
+import com.smartcity.traffic.domain.Traffic;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrafficReadCacheTest {
+
+    private static Traffic traffic(long id) {
+        return new Traffic(id, "segment-" + id, Traffic.TrafficStatus.NORMAL, 3, null);
+    }
+
+    @Test
+    void fullCacheStillAcceptsNewSegments() {
+        TrafficReadCache cache = new TrafficReadCache(60_000, 2);
+        for (long id = 1; id <= 3; id++) {
+            cache.put(traffic(id), cache.stamp(id));
+        }
+        assertEquals(2, cache.size());
+        assertTrue(cache.get(3L).isPresent());
+        assertEquals(1, cache.getDisplaced());
+    }
+
+    @Test
+    void fullCachePurgesExpiredEntriesFirst() throws InterruptedException {
+        TrafficReadCache cache = new TrafficReadCache(1, 2);
+        cache.put(traffic(1), cache.stamp(1L));
+        cache.put(traffic(2), cache.stamp(2L));
+        Thread.sleep(5);
+        cache.put(traffic(3), cache.stamp(3L));
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getExpired());
+        assertEquals(0, cache.getDisplaced());
+    }
+
+    @Test
+    void evictionOfAnotherSegmentDoesNotDropFill() {
+        TrafficReadCache cache = new TrafficReadCache(60_000, 100);
+        long stamp = cache.stamp(1L);
+        cache.evict(2L);
+        cache.put(traffic(1), stamp);
+        assertTrue(cache.get(1L).isPresent());
+    }
+
+    @Test
+    void evictionOfSameSegmentDropsStaleFill() {
+        TrafficReadCache cache = new TrafficReadCache(60_000, 100);
+        long stamp = cache.stamp(1L);
+        cache.evict(1L);
+        cache.put(traffic(1), stamp);
+        assertFalse(cache.get(1L).isPresent());
+    }
+}
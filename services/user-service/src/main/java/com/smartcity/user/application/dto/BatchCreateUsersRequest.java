@@ -0,0 +1,18 @@
+package com.smartcity.user.application.dto;
+
+import java.util.List;
+
+/**
+ * 批量创建用户请求DTO
+ * 每行按创建用户的规则单独校验，不合法的行在响应中逐行报告
+ */
+public class BatchCreateUsersRequest {
+    
+    private List<CreateUserRequest> users;
+    
+    // Getter methods
+    public List<CreateUserRequest> getUsers() { return users; }
+    
+    // Setter methods
+    public void setUsers(List<CreateUserRequest> users) { this.users = users; }
+}
@@ -0,0 +1,72 @@
+package com.smartcity.user.application.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.util.List;
+
+/**
+ * 批量创建用户响应DTO
+ * ids与请求中的行一一对应，失败的行为null，失败原因见errors
+ */
+public class BatchCreateUsersResponse {
+    
+    private int total;
+    private int created;
+    private int failed;
+    @JsonSerialize(contentUsing = ToStringSerializer.class)
+    private List<Long> ids;
+    private List<RowError> errors;
+    
+    public BatchCreateUsersResponse() {}
+    
+    public BatchCreateUsersResponse(List<Long> ids, List<RowError> errors) {
+        this.total = ids.size();
+        this.failed = errors.size();
+        this.created = total - failed;
+        this.ids = ids;
+        this.errors = errors;
+    }
+    
+    // Getter methods
+    public int getTotal() { return total; }
+    public int getCreated() { return created; }
+    public int getFailed() { return failed; }
+    public List<Long> getIds() { return ids; }
+    public List<RowError> getErrors() { return errors; }
+    
+    // Setter methods
+    public void setTotal(int total) { this.total = total; }
+    public void setCreated(int created) { this.created = created; }
+    public void setFailed(int failed) { this.failed = failed; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+    public void setErrors(List<RowError> errors) { this.errors = errors; }
+    
+    /**
+     * 单行失败原因
+     */
+    public static class RowError {
+        
+        private int index;
+        private String field;
+        private String message;
+        
+        public RowError() {}
+        
+        public RowError(int index, String field, String message) {
+            this.index = index;
+            this.field = field;
+            this.message = message;
+        }
+        
+        // Getter methods
+        public int getIndex() { return index; }
+        public String getField() { return field; }
+        public String getMessage() { return message; }
+        
+        // Setter methods
+        public void setIndex(int index) { this.index = index; }
+        public void setField(String field) { this.field = field; }
+        public void setMessage(String message) { this.message = message; }
+    }
+}
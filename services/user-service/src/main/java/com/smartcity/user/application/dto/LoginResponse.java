@@ -8,6 +8,7 @@ public class LoginResponse {
     
     private UserResponse user;
     private String token;
+    private Long expiresAt;
     
     // 无参构造器
     public LoginResponse() {}
@@ -18,11 +19,19 @@ public class LoginResponse {
         this.token = token;
     }
     
+    public LoginResponse(UserResponse user, String token, Long expiresAt) {
+        this.user = user;
+        this.token = token;
+        this.expiresAt = expiresAt;
+    }
+    
     // Getter methods
     public UserResponse getUser() { return user; }
     public String getToken() { return token; }
+    public Long getExpiresAt() { return expiresAt; }
     
     // Setter methods
     public void setUser(UserResponse user) { this.user = user; }
     public void setToken(String token) { this.token = token; }
+    public void setExpiresAt(Long expiresAt) { this.expiresAt = expiresAt; }
 }
\ No newline at end of file
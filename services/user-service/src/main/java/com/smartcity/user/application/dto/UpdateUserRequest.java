@@ -1,7 +1,7 @@
 package com.smartcity.user.application.dto;
 
-import javax.validation.constraints.Email;
-import javax.validation.constraints.Pattern;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
 
 /**
  * 更新用户请求DTO
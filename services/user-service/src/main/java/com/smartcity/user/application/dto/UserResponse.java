@@ -1,5 +1,8 @@
 package com.smartcity.user.application.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
 import java.time.LocalDateTime;
 
 /**
@@ -8,6 +11,7 @@ import java.time.LocalDateTime;
  */
 public class UserResponse {
     
+    @JsonSerialize(using = ToStringSerializer.class)
     private Long id;
     private String username;
     private String email;
@@ -17,35 +21,67 @@ public class UserResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
-    // 手动添加setter方法
+    // 手动添加getter和setter方法
+    public Long getId() {
+        return id;
+    }
+    
     public void setId(Long id) {
         this.id = id;
     }
     
+    public String getUsername() {
+        return username;
+    }
+    
     public void setUsername(String username) {
         this.username = username;
     }
     
+    public String getEmail() {
+        return email;
+    }
+    
     public void setEmail(String email) {
         this.email = email;
     }
     
+    public String getPhone() {
+        return phone;
+    }
+    
     public void setPhone(String phone) {
         this.phone = phone;
     }
     
+    public String getRole() {
+        return role;
+    }
+    
     public void setRole(String role) {
         this.role = role;
     }
     
+    public String getStatus() {
+        return status;
+    }
+    
     public void setStatus(String status) {
         this.status = status;
     }
     
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
     
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
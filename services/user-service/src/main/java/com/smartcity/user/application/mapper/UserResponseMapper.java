@@ -0,0 +1,17 @@
+package com.smartcity.user.application.mapper;
+
+import com.smartcity.common.sharedkernel.infrastructure.mapping.GenerateMapper;
+import com.smartcity.user.application.dto.UserResponse;
+import com.smartcity.user.domain.entity.User;
+
+/**
+ * 用户领域实体到响应DTO的映射，实现类在编译期生成
+ * 响应中不含密码，角色和状态以枚举名称返回
+ */
+@GenerateMapper
+public interface UserResponseMapper {
+
+    UserResponseMapper INSTANCE = new UserResponseMapperImpl();
+
+    UserResponse toResponse(User user);
+}
@@ -1,11 +1,18 @@
 package com.smartcity.user.application.service;
 
+import com.smartcity.common.PageRequest;
+import com.smartcity.common.PageResult;
+import com.smartcity.user.application.dto.BatchCreateUsersRequest;
+import com.smartcity.user.application.dto.BatchCreateUsersResponse;
 import com.smartcity.user.application.dto.CreateUserRequest;
 import com.smartcity.user.application.dto.UpdateUserRequest;
 import com.smartcity.user.application.dto.UserResponse;
 import com.smartcity.user.application.dto.LoginRequest;
 import com.smartcity.user.application.dto.LoginResponse;
 
+import java.util.Map;
+import java.util.Set;
+
 /**
  * 用户应用服务接口
  * 定义应用层提供的用户相关功能，作为领域层和表现层之间的桥梁
@@ -13,9 +20,16 @@ import com.smartcity.user.application.dto.LoginResponse;
 public interface UserService {
     
     /**
-     * 创建新用户
+     * 创建新用户，只有管理员调用方可以指定USER以外的角色
+     *
+     * @param callerRole 网关认证后的调用方角色，公开注册时为null
+     */
+    UserResponse createUser(CreateUserRequest request, String callerRole);
+    
+    /**
+     * 批量创建用户，逐行报告失败原因；非管理员调用方指定其他角色的行按失败处理
      */
-    UserResponse createUser(CreateUserRequest request);
+    BatchCreateUsersResponse batchCreateUsers(BatchCreateUsersRequest request, String callerRole);
     
     /**
      * 根据ID获取用户信息
@@ -23,9 +37,14 @@ public interface UserService {
     UserResponse getUserById(Long id);
     
     /**
-     * 更新用户信息
+     * 分页获取用户列表，支持页码偏移和主键游标两种模式
+     */
+    PageResult<UserResponse> listUsers(PageRequest pageRequest);
+    
+    /**
+     * 更新用户信息，只有管理员调用方可以修改角色
      */
-    UserResponse updateUser(Long id, UpdateUserRequest request);
+    UserResponse updateUser(Long id, UpdateUserRequest request, String callerRole);
     
     /**
      * 删除用户
@@ -33,14 +52,17 @@ public interface UserService {
     void deleteUser(Long id);
     
     /**
-     * 用户登录
+     * 用户登录，登录结果异步写入登录审计
      */
-    LoginResponse login(LoginRequest request);
+    LoginResponse login(LoginRequest request, String clientIp, String userAgent);
     
     /**
-     * 重置密码
+     * 重置密码，调用方必须是该邮箱的所有者或管理员
+     *
+     * @param callerId   网关认证后的调用方ID
+     * @param callerRole 网关认证后的调用方角色
      */
-    void resetPassword(String email, String newPassword);
+    void resetPassword(String email, String newPassword, Long callerId, String callerRole);
     
     /**
      * 禁用用户
@@ -51,4 +73,34 @@ public interface UserService {
      * 启用用户
      */
     void enableUser(Long id);
+    
+    /**
+     * 获取登录认证缓存指标
+     */
+    Map<String, Object> getAuthCacheMetrics();
+    
+    /**
+     * 获取登录审计写入器指标
+     */
+    Map<String, Object> getLoginAuditMetrics();
+    
+    /**
+     * 判断用户是否拥有指定权限
+     */
+    boolean hasPermission(Long userId, String permission);
+    
+    /**
+     * 获取用户拥有的全部权限编码
+     */
+    Set<String> getUserPermissions(Long userId);
+    
+    /**
+     * 获取权限快照指标
+     */
+    Map<String, Object> getRbacMetrics();
+    
+    /**
+     * 获取outbox中继指标，未开启中继时返回running=false
+     */
+    Map<String, Object> getOutboxMetrics();
 }
\ No newline at end of file
@@ -1,17 +1,42 @@
 package com.smartcity.user.application.service.impl;
 
-
+import com.smartcity.common.PageRequest;
+import com.smartcity.common.PageResult;
+import com.smartcity.common.sharedkernel.infrastructure.outbox.OutboxRelay;
 import com.smartcity.user.application.dto.*;
+import com.smartcity.user.application.dto.BatchCreateUsersResponse.RowError;
+import com.smartcity.user.application.mapper.UserResponseMapper;
 import com.smartcity.user.application.service.UserService;
 import com.smartcity.user.domain.entity.User;
+import com.smartcity.user.domain.exception.AuthenticationFailedException;
+import com.smartcity.user.domain.exception.DuplicateUserException;
+import com.smartcity.user.domain.exception.UserAccessDeniedException;
+import com.smartcity.user.domain.model.UserCredentialCache;
+import com.smartcity.user.domain.model.UserInsertResult;
+import com.smartcity.user.domain.model.UserRegistration;
 import com.smartcity.user.domain.model.UserRepository;
 import com.smartcity.user.domain.service.UserDomainService;
+import com.smartcity.user.infrastructure.audit.LoginAuditRecord;
+import com.smartcity.user.infrastructure.audit.LoginAuditWriter;
+import com.smartcity.user.infrastructure.rbac.PermissionResolver;
+import com.smartcity.user.infrastructure.security.UserTokenIssuer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * 用户应用服务实现类
  * 实现应用服务接口，调用领域层完成业务功能
@@ -21,26 +46,47 @@ public class UserServiceImpl implements UserService {
     
     private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
     
+    private static final String ROLE_REQUIRES_ADMIN = "只有管理员可以指定角色";
+    
     private final UserDomainService userDomainService;
     private final UserRepository userRepository;
+    private final UserCredentialCache userAuthCache;
+    private final UserTokenIssuer userTokenIssuer;
+    private final PermissionResolver permissionResolver;
+    private final LoginAuditWriter loginAuditWriter;
+    private final Validator validator;
+    private final ObjectProvider<OutboxRelay> outboxRelay;
+    private final int importMaxRows;
+    private final int importHashParallelism;
     
     @Autowired
-    public UserServiceImpl(UserDomainService userDomainService, UserRepository userRepository) {
+    public UserServiceImpl(UserDomainService userDomainService, UserRepository userRepository,
+                           UserCredentialCache userAuthCache, UserTokenIssuer userTokenIssuer,
+                           PermissionResolver permissionResolver, LoginAuditWriter loginAuditWriter,
+                           Validator validator, ObjectProvider<OutboxRelay> outboxRelay,
+                           @Value("${user.import.max-rows:5000}") int importMaxRows,
+                           @Value("${user.import.hash-parallelism:0}") int importHashParallelism) {
         this.userDomainService = userDomainService;
         this.userRepository = userRepository;
+        this.userAuthCache = userAuthCache;
+        this.userTokenIssuer = userTokenIssuer;
+        this.permissionResolver = permissionResolver;
+        this.loginAuditWriter = loginAuditWriter;
+        this.validator = validator;
+        this.outboxRelay = outboxRelay;
+        this.importMaxRows = importMaxRows;
+        this.importHashParallelism = importHashParallelism;
     }
     
     @Override
     @Transactional
-    public UserResponse createUser(CreateUserRequest request) {
+    public UserResponse createUser(CreateUserRequest request, String callerRole) {
         logger.info("开始创建用户: username={}, email={}, phone={}, role={}", 
                 request.getUsername(), request.getEmail(), request.getPhone(), request.getRole());
         
-        // 解析角色，如果没有提供则使用默认角色
-        User.UserRole role = User.UserRole.USER;
-        if (request.getRole() != null && !request.getRole().isEmpty()) {
-            role = User.UserRole.valueOf(request.getRole().toUpperCase());
-        }
+        // 解析角色，如果没有提供则使用默认角色；公开注册只能得到普通用户
+        User.UserRole role = parseRole(request.getRole());
+        requireAdminForRole(role, callerRole);
         
         // 使用领域服务创建用户
         User user = userDomainService.createUser(
@@ -58,6 +104,74 @@ public class UserServiceImpl implements UserService {
         return convertToResponse(user);
     }
     
+    /**
+     * 批量创建用户不开启外层事务，仓储按块各自提交，一块失败不影响已写入的块
+     */
+    @Override
+    public BatchCreateUsersResponse batchCreateUsers(BatchCreateUsersRequest request, String callerRole) {
+        List<CreateUserRequest> rows = request.getUsers();
+        if (rows == null || rows.isEmpty()) {
+            throw new IllegalArgumentException("导入的用户列表不能为空");
+        }
+        if (rows.size() > importMaxRows) {
+            throw new IllegalArgumentException("单次最多导入" + importMaxRows + "个用户");
+        }
+        logger.info("开始批量创建用户: count={}", rows.size());
+        
+        List<Long> ids = new ArrayList<>(Collections.nCopies(rows.size(), null));
+        List<RowError> errors = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>(rows.size());
+        List<UserRegistration> registrations = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            CreateUserRequest row = rows.get(i);
+            if (row == null) {
+                errors.add(new RowError(i, null, "用户信息不能为空"));
+                continue;
+            }
+            Set<ConstraintViolation<CreateUserRequest>> violations = validator.validate(row);
+            if (!violations.isEmpty()) {
+                ConstraintViolation<CreateUserRequest> violation = violations.iterator().next();
+                errors.add(new RowError(i, violation.getPropertyPath().toString(), violation.getMessage()));
+                continue;
+            }
+            User.UserRole role;
+            try {
+                role = parseRole(row.getRole());
+            } catch (IllegalArgumentException e) {
+                errors.add(new RowError(i, "role", "无效的角色: " + row.getRole()));
+                continue;
+            }
+            if (role != User.UserRole.USER && !isAdmin(callerRole)) {
+                errors.add(new RowError(i, "role", ROLE_REQUIRES_ADMIN));
+                continue;
+            }
+            indexes.add(i);
+            registrations.add(new UserRegistration(row.getUsername(), row.getPassword(), row.getEmail(),
+                    row.getPhone(), role));
+        }
+        
+        if (!registrations.isEmpty()) {
+            List<UserInsertResult> results = userDomainService.createUsers(registrations, importHashParallelism);
+            for (int i = 0; i < results.size(); i++) {
+                UserInsertResult result = results.get(i);
+                if (result.isCreated()) {
+                    ids.set(indexes.get(i), result.user().getId());
+                } else {
+                    String field = result.error() instanceof DuplicateUserException duplicate
+                            ? duplicate.getField().getProperty()
+                            : null;
+                    errors.add(new RowError(indexes.get(i), field, result.error().getMessage()));
+                }
+            }
+            errors.sort(Comparator.comparingInt(RowError::getIndex));
+        }
+        
+        BatchCreateUsersResponse response = new BatchCreateUsersResponse(ids, errors);
+        logger.info("批量创建用户完成: total={}, created={}, failed={}",
+                response.getTotal(), response.getCreated(), response.getFailed());
+        return response;
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public UserResponse getUserById(Long id) {
@@ -67,9 +181,15 @@ public class UserServiceImpl implements UserService {
         return convertToResponse(user);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public PageResult<UserResponse> listUsers(PageRequest pageRequest) {
+        return userRepository.findPage(pageRequest).map(this::convertToResponse);
+    }
+    
     @Override
     @Transactional
-    public UserResponse updateUser(Long id, UpdateUserRequest request) {
+    public UserResponse updateUser(Long id, UpdateUserRequest request, String callerRole) {
         logger.info("开始更新用户: id={}, email={}, phone={}, role={}", 
                 id, request.getEmail(), request.getPhone(), request.getRole());
         
@@ -79,6 +199,9 @@ public class UserServiceImpl implements UserService {
         // 更新用户信息
         if (request.getRole() != null && !request.getRole().isEmpty()) {
             User.UserRole role = User.UserRole.valueOf(request.getRole().toUpperCase());
+            if (role != user.getRole()) {
+                requireAdminForRole(null, callerRole);
+            }
             user.update(request.getEmail(), request.getPhone(), role);
         } else {
             user.update(request.getEmail(), request.getPhone());
@@ -101,23 +224,42 @@ public class UserServiceImpl implements UserService {
         logger.info("用户删除成功: id={}", id);
     }
     
+    /**
+     * 登录不开启事务：认证缓存命中时无需占用数据库连接，未命中时由仓储自身的只读事务读库
+     */
     @Override
-    @Transactional(readOnly = true)
-    public LoginResponse login(LoginRequest request) {
+    public LoginResponse login(LoginRequest request, String clientIp, String userAgent) {
         logger.info("用户登录: username={}", request.getUsername());
         
-        // 使用领域服务进行认证
-        User user = userDomainService.authenticate(request.getUsername(), request.getPassword());
+        // 使用领域服务进行认证；用户不存在时login_logs无法关联，不记录审计
+        User user;
+        try {
+            user = userDomainService.authenticate(request.getUsername(), request.getPassword());
+        } catch (AuthenticationFailedException e) {
+            if (e.getUserId() != null) {
+                loginAuditWriter.submit(LoginAuditRecord.failure(e.getUserId(), clientIp, userAgent, e.getMessage()));
+            }
+            throw e;
+        }
+        loginAuditWriter.submit(LoginAuditRecord.success(user.getId(), clientIp, userAgent));
         
         logger.info("用户登录成功: id={}, username={}, role={}", user.getId(), user.getUsername(), user.getRole());
         
-        // 生成登录响应（实际应用中应包含token等信息）
-        return new LoginResponse(convertToResponse(user), "sample-jwt-token");
+        // 签发网关可在本地校验的令牌
+        UserTokenIssuer.IssuedToken token = userTokenIssuer.issue(user);
+        return new LoginResponse(convertToResponse(user), token.token(), token.expiresAt());
     }
     
     @Override
     @Transactional
-    public void resetPassword(String email, String newPassword) {
+    public void resetPassword(String email, String newPassword, Long callerId, String callerRole) {
+        if (!isAdmin(callerRole)) {
+            Long ownerId = userRepository.findByEmail(email).map(User::getId).orElse(null);
+            // 邮箱不存在与不属于调用方返回同样的结果，避免借此探测已注册邮箱
+            if (callerId == null || !callerId.equals(ownerId)) {
+                throw new UserAccessDeniedException("只能重置自己的密码");
+            }
+        }
         userDomainService.resetPassword(email, newPassword);
     }
     
@@ -141,19 +283,64 @@ public class UserServiceImpl implements UserService {
         userRepository.save(user);
     }
     
+    @Override
+    public Map<String, Object> getAuthCacheMetrics() {
+        return userAuthCache.metrics();
+    }
+    
+    @Override
+    public Map<String, Object> getLoginAuditMetrics() {
+        return loginAuditWriter.metrics();
+    }
+    
+    @Override
+    public boolean hasPermission(Long userId, String permission) {
+        return permissionResolver.hasPermission(userId, permission);
+    }
+    
+    @Override
+    public Set<String> getUserPermissions(Long userId) {
+        return permissionResolver.getPermissions(userId);
+    }
+    
+    @Override
+    public Map<String, Object> getRbacMetrics() {
+        return permissionResolver.metrics();
+    }
+    
+    @Override
+    public Map<String, Object> getOutboxMetrics() {
+        OutboxRelay relay = outboxRelay.getIfAvailable();
+        return relay == null ? Map.of("running", false) : relay.metrics();
+    }
+    
+    /**
+     * 解析角色，未提供时使用默认角色
+     */
+    /**
+     * 指定USER以外的角色需要管理员调用方；role为null表示修改已有角色，同样需要管理员
+     */
+    private static void requireAdminForRole(User.UserRole role, String callerRole) {
+        if (role != User.UserRole.USER && !isAdmin(callerRole)) {
+            throw new UserAccessDeniedException(ROLE_REQUIRES_ADMIN);
+        }
+    }
+    
+    private static boolean isAdmin(String callerRole) {
+        return User.UserRole.ADMIN.name().equals(callerRole);
+    }
+    
+    private User.UserRole parseRole(String role) {
+        if (role == null || role.isEmpty()) {
+            return User.UserRole.USER;
+        }
+        return User.UserRole.valueOf(role.toUpperCase());
+    }
+    
     /**
      * 将领域实体转换为响应DTO
      */
     private UserResponse convertToResponse(User user) {
-        UserResponse response = new UserResponse();
-        response.setId(user.getId());
-        response.setUsername(user.getUsername());
-        response.setEmail(user.getEmail());
-        response.setPhone(user.getPhone());
-        response.setRole(user.getRole().name());
-        response.setStatus(user.getStatus().name());
-        response.setCreatedAt(user.getCreatedAt());
-        response.setUpdatedAt(user.getUpdatedAt());
-        return response;
+        return UserResponseMapper.INSTANCE.toResponse(user);
     }
 }
\ No newline at end of file
@@ -1,6 +1,13 @@
 package com.smartcity.user.domain.entity;
 
+import com.smartcity.common.sharedkernel.domain.model.DomainEvent;
+import com.smartcity.user.domain.event.UserPasswordChangedEvent;
+import com.smartcity.user.domain.event.UserRoleChangedEvent;
+import com.smartcity.user.domain.event.UserStatusChangedEvent;
+
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 用户聚合根
@@ -18,6 +25,11 @@ public class User {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
+    /**
+     * 尚未发布的领域事件，由仓储在保存后取出发布
+     */
+    private final transient List<DomainEvent> domainEvents = new ArrayList<>();
+    
     /**
      * 构造函数，创建新用户
      */
@@ -49,6 +61,22 @@ public class User {
         this.updatedAt = LocalDateTime.now();
     }
     
+    /**
+     * 构造函数，从持久化数据重建用户，保留状态和时间戳
+     */
+    public User(Long id, String username, String password, String email, String phone, UserRole role,
+                UserStatus status, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.email = email;
+        this.phone = phone;
+        this.role = role;
+        this.status = status != null ? status : UserStatus.ACTIVE;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+    
     // 添加getter方法
     public Long getId() {
         return id;
@@ -90,11 +118,12 @@ public class User {
     public void setPassword(String password) {
         this.password = password;
         this.updatedAt = LocalDateTime.now();
+        registerEvent(new UserPasswordChangedEvent(id));
     }
     
     // 设置角色
     public void setRole(UserRole role) {
-        this.role = role;
+        changeRole(role);
         this.updatedAt = LocalDateTime.now();
     }
     
@@ -109,19 +138,19 @@ public class User {
     public void update(String email, String phone, UserRole role) {
         this.email = email;
         this.phone = phone;
-        this.role = role;
+        changeRole(role);
         this.updatedAt = LocalDateTime.now();
     }
     
     // 禁用用户
     public void disable() {
-        this.status = UserStatus.DISABLED;
+        changeStatus(UserStatus.DISABLED);
         this.updatedAt = LocalDateTime.now();
     }
     
     // 启用用户
     public void enable() {
-        this.status = UserStatus.ACTIVE;
+        changeStatus(UserStatus.ACTIVE);
         this.updatedAt = LocalDateTime.now();
     }
     
@@ -129,6 +158,48 @@ public class User {
     public void resetPassword(String newPassword) {
         this.password = newPassword;
         this.updatedAt = LocalDateTime.now();
+        registerEvent(new UserPasswordChangedEvent(id));
+    }
+    
+    /**
+     * 用新算法重新哈希同一密码，密码本身未变，不记录密码修改事件
+     */
+    public void upgradePasswordHash(String passwordHash) {
+        this.password = passwordHash;
+    }
+    
+    /**
+     * 取出并清空尚未发布的领域事件
+     */
+    public List<DomainEvent> pullDomainEvents() {
+        List<DomainEvent> events = new ArrayList<>(domainEvents);
+        domainEvents.clear();
+        return events;
+    }
+    
+    private void changeStatus(UserStatus newStatus) {
+        UserStatus previous = this.status;
+        this.status = newStatus;
+        if (previous != newStatus) {
+            registerEvent(new UserStatusChangedEvent(id, previous, newStatus));
+        }
+    }
+    
+    private void changeRole(UserRole newRole) {
+        UserRole previous = this.role;
+        this.role = newRole;
+        if (previous != newRole) {
+            registerEvent(new UserRoleChangedEvent(id, previous, newRole));
+        }
+    }
+    
+    /**
+     * 新建用户尚无ID，注册事件由仓储在保存后发布
+     */
+    private void registerEvent(DomainEvent event) {
+        if (id != null) {
+            domainEvents.add(event);
+        }
     }
     
     /**
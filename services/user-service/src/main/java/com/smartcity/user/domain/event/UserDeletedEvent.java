@@ -0,0 +1,11 @@
+package com.smartcity.user.domain.event;
+
+/**
+ * 用户被删除
+ */
+public class UserDeletedEvent extends UserEvent {
+    
+    public UserDeletedEvent(Long userId) {
+        super(userId);
+    }
+}
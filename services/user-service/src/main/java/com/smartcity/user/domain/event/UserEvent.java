@@ -0,0 +1,24 @@
+package com.smartcity.user.domain.event;
+
+import com.smartcity.common.sharedkernel.domain.model.DomainEvent;
+
+/**
+ * 用户领域事件基类
+ */
+public abstract class UserEvent extends DomainEvent {
+    
+    private final Long userId;
+    
+    protected UserEvent(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    @Override
+    public Object getAggregateId() {
+        return userId;
+    }
+}
@@ -0,0 +1,11 @@
+package com.smartcity.user.domain.event;
+
+/**
+ * 用户密码被修改或重置
+ */
+public class UserPasswordChangedEvent extends UserEvent {
+    
+    public UserPasswordChangedEvent(Long userId) {
+        super(userId);
+    }
+}
@@ -0,0 +1,26 @@
+package com.smartcity.user.domain.event;
+
+import com.smartcity.user.domain.entity.User;
+
+/**
+ * 新用户注册
+ */
+public class UserRegisteredEvent extends UserEvent {
+    
+    private final String username;
+    private final User.UserRole role;
+    
+    public UserRegisteredEvent(Long userId, String username, User.UserRole role) {
+        super(userId);
+        this.username = username;
+        this.role = role;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public User.UserRole getRole() {
+        return role;
+    }
+}
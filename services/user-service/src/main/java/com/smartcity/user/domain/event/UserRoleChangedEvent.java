@@ -0,0 +1,26 @@
+package com.smartcity.user.domain.event;
+
+import com.smartcity.user.domain.entity.User;
+
+/**
+ * 用户角色变化
+ */
+public class UserRoleChangedEvent extends UserEvent {
+    
+    private final User.UserRole previousRole;
+    private final User.UserRole role;
+    
+    public UserRoleChangedEvent(Long userId, User.UserRole previousRole, User.UserRole role) {
+        super(userId);
+        this.previousRole = previousRole;
+        this.role = role;
+    }
+    
+    public User.UserRole getPreviousRole() {
+        return previousRole;
+    }
+    
+    public User.UserRole getRole() {
+        return role;
+    }
+}
@@ -0,0 +1,26 @@
+package com.smartcity.user.domain.event;
+
+import com.smartcity.user.domain.entity.User;
+
+/**
+ * 用户状态变化（启用、禁用、锁定）
+ */
+public class UserStatusChangedEvent extends UserEvent {
+    
+    private final User.UserStatus previousStatus;
+    private final User.UserStatus status;
+    
+    public UserStatusChangedEvent(Long userId, User.UserStatus previousStatus, User.UserStatus status) {
+        super(userId);
+        this.previousStatus = previousStatus;
+        this.status = status;
+    }
+    
+    public User.UserStatus getPreviousStatus() {
+        return previousStatus;
+    }
+    
+    public User.UserStatus getStatus() {
+        return status;
+    }
+}
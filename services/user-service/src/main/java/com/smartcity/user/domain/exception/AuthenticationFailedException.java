@@ -0,0 +1,24 @@
+package com.smartcity.user.domain.exception;
+
+import com.smartcity.common.sharedkernel.domain.exception.DomainException;
+
+/**
+ * 登录认证失败异常
+ * 用户存在时携带用户ID，供登录审计记录失败原因
+ */
+public class AuthenticationFailedException extends DomainException {
+    
+    private final Long userId;
+    
+    public AuthenticationFailedException(String message, String errorCode, Long userId) {
+        super(message, errorCode);
+        this.userId = userId;
+    }
+    
+    /**
+     * 认证失败的用户ID，用户不存在时为null
+     */
+    public Long getUserId() {
+        return userId;
+    }
+}
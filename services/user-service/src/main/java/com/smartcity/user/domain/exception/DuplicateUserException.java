@@ -0,0 +1,51 @@
+package com.smartcity.user.domain.exception;
+
+import com.smartcity.common.sharedkernel.domain.exception.DomainException;
+
+/**
+ * 用户唯一字段冲突异常
+ * 由数据库唯一约束冲突翻译而来，指明冲突的字段
+ */
+public class DuplicateUserException extends DomainException {
+    
+    private final Field field;
+    
+    public DuplicateUserException(Field field) {
+        super(field.getMessage(), "USER_DUPLICATE_" + field.name());
+        this.field = field;
+    }
+    
+    public DuplicateUserException(Field field, Throwable cause) {
+        super(field.getMessage(), "USER_DUPLICATE_" + field.name(), cause);
+        this.field = field;
+    }
+    
+    public Field getField() {
+        return field;
+    }
+    
+    /**
+     * 带唯一约束的用户字段
+     */
+    public enum Field {
+        USERNAME("username", "用户名已存在"),
+        EMAIL("email", "邮箱已存在"),
+        PHONE("phone", "手机号已存在");
+        
+        private final String property;
+        private final String message;
+        
+        Field(String property, String message) {
+            this.property = property;
+            this.message = message;
+        }
+        
+        public String getProperty() {
+            return property;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.smartcity.user.domain.exception;
+
+import com.smartcity.common.sharedkernel.domain.exception.DomainException;
+
+/**
+ * 调用方无权执行该操作，例如非管理员指定角色或重置他人的密码
+ */
+public class UserAccessDeniedException extends DomainException {
+    
+    public UserAccessDeniedException(String message) {
+        super(message, "ACCESS_DENIED");
+    }
+}
@@ -0,0 +1,40 @@
+package com.smartcity.user.domain.model;
+
+import com.smartcity.user.domain.entity.User;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 登录认证用户缓存接口
+ * 按用户名缓存认证所需的用户快照，由仓储在读库时回填、在写入时失效
+ */
+public interface UserCredentialCache {
+    
+    /**
+     * 读取前的失效戳，回填时原样传回
+     */
+    long stamp();
+    
+    /**
+     * 读取未过期的缓存
+     */
+    Optional<User> get(String username);
+    
+    /**
+     * 回填缓存，读取期间发生过失效时放弃回填
+     *
+     * @param stamp 读库前通过stamp()取得的失效戳
+     */
+    void put(User user, long stamp);
+    
+    /**
+     * 失效指定用户
+     */
+    void evict(String username);
+    
+    /**
+     * 运行指标快照
+     */
+    Map<String, Object> metrics();
+}
@@ -0,0 +1,22 @@
+package com.smartcity.user.domain.model;
+
+import com.smartcity.common.sharedkernel.domain.exception.DomainException;
+import com.smartcity.user.domain.entity.User;
+
+/**
+ * 批量新增中单个用户的结果，user和error有且只有一个不为空
+ */
+public record UserInsertResult(User user, DomainException error) {
+    
+    public static UserInsertResult created(User user) {
+        return new UserInsertResult(user, null);
+    }
+    
+    public static UserInsertResult failed(DomainException error) {
+        return new UserInsertResult(null, error);
+    }
+    
+    public boolean isCreated() {
+        return user != null;
+    }
+}
@@ -0,0 +1,9 @@
+package com.smartcity.user.domain.model;
+
+import com.smartcity.user.domain.entity.User;
+
+/**
+ * 待注册的用户信息，密码为明文，由领域服务哈希后再创建用户
+ */
+public record UserRegistration(String username, String password, String email, String phone, User.UserRole role) {
+}
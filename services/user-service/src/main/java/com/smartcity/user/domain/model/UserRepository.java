@@ -1,6 +1,10 @@
 package com.smartcity.user.domain.model;
 
+import com.smartcity.common.PageRequest;
+import com.smartcity.common.PageResult;
 import com.smartcity.user.domain.entity.User;
+import com.smartcity.user.domain.exception.DuplicateUserException;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -44,11 +48,31 @@ public interface UserRepository {
      */
     Optional<User> findById(Long id);
     
+    /**
+     * 按主键升序分页查询用户，请求带游标时按主键做键集分页
+     */
+    PageResult<User> findPage(PageRequest pageRequest);
+    
     /**
      * 保存用户
+     * 违反用户名、邮箱或手机号唯一约束时抛出DuplicateUserException
      */
     User save(User user);
     
+    /**
+     * 批量新增用户，按块批量插入，冲突的行单独报告，不影响其他行
+     *
+     * @return 与入参同序的结果
+     */
+    List<UserInsertResult> insertAll(List<User> users);
+    
+    /**
+     * 批量新增前的唯一性预检查：与已有用户或本批中更早的行重复时返回冲突的字段
+     *
+     * @return 与入参同序的冲突字段，不冲突时为空
+     */
+    List<DuplicateUserException.Field> findConflicts(List<UserRegistration> registrations);
+    
     /**
      * 根据ID删除用户
      */
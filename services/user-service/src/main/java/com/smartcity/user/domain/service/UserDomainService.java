@@ -1,10 +1,20 @@
 package com.smartcity.user.domain.service;
 
+import com.smartcity.common.security.PasswordHasher;
 import com.smartcity.user.domain.entity.User;
+import com.smartcity.user.domain.exception.AuthenticationFailedException;
+import com.smartcity.user.domain.exception.DuplicateUserException;
+import com.smartcity.user.domain.model.UserInsertResult;
+import com.smartcity.user.domain.model.UserRegistration;
 import com.smartcity.user.domain.model.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * 用户领域服务
  * 封装涉及用户的核心业务逻辑，特别是需要多实体协作的复杂操作
@@ -13,10 +23,12 @@ import org.springframework.stereotype.Service;
 public class UserDomainService {
     
     private final UserRepository userRepository;
+    private final PasswordHasher passwordHasher;
     
     @Autowired
-    public UserDomainService(UserRepository userRepository) {
+    public UserDomainService(UserRepository userRepository, PasswordHasher passwordHasher) {
         this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
     }
     
     /**
@@ -30,24 +42,51 @@ public class UserDomainService {
      * 创建新用户，包含验证逻辑和角色支持
      */
     public User createUser(Long id, String username, String password, String email, String phone, User.UserRole role) {
-        // 验证唯一性约束
-        if (userRepository.existsByUsername(username)) {
-            throw new RuntimeException("用户名已存在");
-        }
+        // 创建用户实体，密码只保存哈希
+        User user = new User(id, username, passwordHasher.hash(password), email, phone, role);
         
-        if (userRepository.existsByEmail(email)) {
-            throw new RuntimeException("邮箱已存在");
+        // 唯一性由数据库唯一约束保证，冲突时仓储抛出DuplicateUserException
+        return userRepository.save(user);
+    }
+    
+    /**
+     * 批量创建用户
+     * 先按用户名、邮箱和手机号预检查重复，只为不冲突的行计算密码哈希，再由仓储按块批量插入；
+     * 密码按限定的并发度在哈希线程池中计算
+     *
+     * @param hashParallelism 同时在途的哈希任务数
+     * @return 与入参同序的结果
+     */
+    public List<UserInsertResult> createUsers(List<UserRegistration> registrations, int hashParallelism) {
+        List<UserInsertResult> results = new ArrayList<>(Collections.nCopies(registrations.size(), null));
+        List<DuplicateUserException.Field> conflicts = userRepository.findConflicts(registrations);
+        List<Integer> accepted = new ArrayList<>(registrations.size());
+        for (int i = 0; i < registrations.size(); i++) {
+            if (conflicts.get(i) != null) {
+                results.set(i, UserInsertResult.failed(new DuplicateUserException(conflicts.get(i))));
+            } else {
+                accepted.add(i);
+            }
         }
-        
-        if (userRepository.existsByPhone(phone)) {
-            throw new RuntimeException("手机号已存在");
+        if (accepted.isEmpty()) {
+            return results;
         }
         
-        // 创建用户实体
-        User user = new User(id, username, password, email, phone, role);
-        
-        // 保存用户
-        return userRepository.save(user);
+        List<String> hashes = passwordHasher.hashAll(
+                accepted.stream().map(i -> registrations.get(i).password()).collect(Collectors.toList()),
+                hashParallelism);
+        List<User> users = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            UserRegistration registration = registrations.get(accepted.get(i));
+            users.add(new User(null, registration.username(), hashes.get(i), registration.email(),
+                    registration.phone(), registration.role()));
+        }
+        // 预检查之后的并发注册仍由仓储插入时的检查和唯一约束兜底
+        List<UserInsertResult> inserted = userRepository.insertAll(users);
+        for (int i = 0; i < accepted.size(); i++) {
+            results.set(accepted.get(i), inserted.get(i));
+        }
+        return results;
     }
     
     /**
@@ -55,16 +94,22 @@ public class UserDomainService {
      */
     public User authenticate(String username, String password) {
         User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("用户不存在: " + username));
+                .orElseThrow(() -> new AuthenticationFailedException("用户不存在: " + username, "USER_NOT_FOUND", null));
         
         // 检查用户状态
         if (user.getStatus() != User.UserStatus.ACTIVE) {
-            throw new RuntimeException("用户账户状态异常");
+            throw new AuthenticationFailedException("用户账户状态异常", "USER_INACTIVE", user.getId());
+        }
+        
+        // 验证密码，哈希计算在独立的哈希线程池中执行
+        if (!passwordHasher.matches(password, user.getPassword())) {
+            throw new AuthenticationFailedException("密码错误", "BAD_CREDENTIALS", user.getId());
         }
         
-        // 验证密码（实际应用中应该使用密码加密比较）
-        if (!user.getPassword().equals(password)) {
-            throw new RuntimeException("密码错误");
+        // 旧的MD5或明文密码在登录成功后透明地升级为当前哈希
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            user.upgradePasswordHash(passwordHasher.hash(password));
+            userRepository.save(user);
         }
         
         return user;
@@ -77,7 +122,7 @@ public class UserDomainService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("用户不存在: " + email));
         
-        user.resetPassword(newPassword);
+        user.resetPassword(passwordHasher.hash(newPassword));
         userRepository.save(user);
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.smartcity.user.infrastructure.audit;
+
+import java.time.LocalDateTime;
+
+/**
+ * 一次登录尝试的审计记录，对应login_logs的一行
+ *
+ * @param userId       用户ID
+ * @param loginTime    登录时间
+ * @param loginIp      客户端IP
+ * @param userAgent    客户端User-Agent，写入login_browser
+ * @param success      是否登录成功
+ * @param errorMessage 失败原因，成功时为null
+ */
+public record LoginAuditRecord(Long userId, LocalDateTime loginTime, String loginIp, String userAgent,
+                               boolean success, String errorMessage) {
+
+    public static LoginAuditRecord success(Long userId, String loginIp, String userAgent) {
+        return new LoginAuditRecord(userId, LocalDateTime.now(), loginIp, userAgent, true, null);
+    }
+
+    public static LoginAuditRecord failure(Long userId, String loginIp, String userAgent, String errorMessage) {
+        return new LoginAuditRecord(userId, LocalDateTime.now(), loginIp, userAgent, false, errorMessage);
+    }
+}
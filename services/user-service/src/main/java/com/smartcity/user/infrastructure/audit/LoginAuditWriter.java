@@ -0,0 +1,104 @@
+package com.smartcity.user.infrastructure.audit;
+
+import com.smartcity.common.sharedkernel.infrastructure.batch.BoundedBatchWriter;
+import com.smartcity.common.sharedkernel.infrastructure.batch.BoundedBatchWriter.OverflowPolicy;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 登录审计批量写入器
+ * 登录结果先进入有界缓冲区，由后台线程按条数或时间合并为多行INSERT写入login_logs，登录请求不等待写库；
+ * 缓冲区满时按overflow-policy处理，默认直接拒绝，保证审计积压不会拖慢登录。
+ * 用户在登录和刷写之间被删除时，该行违反login_logs的外键，整批失败后改为逐行写入，只隔离这一行
+ */
+@Component
+public class LoginAuditWriter {
+
+    private static final String INSERT_PREFIX = "INSERT INTO login_logs "
+            + "(user_id, login_time, login_ip, login_browser, login_status, error_message) VALUES ";
+    private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, ?, ?)";
+    private static final int COLUMN_COUNT = 6;
+    private static final int MAX_IP_LENGTH = 50;
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BoundedBatchWriter<LoginAuditRecord> batchWriter;
+    private final long shutdownTimeoutMillis;
+
+    public LoginAuditWriter(JdbcTemplate jdbcTemplate,
+                            @Value("${user.login-audit.buffer-capacity:8192}") int bufferCapacity,
+                            @Value("${user.login-audit.batch-size:200}") int batchSize,
+                            @Value("${user.login-audit.flush-interval-ms:500}") long flushIntervalMillis,
+                            @Value("${user.login-audit.overflow-policy:REJECT}") OverflowPolicy overflowPolicy,
+                            @Value("${user.login-audit.offer-timeout-ms:5}") long offerTimeoutMillis,
+                            @Value("${user.login-audit.shutdown-timeout-ms:5000}") long shutdownTimeoutMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.batchWriter = new BoundedBatchWriter<>("login-audit", bufferCapacity, batchSize,
+                flushIntervalMillis, overflowPolicy, offerTimeoutMillis, this::insertBatch,
+                DataIntegrityViolationException.class::isInstance);
+    }
+
+    @PostConstruct
+    public void start() {
+        batchWriter.start();
+    }
+
+    /**
+     * 停止接收新记录，并在超时时间内把缓冲区中的审计记录写完
+     */
+    @PreDestroy
+    public void stop() {
+        batchWriter.stop(shutdownTimeoutMillis);
+    }
+
+    /**
+     * 提交审计记录，缓冲区满被拒绝时返回false
+     */
+    public boolean submit(LoginAuditRecord record) {
+        return batchWriter.offer(record);
+    }
+
+    /**
+     * 写入器运行指标
+     */
+    public Map<String, Object> metrics() {
+        return batchWriter.metrics();
+    }
+
+    /**
+     * 以单条多行INSERT写入一批审计记录
+     */
+    protected void insertBatch(List<LoginAuditRecord> records) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + records.size() * (ROW_PLACEHOLDER.length() + 2));
+        sql.append(INSERT_PREFIX);
+        List<Object> args = new ArrayList<>(records.size() * COLUMN_COUNT);
+        for (int i = 0; i < records.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDER);
+            LoginAuditRecord record = records.get(i);
+            args.add(record.userId());
+            args.add(Timestamp.valueOf(record.loginTime()));
+            args.add(truncate(record.loginIp(), MAX_IP_LENGTH));
+            args.add(truncate(record.userAgent(), MAX_TEXT_LENGTH));
+            args.add(record.success() ? 1 : 0);
+            args.add(truncate(record.errorMessage(), MAX_TEXT_LENGTH));
+        }
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
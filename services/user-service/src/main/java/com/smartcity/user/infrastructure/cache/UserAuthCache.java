@@ -0,0 +1,180 @@
+package com.smartcity.user.infrastructure.cache;
+
+import com.smartcity.user.domain.entity.User;
+import com.smartcity.user.domain.model.UserCredentialCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 登录认证用户缓存
+ * 按用户名缓存凭据和账户状态的快照，条目按TTL过期，容量有上限；读取时返回新建的User对象，调用方修改不会污染缓存。
+ * 用户名唯一性不区分大小写，缓存键同样转为小写，不同写法的登录和失效落在同一条目上
+ */
+@Component
+public class UserAuthCache implements UserCredentialCache {
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxSize;
+
+    /**
+     * 失效计数，读库前取一次，回填时若期间发生过失效则放弃回填，避免旧数据覆盖刚失效的条目
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public UserAuthCache(@Value("${user.auth-cache.ttl-ms:15000}") long ttlMillis,
+                         @Value("${user.auth-cache.max-size:50000}") int maxSize) {
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 读取前的失效戳，回填时原样传回
+     */
+    @Override
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * 读取未过期的缓存
+     */
+    @Override
+    public Optional<User> get(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        String key = key(username);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        if (System.currentTimeMillis() - entry.loadedAt() > ttlMillis) {
+            if (entries.remove(key, entry)) {
+                expired.increment();
+            }
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(entry.toUser());
+    }
+
+    /**
+     * 回填缓存
+     *
+     * @param stamp 读库前通过stamp()取得的失效戳
+     */
+    @Override
+    public void put(User user, long stamp) {
+        if (user == null || user.getUsername() == null || stamp != invalidations.get()) {
+            return;
+        }
+        String key = key(user.getUsername());
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            purgeExpired();
+            if (entries.size() >= maxSize) {
+                rejected.increment();
+                return;
+            }
+        }
+        entries.put(key, Entry.of(user, System.currentTimeMillis()));
+    }
+
+    /**
+     * 失效指定用户；处于事务中时在提交后再失效一次，清掉提交前被并发读取回填的旧数据
+     */
+    @Override
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        String key = key(username);
+        remove(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(key);
+                }
+            });
+        }
+    }
+
+    private void remove(String key) {
+        invalidations.incrementAndGet();
+        if (entries.remove(key) != null) {
+            evicted.increment();
+        }
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.forEach((username, entry) -> {
+            if (now - entry.loadedAt() > ttlMillis && entries.remove(username, entry)) {
+                expired.increment();
+            }
+        });
+    }
+
+    /**
+     * 运行指标快照
+     */
+    @Override
+    public Map<String, Object> metrics() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("size", entries.size());
+        metrics.put("maxSize", maxSize);
+        metrics.put("ttlMillis", ttlMillis);
+        metrics.put("hits", hitCount);
+        metrics.put("misses", missCount);
+        metrics.put("hitRate", hitCount + missCount == 0 ? 0.0
+                : Math.round(hitCount * 10000.0 / (hitCount + missCount)) / 10000.0);
+        metrics.put("expired", expired.sum());
+        metrics.put("evicted", evicted.sum());
+        metrics.put("rejected", rejected.sum());
+        return metrics;
+    }
+
+    /**
+     * 不可变的用户快照
+     */
+    private record Entry(Long id, String username, String password, String email, String phone,
+                         User.UserRole role, User.UserStatus status, LocalDateTime createdAt,
+                         LocalDateTime updatedAt, long loadedAt) {
+
+        static Entry of(User user, long loadedAt) {
+            return new Entry(user.getId(), user.getUsername(), user.getPassword(), user.getEmail(), user.getPhone(),
+                    user.getRole(), user.getStatus(), user.getCreatedAt(), user.getUpdatedAt(), loadedAt);
+        }
+
+        User toUser() {
+            return new User(id, username, password, email, phone, role, status, createdAt, updatedAt);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.smartcity.user.infrastructure.event;
+
+import com.smartcity.common.sharedkernel.infrastructure.event.DomainEventSubscriber;
+import com.smartcity.user.domain.event.UserEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 用户审计日志订阅者
+ * 在事件总线的工作线程中记录已提交的用户变更，不占用请求线程
+ */
+@Component
+public class UserAuditLogSubscriber implements DomainEventSubscriber<UserEvent> {
+    
+    private static final Logger auditLogger = LoggerFactory.getLogger("com.smartcity.user.audit");
+    
+    @Override
+    public Class<UserEvent> eventType() {
+        return UserEvent.class;
+    }
+    
+    @Override
+    public void onEvents(List<UserEvent> events) {
+        for (UserEvent event : events) {
+            auditLogger.info("{} userId={} eventId={} occurredOn={}",
+                    event.getClass().getSimpleName(), event.getUserId(), event.getEventId(), event.getOccurredOn());
+        }
+    }
+}
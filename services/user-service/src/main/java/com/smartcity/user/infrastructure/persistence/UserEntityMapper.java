@@ -0,0 +1,18 @@
+package com.smartcity.user.infrastructure.persistence;
+
+import com.smartcity.common.sharedkernel.infrastructure.mapping.GenerateMapper;
+import com.smartcity.user.domain.entity.User;
+
+/**
+ * 用户领域实体与JPA实体之间的映射，实现类在编译期生成
+ * 领域实体通过持久化重建构造函数创建，不会触发setter中的领域事件
+ */
+@GenerateMapper
+public interface UserEntityMapper {
+
+    UserEntityMapper INSTANCE = new UserEntityMapperImpl();
+
+    UserJpaEntity toEntity(User user);
+
+    User toDomain(UserJpaEntity entity);
+}
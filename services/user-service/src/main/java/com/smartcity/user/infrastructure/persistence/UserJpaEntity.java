@@ -1,5 +1,6 @@
 package com.smartcity.user.infrastructure.persistence;
 
+import com.smartcity.common.sharedkernel.infrastructure.id.SnowflakeId;
 import com.smartcity.user.domain.entity.User;
 
 import javax.persistence.*;
@@ -10,23 +11,27 @@ import java.time.LocalDateTime;
  * 用于与数据库表进行ORM映射
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_users_username", columnNames = "username"),
+        @UniqueConstraint(name = "uk_users_email", columnNames = "email"),
+        @UniqueConstraint(name = "uk_users_phone", columnNames = "phone")
+})
 public class UserJpaEntity {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
     
-    @Column(nullable = false, unique = true, length = 50)
+    @Column(nullable = false, length = 50)
     private String username;
     
     @Column(nullable = false, length = 100)
     private String password;
     
-    @Column(nullable = false, unique = true, length = 100)
+    @Column(nullable = false, length = 100)
     private String email;
     
-    @Column(nullable = false, unique = true, length = 20)
+    @Column(nullable = false, length = 20)
     private String phone;
     
     @Enumerated(EnumType.STRING)
@@ -75,24 +80,13 @@ public class UserJpaEntity {
      * 从领域实体转换为JPA实体
      */
     public static UserJpaEntity fromDomainEntity(User user) {
-        UserJpaEntity entity = new UserJpaEntity();
-        entity.setId(user.getId());
-        entity.setUsername(user.getUsername());
-        entity.setPassword(user.getPassword());
-        entity.setEmail(user.getEmail());
-        entity.setPhone(user.getPhone());
-        entity.setRole(user.getRole());
-        entity.setStatus(user.getStatus());
-        entity.setCreatedAt(user.getCreatedAt());
-        entity.setUpdatedAt(user.getUpdatedAt());
-        return entity;
+        return UserEntityMapper.INSTANCE.toEntity(user);
     }
     
     /**
      * 从JPA实体转换为领域实体
      */
     public User toDomainEntity() {
-        User user = new User(id, username, password, email, phone, role);
-        return user;
+        return UserEntityMapper.INSTANCE.toDomain(this);
     }
 }
\ No newline at end of file
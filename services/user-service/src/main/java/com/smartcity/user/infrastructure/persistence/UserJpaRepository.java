@@ -1,9 +1,11 @@
 package com.smartcity.user.infrastructure.persistence;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -28,6 +30,11 @@ public interface UserJpaRepository extends JpaRepository<UserJpaEntity, Long> {
      */
     Optional<UserJpaEntity> findByPhone(String phone);
     
+    /**
+     * 键集分页：查找主键大于游标的用户
+     */
+    List<UserJpaEntity> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    
     /**
      * 检查用户名是否已存在
      */
@@ -0,0 +1,279 @@
+package com.smartcity.user.infrastructure.rbac;
+
+import com.smartcity.common.sharedkernel.infrastructure.event.DomainEventSubscriber;
+import com.smartcity.user.domain.entity.User;
+import com.smartcity.user.domain.event.UserDeletedEvent;
+import com.smartcity.user.domain.event.UserEvent;
+import com.smartcity.user.domain.event.UserRegisteredEvent;
+import com.smartcity.user.domain.event.UserRoleChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 权限解析器
+ * 把roles、permissions、role_permissions、user_roles以及users.role加载为快照，判断权限只读当前快照，不访问数据库。
+ * 角色定义（前四张表）的指纹变化时整体重建快照并原子替换；用户的注册、删除和主角色变化只更新该用户的位图：
+ * 本进程内的变更直接按领域事件应用，其他实例的变更由后台按users表的行数和最大更新时间发现后增量拉取
+ */
+@Component
+public class PermissionResolver implements DomainEventSubscriber<UserEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(PermissionResolver.class);
+
+    private static final String FINGERPRINT_SQL = "SELECT CONCAT_WS('|', "
+            + "(SELECT CONCAT(COUNT(*), ':', COALESCE(MAX(update_time), '')) FROM roles), "
+            + "(SELECT CONCAT(COUNT(*), ':', COALESCE(MAX(update_time), '')) FROM permissions), "
+            + "(SELECT CONCAT(COUNT(*), ':', COALESCE(SUM(CRC32(CONCAT(role_id, ':', permission_id))), 0)) FROM role_permissions), "
+            + "(SELECT CONCAT(COUNT(*), ':', COALESCE(SUM(CRC32(CONCAT(user_id, ':', role_id))), 0)) FROM user_roles))";
+
+    private static final String USERS_STATE_SQL = "SELECT COUNT(*) AS total, MAX(updated_at) AS latest FROM users";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long refreshIntervalMillis;
+
+    private final AtomicReference<RbacSnapshot> snapshot = new AtomicReference<>(RbacSnapshot.EMPTY);
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+    private final LongAdder failedReloads = new LongAdder();
+    private final LongAdder userUpdates = new LongAdder();
+    private final LongAdder userSyncs = new LongAdder();
+
+    /**
+     * 已同步到快照的users最大更新时间，只在持有本对象锁时读写
+     */
+    private Timestamp usersWatermark;
+
+    private ScheduledExecutorService scheduler;
+
+    public PermissionResolver(JdbcTemplate jdbcTemplate,
+                              @Value("${user.rbac.refresh-interval-ms:30000}") long refreshIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reload();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "rbac-snapshot-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshIfChanged, refreshIntervalMillis, refreshIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 用户是否拥有指定权限
+     */
+    public boolean hasPermission(Long userId, String permission) {
+        checks.increment();
+        return snapshot.get().userHas(userId, permission);
+    }
+
+    /**
+     * 角色是否拥有指定权限，供只持有令牌中角色信息的调用方使用
+     */
+    public boolean roleHasPermission(String role, String permission) {
+        checks.increment();
+        return snapshot.get().roleHas(role, permission);
+    }
+
+    /**
+     * 用户拥有的全部权限编码
+     */
+    public Set<String> getPermissions(Long userId) {
+        return snapshot.get().userPermissions(userId);
+    }
+
+    @Override
+    public Class<UserEvent> eventType() {
+        return UserEvent.class;
+    }
+
+    /**
+     * 事件在事务提交后投递，直接按事件中的角色更新对应用户的位图；与重建和增量同步互斥，不会被旧快照覆盖
+     */
+    @Override
+    public synchronized void onEvents(List<UserEvent> events) {
+        RbacSnapshot current = snapshot.get();
+        for (UserEvent event : events) {
+            if (event instanceof UserRegisteredEvent registered) {
+                current.putUser(registered.getUserId(), roleName(registered.getRole()));
+            } else if (event instanceof UserRoleChangedEvent roleChanged) {
+                current.putUser(roleChanged.getUserId(), roleName(roleChanged.getRole()));
+            } else if (event instanceof UserDeletedEvent deleted) {
+                current.removeUser(deleted.getUserId());
+            } else {
+                continue;
+            }
+            userUpdates.increment();
+        }
+    }
+
+    private static String roleName(User.UserRole role) {
+        return role == null ? null : role.name();
+    }
+
+    private void refreshIfChanged() {
+        try {
+            String fingerprint = jdbcTemplate.queryForObject(FINGERPRINT_SQL, String.class);
+            if (!fingerprint.equals(snapshot.get().getFingerprint())) {
+                reload();
+            } else {
+                syncUsers();
+            }
+        } catch (RuntimeException e) {
+            failedReloads.increment();
+            logger.warn("检查权限数据变化失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 增量同步其他实例对users的修改：只拉取更新时间不早于上次同步点的行；
+     * 行数仍与快照不一致说明有用户被删除，此时只扫描一遍用户ID移除已不存在的用户
+     */
+    private synchronized void syncUsers() {
+        UsersState state = usersState();
+        long total = state.total();
+        Timestamp latest = state.latest();
+        RbacSnapshot current = snapshot.get();
+        if (total == current.userCount() && Objects.equals(latest, usersWatermark)) {
+            return;
+        }
+        int[] updated = {0};
+        if (latest != null && !latest.equals(usersWatermark)) {
+            String sql = "SELECT id, role FROM users" + (usersWatermark == null ? "" : " WHERE updated_at >= ?");
+            Object[] args = usersWatermark == null ? new Object[0] : new Object[] {usersWatermark};
+            jdbcTemplate.query(sql, rs -> {
+                current.putUser(rs.getLong("id"), rs.getString("role"));
+                updated[0]++;
+            }, args);
+        }
+        int removed = 0;
+        if (total != current.userCount()) {
+            Set<Long> ids = new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM users", Long.class));
+            removed = current.retainUsers(ids);
+        }
+        usersWatermark = latest;
+        userSyncs.increment();
+        logger.debug("权限快照用户已增量同步: updated={}, removed={}", updated[0], removed);
+    }
+
+    /**
+     * 全量加载并原子替换快照，只在角色定义变化和启动时执行；
+     * 指纹和用户同步点在加载前读取，加载期间的变更会在下一轮检查时再次同步
+     */
+    private synchronized void reload() {
+        long start = System.currentTimeMillis();
+        String fingerprint = jdbcTemplate.queryForObject(FINGERPRINT_SQL, String.class);
+        Timestamp watermark = usersState().latest();
+
+        List<String> permissionCodes = new ArrayList<>();
+        Map<Long, Integer> bitByPermissionId = new HashMap<>();
+        jdbcTemplate.query("SELECT id, permission_code FROM permissions ORDER BY id", rs -> {
+            bitByPermissionId.put(rs.getLong("id"), permissionCodes.size());
+            permissionCodes.add(rs.getString("permission_code"));
+        });
+        Map<String, Integer> permissionBits = new HashMap<>(permissionCodes.size() * 2);
+        for (int bit = 0; bit < permissionCodes.size(); bit++) {
+            permissionBits.put(permissionCodes.get(bit), bit);
+        }
+        int words = Math.max(1, (permissionCodes.size() + 63) >>> 6);
+
+        Map<Long, String> roleNames = new HashMap<>();
+        Map<Long, long[]> masksByRoleId = new HashMap<>();
+        jdbcTemplate.query("SELECT id, role_name FROM roles", rs -> {
+            roleNames.put(rs.getLong("id"), rs.getString("role_name"));
+            masksByRoleId.put(rs.getLong("id"), new long[words]);
+        });
+        jdbcTemplate.query("SELECT role_id, permission_id FROM role_permissions", rs -> {
+            long[] mask = masksByRoleId.get(rs.getLong("role_id"));
+            Integer bit = bitByPermissionId.get(rs.getLong("permission_id"));
+            if (mask != null && bit != null) {
+                mask[bit >>> 6] |= 1L << bit;
+            }
+        });
+        Map<String, long[]> roleMasks = new HashMap<>(roleNames.size() * 2);
+        masksByRoleId.forEach((roleId, mask) -> roleMasks.put(roleNames.get(roleId), mask));
+
+        // 用户的主角色来自users.role，附加角色来自user_roles
+        Map<Long, long[]> extraMasks = new HashMap<>();
+        jdbcTemplate.query("SELECT user_id, role_id FROM user_roles", rs -> {
+            long[] mask = masksByRoleId.get(rs.getLong("role_id"));
+            if (mask != null) {
+                extraMasks.merge(rs.getLong("user_id"), mask, RbacSnapshot::union);
+            }
+        });
+        RbacSnapshot loaded = new RbacSnapshot(List.copyOf(permissionCodes), Map.copyOf(permissionBits),
+                Map.copyOf(roleMasks), Map.copyOf(extraMasks), new ConcurrentHashMap<>(), fingerprint,
+                System.currentTimeMillis());
+        jdbcTemplate.query("SELECT id, role FROM users", rs -> {
+            loaded.putUser(rs.getLong("id"), rs.getString("role"));
+        });
+
+        snapshot.set(loaded);
+        usersWatermark = watermark;
+        reloads.increment();
+        logger.info("权限快照已加载: permissions={}, roles={}, users={}, elapsed={}ms", loaded.permissionCount(),
+                loaded.roleCount(), loaded.userCount(), System.currentTimeMillis() - start);
+    }
+
+    private UsersState usersState() {
+        return jdbcTemplate.queryForObject(USERS_STATE_SQL,
+                (rs, rowNum) -> new UsersState(rs.getLong("total"), rs.getTimestamp("latest")));
+    }
+
+    /**
+     * users表的行数和最大更新时间
+     */
+    private record UsersState(long total, Timestamp latest) {
+    }
+
+    /**
+     * 运行指标快照
+     */
+    public Map<String, Object> metrics() {
+        RbacSnapshot current = snapshot.get();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("permissions", current.permissionCount());
+        metrics.put("roles", current.roleCount());
+        metrics.put("users", current.userCount());
+        metrics.put("loadedAt", current.getLoadedAt());
+        metrics.put("checks", checks.sum());
+        metrics.put("reloads", reloads.sum());
+        metrics.put("failedReloads", failedReloads.sum());
+        metrics.put("userUpdates", userUpdates.sum());
+        metrics.put("userSyncs", userSyncs.sum());
+        return metrics;
+    }
+}
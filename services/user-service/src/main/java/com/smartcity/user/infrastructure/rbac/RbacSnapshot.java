@@ -0,0 +1,154 @@
+package com.smartcity.user.infrastructure.rbac;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 角色权限快照
+ * 每个权限编码对应一个位，每个角色和每个用户预先合并为一个位图，判断权限只需两次哈希查找和一次位运算。
+ * 权限、角色和user_roles附加角色不可变，定义变化时整体重建；用户到位图的映射可按用户单独增删，
+ * 用户的注册、删除和主角色变化不需要重建整个快照
+ */
+final class RbacSnapshot {
+
+    static final RbacSnapshot EMPTY = new RbacSnapshot(List.of(), Map.of(), Map.of(), Map.of(),
+            new ConcurrentHashMap<>(), null, 0L);
+
+    /**
+     * 没有任何权限的用户共用的位图
+     */
+    private static final long[] NO_PERMISSIONS = new long[0];
+
+    /**
+     * 下标即权限位
+     */
+    private final List<String> permissionCodes;
+    private final Map<String, Integer> permissionBits;
+    private final Map<String, long[]> roleMasks;
+    /**
+     * user_roles中的附加角色合并后的位图，只含有附加角色的用户
+     */
+    private final Map<Long, long[]> extraMasks;
+    /**
+     * 每个用户一项，包括没有任何权限的用户，便于和users表的行数比对
+     */
+    private final ConcurrentMap<Long, long[]> userMasks;
+    private final String fingerprint;
+    private final long loadedAt;
+
+    RbacSnapshot(List<String> permissionCodes, Map<String, Integer> permissionBits, Map<String, long[]> roleMasks,
+                 Map<Long, long[]> extraMasks, ConcurrentMap<Long, long[]> userMasks, String fingerprint,
+                 long loadedAt) {
+        this.permissionCodes = permissionCodes;
+        this.permissionBits = permissionBits;
+        this.roleMasks = roleMasks;
+        this.extraMasks = extraMasks;
+        this.userMasks = userMasks;
+        this.fingerprint = fingerprint;
+        this.loadedAt = loadedAt;
+    }
+
+    /**
+     * 按主角色和附加角色重新计算单个用户的位图
+     */
+    void putUser(Long userId, String role) {
+        long[] mask = union(role == null ? null : roleMasks.get(role), extraMasks.get(userId));
+        userMasks.put(userId, mask == null ? NO_PERMISSIONS : mask);
+    }
+
+    void removeUser(Long userId) {
+        userMasks.remove(userId);
+    }
+
+    /**
+     * 移除不在给定集合中的用户，用于发现其他实例删除的用户
+     */
+    int retainUsers(Set<Long> userIds) {
+        int before = userMasks.size();
+        userMasks.keySet().retainAll(userIds);
+        return before - userMasks.size();
+    }
+
+    boolean userHas(Long userId, String permission) {
+        return test(userId == null ? null : userMasks.get(userId), permission);
+    }
+
+    boolean roleHas(String role, String permission) {
+        return test(role == null ? null : roleMasks.get(role), permission);
+    }
+
+    Set<String> userPermissions(Long userId) {
+        long[] mask = userId == null ? null : userMasks.get(userId);
+        if (mask == null) {
+            return Collections.emptySet();
+        }
+        Set<String> codes = new LinkedHashSet<>();
+        for (int word = 0; word < mask.length; word++) {
+            long bits = mask[word];
+            while (bits != 0) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                codes.add(permissionCodes.get(word * 64 + bit));
+                bits &= bits - 1;
+            }
+        }
+        return codes;
+    }
+
+    private boolean test(long[] mask, String permission) {
+        if (mask == null || permission == null) {
+            return false;
+        }
+        Integer bit = permissionBits.get(permission);
+        if (bit == null) {
+            return false;
+        }
+        int word = bit >>> 6;
+        return word < mask.length && (mask[word] & (1L << bit)) != 0;
+    }
+
+    String getFingerprint() {
+        return fingerprint;
+    }
+
+    long getLoadedAt() {
+        return loadedAt;
+    }
+
+    int permissionCount() {
+        return permissionCodes.size();
+    }
+
+    int roleCount() {
+        return roleMasks.size();
+    }
+
+    int userCount() {
+        return userMasks.size();
+    }
+
+    /**
+     * 合并多个位图；结果与已有位图相同时复用同一个数组，大多数用户只有一个角色，不会为每个用户各存一份
+     */
+    static long[] union(long[] a, long[] b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        long[] merged = Arrays.copyOf(a, Math.max(a.length, b.length));
+        for (int i = 0; i < b.length; i++) {
+            merged[i] |= b[i];
+        }
+        if (Arrays.equals(merged, a)) {
+            return a;
+        }
+        return Arrays.equals(merged, b) ? b : merged;
+    }
+}
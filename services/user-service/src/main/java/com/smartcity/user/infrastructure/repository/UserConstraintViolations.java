@@ -0,0 +1,52 @@
+package com.smartcity.user.infrastructure.repository;
+
+import com.smartcity.common.sharedkernel.domain.exception.DomainException;
+import com.smartcity.user.domain.exception.DuplicateUserException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 把users表唯一约束冲突翻译为领域异常
+ * 按MySQL错误信息中的索引名识别字段，兼容命名索引uk_users_xxx和列级UNIQUE生成的同名索引
+ */
+final class UserConstraintViolations {
+    
+    private static final Pattern DUPLICATE_KEY = Pattern.compile("Duplicate entry '.*' for key '([^']+)'");
+    
+    private UserConstraintViolations() {
+    }
+    
+    static DomainException translate(DataIntegrityViolationException e) {
+        DuplicateUserException.Field field = duplicateField(e);
+        if (field != null) {
+            return new DuplicateUserException(field, e);
+        }
+        return new DomainException("用户数据违反约束", "USER_CONSTRAINT_VIOLATION", e);
+    }
+    
+    private static DuplicateUserException.Field duplicateField(Throwable e) {
+        for (Throwable current = e; current != null; current = current.getCause()) {
+            String message = current.getMessage();
+            if (message == null) {
+                continue;
+            }
+            Matcher matcher = DUPLICATE_KEY.matcher(message);
+            if (!matcher.find()) {
+                continue;
+            }
+            String key = matcher.group(1).toLowerCase(Locale.ROOT);
+            // MySQL 8的索引名带表名前缀，如users.uk_users_email
+            key = key.substring(key.lastIndexOf('.') + 1);
+            for (DuplicateUserException.Field field : DuplicateUserException.Field.values()) {
+                if (key.equals(field.getProperty()) || key.endsWith("_" + field.getProperty())) {
+                    return field;
+                }
+            }
+            return null;
+        }
+        return null;
+    }
+}
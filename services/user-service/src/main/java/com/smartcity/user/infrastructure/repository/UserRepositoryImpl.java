@@ -1,13 +1,43 @@
 package com.smartcity.user.infrastructure.repository;
 
+import com.smartcity.common.PageRequest;
+import com.smartcity.common.PageResult;
+import com.smartcity.common.sharedkernel.domain.model.DomainEvent;
+import com.smartcity.common.sharedkernel.infrastructure.config.DddConfiguration.DomainEventPublisher;
+import com.smartcity.common.sharedkernel.infrastructure.id.SnowflakeIds;
+import com.smartcity.common.sharedkernel.infrastructure.outbox.OutboxWriter;
 import com.smartcity.user.domain.entity.User;
+import com.smartcity.user.domain.event.UserDeletedEvent;
+import com.smartcity.user.domain.event.UserRegisteredEvent;
+import com.smartcity.user.domain.exception.DuplicateUserException;
+import com.smartcity.user.domain.model.UserCredentialCache;
+import com.smartcity.user.domain.model.UserInsertResult;
+import com.smartcity.user.domain.model.UserRegistration;
 import com.smartcity.user.domain.model.UserRepository;
 import com.smartcity.user.infrastructure.persistence.UserJpaEntity;
 import com.smartcity.user.infrastructure.persistence.UserJpaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * 用户仓储实现类
@@ -16,18 +46,56 @@ import java.util.Optional;
 @Repository
 public class UserRepositoryImpl implements UserRepository {
     
+    private static final String AGGREGATE_TYPE = "User";
+    
+    private static final String INSERT_PREFIX = "INSERT INTO users "
+            + "(id, username, password, email, phone, role, status, created_at, updated_at) VALUES ";
+    private static final String INSERT_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
     private final UserJpaRepository userJpaRepository;
+    private final DomainEventPublisher domainEventPublisher;
+    private final OutboxWriter outboxWriter;
+    private final UserCredentialCache userAuthCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int importChunkSize;
     
     @Autowired
-    public UserRepositoryImpl(UserJpaRepository userJpaRepository) {
+    public UserRepositoryImpl(UserJpaRepository userJpaRepository, DomainEventPublisher domainEventPublisher,
+                              OutboxWriter outboxWriter, UserCredentialCache userAuthCache,
+                              JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              @Value("${user.import.chunk-size:500}") int importChunkSize) {
         this.userJpaRepository = userJpaRepository;
+        this.domainEventPublisher = domainEventPublisher;
+        this.outboxWriter = outboxWriter;
+        this.userAuthCache = userAuthCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.importChunkSize = importChunkSize;
     }
     
     @Override
+    @Transactional
     public User save(User user) {
         UserJpaEntity entity = UserJpaEntity.fromDomainEntity(user);
-        UserJpaEntity savedEntity = userJpaRepository.save(entity);
-        return savedEntity.toDomainEntity();
+        UserJpaEntity savedEntity;
+        try {
+            // 立即flush，让唯一约束冲突在这里抛出并翻译，而不是推迟到提交时
+            savedEntity = userJpaRepository.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException e) {
+            throw UserConstraintViolations.translate(e);
+        }
+        User saved = savedEntity.toDomainEntity();
+        // 密码、状态和角色的修改都经过这里，统一失效认证缓存
+        userAuthCache.evict(saved.getUsername());
+        // 事件与用户在同一事务中写入outbox；新用户在保存后才有ID，此时补一条注册事件
+        List<DomainEvent> events = new ArrayList<>(user.pullDomainEvents());
+        if (user.getId() == null) {
+            events.add(new UserRegisteredEvent(saved.getId(), saved.getUsername(), saved.getRole()));
+        }
+        outboxWriter.append(AGGREGATE_TYPE, saved.getId(), events);
+        events.forEach(domainEventPublisher::publish);
+        return saved;
     }
     
     @Override
@@ -39,11 +107,17 @@ public class UserRepositoryImpl implements UserRepository {
     public void delete(User user) {
         UserJpaEntity entity = UserJpaEntity.fromDomainEntity(user);
         userJpaRepository.delete(entity);
+        userAuthCache.evict(user.getUsername());
     }
     
     @Override
+    @Transactional
     public void deleteById(Long id) {
+        userJpaRepository.findById(id).ifPresent(entity -> userAuthCache.evict(entity.getUsername()));
         userJpaRepository.deleteById(id);
+        UserDeletedEvent event = new UserDeletedEvent(id);
+        outboxWriter.append(AGGREGATE_TYPE, id, List.of(event));
+        domainEventPublisher.publish(event);
     }
     
     public boolean existsById(Long id) {
@@ -52,8 +126,16 @@ public class UserRepositoryImpl implements UserRepository {
     
     @Override
     public Optional<User> findByUsername(String username) {
-        return userJpaRepository.findByUsername(username)
+        // 登录路径先查认证缓存，未命中时读库并回填
+        Optional<User> cached = userAuthCache.get(username);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        long stamp = userAuthCache.stamp();
+        Optional<User> loaded = userJpaRepository.findByUsername(username)
                 .map(UserJpaEntity::toDomainEntity);
+        loaded.ifPresent(user -> userAuthCache.put(user, stamp));
+        return loaded;
     }
     
     @Override
@@ -68,6 +150,26 @@ public class UserRepositoryImpl implements UserRepository {
                 .map(UserJpaEntity::toDomainEntity);
     }
     
+    @Override
+    public PageResult<User> findPage(PageRequest pageRequest) {
+        int pageSize = pageRequest.getPageSize();
+        if (pageRequest.isCursorMode()) {
+            List<User> fetched = userJpaRepository
+                    .findByIdGreaterThanOrderByIdAsc(pageRequest.getCursor(), Limit.of(pageSize + 1))
+                    .stream()
+                    .map(UserJpaEntity::toDomainEntity)
+                    .collect(Collectors.toList());
+            return PageResult.ofCursor(pageSize, fetched, User::getId);
+        }
+        Page<UserJpaEntity> page = userJpaRepository.findAll(org.springframework.data.domain.PageRequest.of(
+                pageRequest.getPageNum() - 1, pageSize, Sort.by(Sort.Direction.ASC, "id")));
+        List<User> list = page.getContent()
+                .stream()
+                .map(UserJpaEntity::toDomainEntity)
+                .collect(Collectors.toList());
+        return PageResult.of(page.getTotalElements(), pageRequest.getPageNum(), pageSize, list);
+    }
+    
     @Override
     public boolean existsByUsername(String username) {
         return userJpaRepository.existsByUsername(username);
@@ -82,4 +184,199 @@ public class UserRepositoryImpl implements UserRepository {
     public boolean existsByPhone(String phone) {
         return userJpaRepository.existsByPhone(phone);
     }
-}
\ No newline at end of file
+    
+    @Override
+    public List<UserInsertResult> insertAll(List<User> users) {
+        List<UserInsertResult> results = new ArrayList<>(Collections.nCopies(users.size(), null));
+        UniqueValues seen = new UniqueValues();
+        for (int from = 0; from < users.size(); from += importChunkSize) {
+            int to = Math.min(from + importChunkSize, users.size());
+            insertChunk(users, from, to, seen, results);
+        }
+        return results;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<DuplicateUserException.Field> findConflicts(List<UserRegistration> registrations) {
+        List<DuplicateUserException.Field> conflicts = new ArrayList<>(Collections.nCopies(registrations.size(), null));
+        UniqueValues seen = new UniqueValues();
+        for (int from = 0; from < registrations.size(); from += importChunkSize) {
+            int to = Math.min(from + importChunkSize, registrations.size());
+            List<UserRegistration> chunk = registrations.subList(from, to);
+            UniqueValues existing = findExisting(chunk.stream().map(UserRegistration::username).toList(),
+                    chunk.stream().map(UserRegistration::email).toList(),
+                    chunk.stream().map(UserRegistration::phone).toList());
+            for (int i = from; i < to; i++) {
+                UserRegistration registration = registrations.get(i);
+                DuplicateUserException.Field conflict = existing.conflict(registration.username(),
+                        registration.email(), registration.phone());
+                if (conflict == null) {
+                    conflict = seen.conflict(registration.username(), registration.email(), registration.phone());
+                }
+                if (conflict == null) {
+                    seen.add(registration.username(), registration.email(), registration.phone());
+                } else {
+                    conflicts.set(i, conflict);
+                }
+            }
+        }
+        return conflicts;
+    }
+    
+    /**
+     * 插入一块用户：先用一次查询排除已存在和本批内重复的行，再用一条多行INSERT写入其余行；
+     * 预检查之后若有并发写入导致整块失败，则逐行重试以定位冲突的行
+     */
+    private void insertChunk(List<User> users, int from, int to, UniqueValues seen, List<UserInsertResult> results) {
+        UniqueValues existing = findExisting(users.subList(from, to));
+        List<Integer> candidates = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            User user = users.get(i);
+            DuplicateUserException.Field conflict = existing.conflict(user);
+            if (conflict == null) {
+                conflict = seen.conflict(user);
+            }
+            if (conflict != null) {
+                results.set(i, UserInsertResult.failed(new DuplicateUserException(conflict)));
+                continue;
+            }
+            seen.add(user);
+            candidates.add(i);
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+        try {
+            List<User> saved = transactionTemplate.execute(status -> insertRows(users, candidates));
+            for (int i = 0; i < candidates.size(); i++) {
+                results.set(candidates.get(i), UserInsertResult.created(saved.get(i)));
+            }
+        } catch (DataIntegrityViolationException e) {
+            for (Integer index : candidates) {
+                try {
+                    List<User> saved = transactionTemplate.execute(status -> insertRows(users, List.of(index)));
+                    results.set(index, UserInsertResult.created(saved.get(0)));
+                } catch (DataIntegrityViolationException rowError) {
+                    results.set(index, UserInsertResult.failed(UserConstraintViolations.translate(rowError)));
+                }
+            }
+        }
+    }
+    
+    /**
+     * 在当前事务中插入指定的行，并把注册事件写入outbox；主键在插入前由雪花ID生成，无需回查
+     */
+    private List<User> insertRows(List<User> users, List<Integer> indexes) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + indexes.size() * (INSERT_ROW.length() + 2));
+        sql.append(INSERT_PREFIX);
+        List<Object> args = new ArrayList<>(indexes.size() * 9);
+        List<User> saved = new ArrayList<>(indexes.size());
+        for (int i = 0; i < indexes.size(); i++) {
+            User user = users.get(indexes.get(i));
+            User created = new User(SnowflakeIds.nextId(), user.getUsername(), user.getPassword(),
+                    user.getEmail(), user.getPhone(), user.getRole(), user.getStatus(),
+                    user.getCreatedAt(), user.getUpdatedAt());
+            sql.append(i == 0 ? "" : ", ").append(INSERT_ROW);
+            args.add(created.getId());
+            args.add(created.getUsername());
+            args.add(created.getPassword());
+            args.add(created.getEmail());
+            args.add(created.getPhone());
+            args.add(created.getRole().name());
+            args.add(created.getStatus().name());
+            args.add(Timestamp.valueOf(created.getCreatedAt()));
+            args.add(Timestamp.valueOf(created.getUpdatedAt()));
+            saved.add(created);
+        }
+        jdbcTemplate.update(sql.toString(), args.toArray());
+        
+        List<OutboxWriter.Entry> outboxEntries = new ArrayList<>(saved.size());
+        for (User created : saved) {
+            outboxEntries.add(new OutboxWriter.Entry(AGGREGATE_TYPE, created.getId(),
+                    new UserRegisteredEvent(created.getId(), created.getUsername(), created.getRole())));
+        }
+        outboxWriter.appendAll(outboxEntries);
+        outboxEntries.forEach(entry -> domainEventPublisher.publish(entry.event()));
+        return saved;
+    }
+    
+    /**
+     * 一次查询取出与这批用户的用户名、邮箱或手机号相同的已有用户
+     */
+    private UniqueValues findExisting(List<User> users) {
+        return findExisting(users.stream().map(User::getUsername).toList(),
+                users.stream().map(User::getEmail).toList(),
+                users.stream().map(User::getPhone).toList());
+    }
+    
+    private UniqueValues findExisting(List<String> usernames, List<String> emails, List<String> phones) {
+        List<Object> args = new ArrayList<>(usernames.size() * 3);
+        args.addAll(usernames);
+        args.addAll(emails);
+        args.addAll(phones);
+        String in = placeholders(usernames.size());
+        UniqueValues existing = new UniqueValues();
+        jdbcTemplate.query("SELECT username, email, phone FROM users WHERE username IN (" + in + ") "
+                        + "OR email IN (" + in + ") OR phone IN (" + in + ")",
+                rs -> {
+                    existing.add(rs.getString("username"), rs.getString("email"), rs.getString("phone"));
+                }, args.toArray());
+        return existing;
+    }
+    
+    private static String placeholders(int count) {
+        String[] marks = new String[count];
+        Arrays.fill(marks, "?");
+        return String.join(", ", marks);
+    }
+    
+    /**
+     * 唯一字段按数据库排序规则比较，忽略大小写
+     */
+    private static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * 用户名、邮箱和手机号的集合，用于判断唯一约束冲突
+     */
+    private static final class UniqueValues {
+        private final Set<String> usernames = new HashSet<>();
+        private final Set<String> emails = new HashSet<>();
+        private final Set<String> phones = new HashSet<>();
+        
+        void add(User user) {
+            add(user.getUsername(), user.getEmail(), user.getPhone());
+        }
+        
+        void add(String username, String email, String phone) {
+            if (username != null) {
+                usernames.add(normalize(username));
+            }
+            if (email != null) {
+                emails.add(normalize(email));
+            }
+            if (phone != null) {
+                phones.add(normalize(phone));
+            }
+        }
+        
+        DuplicateUserException.Field conflict(User user) {
+            return conflict(user.getUsername(), user.getEmail(), user.getPhone());
+        }
+        
+        DuplicateUserException.Field conflict(String username, String email, String phone) {
+            if (username != null && usernames.contains(normalize(username))) {
+                return DuplicateUserException.Field.USERNAME;
+            }
+            if (email != null && emails.contains(normalize(email))) {
+                return DuplicateUserException.Field.EMAIL;
+            }
+            if (phone != null && phones.contains(normalize(phone))) {
+                return DuplicateUserException.Field.PHONE;
+            }
+            return null;
+        }
+    }
+}
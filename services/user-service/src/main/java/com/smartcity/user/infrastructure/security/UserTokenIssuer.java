@@ -0,0 +1,83 @@
+package com.smartcity.user.infrastructure.security;
+
+import com.smartcity.common.security.TokenClaims;
+import com.smartcity.common.security.TokenCodec;
+import com.smartcity.common.security.TokenKeySet;
+import com.smartcity.user.domain.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * 用户令牌签发器
+ * 登录成功后签发HS256令牌，网关用同一密钥集在本地校验，无需回调用户服务；
+ * 配置中心轮换密钥后与网关一样重建密钥集，新令牌改用新的签名密钥
+ */
+@Component
+public class UserTokenIssuer {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserTokenIssuer.class);
+
+    private final Environment environment;
+    private final long ttlSeconds;
+
+    /**
+     * 当前密钥集对应的编解码器，配置中心修改密钥后整体替换
+     */
+    private volatile TokenCodec tokenCodec;
+
+    public UserTokenIssuer(Environment environment,
+                           @Value("${smartcity.token.ttl-seconds:7200}") long ttlSeconds) {
+        this.environment = environment;
+        this.ttlSeconds = ttlSeconds;
+        this.tokenCodec = buildCodec();
+    }
+
+    /**
+     * 配置中心修改令牌密钥后重建编解码器，新配置无效时继续使用旧密钥集
+     */
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().noneMatch(key -> key.startsWith("smartcity.token."))) {
+            return;
+        }
+        try {
+            tokenCodec = buildCodec();
+            logger.info("令牌密钥集已更新: {}", tokenCodec.getKeySet().getKids());
+        } catch (IllegalArgumentException e) {
+            logger.error("令牌密钥配置无效，继续使用旧密钥集: {}", e.getMessage());
+        }
+    }
+
+    private TokenCodec buildCodec() {
+        TokenKeySet keySet = TokenKeySet.parse(environment.getProperty("smartcity.token.keys"),
+                environment.getProperty("smartcity.token.active-kid"));
+        long clockSkew = environment.getProperty("smartcity.token.clock-skew-seconds", Long.class, 30L);
+        return new TokenCodec(keySet, clockSkew);
+    }
+
+    /**
+     * 为用户签发令牌
+     */
+    public IssuedToken issue(User user) {
+        long now = System.currentTimeMillis() / 1000;
+        TokenClaims claims = new TokenClaims(user.getId(), user.getUsername(), user.getRole().name(),
+                now, now + ttlSeconds, UUID.randomUUID().toString());
+        return new IssuedToken(tokenCodec.issue(claims), claims.expiresAt());
+    }
+
+    /**
+     * 已签发的令牌
+     *
+     * @param token     令牌
+     * @param expiresAt 过期时间，epoch秒
+     */
+    public record IssuedToken(String token, long expiresAt) {
+    }
+}
@@ -0,0 +1,123 @@
+package com.smartcity.user.interfaces.rest;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 登录审计的客户端地址解析
+ * 只有直连的对端是受信任代理（网关）时才读取X-Forwarded-For，并从右向左跳过受信任代理，
+ * 取第一个不受信任的地址；客户端自己伪造的X-Forwarded-For只会出现在更左侧，不会被采用
+ */
+@Component
+public class ClientIpResolver {
+
+    private final List<Cidr> trustedProxies;
+
+    public ClientIpResolver(@Value("${user.login-audit.trusted-proxies:127.0.0.0/8,::1/128,10.0.0.0/8,"
+            + "172.16.0.0/12,192.168.0.0/16}") List<String> trustedProxies) {
+        List<Cidr> parsed = new ArrayList<>(trustedProxies.size());
+        for (String cidr : trustedProxies) {
+            if (!cidr.isBlank()) {
+                parsed.add(Cidr.parse(cidr.trim()));
+            }
+        }
+        this.trustedProxies = List.copyOf(parsed);
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor == null || forwardedFor.isBlank() || !isTrusted(remoteAddr)) {
+            return remoteAddr;
+        }
+        String[] hops = forwardedFor.split(",");
+        String client = remoteAddr;
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                continue;
+            }
+            client = hop;
+            if (!isTrusted(hop)) {
+                return hop;
+            }
+        }
+        return client;
+    }
+
+    private boolean isTrusted(String address) {
+        byte[] bytes = toBytes(address);
+        if (bytes == null) {
+            return false;
+        }
+        for (Cidr cidr : trustedProxies) {
+            if (cidr.contains(bytes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 只解析IP字面量，避免头部中的主机名触发DNS查询
+     */
+    private static byte[] toBytes(String address) {
+        if (address == null || address.isEmpty()) {
+            return null;
+        }
+        for (int i = 0; i < address.length(); i++) {
+            char c = address.charAt(i);
+            if (Character.digit(c, 16) < 0 && c != '.' && c != ':') {
+                return null;
+            }
+        }
+        try {
+            return InetAddress.getByName(address).getAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 一个CIDR网段
+     */
+    private record Cidr(byte[] network, int prefixLength) {
+
+        static Cidr parse(String cidr) {
+            int slash = cidr.indexOf('/');
+            byte[] network = toBytes(slash < 0 ? cidr : cidr.substring(0, slash));
+            if (network == null) {
+                throw new IllegalArgumentException("无效的受信任代理网段: " + cidr);
+            }
+            int prefixLength = slash < 0 ? network.length * 8 : Integer.parseInt(cidr.substring(slash + 1));
+            if (prefixLength < 0 || prefixLength > network.length * 8) {
+                throw new IllegalArgumentException("无效的受信任代理网段: " + cidr);
+            }
+            return new Cidr(network, prefixLength);
+        }
+
+        boolean contains(byte[] address) {
+            if (address.length != network.length) {
+                return false;
+            }
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (address[i] != network[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefixLength % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = 0xFF << (8 - remainingBits);
+            return (address[fullBytes] & mask) == (network[fullBytes] & mask);
+        }
+    }
+}
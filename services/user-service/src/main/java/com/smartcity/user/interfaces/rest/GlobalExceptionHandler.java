@@ -1,5 +1,8 @@
 package com.smartcity.user.interfaces.rest;
 
+import com.smartcity.common.security.PasswordHashingOverloadedException;
+import com.smartcity.user.domain.exception.DuplicateUserException;
+import com.smartcity.user.domain.exception.UserAccessDeniedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
@@ -41,6 +44,52 @@ public class GlobalExceptionHandler {
         return response;
     }
     
+    /**
+     * 处理用户名、邮箱或手机号重复
+     */
+    @ExceptionHandler(DuplicateUserException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, Object> handleDuplicateUser(DuplicateUserException ex) {
+        Map<String, Object> response = new HashMap<>();
+        
+        response.put("code", HttpStatus.CONFLICT.value());
+        response.put("message", ex.getMessage());
+        response.put("field", ex.getField().getProperty());
+        response.put("timestamp", System.currentTimeMillis());
+        
+        return response;
+    }
+    
+    /**
+     * 处理越权操作
+     */
+    @ExceptionHandler(UserAccessDeniedException.class)
+    @ResponseStatus(HttpStatus.FORBIDDEN)
+    public Map<String, Object> handleAccessDenied(UserAccessDeniedException ex) {
+        Map<String, Object> response = new HashMap<>();
+        
+        response.put("code", HttpStatus.FORBIDDEN.value());
+        response.put("message", ex.getMessage());
+        response.put("timestamp", System.currentTimeMillis());
+        
+        return response;
+    }
+    
+    /**
+     * 处理密码哈希过载，让客户端稍后重试
+     */
+    @ExceptionHandler(PasswordHashingOverloadedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Map<String, Object> handlePasswordHashingOverloaded(PasswordHashingOverloadedException ex) {
+        Map<String, Object> response = new HashMap<>();
+        
+        response.put("code", HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.put("message", ex.getMessage());
+        response.put("timestamp", System.currentTimeMillis());
+        
+        return response;
+    }
+    
     /**
      * 处理通用异常
      */
@@ -1,8 +1,12 @@
 package com.smartcity.user.interfaces.rest;
 
+import com.smartcity.common.PageRequest;
+import com.smartcity.common.PageResult;
 import com.smartcity.user.application.dto.*;
 import com.smartcity.user.application.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -11,8 +15,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
-import javax.validation.Valid;
+import jakarta.validation.Valid;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * 用户REST API控制器
@@ -22,19 +29,48 @@ import javax.validation.Valid;
 @RequestMapping("/api/users")
 public class UserController {
     
+    /**
+     * 网关校验令牌后写入的调用方身份，公开接口上由网关清除客户端自带的值
+     */
+    private static final String USER_ID_HEADER = "X-User-Id";
+    private static final String USER_ROLE_HEADER = "X-User-Role";
+    
     private final UserService userService;
+    private final ClientIpResolver clientIpResolver;
     
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ClientIpResolver clientIpResolver) {
         this.userService = userService;
+        this.clientIpResolver = clientIpResolver;
     }
     
     /**
      * 创建新用户
+     * 公开注册只能创建普通用户，携带管理员令牌时才能指定角色
      */
     @PostMapping
-    public UserResponse createUser(@Valid @RequestBody CreateUserRequest request) {
-        return userService.createUser(request);
+    public UserResponse createUser(@Valid @RequestBody CreateUserRequest request,
+                                   @RequestHeader(value = USER_ROLE_HEADER, required = false) String callerRole) {
+        return userService.createUser(request, callerRole);
+    }
+    
+    /**
+     * 批量创建用户
+     * 单次最多数千行，不合法或冲突的行在响应中逐行报告，其余行照常创建
+     */
+    @PostMapping("/batch")
+    public BatchCreateUsersResponse batchCreateUsers(@RequestBody BatchCreateUsersRequest request,
+                                                     @RequestHeader(value = USER_ROLE_HEADER, required = false) String callerRole) {
+        return userService.batchCreateUsers(request, callerRole);
+    }
+    
+    /**
+     * 分页获取用户列表
+     * 参数pageNum、pageSize按页码分页；带cursor时按主键游标分页
+     */
+    @GetMapping
+    public PageResult<UserResponse> listUsers(PageRequest pageRequest) {
+        return userService.listUsers(pageRequest);
     }
     
     /**
@@ -49,8 +85,9 @@ public class UserController {
      * 更新用户信息
      */
     @PutMapping("/{id}")
-    public UserResponse updateUser(@PathVariable Long id, @Valid @RequestBody UpdateUserRequest request) {
-        return userService.updateUser(id, request);
+    public UserResponse updateUser(@PathVariable Long id, @Valid @RequestBody UpdateUserRequest request,
+                                   @RequestHeader(value = USER_ROLE_HEADER, required = false) String callerRole) {
+        return userService.updateUser(id, request, callerRole);
     }
     
     /**
@@ -65,16 +102,20 @@ public class UserController {
      * 用户登录
      */
     @PostMapping("/login")
-    public LoginResponse login(@Valid @RequestBody LoginRequest request) {
-        return userService.login(request);
+    public LoginResponse login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest,
+                               @RequestHeader(value = HttpHeaders.USER_AGENT, required = false) String userAgent) {
+        return userService.login(request, clientIpResolver.resolve(httpRequest), userAgent);
     }
     
     /**
      * 重置密码
+     * 需要登录，只能重置自己邮箱对应的账户，管理员不受此限制
      */
     @PostMapping("/reset-password")
-    public void resetPassword(@RequestParam String email, @RequestParam String newPassword) {
-        userService.resetPassword(email, newPassword);
+    public void resetPassword(@RequestParam String email, @RequestParam String newPassword,
+                              @RequestHeader(value = USER_ID_HEADER, required = false) Long callerId,
+                              @RequestHeader(value = USER_ROLE_HEADER, required = false) String callerRole) {
+        userService.resetPassword(email, newPassword, callerId, callerRole);
     }
     
     /**
@@ -92,4 +133,52 @@ public class UserController {
     public void enableUser(@PathVariable Long id) {
         userService.enableUser(id);
     }
-}
\ No newline at end of file
+    
+    /**
+     * 判断用户是否拥有指定权限，结果来自内存快照
+     */
+    @GetMapping("/{id}/permissions/{permission}")
+    public Map<String, Object> hasPermission(@PathVariable Long id, @PathVariable String permission) {
+        return Map.of("granted", userService.hasPermission(id, permission));
+    }
+    
+    /**
+     * 获取用户拥有的全部权限编码
+     */
+    @GetMapping("/{id}/permissions")
+    public Set<String> getUserPermissions(@PathVariable Long id) {
+        return userService.getUserPermissions(id);
+    }
+    
+    /**
+     * 获取权限快照的规模和加载指标
+     */
+    @GetMapping("/rbac/metrics")
+    public Map<String, Object> getRbacMetrics() {
+        return userService.getRbacMetrics();
+    }
+    
+    /**
+     * 获取登录认证缓存的命中指标
+     */
+    @GetMapping("/auth-cache/metrics")
+    public Map<String, Object> getAuthCacheMetrics() {
+        return userService.getAuthCacheMetrics();
+    }
+    
+    /**
+     * 获取登录审计写入器的缓冲区、溢出和刷写指标
+     */
+    @GetMapping("/login-audit/metrics")
+    public Map<String, Object> getLoginAuditMetrics() {
+        return userService.getLoginAuditMetrics();
+    }
+    
+    /**
+     * 获取outbox中继的积压和吞吐指标，未开启中继时返回running=false
+     */
+    @GetMapping("/outbox/metrics")
+    public Map<String, Object> getOutboxMetrics() {
+        return userService.getOutboxMetrics();
+    }
+}
@@ -0,0 +1,63 @@
+package com.smartcity.user.application.mapper;
+
+import com.smartcity.user.application.dto.UserResponse;
+import com.smartcity.user.domain.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 生成的映射与此前手写转换逐字段对照
+ */
+class UserResponseMapperTest {
+
+    private final UserResponseMapper mapper = UserResponseMapper.INSTANCE;
+
+    /**
+     * 原UserServiceImpl.convertToResponse
+     */
+    private static UserResponse handWrittenToResponse(User user) {
+        UserResponse response = new UserResponse();
+        response.setId(user.getId());
+        response.setUsername(user.getUsername());
+        response.setEmail(user.getEmail());
+        response.setPhone(user.getPhone());
+        response.setRole(user.getRole().name());
+        response.setStatus(user.getStatus().name());
+        response.setCreatedAt(user.getCreatedAt());
+        response.setUpdatedAt(user.getUpdatedAt());
+        return response;
+    }
+
+    @Test
+    void responseMatchesHandWrittenConversion() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 8, 0);
+        long id = 1;
+        for (User.UserRole role : User.UserRole.values()) {
+            for (User.UserStatus status : User.UserStatus.values()) {
+                User user = new User(id, "user" + id, "hash-" + id, "user" + id + "@example.com",
+                        id % 2 == 0 ? null : "1380000" + id, role, status, createdAt, createdAt.plusMinutes(id));
+                id++;
+
+                UserResponse expected = handWrittenToResponse(user);
+                UserResponse actual = mapper.toResponse(user);
+                assertEquals(expected.getId(), actual.getId());
+                assertEquals(expected.getUsername(), actual.getUsername());
+                assertEquals(expected.getEmail(), actual.getEmail());
+                assertEquals(expected.getPhone(), actual.getPhone());
+                assertEquals(expected.getRole(), actual.getRole());
+                assertEquals(expected.getStatus(), actual.getStatus());
+                assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+                assertEquals(expected.getUpdatedAt(), actual.getUpdatedAt());
+            }
+        }
+    }
+
+    @Test
+    void nullSourceMapsToNull() {
+        assertNull(mapper.toResponse(null));
+    }
+}
@@ -0,0 +1,90 @@
+package com.smartcity.user.infrastructure.cache;
+
+import com.smartcity.user.domain.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 登录查用户路径的延迟分布基准
+ * 模拟交接班时的登录高峰：8个线程按findByUsername的方式先查缓存，未命中时模拟一次数据库往返后回填；
+ * 用户名大小写随机，SampleTime模式输出p99，cacheEnabled=false作为直连数据库的对照；
+ * 只覆盖查用户这一段，不含密码哈希校验
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class UserAuthCacheBenchmark {
+
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+
+    @Param({"5000"})
+    public int users;
+
+    @Param({"1000"})
+    public long dbRoundTripMicros;
+
+    private UserAuthCache cache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cache = new UserAuthCache(15_000, 50_000);
+    }
+
+    @Benchmark
+    public User findByUsername() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String username = "user" + random.nextInt(users);
+        if (random.nextBoolean()) {
+            username = username.toUpperCase(Locale.ROOT);
+        }
+        if (cacheEnabled) {
+            Optional<User> cached = cache.get(username);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
+        long stamp = cache.stamp();
+        User loaded = loadFromDatabase(username);
+        if (cacheEnabled) {
+            cache.put(loaded, stamp);
+        }
+        return loaded;
+    }
+
+    private User loadFromDatabase(String username) {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(dbRoundTripMicros));
+        String stored = username.toLowerCase(Locale.ROOT);
+        return new User((long) stored.hashCode(), stored, "pbkdf2$hash", stored + "@example.com", null,
+                User.UserRole.USER, User.UserStatus.ACTIVE, LocalDateTime.now(), LocalDateTime.now());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UserAuthCacheBenchmark.class.getSimpleName()).build()).run();
+    }
+}
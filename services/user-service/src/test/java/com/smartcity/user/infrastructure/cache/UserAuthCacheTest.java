@@ -0,0 +1,35 @@
+package com.smartcity.user.infrastructure.cache;
+
+import com.smartcity.user.domain.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserAuthCacheTest {
+
+    private static User user(String username) {
+        return new User(1L, username, "hash", "alice@example.com", null, User.UserRole.USER,
+                User.UserStatus.ACTIVE, LocalDateTime.now(), LocalDateTime.now());
+    }
+
+    @Test
+    void lookupIgnoresUsernameCase() {
+        UserAuthCache cache = new UserAuthCache(60_000, 100);
+        cache.put(user("alice"), cache.stamp());
+        assertTrue(cache.get("Alice").isPresent());
+        assertTrue(cache.get("ALICE").isPresent());
+    }
+
+    @Test
+    void evictWithAnotherSpellingRemovesEntry() {
+        UserAuthCache cache = new UserAuthCache(60_000, 100);
+        cache.put(user("Alice"), cache.stamp());
+        cache.evict("alice");
+        assertFalse(cache.get("Alice").isPresent());
+        assertEquals(0, cache.metrics().get("size"));
+    }
+}
@@ -0,0 +1,101 @@
+package com.smartcity.user.infrastructure.persistence;
+
+import com.smartcity.user.domain.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 生成的映射与此前手写转换逐字段对照
+ */
+class UserEntityMapperTest {
+
+    private final UserEntityMapper mapper = UserEntityMapper.INSTANCE;
+
+    /**
+     * 原UserJpaEntity.fromDomainEntity
+     */
+    private static UserJpaEntity handWrittenToEntity(User user) {
+        UserJpaEntity entity = new UserJpaEntity();
+        entity.setId(user.getId());
+        entity.setUsername(user.getUsername());
+        entity.setPassword(user.getPassword());
+        entity.setEmail(user.getEmail());
+        entity.setPhone(user.getPhone());
+        entity.setRole(user.getRole());
+        entity.setStatus(user.getStatus());
+        entity.setCreatedAt(user.getCreatedAt());
+        entity.setUpdatedAt(user.getUpdatedAt());
+        return entity;
+    }
+
+    /**
+     * 原UserJpaEntity.toDomainEntity
+     */
+    private static User handWrittenToDomain(UserJpaEntity entity) {
+        return new User(entity.getId(), entity.getUsername(), entity.getPassword(), entity.getEmail(),
+                entity.getPhone(), entity.getRole(), entity.getStatus(), entity.getCreatedAt(), entity.getUpdatedAt());
+    }
+
+    private static void assertSameUser(User expected, User actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getUsername(), actual.getUsername());
+        assertEquals(expected.getPassword(), actual.getPassword());
+        assertEquals(expected.getEmail(), actual.getEmail());
+        assertEquals(expected.getPhone(), actual.getPhone());
+        assertEquals(expected.getRole(), actual.getRole());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+        assertEquals(expected.getUpdatedAt(), actual.getUpdatedAt());
+    }
+
+    private static void assertSameEntity(UserJpaEntity expected, UserJpaEntity actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getUsername(), actual.getUsername());
+        assertEquals(expected.getPassword(), actual.getPassword());
+        assertEquals(expected.getEmail(), actual.getEmail());
+        assertEquals(expected.getPhone(), actual.getPhone());
+        assertEquals(expected.getRole(), actual.getRole());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+        assertEquals(expected.getUpdatedAt(), actual.getUpdatedAt());
+    }
+
+    @Test
+    void roundTripMatchesHandWrittenConversion() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 8, 0, 0, 123_000_000);
+        long id = 1;
+        for (User.UserRole role : User.UserRole.values()) {
+            for (User.UserStatus status : User.UserStatus.values()) {
+                User user = new User(id, "user" + id, "hash-" + id, "user" + id + "@example.com",
+                        id % 2 == 0 ? null : "1380000" + id, role, status, createdAt, createdAt.plusMinutes(id));
+                id++;
+
+                UserJpaEntity entity = mapper.toEntity(user);
+                assertSameEntity(handWrittenToEntity(user), entity);
+
+                User restored = mapper.toDomain(entity);
+                assertSameUser(handWrittenToDomain(entity), restored);
+                assertSameUser(user, restored);
+            }
+        }
+    }
+
+    @Test
+    void loadedUserHasNoPendingEvents() {
+        LocalDateTime now = LocalDateTime.now();
+        UserJpaEntity entity = handWrittenToEntity(new User(1L, "alice", "hash", "alice@example.com", null,
+                User.UserRole.ADMIN, User.UserStatus.DISABLED, now, now));
+        assertTrue(mapper.toDomain(entity).pullDomainEvents().isEmpty());
+    }
+
+    @Test
+    void nullSourceMapsToNull() {
+        assertNull(mapper.toEntity(null));
+        assertNull(mapper.toDomain(null));
+    }
+}